@@ -0,0 +1,134 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Einfacher Lasttest für den Vergleich von Thread-Pool und virtuellen Threads.
+ * Startet eine feste Anzahl gleichzeitiger Clients, die für die angegebene Dauer Requests senden,
+ * und gibt Durchsatz sowie Latenz-Perzentile aus. Von der Zugangskontrolle abgelehnte Requests (503) werden getrennt gezählt,
+ * sie gehen aber in die Latenzen ein.
+ *
+ * Start (Java 21 Single-File): java scripts/ThreadingLoadTest.java [baseUrl] [clients] [seconds] [heavyShare]
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class ThreadingLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        final String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        final double heavyShare = args.length > 3 ? Double.parseDouble(args[3]) : 0.2;
+
+        final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        final long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final List<Latencies> latencies = new ArrayList<>();
+        final List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < clients; ++i) {
+            final Latencies clientLatencies = new Latencies();
+            latencies.add(clientLatencies);
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < end) {
+                    final long start = System.nanoTime();
+                    try {
+                        final HttpResponse<Void> response = client.send(
+                            HttpRequest.newBuilder(URI.create(baseUrl + query(heavyShare))).GET().build(),
+                            HttpResponse.BodyHandlers.discarding()
+                        );
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        }
+                        else if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    clientLatencies.add(System.nanoTime() - start);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final long total = latencies.stream().mapToLong(values -> values.size).sum();
+        final long[] all = new long[(int) total];
+        int offset = 0;
+        for (Latencies values : latencies) {
+            System.arraycopy(values.values, 0, all, offset, values.size);
+            offset += values.size;
+        }
+        Arrays.sort(all);
+
+        System.out.printf(
+            "requests=%d errors=%d rejected(503)=%d throughput=%.1f req/s%n",
+            total, errors.get(), rejected.get(), (double) total / seconds
+        );
+        System.out.printf(
+            "p50=%.2f ms p90=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms%n",
+            percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 0.999), percentile(all, 1.0)
+        );
+    }
+
+    /**
+     * Ein Anteil der Requests sind lange Darlehen mit zufälligen Parametern (kein Cache-Treffer),
+     * der Rest sind die Standardparameter des Rechners.
+     */
+    private static String query(final double heavyShare) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < heavyShare) {
+            return String.format(
+                Locale.ROOT,
+                "/api/v1/repayment?loanAmount=%d&initialRepayment=1&interestRate=%.2f&fixedInterestPeriod=30",
+                10_000 + random.nextInt(9_990_000),
+                1 + random.nextInt(200) / 100.0
+            );
+        }
+        return "/api/v1/repayment?loanAmount=250000&initialRepayment=2&interestRate=3.6&fixedInterestPeriod=10";
+    }
+
+    private static double percentile(final long[] sorted, final double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * Die Latenzen eines Clients. Wächst mit der Anzahl der Requests, statt für jeden Client
+     * vorab Platz für die maximal denkbare Anzahl zu reservieren.
+     */
+    private static final class Latencies {
+
+        private long[] values = new long[1_024];
+
+        private int size;
+
+        private void add(final long latency) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = latency;
+        }
+
+    }
+
+}
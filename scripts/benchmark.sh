@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+#
+# Führt die JMH Benchmarks aus und vergleicht sie mit einer gespeicherten Baseline.
+#
+# Verwendung:
+#   scripts/benchmark.sh run     [jmh-includes] [jmh-args]   Benchmarks ausführen
+#   scripts/benchmark.sh save    [jmh-includes] [jmh-args]   Benchmarks ausführen und als Baseline speichern
+#   scripts/benchmark.sh compare [jmh-includes] [jmh-args]   Benchmarks ausführen und mit der Baseline vergleichen
+#
+# Umgebungsvariablen:
+#   BASELINE   Pfad der Baseline, Standard: .jmh/baseline.json
+#   THRESHOLD  Erlaubte Verschlechterung in Prozent, Standard: 10
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+COMMAND="${1:-run}"
+INCLUDES="${2:-.*}"
+ARGS="${3:--prof gc}"
+BASELINE="${BASELINE:-.jmh/baseline.json}"
+THRESHOLD="${THRESHOLD:-10}"
+RESULT="target/jmh-result.json"
+
+./mvnw -B -q -Pbenchmark -DskipTests verify "-Djmh.includes=${INCLUDES}" "-Djmh.args=${ARGS}"
+
+case "${COMMAND}" in
+    run)
+        echo "Ergebnis: ${RESULT}"
+        ;;
+    save)
+        mkdir -p "$(dirname "${BASELINE}")"
+        cp "${RESULT}" "${BASELINE}"
+        echo "Baseline gespeichert: ${BASELINE}"
+        ;;
+    compare)
+        python3 scripts/compare-benchmarks.py "${BASELINE}" "${RESULT}" --threshold "${THRESHOLD}"
+        ;;
+    *)
+        echo "Unbekannter Befehl: ${COMMAND}" >&2
+        exit 2
+        ;;
+esac
@@ -0,0 +1,78 @@
+#!/usr/bin/env python3
+"""
+Vergleicht zwei JMH Ergebnisse im JSON Format (-rf json).
+
+Für jeden Benchmark, Modus und Parametersatz werden Score und Allokationsrate
+(gc.alloc.rate.norm, nur mit -prof gc) gegenübergestellt. Der Exit-Code ist 1,
+wenn sich ein Score um mehr als --threshold Prozent verschlechtert hat.
+"""
+
+import argparse
+import json
+import sys
+
+# Bei diesen Modi ist ein höherer Score besser, bei allen anderen ein niedrigerer.
+HIGHER_IS_BETTER = {"thrpt"}
+
+ALLOCATION_METRIC = "gc.alloc.rate.norm"
+
+
+def load(path):
+    with open(path, encoding="utf-8") as file:
+        results = {}
+        for entry in json.load(file):
+            params = ",".join(f"{k}={v}" for k, v in sorted(entry.get("params", {}).items()))
+            key = (entry["benchmark"].rsplit(".", 2)[-2] + "." + entry["benchmark"].rsplit(".", 1)[-1], entry["mode"], params)
+            metric = entry["primaryMetric"]
+            allocation = entry.get("secondaryMetrics", {}).get(ALLOCATION_METRIC, {}).get("score")
+            results[key] = (metric["score"], metric["scoreUnit"], allocation)
+        return results
+
+
+def change(baseline, current, mode):
+    if baseline == 0:
+        return 0.0
+    delta = (current - baseline) / baseline * 100
+    return delta if mode in HIGHER_IS_BETTER else -delta
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__)
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="Erlaubte Verschlechterung in Prozent")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+
+    regressions = 0
+    print(f"{'Benchmark':<55} {'Modus':<6} {'Baseline':>14} {'Aktuell':>14} {'Änderung':>9} {'B/op alt':>10} {'B/op neu':>10}")
+    for key in sorted(current):
+        name, mode, params = key
+        label = f"{name} [{params}]" if params else name
+        score, unit, allocation = current[key]
+        if key not in baseline:
+            print(f"{label:<55} {mode:<6} {'-':>14} {score:>10.3f} {unit:<3} {'neu':>9}")
+            continue
+
+        base_score, _, base_allocation = baseline[key]
+        delta = change(base_score, score, mode)
+        marker = ""
+        if delta < -args.threshold:
+            marker = "  <-- Regression"
+            regressions += 1
+        print(
+            f"{label:<55} {mode:<6} {base_score:>14.3f} {score:>14.3f} {delta:>+8.1f}%"
+            f" {base_allocation if base_allocation is not None else '-':>10.10}"
+            f" {allocation if allocation is not None else '-':>10.10}{marker}"
+        )
+
+    if regressions:
+        print(f"\n{regressions} Regression(en) über {args.threshold} %")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
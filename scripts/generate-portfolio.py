@@ -0,0 +1,19 @@
+#!/usr/bin/env python3
+"""Erzeugt eine Portfolio-CSV mit zufälligen, gültigen Darlehen für POST /api/v1/repayment/portfolio.
+
+Verwendung: scripts/generate-portfolio.py <anzahl> > portfolio.csv
+"""
+import random
+import sys
+
+count = int(sys.argv[1]) if len(sys.argv) > 1 else 1_000_000
+rng = random.Random(42)
+out = sys.stdout
+out.write("loanAmount,initialRepayment,interestRate,fixedInterestPeriod\n")
+for _ in range(count):
+    out.write("%.2f,%.2f,%.2f,%d\n" % (
+        rng.randint(1_000_000, 100_000_000) / 100,
+        rng.randint(100, 500) / 100,
+        rng.randint(100, 800) / 100,
+        rng.choice((5, 10, 15, 20, 25, 30)),
+    ))
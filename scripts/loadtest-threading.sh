@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+#
+# Vergleicht den klassischen Thread-Pool mit virtuellen Threads unter derselben Last.
+# Die Anwendung wird je Modus lokal gestartet, mit scripts/ThreadingLoadTest.java belastet und wieder beendet.
+# Die Zugangskontrolle ist abgeschaltet, sonst würden die geschlossenen Clients vor allem schnelle 503 messen.
+#
+# Verwendung:
+#   scripts/loadtest-threading.sh [clients] [seconds] [heavyShare] [maxInFlight]
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CLIENTS="${1:-200}"
+SECONDS_PER_MODE="${2:-30}"
+HEAVY_SHARE="${3:-0.2}"
+MAX_IN_FLIGHT="${4:-0}"
+PORT="${PORT:-18080}"
+
+./mvnw -B -q -DskipTests package
+JAR="$(ls target/repayment-*.jar | grep -v '\.original$' | head -n 1)"
+
+for VIRTUAL in false true; do
+    echo "=== spring.threads.virtual.enabled=${VIRTUAL}, repayment.concurrency.max-in-flight=${MAX_IN_FLIGHT}"
+    java -jar "${JAR}" \
+        --server.port="${PORT}" \
+        --spring.threads.virtual.enabled="${VIRTUAL}" \
+        --repayment.concurrency.max-in-flight="${MAX_IN_FLIGHT}" \
+        --repayment.admission.enabled=false \
+        --logging.level.root=WARN > "target/loadtest-threading-${VIRTUAL}.log" 2>&1 &
+    APP_PID=$!
+    trap 'kill ${APP_PID} 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:${PORT}/actuator/health" > /dev/null; do
+        sleep 0.5
+    done
+
+    # Kurzes Aufwärmen, damit der JIT beide Modi gleich behandelt.
+    java scripts/ThreadingLoadTest.java "http://localhost:${PORT}" "${CLIENTS}" 5 "${HEAVY_SHARE}" > /dev/null
+    java scripts/ThreadingLoadTest.java "http://localhost:${PORT}" "${CLIENTS}" "${SECONDS_PER_MODE}" "${HEAVY_SHARE}"
+
+    kill "${APP_PID}"
+    wait "${APP_PID}" 2>/dev/null || true
+    trap - EXIT
+done
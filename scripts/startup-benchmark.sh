@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+#
+# Vergleicht Startzeit und Speicherbedarf der Startvarianten:
+#   jar     Das Jar wie gebaut
+#   aot     Das Jar mit den Initialisierungen aus Spring AOT
+#   cds     Das entpackte Jar mit Spring AOT und dem CDS-Archiv aus dem Trainingslauf
+#   native  Das Native Image, nur wenn target/repayment mit -Pnative gebaut wurde
+# Gemessen wird die Zeit vom Prozessstart bis zur ersten erfolgreichen Antwort von GET /api/v1/repayment
+# und das RSS des Prozesses zu diesem Zeitpunkt, jeweils als Mittelwert über mehrere Starts.
+#
+# Verwendung:
+#   scripts/startup-benchmark.sh [runs]
+#   SKIP_BUILD=true scripts/startup-benchmark.sh   ohne erneuten Build mit -Paot-cds
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+JVM_ARGS="${JVM_ARGS:---add-modules jdk.incubator.vector}"
+URL="http://localhost:${PORT}/api/v1/repayment?loanAmount=250000&initialRepayment=2&interestRate=3.6&fixedInterestPeriod=10"
+
+if [[ "${SKIP_BUILD:-false}" != "true" ]]; then
+    ./mvnw -B -q -Paot-cds -DskipTests package
+fi
+JAR="$(ls target/repayment-*.jar | grep -v '\.original$' | head -n 1)"
+CDS_JAR="target/cds/$(basename "${JAR}")"
+
+# Startet einen Modus, wartet auf die erste Antwort und gibt "Millisekunden KiB" aus.
+measure() {
+    local start pid elapsed rss
+    start=$(date +%s%N)
+    "$@" --server.port="${PORT}" --logging.level.root=WARN > target/startup-benchmark.log 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "${URL}"; do
+        if ! kill -0 "${pid}" 2>/dev/null; then
+            echo "application exited, see target/startup-benchmark.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss=$(awk '/^VmRSS:/ { print $2 }' "/proc/${pid}/status")
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    echo "${elapsed} ${rss}"
+}
+
+run() {
+    local mode="$1"
+    shift
+    local total_ms=0 total_rss=0 result
+    for _ in $(seq 1 "${RUNS}"); do
+        result=$(measure "$@")
+        total_ms=$(( total_ms + ${result% *} ))
+        total_rss=$(( total_rss + ${result#* } ))
+    done
+    printf "%-8s %8d ms %8d MiB\n" "${mode}" $(( total_ms / RUNS )) $(( total_rss / RUNS / 1024 ))
+}
+
+printf "%-8s %11s %12s\n" "mode" "first 200" "RSS"
+# shellcheck disable=SC2086
+run jar java ${JVM_ARGS} -jar "${JAR}"
+# shellcheck disable=SC2086
+run aot java ${JVM_ARGS} -Dspring.aot.enabled=true -jar "${JAR}"
+# shellcheck disable=SC2086
+run cds java ${JVM_ARGS} -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true -jar "${CDS_JAR}"
+if [[ -x target/repayment ]]; then
+    run native target/repayment
+fi
@@ -0,0 +1,43 @@
+package com.onordhusen.repayment.benchmarks;
+
+import com.onordhusen.repayment.utils.CentUtils;
+import com.onordhusen.repayment.utils.DoubleUtils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Rundung von Beträgen, die in der Monatsschleife mehrfach je Monat aufgerufen wird.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DoubleUtilsBenchmark {
+
+    // Nicht final, damit der JIT den Wert nicht als Konstante faltet.
+    private double value = 1234.5678901;
+
+    @Benchmark
+    public double round() {
+        return DoubleUtils.round(value, 2);
+    }
+
+    @Benchmark
+    public double roundPrice() {
+        return DoubleUtils.roundPrice(value);
+    }
+
+    @Benchmark
+    public long toCents() {
+        return CentUtils.toCents(value);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.onordhusen.repayment.benchmarks;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.RepaymentServiceFixedPointImpl;
+import com.onordhusen.repayment.services.RepaymentServiceMetricsDecorator;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst den Mehraufwand der Metriken je Berechnung.
+ * Verglichen wird die Festkomma-Engine mit und ohne RepaymentServiceMetricsDecorator an einer Prometheus-Registry.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    @Param({"SHORT", "TYPICAL"})
+    public RepaymentScenario scenario;
+
+    private RepaymentParametersDto parameters;
+
+    private RepaymentService plain;
+
+    private RepaymentService instrumented;
+
+    @Setup
+    public void setup() {
+        parameters = scenario.getParameters();
+        plain = new RepaymentServiceFixedPointImpl(new RepaymentServiceDefaultImpl());
+        instrumented = new RepaymentServiceMetricsDecorator(plain, new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    }
+
+    @Benchmark
+    public RepaymentDto plain() {
+        return calculate(plain);
+    }
+
+    @Benchmark
+    public RepaymentDto instrumented() {
+        return calculate(instrumented);
+    }
+
+    private RepaymentDto calculate(final RepaymentService repaymentService) {
+        return repaymentService.calculate(
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod()
+        );
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.onordhusen.repayment.benchmarks;
+
+import com.onordhusen.repayment.services.calculation.RepaymentBatch;
+import com.onordhusen.repayment.services.calculation.RepaymentBatchCalculator;
+import com.onordhusen.repayment.services.calculation.RepaymentPortfolioCalculator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Berechnung eines Portfolio-Blocks skalar und mit der Vector API.
+ * Die Darlehen sind zufällig über den gültigen Wertebereich verteilt.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepaymentBatchBenchmark {
+
+    private RepaymentBatch batch;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        batch = new RepaymentBatch(RepaymentPortfolioCalculator.CHUNK_SIZE);
+        for (int i = 0; i < RepaymentPortfolioCalculator.CHUNK_SIZE; ++i) {
+            batch.add(
+                (10_000_00 + random.nextLong(990_000_00)) / 100.0,
+                (100 + random.nextInt(500)) / 100.0,
+                (100 + random.nextInt(700)) / 100.0,
+                1 + random.nextInt(30)
+            );
+        }
+    }
+
+    @Benchmark
+    public RepaymentBatch scalar() {
+        RepaymentBatchCalculator.calculateScalar(batch);
+        return batch;
+    }
+
+    @Benchmark
+    public RepaymentBatch vector() {
+        RepaymentBatchCalculator.calculate(batch);
+        return batch;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.onordhusen.repayment.benchmarks;
+
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+
+/**
+ * Realistische Eingabebereiche für die Benchmarks.
+ * Von kurzen Darlehen mit hoher Tilgung bis zu langen Darlehen mit minimaler Tilgung am Maximalbetrag.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public enum RepaymentScenario {
+
+    /**
+     * Kurze Laufzeit: 15 % Tilgung, ca. 6 Jahre.
+     */
+    SHORT(new RepaymentParametersDto(100_000, VALIDATION_MAX_INITIAL_REPAYMENT, 5, 5)),
+
+    /**
+     * Typische Baufinanzierung: 2 % Tilgung, ca. 29 Jahre.
+     */
+    TYPICAL(new RepaymentParametersDto(250_000, 2, 3.6, 10)),
+
+    /**
+     * Längste Laufzeit: 1 % Tilgung bei 1 % Zins am Maximalbetrag, ca. 70 Jahre.
+     */
+    LONG(new RepaymentParametersDto(
+        VALIDATION_MAX_LOAN_AMOUNT,
+        VALIDATION_MIN_INITIAL_REPAYMENT,
+        VALIDATION_MIN_INTEREST_RATE,
+        (int) VALIDATION_MAX_FIXED_INTEREST_PERIOD
+    ));
+
+    private final RepaymentParametersDto parameters;
+
+    RepaymentScenario(final RepaymentParametersDto parameters) {
+        this.parameters = parameters;
+    }
+
+    public RepaymentParametersDto getParameters() {
+        return parameters;
+    }
+
+}
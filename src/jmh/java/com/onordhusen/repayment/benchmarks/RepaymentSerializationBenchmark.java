@@ -0,0 +1,79 @@
+package com.onordhusen.repayment.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.onordhusen.repayment.converters.RepaymentJsonHttpMessageConverter;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die JSON-Serialisierung eines vollständigen RepaymentDto.
+ * Der ObjectMapper wird mit denselben Voreinstellungen wie in Spring MVC gebaut.
+ * Die Stream-Varianten schreiben wie in der Antwort in einen Stream, der wiederverwendet wird.
+ * So zeigt {@code -prof gc} nur die Allokation der Serialisierung selbst.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepaymentSerializationBenchmark {
+
+    @Param
+    public RepaymentScenario scenario;
+
+    private RepaymentDto repayment;
+
+    private ObjectWriter writer;
+
+    private RepaymentJsonHttpMessageConverter converter;
+
+    private ByteArrayOutputStream outputStream;
+
+    @Setup
+    public void setup() {
+        final RepaymentParametersDto parameters = scenario.getParameters();
+        repayment = new RepaymentServiceDefaultImpl().calculate(
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod()
+        );
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(RepaymentDto.class);
+        converter = new RepaymentJsonHttpMessageConverter();
+        outputStream = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    @Benchmark
+    public byte[] jackson() throws JsonProcessingException {
+        return writer.writeValueAsBytes(repayment);
+    }
+
+    @Benchmark
+    public int jacksonStream() throws IOException {
+        outputStream.reset();
+        writer.writeValue(outputStream, repayment);
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public int handWrittenStream() throws IOException {
+        outputStream.reset();
+        converter.write(repayment, outputStream);
+        return outputStream.size();
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.onordhusen.repayment.benchmarks;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.RepaymentServiceFixedPointImpl;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@code RepaymentService.calculate} beider Engines über die Szenarien.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepaymentServiceBenchmark {
+
+    @Param
+    public RepaymentScenario scenario;
+
+    private RepaymentParametersDto parameters;
+
+    private RepaymentServiceDefaultImpl defaultImpl;
+
+    private RepaymentServiceFixedPointImpl fixedPointImpl;
+
+    @Setup
+    public void setup() {
+        parameters = scenario.getParameters();
+        defaultImpl = new RepaymentServiceDefaultImpl();
+        fixedPointImpl = new RepaymentServiceFixedPointImpl(defaultImpl);
+    }
+
+    @Benchmark
+    public RepaymentDto calculateDefault() {
+        return defaultImpl.calculate(
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod()
+        );
+    }
+
+    @Benchmark
+    public RepaymentDto calculateFixedPoint() {
+        return fixedPointImpl.calculate(
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod()
+        );
+    }
+
+    @Benchmark
+    public RepaymentSummaryDto calculateSummary() {
+        return fixedPointImpl.calculateSummary(
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod()
+        );
+    }
+
+    /**
+     * Eine Seite von fünf Jahren ab dem elften Jahr.
+     */
+    @Benchmark
+    public RepaymentDto calculateYears() {
+        return fixedPointImpl.calculateYears(
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod(),
+            11,
+            15
+        );
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.onordhusen.repayment.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.onordhusen.repayment.converters.RepaymentColumnarHttpMessageConverter;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_CBOR;
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_JSON;
+
+/**
+ * Vergleicht die Antwortformate eines vollständigen RepaymentDto: JSON, CBOR und die spaltenorientierten Formate.
+ * Neben Durchsatz und Allokation (mit {@code -prof gc}) wird die Größe der Antwort am Ende jedes Laufs ausgegeben.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+
+    /**
+     * Größe der zuletzt geschriebenen Antwort in Byte.
+     *
+     * @since 1.1.0
+     */
+    @State(Scope.Thread)
+    public static class ResponseSize {
+
+        private int bytes;
+
+        @TearDown
+        public void print() {
+            System.out.println("response size: " + bytes + " B");
+        }
+
+    }
+
+    @Param
+    public RepaymentScenario scenario;
+
+    private RepaymentDto repayment;
+
+    private ObjectWriter jsonWriter;
+
+    private ObjectWriter cborWriter;
+
+    private RepaymentColumnarHttpMessageConverter columnarJsonConverter;
+
+    private RepaymentColumnarHttpMessageConverter columnarCborConverter;
+
+    @Setup
+    public void setup() {
+        final RepaymentParametersDto parameters = scenario.getParameters();
+        repayment = new RepaymentServiceDefaultImpl().calculate(
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod()
+        );
+        jsonWriter = Jackson2ObjectMapperBuilder.json().build().writerFor(RepaymentDto.class);
+        cborWriter = Jackson2ObjectMapperBuilder.cbor().build().writerFor(RepaymentDto.class);
+        columnarJsonConverter = new RepaymentColumnarHttpMessageConverter(new JsonFactory(), APPLICATION_REPAYMENT_COLUMNAR_JSON);
+        columnarCborConverter = new RepaymentColumnarHttpMessageConverter(new CBORFactory(), APPLICATION_REPAYMENT_COLUMNAR_CBOR);
+    }
+
+    @Benchmark
+    public byte[] json(final ResponseSize size) throws JsonProcessingException {
+        final byte[] body = jsonWriter.writeValueAsBytes(repayment);
+        size.bytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] cbor(final ResponseSize size) throws JsonProcessingException {
+        final byte[] body = cborWriter.writeValueAsBytes(repayment);
+        size.bytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] columnarJson(final ResponseSize size) throws IOException {
+        return write(columnarJsonConverter, size);
+    }
+
+    @Benchmark
+    public byte[] columnarCbor(final ResponseSize size) throws IOException {
+        return write(columnarCborConverter, size);
+    }
+
+    private byte[] write(final RepaymentColumnarHttpMessageConverter converter, final ResponseSize size) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(4096);
+        converter.write(repayment, outputStream);
+        final byte[] body = outputStream.toByteArray();
+        size.bytes = body.length;
+        return body;
+    }
+
+}
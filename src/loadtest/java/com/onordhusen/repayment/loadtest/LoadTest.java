@@ -0,0 +1,174 @@
+package com.onordhusen.repayment.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lasttest von {@code GET /api/v1/repayment} mit Schwellwerten für p99-Latenz, Durchsatz und Fehler.
+ *
+ * Startet die Anwendung aus dem gebauten Jar auf einem freien Port, wärmt sie auf und misst anschließend
+ * mit fester Ankunftsrate, siehe {@link OpenModelDriver}. Einstellungen und Schwellwerte stehen in {@code loadtest.properties}.
+ * Die Latenzverteilung wird nach {@code target/loadtest/latency.hgrm} geschrieben.
+ *
+ * Start: ./mvnw -Ploadtest -DskipTests verify
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class LoadTest {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * @param args Der Pfad des Jars der Anwendung. Wird nicht benötigt, wenn {@code url} gesetzt ist.
+     * @throws Exception Wenn die Anwendung nicht startet oder der Lasttest abbricht.
+     *
+     * @since 1.1.0
+     */
+    public static void main(final String[] args) throws Exception {
+        final LoadTestSettings settings = LoadTestSettings.load();
+        final Path outputDirectory = Path.of("target", "loadtest");
+        Files.createDirectories(outputDirectory);
+
+        Process application = null;
+        String baseUrl = settings.url();
+        final List<String> violations;
+        try {
+            if (baseUrl.isEmpty()) {
+                final int port = freePort();
+                application = start(Path.of(args[0]), settings, port, outputDirectory.resolve("application.log"));
+                baseUrl = "http://localhost:" + port;
+                awaitHealthy(baseUrl, application);
+            }
+
+            final OpenModelDriver driver = new OpenModelDriver(baseUrl, settings);
+            System.out.printf(
+                "rate=%.0f req/s, worst-case-share=%.2f, warmup=%s, duration=%s%n",
+                settings.rate(), settings.worstCaseShare(), settings.warmup(), settings.duration()
+            );
+            driver.run(settings.warmup());
+            final OpenModelDriver.Result result = driver.run(settings.duration());
+
+            try (PrintStream output = new PrintStream(outputDirectory.resolve("latency.hgrm").toFile())) {
+                result.latencies().outputPercentileDistribution(output, NANOS_PER_MILLI);
+            }
+            violations = report(result, settings);
+        }
+        finally {
+            if (application != null) {
+                application.destroy();
+                application.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            violations.forEach(violation -> System.out.println("FAILED: " + violation));
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+        // Der HttpClient hält eigene Threads, daher explizit beenden.
+        System.exit(0);
+    }
+
+    /**
+     * Gibt das Ergebnis aus und prüft die Schwellwerte.
+     *
+     * @return Die verletzten Schwellwerte.
+     */
+    private static List<String> report(final OpenModelDriver.Result result, final LoadTestSettings settings) {
+        final Histogram latencies = result.latencies();
+        final double p99 = latencies.getValueAtPercentile(99) / NANOS_PER_MILLI;
+        final double p99Threshold = settings.thresholdP99().toNanos() / NANOS_PER_MILLI;
+        final double throughputRatio = result.throughput() / settings.rate();
+
+        System.out.printf(
+            "requests=%d errors=%d (%.4f) throughput=%.1f req/s (%.3f of rate)%n",
+            result.requests(), result.errors(), result.errorRatio(), result.throughput(), throughputRatio
+        );
+        System.out.printf(
+            "p50=%.2f ms p90=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms%n",
+            latencies.getValueAtPercentile(50) / NANOS_PER_MILLI,
+            latencies.getValueAtPercentile(90) / NANOS_PER_MILLI,
+            p99,
+            latencies.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+            latencies.getMaxValue() / NANOS_PER_MILLI
+        );
+
+        final List<String> violations = new ArrayList<>();
+        if (p99 > p99Threshold) {
+            violations.add(String.format("p99 %.2f ms exceeds threshold.p99 %.2f ms", p99, p99Threshold));
+        }
+        if (throughputRatio < settings.thresholdThroughputRatio()) {
+            violations.add(String.format("throughput ratio %.3f is below threshold.throughput-ratio %.3f", throughputRatio, settings.thresholdThroughputRatio()));
+        }
+        if (result.errorRatio() > settings.thresholdErrorRatio()) {
+            violations.add(String.format("error ratio %.4f exceeds threshold.error-ratio %.4f", result.errorRatio(), settings.thresholdErrorRatio()));
+        }
+        return violations;
+    }
+
+    private static Process start(
+            final Path jar,
+            final LoadTestSettings settings,
+            final int port,
+            final Path log
+    ) throws IOException {
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!settings.appJvmArgs().isEmpty()) {
+            command.addAll(List.of(settings.appJvmArgs().split("\\s+")));
+        }
+        command.addAll(List.of("-jar", jar.toString(), "--server.port=" + port, "--logging.level.root=WARN"));
+
+        final File logFile = log.toFile();
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(logFile)
+            .start();
+    }
+
+    private static void awaitHealthy(final String baseUrl, final Process application) throws InterruptedException {
+        final HttpClient client = HttpClient.newHttpClient();
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+            .timeout(Duration.ofSeconds(1))
+            .build();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() - deadline < 0) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("application exited with " + application.exitValue() + ", see target/loadtest/application.log");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            }
+            catch (IOException e) {
+                // Noch nicht gestartet.
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("application did not become healthy within 60 s");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.onordhusen.repayment.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Einstellungen und Schwellwerte des Lasttests aus {@code loadtest.properties}.
+ * Jeder Wert kann per System-Property {@code loadtest.<name>} überschrieben werden.
+ *
+ * @param url Die Ziel-URL oder leer, dann wird die Anwendung gestartet.
+ * @param appJvmArgs Die JVM-Optionen der gestarteten Anwendung.
+ * @param rate Die Ankunftsrate in Requests je Sekunde.
+ * @param warmup Die Dauer des Aufwärmens.
+ * @param duration Die Dauer der Messung.
+ * @param worstCaseShare Der Anteil der Worst-Case-Requests.
+ * @param maxInFlight Die maximale Anzahl offener Requests.
+ * @param timeout Der Timeout je Request.
+ * @param thresholdP99 Die höchste erlaubte p99-Latenz.
+ * @param thresholdThroughputRatio Der mindestens erreichte Anteil der Ankunftsrate.
+ * @param thresholdErrorRatio Der höchstens erlaubte Anteil an Fehlern.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record LoadTestSettings(
+    String url,
+    String appJvmArgs,
+    double rate,
+    Duration warmup,
+    Duration duration,
+    double worstCaseShare,
+    int maxInFlight,
+    Duration timeout,
+    Duration thresholdP99,
+    double thresholdThroughputRatio,
+    double thresholdErrorRatio
+) {
+
+    /**
+     * Liest die Einstellungen aus dem Classpath und den System-Properties.
+     *
+     * @return Die Einstellungen.
+     * @throws IOException Wenn {@code loadtest.properties} nicht gelesen werden kann.
+     *
+     * @since 1.1.0
+     */
+    public static LoadTestSettings load() throws IOException {
+        final Properties properties = new Properties();
+        try (InputStream inputStream = LoadTestSettings.class.getResourceAsStream("/loadtest.properties")) {
+            if (inputStream == null) {
+                throw new IOException("loadtest.properties not found on the classpath");
+            }
+            properties.load(inputStream);
+        }
+        for (String name: properties.stringPropertyNames()) {
+            final String override = System.getProperty("loadtest." + name);
+            if (override != null) {
+                properties.setProperty(name, override);
+            }
+        }
+
+        return new LoadTestSettings(
+            properties.getProperty("url", "").strip(),
+            properties.getProperty("app-jvm-args", "").strip(),
+            Double.parseDouble(properties.getProperty("rate")),
+            duration(properties, "warmup"),
+            duration(properties, "duration"),
+            Double.parseDouble(properties.getProperty("worst-case-share")),
+            Integer.parseInt(properties.getProperty("max-in-flight")),
+            duration(properties, "timeout"),
+            duration(properties, "threshold.p99"),
+            Double.parseDouble(properties.getProperty("threshold.throughput-ratio")),
+            Double.parseDouble(properties.getProperty("threshold.error-ratio"))
+        );
+    }
+
+    /**
+     * Dauern wie in der application.properties, zb. 20s oder 1m.
+     */
+    private static Duration duration(final Properties properties, final String name) {
+        return DurationStyle.detectAndParse(properties.getProperty(name).strip());
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.onordhusen.repayment.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sendet Requests mit fester Ankunftsrate (offenes Modell) und zeichnet die Latenzen in einem HdrHistogram auf.
+ *
+ * Jeder Request hat einen geplanten Startzeitpunkt {@code start + i / rate}. Die Latenz wird ab diesem Zeitpunkt gemessen,
+ * nicht ab dem tatsächlichen Senden. Hängt der Lastgenerator oder staut sich die Anwendung, zählt die Wartezeit
+ * also mit und wird nicht wie bei geschlossenen Modellen verschluckt (coordinated omission).
+ * Auf Antworten wird nicht gewartet, die Requests laufen asynchron über den {@link HttpClient}.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class OpenModelDriver {
+
+    private static final String REPAYMENT_PATH = "/api/v1/repayment";
+
+    private final HttpClient client;
+
+    private final String baseUrl;
+
+    private final LoadTestSettings settings;
+
+    /**
+     * @param baseUrl Die URL der Anwendung, zb. http://localhost:8080.
+     * @param settings Die Einstellungen des Lasttests.
+     *
+     * @since 1.1.0
+     */
+    public OpenModelDriver(final String baseUrl, final LoadTestSettings settings) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    /**
+     * Sendet für die angegebene Dauer Requests mit der Ankunftsrate der Einstellungen
+     * und wartet anschließend auf alle offenen Antworten.
+     *
+     * @param duration Die Dauer.
+     * @return Das Ergebnis mit Latenzen in Nanosekunden.
+     * @throws InterruptedException Wenn der Thread unterbrochen wird.
+     *
+     * @since 1.1.0
+     */
+    public Result run(final Duration duration) throws InterruptedException {
+        final Recorder recorder = new Recorder(3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final double intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        final long start = System.nanoTime();
+        final long end = start + duration.toNanos();
+
+        long sent = 0;
+        for (long i = 0; ; ++i) {
+            final long intended = start + (long) (i * intervalNanos);
+            if (intended - end >= 0) {
+                break;
+            }
+            sleepUntil(intended);
+            ++sent;
+
+            if (inFlight.get() >= settings.maxInFlight()) {
+                errors.incrementAndGet();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.sendAsync(request(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, exception) -> {
+                    if (exception == null && response.statusCode() == 200) {
+                        recorder.recordValue(System.nanoTime() - intended);
+                    }
+                    else {
+                        errors.incrementAndGet();
+                    }
+                    inFlight.decrementAndGet();
+                });
+        }
+
+        // Offene Requests abwarten. Sie laufen höchstens bis zu ihrem Timeout.
+        final long deadline = System.nanoTime() + settings.timeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+
+        return new Result(sent, errors.get() + inFlight.get(), recorder.getIntervalHistogram(), elapsedNanos);
+    }
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + REPAYMENT_PATH + query()))
+            .timeout(settings.timeout())
+            .GET()
+            .build();
+    }
+
+    /**
+     * Parameter eines Requests. Die Beträge sind centgenau zufällig, damit Cache und ETag kaum greifen
+     * und die Berechnung selbst gemessen wird.
+     */
+    private String query() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < settings.worstCaseShare()) {
+            // Längste Laufzeit mit dem größten Tilgungsplan.
+            return String.format(
+                Locale.ROOT,
+                "?loanAmount=%.2f&initialRepayment=1&interestRate=1&fixedInterestPeriod=30",
+                9_000_000 + random.nextInt(100_000_000) / 100.0
+            );
+        }
+        // Realistische Immobilienfinanzierung.
+        return String.format(
+            Locale.ROOT,
+            "?loanAmount=%.2f&initialRepayment=%.1f&interestRate=%.2f&fixedInterestPeriod=%d",
+            100_000 + random.nextInt(70_000_000) / 100.0,
+            1 + random.nextInt(7) * 0.5,
+            2 + random.nextInt(300) / 100.0,
+            5 + random.nextInt(4) * 5
+        );
+    }
+
+    private static void sleepUntil(final long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Das Ergebnis eines Laufs.
+     *
+     * @param requests Die Anzahl geplanter Requests.
+     * @param errors Die Anzahl fehlgeschlagener, verworfener oder nicht beantworteter Requests.
+     * @param latencies Die Latenzen der erfolgreichen Requests in Nanosekunden ab dem geplanten Start.
+     * @param elapsedNanos Die Dauer inklusive Abwarten der offenen Requests.
+     *
+     * @since 1.1.0
+     */
+    public record Result(long requests, long errors, Histogram latencies, long elapsedNanos) {
+
+        /**
+         * Erfolgreiche Antworten je Sekunde.
+         *
+         * @return Der Durchsatz.
+         *
+         * @since 1.1.0
+         */
+        public double throughput() {
+            return latencies.getTotalCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        /**
+         * Anteil der Fehler an allen geplanten Requests.
+         *
+         * @return Der Anteil zwischen 0 und 1.
+         *
+         * @since 1.1.0
+         */
+        public double errorRatio() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+
+    }
+
+}
@@ -1,17 +1,22 @@
 package com.onordhusen.repayment;
 
+import com.onordhusen.repayment.configurations.RepaymentRuntimeHints;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 /**
  * Startpunkt der Anwendung.
+ * Öffentlich, da Spring AOT die main-Methode beim Build per Reflection aufruft.
  *
  * @author Ole Nordhusen
  * @version 1.0.0
  * @since 1.0.0
  */
 @SpringBootApplication
-class RepaymentApplication {
+@ImportRuntimeHints(RepaymentRuntimeHints.class)
+public class RepaymentApplication {
 
 	/**
 	 * Wird von der Java-Runtime beim Start der Anwendung aufgerufen.
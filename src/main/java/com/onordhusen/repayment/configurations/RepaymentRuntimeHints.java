@@ -0,0 +1,74 @@
+package com.onordhusen.repayment.configurations;
+
+import com.onordhusen.repayment.dtos.*;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection-Hints für das Native Image.
+ *
+ * Spring AOT erkennt die Typen aus den Signaturen der Controller-Methoden. Nicht erkannt werden die DTOs,
+ * die nur in Listen, in gestreamten Antworten oder in den eigenen Convertern vorkommen, sowie die Constraints
+ * der Records, die Hibernate Validator per Reflection liest. Diese werden hier registriert.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * Alle DTOs, die Jackson liest oder schreibt.
+     */
+    static final List<Class<?>> DTOS = List.of(
+        RepaymentBatchResultDto.class,
+        RepaymentDto.class,
+        RepaymentGridDto.class,
+        RepaymentParametersDto.class,
+        RepaymentPlanDto.class,
+        RepaymentPortfolioDto.class,
+        RepaymentPortfolioYearDto.class,
+        RepaymentScenarioDto.class,
+        RepaymentScenarioParametersDto.class,
+        RepaymentScenarioPlanDto.class,
+        RepaymentSpecialRepaymentDto.class,
+        RepaymentSummaryDto.class
+    );
+
+    /**
+     * Die DTOs mit Bean-Validation-Constraints.
+     */
+    static final List<Class<?>> VALIDATED_DTOS = List.of(
+        RepaymentParametersDto.class,
+        RepaymentScenarioParametersDto.class,
+        RepaymentSpecialRepaymentDto.class
+    );
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    /**
+     * @param hints Die Hints des Builds.
+     * @param classLoader Der ClassLoader des Builds.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public void registerHints(final RuntimeHints hints, final ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), DTOS.toArray(Class<?>[]::new));
+
+        for (Class<?> dto: VALIDATED_DTOS) {
+            hints.reflection().registerType(
+                dto,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS
+            );
+        }
+    }
+
+}
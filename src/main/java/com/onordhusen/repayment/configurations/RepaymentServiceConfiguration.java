@@ -0,0 +1,215 @@
+package com.onordhusen.repayment.configurations;
+
+import com.onordhusen.repayment.properties.RepaymentAdmissionProperties;
+import com.onordhusen.repayment.properties.RepaymentCacheProperties;
+import com.onordhusen.repayment.properties.RepaymentCoalescingProperties;
+import com.onordhusen.repayment.properties.RepaymentConcurrencyProperties;
+import com.onordhusen.repayment.properties.RepaymentEngineProperties;
+import com.onordhusen.repayment.properties.RepaymentHttpCacheProperties;
+import com.onordhusen.repayment.properties.RepaymentMetricsProperties;
+import com.onordhusen.repayment.properties.RepaymentPlanStoreProperties;
+import com.onordhusen.repayment.properties.RepaymentPortfolioProperties;
+import com.onordhusen.repayment.properties.RepaymentScenarioProperties;
+import com.onordhusen.repayment.properties.RepaymentServerTimingProperties;
+import com.onordhusen.repayment.properties.RepaymentWarmupProperties;
+import com.onordhusen.repayment.services.RepaymentEngineRegistry;
+import com.onordhusen.repayment.services.RepaymentServiceCachingDecorator;
+import com.onordhusen.repayment.services.RepaymentServiceCoalescingDecorator;
+import com.onordhusen.repayment.services.RepaymentServiceExecutorDecorator;
+import com.onordhusen.repayment.services.RepaymentServiceMetricsDecorator;
+import com.onordhusen.repayment.services.RepaymentServiceShadowDecorator;
+import com.onordhusen.repayment.services.interfaces.RepaymentEngine;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stellt den RepaymentService zusammen, den die Controller verwenden.
+ * Je nach Konfiguration wird die Engine gewählt und die Berechnung um Metriken, einen eigenen Pool und einen Cache ergänzt.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Configuration
+@EnableConfigurationProperties({
+    RepaymentAdmissionProperties.class,
+    RepaymentCacheProperties.class,
+    RepaymentCoalescingProperties.class,
+    RepaymentConcurrencyProperties.class,
+    RepaymentEngineProperties.class,
+    RepaymentHttpCacheProperties.class,
+    RepaymentMetricsProperties.class,
+    RepaymentPlanStoreProperties.class,
+    RepaymentPortfolioProperties.class,
+    RepaymentScenarioProperties.class,
+    RepaymentServerTimingProperties.class,
+    RepaymentWarmupProperties.class
+})
+public class RepaymentServiceConfiguration {
+
+    /**
+     * Der Pool für rechenintensive Berechnungen. Die Threads heißen {@code calculation-N}.
+     *
+     * @param concurrencyProperties Die Einstellungen der Ausführung.
+     * @return Der Pool mit einem Thread je CPU-Kern bzw. der konfigurierten Anzahl.
+     *
+     * @since 1.1.0
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool calculationPool(final RepaymentConcurrencyProperties concurrencyProperties) {
+        final int parallelism = concurrencyProperties.parallelism() > 0
+            ? concurrencyProperties.parallelism()
+            : Runtime.getRuntime().availableProcessors();
+
+        return new ForkJoinPool(
+            parallelism,
+            pool -> {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("calculation-" + thread.getPoolIndex());
+                return thread;
+            },
+            null,
+            false
+        );
+    }
+
+    /**
+     * Der Executor für die Schatten-Engine mit einem Thread niedriger Priorität und begrenzter Warteschlange.
+     * Der Thread heißt {@code shadow} und wird erst mit dem ersten Vergleich gestartet.
+     *
+     * @param engineProperties Die Einstellungen der Berechnungs-Engine.
+     * @return Der Executor. Lehnt bei voller Warteschlange ab.
+     *
+     * @since 1.1.0
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor shadowExecutor(final RepaymentEngineProperties engineProperties) {
+        return new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(engineProperties.shadowQueueCapacity()),
+            runnable -> {
+                final Thread thread = new Thread(runnable, "shadow");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Baut den primären RepaymentService.
+     * Die Engine wird per {@code repayment.engine.primary} aus der {@link RepaymentEngineRegistry} gewählt.
+     * Ist {@code repayment.engine.shadow} gesetzt, rechnet die Schatten-Engine einen Anteil der Tilgungspläne zum Vergleich mit,
+     * siehe {@link RepaymentServiceShadowDecorator}.
+     * Die Metriken messen die Engine direkt, also ohne Cache-Treffer und ohne Wartezeit auf den Pool.
+     * Die Berechnungen laufen je nach Konfiguration auf dem calculationPool. Die gerade laufenden und wartenden
+     * Berechnungen werden als {@code repayment.calculations.in.flight} und {@code repayment.calculations.queued} veröffentlicht.
+     * Gleichzeitige Berechnungen mit denselben Parametern werden vor dem Pool gebündelt,
+     * die Anzahl der wartenden Requests als {@code repayment.calculations.coalesced} veröffentlicht.
+     * Ist der Cache aktiv, werden seine Treffer, Fehlschläge und Verdrängungen als Metriken
+     * unter {@code cache.*} mit dem Tag {@code cache=repayment} veröffentlicht.
+     *
+     * @param engineRegistry Alle Berechnungs-Engines nach Namen.
+     * @param engineProperties Die Einstellungen der Berechnungs-Engine.
+     * @param shadowExecutor Der Executor für die Schatten-Engine.
+     * @param metricsProperties Die Einstellungen der Metriken.
+     * @param concurrencyProperties Die Einstellungen der Ausführung.
+     * @param calculationPool Der Pool für rechenintensive Berechnungen.
+     * @param coalescingProperties Die Einstellungen der Bündelung.
+     * @param cacheProperties Die Einstellungen des Caches.
+     * @param meterRegistry Die Registry für die Metriken.
+     * @return Der RepaymentService für die Controller.
+     *
+     * @since 1.1.0
+     */
+    @Bean
+    @Primary
+    public RepaymentService repaymentService(
+            final RepaymentEngineRegistry engineRegistry,
+            final RepaymentEngineProperties engineProperties,
+            final ThreadPoolExecutor shadowExecutor,
+            final RepaymentMetricsProperties metricsProperties,
+            final RepaymentConcurrencyProperties concurrencyProperties,
+            final ForkJoinPool calculationPool,
+            final RepaymentCoalescingProperties coalescingProperties,
+            final RepaymentCacheProperties cacheProperties,
+            final MeterRegistry meterRegistry
+    ) {
+        final RepaymentEngine primary = engineRegistry.get(engineProperties.primary());
+        RepaymentService repaymentService = primary;
+
+        // Der Schattenbetrieb liegt direkt an der Engine, verglichen werden also nur tatsächliche Berechnungen.
+        if (engineProperties.shadow() != null && !engineProperties.shadow().isBlank()) {
+            final RepaymentEngine shadow = engineRegistry.get(engineProperties.shadow());
+            if (shadow == primary) {
+                throw new IllegalStateException("Shadow engine must differ from the primary engine: " + engineProperties.shadow());
+            }
+            repaymentService = new RepaymentServiceShadowDecorator(
+                primary,
+                shadow,
+                engineProperties.shadowSampleRate(),
+                shadowExecutor,
+                meterRegistry
+            );
+        }
+
+        if (metricsProperties.enabled()) {
+            repaymentService = new RepaymentServiceMetricsDecorator(repaymentService, meterRegistry);
+        }
+
+        // Der Cache liegt außen, damit Treffer nicht erst an den Pool übergeben werden.
+        if (concurrencyProperties.enabled()) {
+            final RepaymentServiceExecutorDecorator executorDecorator = new RepaymentServiceExecutorDecorator(
+                repaymentService,
+                calculationPool,
+                concurrencyProperties.maxInFlight()
+            );
+            Gauge.builder("repayment.calculations.in.flight", executorDecorator, RepaymentServiceExecutorDecorator::getInFlight)
+                .description("Gerade laufende Berechnungen, nur bei begrenzter Anzahl")
+                .register(meterRegistry);
+            Gauge.builder("repayment.calculations.queued", executorDecorator, RepaymentServiceExecutorDecorator::getQueued)
+                .description("Auf einen freien Platz wartende Berechnungen")
+                .register(meterRegistry);
+            repaymentService = executorDecorator;
+        }
+
+        if (coalescingProperties.enabled()) {
+            final RepaymentServiceCoalescingDecorator coalescingDecorator = new RepaymentServiceCoalescingDecorator(repaymentService);
+            FunctionCounter.builder("repayment.calculations.coalesced", coalescingDecorator, RepaymentServiceCoalescingDecorator::getCoalescedCount)
+                .description("Requests, die das Ergebnis einer gleichzeitigen Berechnung mit denselben Parametern übernommen haben")
+                .register(meterRegistry);
+            repaymentService = coalescingDecorator;
+        }
+
+        if (cacheProperties.enabled()) {
+            final RepaymentServiceCachingDecorator cachingDecorator =
+                new RepaymentServiceCachingDecorator(repaymentService, cacheProperties);
+            CaffeineCacheMetrics.monitor(meterRegistry, cachingDecorator.getCache(), "repayment");
+            FunctionCounter.builder("cache.bypass", cachingDecorator, RepaymentServiceCachingDecorator::getBypassCount)
+                .tag("cache", "repayment")
+                .description("Berechnungen, deren Parameter nicht normalisiert werden konnten")
+                .register(meterRegistry);
+            repaymentService = cachingDecorator;
+        }
+
+        return repaymentService;
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.onordhusen.repayment.configurations;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.onordhusen.repayment.controllers.interceptors.AdmissionControlInterceptor;
+import com.onordhusen.repayment.controllers.interceptors.RequestTimingInterceptor;
+import com.onordhusen.repayment.controllers.timing.TimedRequestMappingHandlerAdapter;
+import com.onordhusen.repayment.converters.ByteBufferHttpMessageConverter;
+import com.onordhusen.repayment.converters.RepaymentColumnarHttpMessageConverter;
+import com.onordhusen.repayment.converters.RepaymentJsonHttpMessageConverter;
+import com.onordhusen.repayment.properties.RepaymentAdmissionProperties;
+import com.onordhusen.repayment.properties.RepaymentServerTimingProperties;
+import com.onordhusen.repayment.services.AdaptiveConcurrencyLimiter;
+import com.onordhusen.repayment.services.RepaymentWarmup;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.List;
+
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_CBOR;
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_JSON;
+
+/**
+ * Ergänzt Spring MVC um die eigenen Antwortformate, die Zugangskontrolle unter Überlast
+ * und die Zeitmessung der Phasen eines Requests.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    /**
+     * Einzelne Tilgungspläne, auch als Zusammenfassung, Szenarien und gespeicherte Tilgungspläne.
+     */
+    private static final String[] CHEAP_PATHS = {
+        "/api/v1/repayment",
+        "/api/v1/repayment/scenarios",
+        "/api/v1/repayment/scenarios/*",
+        "/api/v1/repayment/plans",
+        "/api/v1/repayment/plans/*"
+    };
+
+    /**
+     * Stapel, Vergleichstabellen und Portfolios mit vielen Tilgungsplänen je Request.
+     * Der Export als NDJSON-Stream läuft asynchron und bleibt ohne Limit.
+     */
+    private static final String[] EXPENSIVE_PATHS = {
+        "/api/v1/repayment/batch",
+        "/api/v1/repayment/grid",
+        "/api/v1/repayment/portfolio"
+    };
+
+    /**
+     * Die Berechnung eines Tilgungsplans, auch als Zusammenfassung und Auszug einzelner Jahre.
+     */
+    private static final String[] TIMED_PATHS = {
+        "/api/v1/repayment"
+    };
+
+    private final RepaymentAdmissionProperties admissionProperties;
+
+    private final RepaymentServerTimingProperties serverTimingProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final RepaymentWarmup warmup;
+
+    /**
+     * @param admissionProperties Die Einstellungen der Zugangskontrolle.
+     * @param serverTimingProperties Die Einstellungen des Headers {@code Server-Timing}.
+     * @param meterRegistry Die Registry für die Metriken der Zugangskontrolle.
+     * @param warmup Erkennt die Requests des Aufwärmens, die die Zugangskontrolle nicht begrenzt.
+     *
+     * @since 1.1.0
+     */
+    public WebConfiguration(
+            final RepaymentAdmissionProperties admissionProperties,
+            final RepaymentServerTimingProperties serverTimingProperties,
+            final MeterRegistry meterRegistry,
+            final RepaymentWarmup warmup
+    ) {
+        this.admissionProperties = admissionProperties;
+        this.serverTimingProperties = serverTimingProperties;
+        this.meterRegistry = meterRegistry;
+        this.warmup = warmup;
+    }
+
+    /**
+     * Nimmt die Requests des Aufwärmens aus {@code http.server.requests} heraus,
+     * damit sie die Latenzen und die Anzahl der 304-Antworten nicht verfälschen.
+     *
+     * @return Das Prädikat für die Observations von Spring MVC.
+     *
+     * @since 1.1.0
+     */
+    @Bean
+    public ObservationPredicate warmupObservationPredicate() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext serverContext
+            && warmup.isWarmupRequest(serverContext.getCarrier()));
+    }
+
+    /**
+     * Ersetzt den RequestMappingHandlerAdapter von Spring MVC durch einen, der Binden, Validierung
+     * und Controller-Methode getrennt misst.
+     *
+     * @return Die Registrierung für Spring Boot.
+     *
+     * @since 1.1.0
+     */
+    @Bean
+    public WebMvcRegistrations timedWebMvcRegistrations() {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new TimedRequestMappingHandlerAdapter();
+            }
+        };
+    }
+
+    /**
+     * Registriert die eigenen Formate vor Jackson.
+     * Sonst würde Jackson {@code application/vnd.repayment.columnar+json} über {@code application/*+json} übernehmen.
+     * JSON bleibt Standard, da die Endpunkte es als ersten Medientyp in {@code produces} führen.
+     * Ein RepaymentDto als JSON schreibt der {@link RepaymentJsonHttpMessageConverter} statt Jackson.
+     * Gespeicherte Tilgungspläne liegen bereits serialisiert vor und werden als ByteBuffer unverändert geschrieben.
+     *
+     * @param converters Die Converter von Spring MVC.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new RepaymentColumnarHttpMessageConverter(new JsonFactory(), APPLICATION_REPAYMENT_COLUMNAR_JSON));
+        converters.add(1, new RepaymentColumnarHttpMessageConverter(new CBORFactory(), APPLICATION_REPAYMENT_COLUMNAR_CBOR));
+        converters.add(2, new RepaymentJsonHttpMessageConverter());
+        converters.add(3, new ByteBufferHttpMessageConverter());
+    }
+
+    /**
+     * Misst die Phasen der Berechnung eines Tilgungsplans, siehe {@link RequestTimingInterceptor}.
+     * Begrenzt günstige und teure Requests mit getrennten, an die Latenz angepassten Limits.
+     * Das Limit, die laufenden Requests und die Ablehnungen je Klasse werden als
+     * {@code repayment.admission.limit}, {@code repayment.admission.in.flight} und
+     * {@code repayment.admission.rejections} mit dem Tag {@code class} veröffentlicht.
+     *
+     * @param registry Die Interceptoren von Spring MVC.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestTimingInterceptor(serverTimingProperties.enabled())).addPathPatterns(TIMED_PATHS);
+        if (!admissionProperties.enabled()) {
+            return;
+        }
+        registry.addInterceptor(admissionControlInterceptor(
+            "cheap",
+            admissionProperties.cheapInitialLimit(),
+            admissionProperties.cheapMaxLimit()
+        )).addPathPatterns(CHEAP_PATHS);
+        registry.addInterceptor(admissionControlInterceptor(
+            "expensive",
+            admissionProperties.expensiveInitialLimit(),
+            admissionProperties.expensiveMaxLimit()
+        )).addPathPatterns(EXPENSIVE_PATHS);
+    }
+
+    private AdmissionControlInterceptor admissionControlInterceptor(
+            final String requestClass,
+            final int initialLimit,
+            final int maxLimit
+    ) {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            initialLimit,
+            admissionProperties.minLimit(),
+            maxLimit
+        );
+        Gauge.builder("repayment.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .tag("class", requestClass)
+            .description("Aktuelles Limit gleichzeitiger Requests")
+            .register(meterRegistry);
+        Gauge.builder("repayment.admission.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .tag("class", requestClass)
+            .description("Gerade bearbeitete Requests")
+            .register(meterRegistry);
+        FunctionCounter.builder("repayment.admission.rejections", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+            .tag("class", requestClass)
+            .description("Wegen Überlast mit 503 abgelehnte Requests")
+            .register(meterRegistry);
+        return new AdmissionControlInterceptor(requestClass, limiter, admissionProperties.retryAfter(), warmup);
+    }
+
+}
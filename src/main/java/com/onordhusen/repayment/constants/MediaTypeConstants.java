@@ -0,0 +1,42 @@
+package com.onordhusen.repayment.constants;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Eigene Medientypen der Antworten.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class MediaTypeConstants {
+
+    /**
+     * Spaltenorientierter Tilgungsplan als JSON. Der Tilgungsplan besteht aus parallelen Arrays statt einer Liste von Objekten.
+     *
+     * @since 1.1.0
+     */
+    public static final String APPLICATION_REPAYMENT_COLUMNAR_JSON_VALUE = "application/vnd.repayment.columnar+json";
+
+    /**
+     * Spaltenorientierter Tilgungsplan als CBOR.
+     *
+     * @since 1.1.0
+     */
+    public static final String APPLICATION_REPAYMENT_COLUMNAR_CBOR_VALUE = "application/vnd.repayment.columnar+cbor";
+
+    /**
+     * Siehe {@link #APPLICATION_REPAYMENT_COLUMNAR_JSON_VALUE}.
+     *
+     * @since 1.1.0
+     */
+    public static final MediaType APPLICATION_REPAYMENT_COLUMNAR_JSON = MediaType.parseMediaType(APPLICATION_REPAYMENT_COLUMNAR_JSON_VALUE);
+
+    /**
+     * Siehe {@link #APPLICATION_REPAYMENT_COLUMNAR_CBOR_VALUE}.
+     *
+     * @since 1.1.0
+     */
+    public static final MediaType APPLICATION_REPAYMENT_COLUMNAR_CBOR = MediaType.parseMediaType(APPLICATION_REPAYMENT_COLUMNAR_CBOR_VALUE);
+
+}
@@ -0,0 +1,35 @@
+package com.onordhusen.repayment.constants;
+
+/**
+ * Konstanten der Berechnungs-Engines.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentEngineConstants {
+
+    /**
+     * Version der Berechnungsergebnisse. Geht in die ETags der Tilgungspläne ein.
+     * Muss erhöht werden, sobald eine Änderung die Ergebnisse oder ihre Darstellung verändert,
+     * damit Browser und CDNs keine veralteten Tilgungspläne mehr bestätigt bekommen.
+     *
+     * @since 1.1.0
+     */
+    public static final int ENGINE_VERSION = 1;
+
+    /**
+     * Name der Standard Implementierung in double.
+     *
+     * @since 1.1.0
+     */
+    public static final String ENGINE_DEFAULT = "default";
+
+    /**
+     * Name der Festkomma-Implementierung in ganzen Cent.
+     *
+     * @since 1.1.0
+     */
+    public static final String ENGINE_FIXED_POINT = "fixed-point";
+
+}
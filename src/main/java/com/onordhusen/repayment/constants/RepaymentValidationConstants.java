@@ -65,4 +65,32 @@ public class RepaymentValidationConstants {
      */
     public static final long VALIDATION_MAX_FIXED_INTEREST_PERIOD = 30;
 
+    /**
+     * Erlaubte Maximum Anzahl an Einträgen einer Stapelberechnung. Zb. 10000 = 10.000 Tilgungspläne
+     *
+     * @since 1.1.0
+     */
+    public static final int VALIDATION_MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * Erlaubte Maximum Anzahl an Zellen einer Vergleichstabelle. Zb. 10000 = 10.000 Kombinationen
+     *
+     * @since 1.1.0
+     */
+    public static final int VALIDATION_MAX_GRID_CELLS = 10_000;
+
+    /**
+     * Erlaubte Maximum Anzahl an Sondertilgungen eines Szenarios. Zb. 100 = 100 Sondertilgungen
+     *
+     * @since 1.1.0
+     */
+    public static final int VALIDATION_MAX_SPECIAL_REPAYMENTS = 100;
+
+    /**
+     * Erlaubtes Maximum Jahr einer Sondertilgung. In Form von Jahren. Zb. 100 = im 100. Jahr
+     *
+     * @since 1.1.0
+     */
+    public static final int VALIDATION_MAX_SPECIAL_REPAYMENT_YEAR = 100;
+
 }
@@ -1,17 +1,64 @@
 package com.onordhusen.repayment.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onordhusen.repayment.constants.RepaymentValidationConstants;
+import com.onordhusen.repayment.converters.RepaymentJsonHttpMessageConverter;
+import com.onordhusen.repayment.dtos.RepaymentBatchResultDto;
 import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentGridDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.exceptions.InvalidParameterException;
+import com.onordhusen.repayment.properties.RepaymentEngineProperties;
+import com.onordhusen.repayment.properties.RepaymentHttpCacheProperties;
+import com.onordhusen.repayment.properties.RepaymentPortfolioProperties;
+import com.onordhusen.repayment.services.RepaymentPlanStore;
+import com.onordhusen.repayment.services.RepaymentScenarioStore;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioState;
 import com.onordhusen.repayment.services.interfaces.RepaymentService;
+import com.onordhusen.repayment.utils.CentUtils;
+import com.onordhusen.repayment.utils.DoubleUtils;
+import com.onordhusen.repayment.utils.ETagUtils;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_CBOR_VALUE;
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_JSON_VALUE;
 import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
 
 /**
@@ -19,7 +66,7 @@ import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
  * Außerdem werden hier Servicefehler aufgefangen und entsprechende Rückmeldungen definiert.
  *
  * @author Ole Nordhusen
- * @version 1.0.0
+ * @version 1.1.0
  * @since 1.0.0
  */
 @RestController
@@ -31,32 +78,90 @@ public class RepaymentController {
 
     private final RepaymentService repaymentService;
 
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final RepaymentScenarioStore repaymentScenarioStore;
+
+    private final RepaymentPlanStore repaymentPlanStore;
+
+    private final RepaymentJsonHttpMessageConverter jsonConverter = new RepaymentJsonHttpMessageConverter();
+
+    private final RepaymentPortfolioProperties repaymentPortfolioProperties;
+
+    private final RepaymentHttpCacheProperties repaymentHttpCacheProperties;
+
+    private final CacheControl cacheControl;
+
+    private final String engineName;
+
     /**
      * Der Logger und der Service für die Businesslogik wird hier initialisiert.
      *
      * @param repaymentService Service der die Businesslogik enthält.
+     * @param objectMapper Der ObjectMapper von Spring MVC. Wird für gestreamte Antworten benötigt.
+     * @param meterRegistry Die Registry für die Metriken.
+     * @param repaymentScenarioStore Die Zustände der Szenarien zwischen den Requests.
+     * @param repaymentPlanStore Die gespeicherten Tilgungspläne.
+     * @param repaymentPortfolioProperties Die Einstellungen der Portfolio-Berechnung.
+     * @param repaymentHttpCacheProperties Die Einstellungen für ETag und Cache-Control.
+     * @param repaymentEngineProperties Die Auswahl der Engine. Der Name der primären Engine geht in die ETags ein.
      *
      * @since 1.0.0
      */
-    public RepaymentController(final RepaymentService repaymentService) {
+    public RepaymentController(
+            final RepaymentService repaymentService,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry,
+            final RepaymentScenarioStore repaymentScenarioStore,
+            final RepaymentPlanStore repaymentPlanStore,
+            final RepaymentPortfolioProperties repaymentPortfolioProperties,
+            final RepaymentHttpCacheProperties repaymentHttpCacheProperties,
+            final RepaymentEngineProperties repaymentEngineProperties
+    ) {
         this.repaymentService = repaymentService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.repaymentScenarioStore = repaymentScenarioStore;
+        this.repaymentPlanStore = repaymentPlanStore;
+        this.repaymentPortfolioProperties = repaymentPortfolioProperties;
+        this.repaymentHttpCacheProperties = repaymentHttpCacheProperties;
+        this.cacheControl = cacheControl(repaymentHttpCacheProperties);
+        this.engineName = repaymentEngineProperties.primary();
         this.logger = LoggerFactory.getLogger(RepaymentController.class);
     }
 
     /**
      * Berechnet einen Tilgungsplan.
      * Alle Parameter sind Pflichtparamter und werden validiert.
+     * Über den Accept-Header kann statt JSON auch CBOR oder ein spaltenorientiertes Format angefordert werden,
+     * siehe {@link com.onordhusen.repayment.constants.MediaTypeConstants}.
+     * Die Antwort trägt einen ETag aus den Parametern, siehe {@link ETagUtils}. Passt If-None-Match,
+     * wird ohne Berechnung mit 304 geantwortet.
+     * Mit {@code fromYear} oder {@code toYear} enthält die Aufgliederung nur diese Jahre, siehe {@link #calculateYears}.
      * @see RepaymentValidationConstants beinhaltet alle Validierungskonstanten.
      *
      * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
      * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
      * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
      * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @param fromYear Optional das erste Jahr der Aufgliederung, ab 1. Ohne gilt das erste Jahr.
+     * @param toYear Optional das letzte Jahr der Aufgliederung einschließlich. Ohne gilt das letzte Jahr.
+     * @param view Optional die Sicht {@code plan}. {@code summary} wird von {@link #calculateSummary} beantwortet,
+     *             andere Werte mit 400.
+     * @param accept Der Accept-Header. Geht in den ETag ein, da jedes Format andere Bytes liefert.
+     * @param ifNoneMatch Die ETags, die der Client bereits hat.
      * @return HTTP Response + Body.
      *
      * @since 1.0.0
      */
-    @GetMapping
+    @GetMapping(produces = {
+        MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_CBOR_VALUE,
+        APPLICATION_REPAYMENT_COLUMNAR_JSON_VALUE,
+        APPLICATION_REPAYMENT_COLUMNAR_CBOR_VALUE
+    })
     public ResponseEntity<RepaymentDto> calculate(
             @RequestParam
             @Min(VALIDATION_MIN_LOAN_AMOUNT)
@@ -76,24 +181,771 @@ public class RepaymentController {
             @RequestParam
             @Min(VALIDATION_MIN_FIXED_INTEREST_PERIOD)
             @Max(VALIDATION_MAX_FIXED_INTEREST_PERIOD)
-            final int fixedInterestPeriod
+            final int fixedInterestPeriod,
+
+            @RequestParam(required = false)
+            @Min(1)
+            final Integer fromYear,
+
+            @RequestParam(required = false)
+            @Min(1)
+            final Integer toYear,
+
+            @RequestParam(required = false)
+            final String view,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+            final String accept,
+
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            final List<String> ifNoneMatch
     ) {
 
+        // view=summary ist auf calculateSummary gemappt, jede andere Sicht außer plan ist ein Tippfehler.
+        if (view != null && !view.equals("plan")) {
+            throw new InvalidParameterException("view", "view must be plan or summary");
+        }
+
+        if (fromYear != null || toYear != null) {
+            final int from = fromYear == null ? 1 : fromYear;
+            return calculateYears(
+                loanAmount,
+                initialRepayment,
+                interestRate,
+                fixedInterestPeriod,
+                from,
+                // Ohne toYear reicht die Aufgliederung bis zum Ende der Laufzeit, wie lang sie auch ist.
+                toYear == null ? Integer.MAX_VALUE : toYear,
+                accept,
+                ifNoneMatch
+            );
+        }
+
         try{
-            return new ResponseEntity<>(
+            if (!repaymentHttpCacheProperties.enabled()) {
+                return new ResponseEntity<>(
+                    repaymentService.calculate(
+                        loanAmount,
+                        initialRepayment,
+                        interestRate,
+                        fixedInterestPeriod
+                    ),
+                    HttpStatus.OK
+                );
+            }
+
+            final String eTag = ETagUtils.repaymentETag(engineName, "plan", accept, loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+            if (ETagUtils.matches(ifNoneMatch, eTag)) {
+                return cacheableResponse(HttpStatus.NOT_MODIFIED, eTag).build();
+            }
+            return cacheableResponse(HttpStatus.OK, eTag).body(
                 repaymentService.calculate(
                     loanAmount,
                     initialRepayment,
                     interestRate,
                     fixedInterestPeriod
+                )
+            );
+        }
+        catch (Exception e) {
+            countInternalError("calculate");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Berechnet nur die Zusammenfassung eines Tilgungsplans, ohne die jährliche Aufgliederung.
+     * Wird über {@code ?view=summary} ausgewählt, ansonsten gilt {@link #calculate}.
+     * @see RepaymentValidationConstants beinhaltet alle Validierungskonstanten.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @param accept Der Accept-Header. Geht in den ETag ein.
+     * @param ifNoneMatch Die ETags, die der Client bereits hat.
+     * @return HTTP Response + Body.
+     *
+     * @since 1.1.0
+     */
+    @GetMapping(params = "view=summary")
+    public ResponseEntity<RepaymentSummaryDto> calculateSummary(
+            @RequestParam
+            @Min(VALIDATION_MIN_LOAN_AMOUNT)
+            @Max(VALIDATION_MAX_LOAN_AMOUNT)
+            final double loanAmount,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_INITIAL_REPAYMENT)
+            @Max(VALIDATION_MAX_INITIAL_REPAYMENT)
+            final double initialRepayment,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_INTEREST_RATE)
+            @Max(VALIDATION_MAX_INTEREST_RATE)
+            final double interestRate,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_FIXED_INTEREST_PERIOD)
+            @Max(VALIDATION_MAX_FIXED_INTEREST_PERIOD)
+            final int fixedInterestPeriod,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+            final String accept,
+
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            final List<String> ifNoneMatch
+    ) {
+
+        try{
+            if (!repaymentHttpCacheProperties.enabled()) {
+                return new ResponseEntity<>(
+                    repaymentService.calculateSummary(
+                        loanAmount,
+                        initialRepayment,
+                        interestRate,
+                        fixedInterestPeriod
+                    ),
+                    HttpStatus.OK
+                );
+            }
+
+            final String eTag = ETagUtils.repaymentETag(engineName, "summary", accept, loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+            if (ETagUtils.matches(ifNoneMatch, eTag)) {
+                return cacheableResponse(HttpStatus.NOT_MODIFIED, eTag).build();
+            }
+            return cacheableResponse(HttpStatus.OK, eTag).body(
+                repaymentService.calculateSummary(
+                    loanAmount,
+                    initialRepayment,
+                    interestRate,
+                    fixedInterestPeriod
+                )
+            );
+        }
+        catch (Exception e) {
+            countInternalError("summary");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Berechnet mehrere Tilgungspläne in einem Request.
+     * Jeder Eintrag wird einzeln validiert, sodass ein fehlerhafter Eintrag nicht die gesamte Anfrage scheitern lässt.
+     * @see RepaymentValidationConstants beinhaltet alle Validierungskonstanten.
+     *
+     * @param parameters Die Eingabeparameter je Tilgungsplan. Siehe {@link RepaymentParametersDto}.
+     * @return HTTP Response + Body mit den Ergebnissen in der Reihenfolge der Eingabe.
+     *
+     * @since 1.1.0
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<RepaymentBatchResultDto>> calculateBatch(
+            @RequestBody
+            @Size(max = VALIDATION_MAX_BATCH_SIZE)
+            final List<RepaymentParametersDto> parameters
+    ) {
+
+        try{
+            return new ResponseEntity<>(
+                repaymentService.calculateBatch(parameters),
+                HttpStatus.OK
+            );
+        }
+        catch (Exception e) {
+            countInternalError("batch");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Streamt den monatlichen Tilgungsplan als NDJSON, ein Datensatz je Zeile und Monat.
+     * Jeder Monat wird direkt aus der Monatsschleife in die Antwort geschrieben,
+     * der Speicherbedarf je Request ist damit unabhängig von der Laufzeit des Darlehens.
+     * Der Darlehensbetrag darf höchstens zwei Nachkommastellen haben.
+     * @see RepaymentValidationConstants beinhaltet alle Validierungskonstanten.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @return HTTP Response + gestreamter Body.
+     *
+     * @since 1.1.0
+     */
+    @GetMapping(value = "/schedule", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSchedule(
+            @RequestParam
+            @Min(VALIDATION_MIN_LOAN_AMOUNT)
+            @Max(VALIDATION_MAX_LOAN_AMOUNT)
+            @Digits(integer = 8, fraction = 2)
+            final double loanAmount,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_INITIAL_REPAYMENT)
+            @Max(VALIDATION_MAX_INITIAL_REPAYMENT)
+            final double initialRepayment,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_INTEREST_RATE)
+            @Max(VALIDATION_MAX_INTEREST_RATE)
+            final double interestRate
+    ) {
+
+        final StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // Zwischen den Datensätzen steht nur der Zeilenumbruch.
+                generator.setRootValueSeparator(null);
+                repaymentService.streamSchedule(
+                    loanAmount,
+                    initialRepayment,
+                    interestRate,
+                    (month, rateCents, interestPortionCents, repaymentPortionCents, residualDebtCents) -> {
+                        generator.writeStartObject();
+                        generator.writeNumberField("month", month);
+                        generator.writeNumberField("rate", CentUtils.toPrice(rateCents));
+                        generator.writeNumberField("interestPortion", CentUtils.toPrice(interestPortionCents));
+                        generator.writeNumberField("repaymentPortion", CentUtils.toPrice(repaymentPortionCents));
+                        generator.writeNumberField("residualDebt", CentUtils.toPrice(residualDebtCents));
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                    }
+                );
+            }
+            catch (Exception e) {
+                countInternalError("schedule");
+                logger.error(e.getMessage());
+                throw e;
+            }
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    /**
+     * Berechnet eine Vergleichstabelle über Wertebereiche von Sollzinssatz, anfänglicher Tilgung und Sollzinsbindung.
+     * Jeder Bereich wird über Anfang, Ende (inklusive) und Schrittweite angegeben.
+     * Die Antwort ist spaltenorientiert, siehe {@link RepaymentGridDto}.
+     * @see RepaymentValidationConstants beinhaltet alle Validierungskonstanten.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param interestRateFrom Der erste Sollzinssatz. In Form zb. 3.6 = 3,6%.
+     * @param interestRateTo Der letzte Sollzinssatz. In Form zb. 3.6 = 3,6%.
+     * @param interestRateStep Die Schrittweite der Sollzinssätze. In Form zb. 0.1 = 0,1%.
+     * @param initialRepaymentFrom Die erste anfängliche Tilgung. In Form zb. 1 = 1%.
+     * @param initialRepaymentTo Die letzte anfängliche Tilgung. In Form zb. 5 = 5%.
+     * @param initialRepaymentStep Die Schrittweite der anfänglichen Tilgungen. In Form zb. 0.5 = 0,5%.
+     * @param fixedInterestPeriodFrom Die erste Sollzinsbindung. In Form zb. 10 = 10 Jahre.
+     * @param fixedInterestPeriodTo Die letzte Sollzinsbindung. In Form zb. 20 = 20 Jahre.
+     * @param fixedInterestPeriodStep Die Schrittweite der Sollzinsbindungen. In Form zb. 5 = 5 Jahre.
+     * @return HTTP Response + Body.
+     *
+     * @since 1.1.0
+     */
+    @GetMapping("/grid")
+    public ResponseEntity<RepaymentGridDto> calculateGrid(
+            @RequestParam
+            @Min(VALIDATION_MIN_LOAN_AMOUNT)
+            @Max(VALIDATION_MAX_LOAN_AMOUNT)
+            @Digits(integer = 8, fraction = 2)
+            final double loanAmount,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_INTEREST_RATE)
+            @Max(VALIDATION_MAX_INTEREST_RATE)
+            final double interestRateFrom,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_INTEREST_RATE)
+            @Max(VALIDATION_MAX_INTEREST_RATE)
+            final double interestRateTo,
+
+            @RequestParam
+            @DecimalMin("0.01")
+            final double interestRateStep,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_INITIAL_REPAYMENT)
+            @Max(VALIDATION_MAX_INITIAL_REPAYMENT)
+            final double initialRepaymentFrom,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_INITIAL_REPAYMENT)
+            @Max(VALIDATION_MAX_INITIAL_REPAYMENT)
+            final double initialRepaymentTo,
+
+            @RequestParam
+            @DecimalMin("0.01")
+            final double initialRepaymentStep,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_FIXED_INTEREST_PERIOD)
+            @Max(VALIDATION_MAX_FIXED_INTEREST_PERIOD)
+            final int fixedInterestPeriodFrom,
+
+            @RequestParam
+            @Min(VALIDATION_MIN_FIXED_INTEREST_PERIOD)
+            @Max(VALIDATION_MAX_FIXED_INTEREST_PERIOD)
+            final int fixedInterestPeriodTo,
+
+            @RequestParam(defaultValue = "1")
+            @Min(1)
+            final int fixedInterestPeriodStep
+    ) {
+
+        final double[] interestRates = range("interestRate", interestRateFrom, interestRateTo, interestRateStep);
+        final double[] initialRepayments = range("initialRepayment", initialRepaymentFrom, initialRepaymentTo, initialRepaymentStep);
+        final int[] fixedInterestPeriods = Arrays.stream(range("fixedInterestPeriod", fixedInterestPeriodFrom, fixedInterestPeriodTo, fixedInterestPeriodStep))
+            .mapToInt(period -> (int) period)
+            .toArray();
+
+        final long cells = (long) interestRates.length * initialRepayments.length * fixedInterestPeriods.length;
+        if (cells > VALIDATION_MAX_GRID_CELLS) {
+            throw new InvalidParameterException(
+                "grid",
+                "grid must have less than or equal to " + VALIDATION_MAX_GRID_CELLS + " cells, but has " + cells
+            );
+        }
+
+        try{
+            return new ResponseEntity<>(
+                repaymentService.calculateGrid(
+                    loanAmount,
+                    interestRates,
+                    initialRepayments,
+                    fixedInterestPeriods
                 ),
                 HttpStatus.OK
             );
         }
         catch (Exception e) {
+            countInternalError("grid");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Legt ein Szenario mit Sondertilgungen und Anschlusszins an und berechnet es vollständig.
+     * Die Id des Szenarios steht im Location-Header, Änderungen werden über {@link #updateScenario} berechnet.
+     * @see RepaymentValidationConstants beinhaltet alle Validierungskonstanten.
+     *
+     * @param parameters Die Eingabeparameter des Szenarios. Siehe {@link RepaymentScenarioParametersDto}.
+     * @return HTTP Response + Body.
+     *
+     * @since 1.1.0
+     */
+    @PostMapping("/scenarios")
+    public ResponseEntity<RepaymentScenarioDto> createScenario(
+            @RequestBody
+            @NotNull
+            @Valid
+            final RepaymentScenarioParametersDto parameters
+    ) {
+
+        try{
+            final UUID id = UUID.randomUUID();
+            final RepaymentScenarioState scenario = repaymentService.calculateScenario(parameters, null);
+            repaymentScenarioStore.put(id, scenario);
+            return ResponseEntity
+                .created(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(id).toUri())
+                .body(scenario.toDto());
+        }
+        catch (InvalidParameterException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            countInternalError("scenario");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Berechnet ein geändertes Szenario. Es werden nur die Jahre ab der ersten Änderung neu gerechnet,
+     * die Antwort enthält die Anzahl neu berechneter und übernommener Monate.
+     * Ist das Szenario unbekannt oder verfallen, wird es unter der Id vollständig neu berechnet.
+     * @see RepaymentValidationConstants beinhaltet alle Validierungskonstanten.
+     *
+     * @param id Die Id des Szenarios aus dem Location-Header von {@link #createScenario}.
+     * @param parameters Die vollständigen, geänderten Eingabeparameter. Siehe {@link RepaymentScenarioParametersDto}.
+     * @return HTTP Response + Body.
+     *
+     * @since 1.1.0
+     */
+    @PutMapping("/scenarios/{id}")
+    public ResponseEntity<RepaymentScenarioDto> updateScenario(
+            @PathVariable
+            final UUID id,
+
+            @RequestBody
+            @NotNull
+            @Valid
+            final RepaymentScenarioParametersDto parameters
+    ) {
+
+        try{
+            final RepaymentScenarioState scenario = repaymentService.calculateScenario(
+                parameters,
+                repaymentScenarioStore.get(id)
+            );
+            repaymentScenarioStore.put(id, scenario);
+            return new ResponseEntity<>(scenario.toDto(), HttpStatus.OK);
+        }
+        catch (InvalidParameterException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            countInternalError("scenario");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Berechnet einen Tilgungsplan und speichert ihn dauerhaft unter einer neuen Id.
+     * Die Id steht im Location-Header, der Body ist der Tilgungsplan als JSON wie bei {@link #calculate}.
+     * Ist {@code repayment.plan-store.directory} nicht konfiguriert, wird mit 404 geantwortet.
+     * @see RepaymentValidationConstants beinhaltet alle Validierungskonstanten.
+     *
+     * @param parameters Die Eingabeparameter. Siehe {@link RepaymentParametersDto}.
+     * @return HTTP Response + Body.
+     *
+     * @since 1.1.0
+     */
+    @PostMapping(value = "/plans", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ByteBuffer> savePlan(
+            @RequestBody
+            @NotNull
+            @Valid
+            final RepaymentParametersDto parameters
+    ) {
+
+        if (!repaymentPlanStore.isEnabled()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        try{
+            final RepaymentDto repayment = repaymentService.calculate(
+                parameters.loanAmount(),
+                parameters.initialRepayment(),
+                parameters.interestRate(),
+                parameters.fixedInterestPeriod()
+            );
+            final ByteArrayOutputStream json = new ByteArrayOutputStream();
+            jsonConverter.write(repayment, json);
+            final RepaymentPlanStore.StoredPlan stored = repaymentPlanStore.save(json.toByteArray());
+            return ResponseEntity
+                .created(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(stored.id()).toUri())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(stored.plan());
+        }
+        catch (InvalidParameterException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            countInternalError("plans");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Liefert einen gespeicherten Tilgungsplan. Die Bytes werden ohne Berechnung und Serialisierung
+     * aus dem Mapping der Segment-Datei in die Antwort kopiert, siehe {@link com.onordhusen.repayment.converters.ByteBufferHttpMessageConverter}.
+     * Ein gespeicherter Tilgungsplan ändert sich nicht, die Id dient daher als ETag.
+     *
+     * @param id Die Id aus dem Location-Header von {@link #savePlan}.
+     * @return HTTP Response + Body oder 404, wenn die Id unbekannt oder gelöscht ist.
+     *
+     * @since 1.1.0
+     */
+    @GetMapping(value = "/plans/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ByteBuffer> fetchPlan(
+            @PathVariable
+            final UUID id
+    ) {
+
+        final ByteBuffer plan = repaymentPlanStore.fetch(id);
+        if (plan == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok()
+            .eTag(id.toString())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(plan);
+    }
+
+    /**
+     * Löscht einen gespeicherten Tilgungsplan.
+     *
+     * @param id Die Id aus dem Location-Header von {@link #savePlan}.
+     * @return 204 oder 404, wenn die Id unbekannt oder bereits gelöscht ist.
+     *
+     * @since 1.1.0
+     */
+    @DeleteMapping("/plans/{id}")
+    public ResponseEntity<Void> deletePlan(
+            @PathVariable
+            final UUID id
+    ) {
+
+        if (!repaymentPlanStore.isEnabled()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        try{
+            return new ResponseEntity<>(repaymentPlanStore.delete(id) ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND);
+        }
+        catch (Exception e) {
+            countInternalError("plans");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Berechnet ein Portfolio aus einer hochgeladenen CSV-Datei und summiert Zins, Tilgung und Restschuld je Jahr.
+     * Die Datei wird aus dem Request gestreamt, der Speicherbedarf ist unabhängig von der Anzahl der Darlehen.
+     * Das Format ist in {@link com.onordhusen.repayment.services.calculation.RepaymentPortfolioCalculator} beschrieben.
+     *
+     * Bricht der Client den Upload ab, ist das kein Fehler des Servers und wird mit 400 beantwortet.
+     *
+     * @param csv Der Body des Requests als CSV-Datei in UTF-8.
+     * @return HTTP Response + Body mit den Jahressummen und dem Durchsatz in Darlehen pro Sekunde.
+     *
+     * @since 1.1.0
+     */
+    @PostMapping(value = "/portfolio", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<RepaymentPortfolioDto> calculatePortfolio(final InputStream csv) {
+
+        try (Reader reader = new InputStreamReader(csv, StandardCharsets.UTF_8)) {
+            return new ResponseEntity<>(portfolio(reader), HttpStatus.OK);
+        }
+        catch (IOException e) {
+            logger.warn("portfolio upload could not be read: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        catch (Exception e) {
+            countInternalError("portfolio");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Berechnet ein Portfolio aus einer lokalen CSV-Datei, zb. für monatliche Batch-Jobs.
+     * Die Datei muss im Verzeichnis {@code repayment.portfolio.directory} liegen.
+     *
+     * @param file Der Dateiname relativ zum Portfolio-Verzeichnis.
+     * @return HTTP Response + Body mit den Jahressummen und dem Durchsatz in Darlehen pro Sekunde.
+     *
+     * @since 1.1.0
+     */
+    @PostMapping(value = "/portfolio", params = "file")
+    public ResponseEntity<RepaymentPortfolioDto> calculatePortfolioFile(
+            @RequestParam
+            final String file
+    ) {
+
+        final Path directory = repaymentPortfolioProperties.directory();
+        if (directory == null) {
+            throw new InvalidParameterException("file", "file must not be set, repayment.portfolio.directory is not configured");
+        }
+        final Path root = directory.toAbsolutePath().normalize();
+        final Path path = root.resolve(file).normalize();
+        if (!path.startsWith(root) || !Files.isRegularFile(path)) {
+            throw new InvalidParameterException("file", "file must exist in the portfolio directory");
+        }
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return new ResponseEntity<>(portfolio(reader), HttpStatus.OK);
+        }
+        catch (Exception e) {
+            countInternalError("portfolio");
+            logger.error(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Berechnet ein Portfolio und loggt den Durchsatz.
+     *
+     * @param csv Die CSV-Datei.
+     * @return Das Ergebnis der Berechnung.
+     * @throws IOException Wenn die CSV-Datei nicht gelesen werden kann.
+     *
+     * @since 1.1.0
+     */
+    private RepaymentPortfolioDto portfolio(final Reader csv) throws IOException {
+        final RepaymentPortfolioDto portfolio = repaymentService.calculatePortfolio(csv);
+        logger.info(
+            "portfolio of {} loans ({} rejected) calculated in {} ms, {} loans/s",
+            portfolio.loans(),
+            portfolio.rejectedLoans(),
+            portfolio.durationMillis(),
+            portfolio.loansPerSecond()
+        );
+        return portfolio;
+    }
+
+    /**
+     * Berechnet einen Tilgungsplan, dessen jährliche Aufgliederung nur die Jahre von fromYear bis toYear enthält,
+     * zb. für eine seitenweise Darstellung. Wird von {@link #calculate} aufgerufen, wenn {@code fromYear} oder {@code toYear} gesetzt ist.
+     * Alle übrigen Felder und die enthaltenen Jahre entsprechen dem vollständigen Tilgungsplan.
+     * Jahre nach der Laufzeit entfallen, die Aufgliederung kann also kürzer oder leer sein.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @param fromYear Das erste Jahr der Aufgliederung, ab 1.
+     * @param toYear Das letzte Jahr der Aufgliederung einschließlich.
+     * @param accept Der Accept-Header. Geht in den ETag ein.
+     * @param ifNoneMatch Die ETags, die der Client bereits hat.
+     * @return HTTP Response + Body.
+     *
+     * @since 1.1.0
+     */
+    private ResponseEntity<RepaymentDto> calculateYears(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod,
+            final int fromYear,
+            final int toYear,
+            final String accept,
+            final List<String> ifNoneMatch
+    ) {
+
+        if (fromYear > toYear) {
+            throw new InvalidParameterException("fromYear", "fromYear must be less than or equal to toYear");
+        }
+
+        try{
+            if (!repaymentHttpCacheProperties.enabled()) {
+                return new ResponseEntity<>(
+                    repaymentService.calculateYears(
+                        loanAmount,
+                        initialRepayment,
+                        interestRate,
+                        fixedInterestPeriod,
+                        fromYear,
+                        toYear
+                    ),
+                    HttpStatus.OK
+                );
+            }
+
+            final String eTag = ETagUtils.repaymentETag(
+                engineName,
+                "years-" + fromYear + "-" + toYear,
+                accept,
+                loanAmount,
+                initialRepayment,
+                interestRate,
+                fixedInterestPeriod
+            );
+            if (ETagUtils.matches(ifNoneMatch, eTag)) {
+                return cacheableResponse(HttpStatus.NOT_MODIFIED, eTag).build();
+            }
+            return cacheableResponse(HttpStatus.OK, eTag).body(
+                repaymentService.calculateYears(
+                    loanAmount,
+                    initialRepayment,
+                    interestRate,
+                    fixedInterestPeriod,
+                    fromYear,
+                    toYear
+                )
+            );
+        }
+        catch (Exception e) {
+            countInternalError("years");
             logger.error(e.getMessage());
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Zählt einen internen Fehler als {@code repayment.internal.errors} je Endpunkt.
+     * Wird nur im Fehlerfall aufgerufen, daher genügt das Nachschlagen des Counters in der Registry.
+     *
+     * @param endpoint Der Endpunkt, in dem der Fehler aufgetreten ist.
+     *
+     * @since 1.1.0
+     */
+    private void countInternalError(final String endpoint) {
+        meterRegistry.counter("repayment.internal.errors", "endpoint", endpoint).increment();
+    }
+
+    /**
+     * Baut die Header einer Antwort, die Browser und CDNs speichern dürfen.
+     *
+     * @param status 200 oder 304.
+     * @param eTag Der ETag der Antwort.
+     * @return Der Builder mit ETag, Cache-Control und Vary: Accept.
+     *
+     * @since 1.1.0
+     */
+    private ResponseEntity.BodyBuilder cacheableResponse(final HttpStatus status, final String eTag) {
+        return ResponseEntity.status(status)
+            .eTag(eTag)
+            .cacheControl(cacheControl)
+            .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * Baut den Cache-Control-Header aus den Einstellungen.
+     *
+     * @param properties Die Einstellungen für das HTTP-Caching.
+     * @return Der Cache-Control-Header.
+     *
+     * @since 1.1.0
+     */
+    private static CacheControl cacheControl(final RepaymentHttpCacheProperties properties) {
+        final CacheControl cacheControl = CacheControl.maxAge(properties.maxAge().toSeconds(), TimeUnit.SECONDS);
+        if (properties.sharedMaxAge() != null) {
+            cacheControl.sMaxAge(properties.sharedMaxAge().toSeconds(), TimeUnit.SECONDS);
+        }
+        return properties.shared() ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+
+    /**
+     * Erzeugt die Werte eines Bereichs von from bis einschließlich to.
+     * Jeder Wert wird aus from und dem Vielfachen der Schrittweite berechnet und auf vier Nachkommastellen gerundet,
+     * damit sich Rundungsfehler der Schrittweite nicht aufsummieren.
+     *
+     * @param field Der Name des Bereichs für die Fehlermeldung.
+     * @param from Der erste Wert.
+     * @param to Der letzte Wert.
+     * @param step Die Schrittweite.
+     * @return Die Werte des Bereichs.
+     *
+     * @since 1.1.0
+     */
+    private static double[] range(final String field, final double from, final double to, final double step) {
+        if (from > to) {
+            throw new InvalidParameterException(field + "From", field + "From must be less than or equal to " + field + "To");
+        }
+
+        final long count = (long) Math.floor((to - from) / step + 1e-9) + 1;
+        if (count > VALIDATION_MAX_GRID_CELLS) {
+            throw new InvalidParameterException(
+                field,
+                field + " range must have less than or equal to " + VALIDATION_MAX_GRID_CELLS + " values, but has " + count
+            );
+        }
+
+        final double[] values = new double[(int) count];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = DoubleUtils.round(from + i * step, 4);
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.onordhusen.repayment.controllers.interceptors;
+
+import com.onordhusen.repayment.exceptions.AdmissionRejectedException;
+import com.onordhusen.repayment.services.AdaptiveConcurrencyLimiter;
+import com.onordhusen.repayment.services.RepaymentWarmup;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Lässt Requests einer Klasse nur bis zum Limit eines {@link AdaptiveConcurrencyLimiter} zum Controller durch.
+ * Weitere Requests werden sofort mit einer {@link AdmissionRejectedException} abgelehnt, statt in Tomcat
+ * oder vor dem Berechnungs-Pool zu warten, bis der Client aufgibt.
+ * Die Dauer vom Annehmen bis zum Abschluss des Requests passt das Limit an.
+ * Die Requests des {@link RepaymentWarmup} werden weder begrenzt noch für das Limit gemessen.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private final String requestClass;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final Duration retryAfter;
+
+    private final RepaymentWarmup warmup;
+
+    private final String startAttribute;
+
+    /**
+     * @param requestClass Die Klasse der Requests, zb. cheap oder expensive.
+     * @param limiter Das Limit der Klasse.
+     * @param retryAfter Nach welcher Zeit abgelehnte Clients es erneut versuchen sollen.
+     * @param warmup Erkennt die Requests des Aufwärmens.
+     *
+     * @since 1.1.0
+     */
+    public AdmissionControlInterceptor(
+            final String requestClass,
+            final AdaptiveConcurrencyLimiter limiter,
+            final Duration retryAfter,
+            final RepaymentWarmup warmup
+    ) {
+        this.requestClass = requestClass;
+        this.limiter = limiter;
+        this.retryAfter = retryAfter;
+        this.warmup = warmup;
+        this.startAttribute = AdmissionControlInterceptor.class.getName() + "." + requestClass;
+    }
+
+    @Override
+    public boolean preHandle(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler
+    ) {
+        // CORS-Preflights und andere Handler ohne Controller-Methode kosten nichts.
+        if (!(handler instanceof HandlerMethod) || warmup.isWarmupRequest(request)) {
+            return true;
+        }
+        if (!limiter.tryAcquire()) {
+            throw new AdmissionRejectedException(requestClass, retryAfter);
+        }
+        request.setAttribute(startAttribute, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler,
+            final Exception exception
+    ) {
+        if (request.getAttribute(startAttribute) instanceof Long start) {
+            request.removeAttribute(startAttribute);
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+}
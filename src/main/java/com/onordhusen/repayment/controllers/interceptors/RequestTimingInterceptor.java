@@ -0,0 +1,61 @@
+package com.onordhusen.repayment.controllers.interceptors;
+
+import com.onordhusen.repayment.controllers.timing.RequestTiming;
+import com.onordhusen.repayment.controllers.timing.TimedRequestMappingHandlerAdapter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Legt für Requests an Controller-Methoden eine {@link RequestTiming} an und schreibt sie zum Abschluss als JFR-Event.
+ * Die Phasen selbst misst der {@link TimedRequestMappingHandlerAdapter}.
+ * Als Header {@code Server-Timing} gehen sie nur an Requests mit dem Header {@value RequestTiming#REQUEST_HEADER}.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RequestTimingInterceptor implements HandlerInterceptor {
+
+    private final boolean serverTimingEnabled;
+
+    /**
+     * @param serverTimingEnabled Ob die Phasen auf Anfrage als Header {@code Server-Timing} zurückgegeben werden.
+     *
+     * @since 1.1.0
+     */
+    public RequestTimingInterceptor(final boolean serverTimingEnabled) {
+        this.serverTimingEnabled = serverTimingEnabled;
+    }
+
+    @Override
+    public boolean preHandle(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler
+    ) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(
+                RequestTiming.ATTRIBUTE,
+                new RequestTiming(serverTimingEnabled && request.getHeader(RequestTiming.REQUEST_HEADER) != null)
+            );
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler,
+            final Exception exception
+    ) {
+        if (request.getAttribute(RequestTiming.ATTRIBUTE) instanceof RequestTiming timing) {
+            request.removeAttribute(RequestTiming.ATTRIBUTE);
+            timing.complete(request.getRequestURI(), response.getStatus());
+        }
+    }
+
+}
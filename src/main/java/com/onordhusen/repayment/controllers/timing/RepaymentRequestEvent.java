@@ -0,0 +1,67 @@
+package com.onordhusen.repayment.controllers.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR-Event je Request an {@code /api/v1/repayment} mit der Dauer der einzelnen Phasen.
+ * Die Dauer des Events ist die Zeit vom Eingang beim Controller bis zum Abschluss der Antwort.
+ *
+ * Ohne laufende Aufzeichnung verwirft der JIT das Event, es kostet dann nur das Anlegen des Objekts.
+ * Aufzeichnen zb. mit {@code jcmd <pid> JFR.start settings=profile}.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Name("com.onordhusen.repayment.Request")
+@Label("Repayment Request")
+@Category("Repayment")
+@Description("Ein Request an /api/v1/repayment mit der Dauer der Phasen")
+@StackTrace(false)
+public class RepaymentRequestEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Loan Amount")
+    double loanAmount;
+
+    @Label("Initial Repayment")
+    double initialRepayment;
+
+    @Label("Interest Rate")
+    double interestRate;
+
+    @Label("Fixed Interest Period")
+    int fixedInterestPeriod;
+
+    @Label("Months")
+    @Description("Die Monate bis zur vollständigen Tilgung, also die Iterationen der Berechnung")
+    int months;
+
+    @Label("Binding Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long bindingTime;
+
+    @Label("Validation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long validationTime;
+
+    @Label("Calculation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long calculationTime;
+
+    @Label("Serialization Time")
+    @Description("Die Serialisierung und das Schreiben der Antwort")
+    @Timespan(Timespan.NANOSECONDS)
+    long serializationTime;
+
+}
@@ -0,0 +1,171 @@
+package com.onordhusen.repayment.controllers.timing;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Locale;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Die Dauer der Phasen eines Requests: Binden der Parameter, Bean Validation, Controller-Methode mit
+ * {@code RepaymentService.calculate} und Serialisierung der Antwort.
+ *
+ * Wird vom {@link com.onordhusen.repayment.controllers.interceptors.RequestTimingInterceptor} als Request-Attribut
+ * angelegt und von {@link TimedRequestMappingHandlerAdapter} befüllt.
+ * Zum Abschluss des Requests wird daraus ein {@link RepaymentRequestEvent} für JFR.
+ *
+ * Alle Methoden laufen im Thread des Requests, daher ohne Synchronisation.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public final class RequestTiming {
+
+    /**
+     * Der Name des Request-Attributs.
+     */
+    public static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    /**
+     * Der Response-Header nach W3C Server Timing.
+     */
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    /**
+     * Der Request-Header, mit dem ein Client die Phasen im Header {@code Server-Timing} anfordert.
+     */
+    public static final String REQUEST_HEADER = "X-Repayment-Server-Timing";
+
+    private final RepaymentRequestEvent event = new RepaymentRequestEvent();
+
+    private final boolean serverTimingEnabled;
+
+    private long bindingStart;
+
+    private long bindingTime;
+
+    private long validationTime;
+
+    private long calculationTime;
+
+    private long calculationEnd;
+
+    private long serializationTime;
+
+    /**
+     * @param serverTimingEnabled Ob die Phasen dieses Requests als Header {@code Server-Timing} zurückgegeben werden.
+     *
+     * @since 1.1.0
+     */
+    public RequestTiming(final boolean serverTimingEnabled) {
+        this.serverTimingEnabled = serverTimingEnabled;
+        event.begin();
+    }
+
+    /**
+     * @return Ob die Phasen dieses Requests als Header {@code Server-Timing} zurückgegeben werden.
+     *
+     * @since 1.1.0
+     */
+    public boolean isServerTimingEnabled() {
+        return serverTimingEnabled;
+    }
+
+    void startBinding() {
+        bindingStart = System.nanoTime();
+    }
+
+    /**
+     * Übernimmt die Eingangsparameter der Berechnung aus den gebundenen Argumenten.
+     */
+    void endBinding(final MethodParameter[] parameters, final Object[] arguments) {
+        bindingTime = System.nanoTime() - bindingStart;
+        for (int i = 0; i < parameters.length && i < arguments.length; ++i) {
+            final String name = parameters[i].getParameterName();
+            if (name == null || arguments[i] == null) {
+                continue;
+            }
+            switch (name) {
+                case "loanAmount" -> event.loanAmount = ((Number) arguments[i]).doubleValue();
+                case "initialRepayment" -> event.initialRepayment = ((Number) arguments[i]).doubleValue();
+                case "interestRate" -> event.interestRate = ((Number) arguments[i]).doubleValue();
+                case "fixedInterestPeriod" -> event.fixedInterestPeriod = ((Number) arguments[i]).intValue();
+                default -> { }
+            }
+        }
+    }
+
+    void addValidation(final long nanos) {
+        validationTime += nanos;
+    }
+
+    /**
+     * Übernimmt die Anzahl der berechneten Monate aus dem Tilgungsplan der Antwort.
+     */
+    void endCalculation(final long nanos, final Object returnValue) {
+        calculationTime = nanos;
+        calculationEnd = System.nanoTime();
+        final Object body = returnValue instanceof ResponseEntity<?> entity ? entity.getBody() : returnValue;
+        if (body instanceof RepaymentDto repayment) {
+            event.months = repayment.yearPeriod() * MONTHS_PER_YEAR + repayment.monthPeriod();
+        }
+        else if (body instanceof RepaymentSummaryDto summary) {
+            event.months = summary.yearPeriod() * MONTHS_PER_YEAR + summary.monthPeriod();
+        }
+    }
+
+    /**
+     * Beendet die Serialisierung, die mit dem Ende der Controller-Methode begonnen hat.
+     */
+    void endSerialization() {
+        if (calculationEnd != 0) {
+            serializationTime = System.nanoTime() - calculationEnd;
+        }
+    }
+
+    /**
+     * Der Wert für {@code Server-Timing} mit Binden, Validierung, Berechnung und Serialisierung.
+     *
+     * @return Der Header-Wert, zb. {@code bind;dur=0.052, valid;dur=0.031, calc;dur=0.412, ser;dur=0.120}.
+     *
+     * @since 1.1.0
+     */
+    public String header() {
+        return metric("bind", bindingTime) + ", " + metric("valid", validationTime) + ", "
+            + metric("calc", calculationTime) + ", " + metric("ser", serializationTime);
+    }
+
+    /**
+     * Schreibt das JFR-Event, wenn es aufgezeichnet wird.
+     * Die Serialisierung zählt ab dem Ende der Controller-Methode bis zum Ende der Behandlung des Rückgabewerts,
+     * ohne {@code Server-Timing} also inklusive dem Schreiben der Antwort.
+     *
+     * @param path Der Pfad des Requests.
+     * @param status Der HTTP-Status der Antwort.
+     *
+     * @since 1.1.0
+     */
+    public void complete(final String path, final int status) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.path = path;
+        event.status = status;
+        event.bindingTime = bindingTime;
+        event.validationTime = validationTime;
+        event.calculationTime = calculationTime;
+        event.serializationTime = serializationTime;
+        event.commit();
+    }
+
+    private static String metric(final String name, final long nanos) {
+        return String.format(Locale.ROOT, "%s;dur=%.3f", name, nanos / 1_000_000.0);
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.onordhusen.repayment.controllers.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.validation.method.MethodValidationResult;
+import org.springframework.validation.method.MethodValidator;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.lang.reflect.Method;
+
+/**
+ * Misst in Requests mit {@link RequestTiming} das Binden der Parameter, die Bean Validation,
+ * den Aufruf der Controller-Methode und die Serialisierung der Antwort getrennt.
+ *
+ * Spring MVC führt die ersten drei in {@code InvocableHandlerMethod#invokeForRequest} direkt nacheinander aus.
+ * Das Binden wird daher um {@code getMethodArgumentValues}, die Validierung um den {@link MethodValidator}
+ * und der Aufruf um {@code doInvoke} gemessen. Bei {@code @Valid} auf einem Request-Body validiert
+ * Spring bereits beim Lesen des Bodys, dort zählt die Validierung zum Binden.
+ *
+ * Die Serialisierung wird um die Behandlung des Rückgabewerts gemessen, also unabhängig vom Converter.
+ * Fordert der Request {@code Server-Timing} an, wird die Antwort dafür gepuffert, damit der Header vor dem Body
+ * stehen kann. Die Messung enthält dann nur das Serialisieren, nicht das Senden.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class TimedRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(final HandlerMethod handlerMethod) {
+        return new TimedInvocableHandlerMethod(handlerMethod);
+    }
+
+    /**
+     * Misst die Phasen und setzt den Header {@code Server-Timing}, bevor der gepufferte Body geschrieben wird.
+     * Spring MVC legt je Request eine eigene Instanz an, das Feld gilt daher nur für diesen Request.
+     */
+    private static final class TimedInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        private RequestTiming timing;
+
+        private TimedInvocableHandlerMethod(final HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        @Override
+        public void setMethodValidator(final MethodValidator methodValidator) {
+            super.setMethodValidator(methodValidator == null ? null : new TimedMethodValidator(methodValidator, this));
+        }
+
+        @Override
+        public void invokeAndHandle(
+                final ServletWebRequest webRequest,
+                final ModelAndViewContainer mavContainer,
+                final Object... providedArgs
+        ) throws Exception {
+            timing = (RequestTiming) webRequest.getAttribute(RequestTiming.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (timing == null || !timing.isServerTimingEnabled() || webRequest.getResponse() == null) {
+                super.invokeAndHandle(webRequest, mavContainer, providedArgs);
+                if (timing != null) {
+                    timing.endSerialization();
+                }
+                return;
+            }
+
+            final ContentCachingResponseWrapper response = new ContentCachingResponseWrapper(webRequest.getResponse());
+            super.invokeAndHandle(new ServletWebRequest(webRequest.getRequest(), response), mavContainer, providedArgs);
+            timing.endSerialization();
+            // Die Phasen gelten nur für diesen Request und dürfen nicht aus einem Cache an andere gehen.
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.addHeader(RequestTiming.SERVER_TIMING, timing.header());
+            response.copyBodyToResponse();
+        }
+
+        @Override
+        protected Object[] getMethodArgumentValues(
+                final NativeWebRequest request,
+                final ModelAndViewContainer mavContainer,
+                final Object... providedArgs
+        ) throws Exception {
+            if (timing == null) {
+                return super.getMethodArgumentValues(request, mavContainer, providedArgs);
+            }
+            timing.startBinding();
+            final Object[] arguments = super.getMethodArgumentValues(request, mavContainer, providedArgs);
+            timing.endBinding(getMethodParameters(), arguments);
+            return arguments;
+        }
+
+        @Override
+        protected Object doInvoke(final Object... args) throws Exception {
+            if (timing == null) {
+                return super.doInvoke(args);
+            }
+            final long start = System.nanoTime();
+            final Object returnValue = super.doInvoke(args);
+            timing.endCalculation(System.nanoTime() - start, returnValue);
+            return returnValue;
+        }
+
+    }
+
+    /**
+     * Misst die Validierung der Argumente und reicht alle Aufrufe an den Validator von Spring MVC weiter.
+     */
+    private static final class TimedMethodValidator implements MethodValidator {
+
+        private final MethodValidator delegate;
+
+        private final TimedInvocableHandlerMethod handlerMethod;
+
+        private TimedMethodValidator(final MethodValidator delegate, final TimedInvocableHandlerMethod handlerMethod) {
+            this.delegate = delegate;
+            this.handlerMethod = handlerMethod;
+        }
+
+        @Override
+        public Class<?>[] determineValidationGroups(final Object target, final Method method) {
+            return delegate.determineValidationGroups(target, method);
+        }
+
+        @Override
+        public void applyArgumentValidation(
+                final Object target,
+                final Method method,
+                final MethodParameter[] parameters,
+                final Object[] arguments,
+                final Class<?>[] groups
+        ) {
+            final RequestTiming timing = handlerMethod.timing;
+            final long start = System.nanoTime();
+            try {
+                delegate.applyArgumentValidation(target, method, parameters, arguments, groups);
+            }
+            finally {
+                if (timing != null) {
+                    timing.addValidation(System.nanoTime() - start);
+                }
+            }
+        }
+
+        @Override
+        public MethodValidationResult validateArguments(
+                final Object target,
+                final Method method,
+                final MethodParameter[] parameters,
+                final Object[] arguments,
+                final Class<?>[] groups
+        ) {
+            return delegate.validateArguments(target, method, parameters, arguments, groups);
+        }
+
+        @Override
+        public void applyReturnValueValidation(
+                final Object target,
+                final Method method,
+                final MethodParameter returnType,
+                final Object returnValue,
+                final Class<?>[] groups
+        ) {
+            delegate.applyReturnValueValidation(target, method, returnType, returnValue, groups);
+        }
+
+        @Override
+        public MethodValidationResult validateReturnValue(
+                final Object target,
+                final Method method,
+                final MethodParameter returnType,
+                final Object returnValue,
+                final Class<?>[] groups
+        ) {
+            return delegate.validateReturnValue(target, method, returnType, returnValue, groups);
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.onordhusen.repayment.converters;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Schreibt einen ByteBuffer unverändert in die Antwort, zb. einen gespeicherten Tilgungsplan
+ * aus dem Mapping des {@link com.onordhusen.repayment.services.RepaymentPlanStore}.
+ * Den Medientyp legt der Controller fest. Die Position des Buffers wird nicht verändert.
+ * Die Servlet-API nimmt nur byte[] an, die Bytes werden daher blockweise über einen Puffer in den Ausgabestrom kopiert.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class ByteBufferHttpMessageConverter extends AbstractHttpMessageConverter<ByteBuffer> {
+
+    /**
+     * @since 1.1.0
+     */
+    public ByteBufferHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return ByteBuffer.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ByteBuffer readInternal(
+            final Class<? extends ByteBuffer> clazz,
+            final HttpInputMessage inputMessage
+    ) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("byte buffer converter is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(final ByteBuffer buffer, final MediaType contentType) {
+        return (long) buffer.remaining();
+    }
+
+    @Override
+    protected void writeInternal(final ByteBuffer buffer, final HttpOutputMessage outputMessage) throws IOException {
+        final WritableByteChannel channel = Channels.newChannel(outputMessage.getBody());
+        final ByteBuffer source = buffer.duplicate();
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+}
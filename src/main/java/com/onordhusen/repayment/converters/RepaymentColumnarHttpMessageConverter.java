@@ -0,0 +1,130 @@
+package com.onordhusen.repayment.converters;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Schreibt ein RepaymentDto spaltenorientiert.
+ *
+ * Die Felder außerhalb des Tilgungsplans entsprechen dem JSON von {@link RepaymentDto}.
+ * Der Tilgungsplan besteht statt aus einer Liste von Objekten aus parallelen Arrays je Spalte,
+ * die Feldnamen stehen damit nur einmal in der Antwort. Beträge des Tilgungsplans werden als ganze Cent geschrieben:
+ * {@code "repaymentPlan":{"year":[1,2],"rateCents":[1400004,1400004],"interestPortionCents":[...],
+ * "repaymentPortionCents":[...],"residualDebtCents":[...]}}.
+ *
+ * Über die JsonFactory wird das Format gewählt, zb. JSON oder CBOR.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentColumnarHttpMessageConverter extends AbstractHttpMessageConverter<RepaymentDto> {
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * @param jsonFactory Die Factory des Zielformats. Zb. JsonFactory oder CBORFactory.
+     * @param mediaType Der Medientyp, unter dem das Format ausgeliefert wird.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentColumnarHttpMessageConverter(final JsonFactory jsonFactory, final MediaType mediaType) {
+        super(mediaType);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return RepaymentDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected RepaymentDto readInternal(
+            final Class<? extends RepaymentDto> clazz,
+            final HttpInputMessage inputMessage
+    ) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("columnar repayment format is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(final RepaymentDto repayment, final HttpOutputMessage outputMessage) throws IOException {
+        write(repayment, outputMessage.getBody());
+    }
+
+    /**
+     * Schreibt ein RepaymentDto spaltenorientiert in einen Stream.
+     *
+     * @param repayment Der Tilgungsplan.
+     * @param outputStream Der Ziel-Stream. Wird nicht geschlossen.
+     * @throws IOException Wenn nicht in den Stream geschrieben werden kann.
+     *
+     * @since 1.1.0
+     */
+    public void write(final RepaymentDto repayment, final OutputStream outputStream) throws IOException {
+        final List<RepaymentPlanDto> repaymentPlan = repayment.repaymentPlan();
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeNumberField("loanAmount", repayment.loanAmount());
+            generator.writeNumberField("totalInterest", repayment.totalInterest());
+            generator.writeNumberField("monthlyRate", repayment.monthlyRate());
+            generator.writeNumberField("initialRepaymentRate", repayment.initialRepaymentRate());
+            generator.writeNumberField("interestRate", repayment.interestRate());
+            generator.writeNumberField("fixedInterestPeriod", repayment.fixedInterestPeriod());
+            generator.writeNumberField("residualDebt", repayment.residualDebt());
+            generator.writeNumberField("yearPeriod", repayment.yearPeriod());
+            generator.writeNumberField("monthPeriod", repayment.monthPeriod());
+            generator.writeNumberField("totalRepayment", repayment.totalRepayment());
+
+            // Der Tilgungsplan als parallele Arrays je Spalte.
+            generator.writeObjectFieldStart("repaymentPlan");
+            generator.writeArrayFieldStart("year");
+            for (RepaymentPlanDto row: repaymentPlan) {
+                generator.writeNumber(row.year());
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("rateCents");
+            for (RepaymentPlanDto row: repaymentPlan) {
+                generator.writeNumber(CentUtils.toCents(row.rate()));
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("interestPortionCents");
+            for (RepaymentPlanDto row: repaymentPlan) {
+                generator.writeNumber(CentUtils.toCents(row.interestPortion()));
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("repaymentPortionCents");
+            for (RepaymentPlanDto row: repaymentPlan) {
+                generator.writeNumber(CentUtils.toCents(row.repaymentPortion()));
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("residualDebtCents");
+            for (RepaymentPlanDto row: repaymentPlan) {
+                generator.writeNumber(CentUtils.toCents(row.residualDebt()));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+
+            generator.writeEndObject();
+        }
+    }
+
+}
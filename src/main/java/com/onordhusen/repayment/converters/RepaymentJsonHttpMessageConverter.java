@@ -0,0 +1,387 @@
+package com.onordhusen.repayment.converters;
+
+import com.onordhusen.repayment.dtos.CompactRepaymentPlan;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Schreibt ein RepaymentDto als JSON ohne Jackson.
+ *
+ * Die Ausgabe ist byte-identisch zum JSON des ObjectMappers von Spring MVC:
+ * Felder in der Reihenfolge der Record-Komponenten, doubles wie {@link Double#toString(double)}, also zb. 1.0E7 ab 10 Millionen.
+ * Centgenaue Beträge werden direkt aus den Cent formatiert. Nur Werte mit Bruchteilen von Cent gehen über {@link Double#toString(double)}.
+ *
+ * Das JSON wird in einen Puffer geschrieben und in einem Stück in die Antwort kopiert.
+ * Dadurch entfallen die Zwischenobjekte der Serialisierung und die Content-Length ist bekannt.
+ * Die Puffer kommen aus einem kleinen, begrenzten Pool statt aus einem ThreadLocal. Mit virtuellen Threads läuft jeder Request
+ * auf einem neuen Thread, ein Puffer je Thread würde also nie wiederverwendet. Ist der Pool leer, wird ein neuer Puffer angelegt,
+ * ist er voll, wird der Puffer verworfen.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentJsonHttpMessageConverter extends AbstractHttpMessageConverter<RepaymentDto> {
+
+    /**
+     * Puffer, die größer werden, werden nach der Antwort nicht in den Pool zurückgelegt.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Anzahl der Puffer im Pool. Serialisiert wird auf der CPU, mehr gleichzeitige Schreiber als Kerne sind selten.
+     */
+    private static final int POOLED_BUFFERS = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Ab diesem Betrag schreibt {@link Double#toString(double)} in wissenschaftlicher Notation.
+     */
+    private static final long SCIENTIFIC_NOTATION_CENTS = 10_000_000 * CentUtils.CENTS_PER_UNIT;
+
+    private static final byte[] LOAN_AMOUNT = ascii("{\"loanAmount\":");
+    private static final byte[] TOTAL_INTEREST = ascii(",\"totalInterest\":");
+    private static final byte[] MONTHLY_RATE = ascii(",\"monthlyRate\":");
+    private static final byte[] INITIAL_REPAYMENT_RATE = ascii(",\"initialRepaymentRate\":");
+    private static final byte[] INTEREST_RATE = ascii(",\"interestRate\":");
+    private static final byte[] FIXED_INTEREST_PERIOD = ascii(",\"fixedInterestPeriod\":");
+    private static final byte[] RESIDUAL_DEBT = ascii(",\"residualDebt\":");
+    private static final byte[] YEAR_PERIOD = ascii(",\"yearPeriod\":");
+    private static final byte[] MONTH_PERIOD = ascii(",\"monthPeriod\":");
+    private static final byte[] TOTAL_REPAYMENT = ascii(",\"totalRepayment\":");
+    private static final byte[] REPAYMENT_PLAN = ascii(",\"repaymentPlan\":");
+    private static final byte[] YEAR = ascii("{\"year\":");
+    private static final byte[] RATE = ascii(",\"rate\":");
+    private static final byte[] INTEREST_PORTION = ascii(",\"interestPortion\":");
+    private static final byte[] REPAYMENT_PORTION = ascii(",\"repaymentPortion\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] ZERO = ascii("0.0");
+
+    private static final BlockingQueue<Buffer> BUFFERS = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+    /**
+     * @since 1.1.0
+     */
+    public RepaymentJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return RepaymentDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected RepaymentDto readInternal(
+            final Class<? extends RepaymentDto> clazz,
+            final HttpInputMessage inputMessage
+    ) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("repayment json converter is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(final RepaymentDto repayment, final HttpOutputMessage outputMessage) throws IOException {
+        final Buffer buffer = acquire();
+        try {
+            buffer.writeRepayment(repayment);
+            // Die Header werden erst mit getBody() geschrieben.
+            outputMessage.getHeaders().setContentLength(buffer.position);
+            buffer.writeTo(outputMessage.getBody());
+        }
+        finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * Schreibt ein RepaymentDto als JSON in einen Stream.
+     *
+     * @param repayment Der Tilgungsplan.
+     * @param outputStream Der Ziel-Stream. Wird nicht geschlossen.
+     * @throws IOException Wenn nicht in den Stream geschrieben werden kann.
+     *
+     * @since 1.1.0
+     */
+    public void write(final RepaymentDto repayment, final OutputStream outputStream) throws IOException {
+        final Buffer buffer = acquire();
+        try {
+            buffer.writeRepayment(repayment);
+            buffer.writeTo(outputStream);
+        }
+        finally {
+            release(buffer);
+        }
+    }
+
+    private static Buffer acquire() {
+        final Buffer buffer = BUFFERS.poll();
+        return buffer == null ? new Buffer() : buffer;
+    }
+
+    private static void release(final Buffer buffer) {
+        buffer.position = 0;
+        if (buffer.bytes.length <= MAX_RETAINED_BUFFER_SIZE) {
+            BUFFERS.offer(buffer);
+        }
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Wachsender Byte-Puffer mit den Schreibmethoden für JSON.
+     */
+    private static final class Buffer {
+
+        private byte[] bytes = new byte[4096];
+
+        private int position;
+
+        private void writeRepayment(final RepaymentDto repayment) {
+            write(LOAN_AMOUNT);
+            writeDouble(repayment.loanAmount());
+            write(TOTAL_INTEREST);
+            writeDouble(repayment.totalInterest());
+            write(MONTHLY_RATE);
+            writeDouble(repayment.monthlyRate());
+            write(INITIAL_REPAYMENT_RATE);
+            writeDouble(repayment.initialRepaymentRate());
+            write(INTEREST_RATE);
+            writeDouble(repayment.interestRate());
+            write(FIXED_INTEREST_PERIOD);
+            writeLong(repayment.fixedInterestPeriod());
+            write(RESIDUAL_DEBT);
+            writeDouble(repayment.residualDebt());
+            write(YEAR_PERIOD);
+            writeLong(repayment.yearPeriod());
+            write(MONTH_PERIOD);
+            writeLong(repayment.monthPeriod());
+            write(TOTAL_REPAYMENT);
+            writeDouble(repayment.totalRepayment());
+            write(REPAYMENT_PLAN);
+
+            final List<RepaymentPlanDto> repaymentPlan = repayment.repaymentPlan();
+            if (repaymentPlan == null) {
+                write(NULL);
+            }
+            else if (repaymentPlan instanceof CompactRepaymentPlan compact) {
+                writeByte('[');
+                for (int i = 0; i < compact.size(); i++) {
+                    if (i > 0) {
+                        writeByte(',');
+                    }
+                    writeRow(compact, i);
+                }
+                writeByte(']');
+            }
+            else {
+                writeByte('[');
+                for (int i = 0; i < repaymentPlan.size(); i++) {
+                    if (i > 0) {
+                        writeByte(',');
+                    }
+                    writeRow(repaymentPlan.get(i));
+                }
+                writeByte(']');
+            }
+            writeByte('}');
+        }
+
+        private void writeRow(final RepaymentPlanDto row) {
+            if (row == null) {
+                write(NULL);
+                return;
+            }
+            write(YEAR);
+            writeLong(row.year());
+            write(RATE);
+            writeDouble(row.rate());
+            write(INTEREST_PORTION);
+            writeDouble(row.interestPortion());
+            write(REPAYMENT_PORTION);
+            writeDouble(row.repaymentPortion());
+            write(RESIDUAL_DEBT);
+            writeDouble(row.residualDebt());
+            writeByte('}');
+        }
+
+        /**
+         * Schreibt eine gepackte Zeile direkt aus den Cent, ohne RepaymentPlanDto.
+         */
+        private void writeRow(final CompactRepaymentPlan plan, final int index) {
+            write(YEAR);
+            writeLong(plan.getFirstYear() + index);
+            write(RATE);
+            writeCents(plan.getCents(index, 0));
+            write(INTEREST_PORTION);
+            writeCents(plan.getCents(index, 1));
+            write(REPAYMENT_PORTION);
+            writeCents(plan.getCents(index, 2));
+            write(RESIDUAL_DEBT);
+            writeCents(plan.getCents(index, 3));
+            writeByte('}');
+        }
+
+        /**
+         * Schreibt ein double wie {@link Double#toString(double)}.
+         * Centgenaue Beträge kommen dabei ohne Zwischenobjekte aus.
+         */
+        private void writeDouble(final double value) {
+            final long cents = CentUtils.toCents(value);
+            if (cents == 0 && Double.doubleToRawLongBits(value) == 0) {
+                write(ZERO);
+                return;
+            }
+            if (cents == 0 || CentUtils.toPrice(cents) != value) {
+                // Bruchteile von Cent, -0.0 und nicht endliche Werte wie Jackson schreiben.
+                writeDoubleFallback(value);
+                return;
+            }
+            writeCents(cents);
+        }
+
+        /**
+         * Schreibt einen Betrag in Cent wie {@link Double#toString(double)} den Betrag in Euro.
+         */
+        private void writeCents(final long cents) {
+            long absoluteCents = cents;
+            if (cents < 0) {
+                writeByte('-');
+                absoluteCents = -cents;
+            }
+
+            if (absoluteCents < SCIENTIFIC_NOTATION_CENTS) {
+                writeLong(absoluteCents / CentUtils.CENTS_PER_UNIT);
+                writeByte('.');
+                final int fraction = (int) (absoluteCents % CentUtils.CENTS_PER_UNIT);
+                writeByte('0' + fraction / 10);
+                if (fraction % 10 != 0) {
+                    writeByte('0' + fraction % 10);
+                }
+                return;
+            }
+
+            // Wissenschaftliche Notation, zb. 12345678.9 = 1.23456789E7.
+            long significand = absoluteCents;
+            while (significand % 10 == 0) {
+                significand /= 10;
+            }
+            final int digits = digits(significand);
+            final int exponent = digits(absoluteCents) - 3;
+            ensureCapacity(digits + 1);
+            final long divisor = pow10(digits - 1);
+            writeByte('0' + (int) (significand / divisor));
+            writeByte('.');
+            if (digits == 1) {
+                writeByte('0');
+            }
+            else {
+                writePadded(significand % divisor, digits - 1);
+            }
+            writeByte('E');
+            writeLong(exponent);
+        }
+
+        private void writeDoubleFallback(final double value) {
+            final boolean quoted = !Double.isFinite(value);
+            if (quoted) {
+                writeByte('"');
+            }
+            writeAscii(Double.toString(value));
+            if (quoted) {
+                writeByte('"');
+            }
+        }
+
+        private void writeAscii(final String value) {
+            ensureCapacity(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                bytes[position++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void writeLong(final long value) {
+            if (value < 0) {
+                if (value == Long.MIN_VALUE) {
+                    writeAscii(Long.toString(value));
+                    return;
+                }
+                writeByte('-');
+                writePadded(-value, digits(-value));
+                return;
+            }
+            writePadded(value, digits(value));
+        }
+
+        /**
+         * Schreibt eine nicht negative Zahl mit genau {@code digits} Ziffern, vorne mit Nullen aufgefüllt.
+         */
+        private void writePadded(long value, final int digits) {
+            ensureCapacity(digits);
+            for (int i = position + digits - 1; i >= position; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            position += digits;
+        }
+
+        private void write(final byte[] value) {
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, bytes, position, value.length);
+            position += value.length;
+        }
+
+        private void writeByte(final int value) {
+            ensureCapacity(1);
+            bytes[position++] = (byte) value;
+        }
+
+        private void writeTo(final OutputStream outputStream) throws IOException {
+            outputStream.write(bytes, 0, position);
+        }
+
+        private void ensureCapacity(final int length) {
+            if (position + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+            }
+        }
+
+        private static int digits(final long value) {
+            int digits = 1;
+            for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+                digits++;
+            }
+            return digits;
+        }
+
+        private static long pow10(final int exponent) {
+            long result = 1;
+            for (int i = 0; i < exponent; i++) {
+                result *= 10;
+            }
+            return result;
+        }
+
+    }
+
+}
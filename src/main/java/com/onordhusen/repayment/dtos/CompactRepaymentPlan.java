@@ -0,0 +1,171 @@
+package com.onordhusen.repayment.dtos;
+
+import com.onordhusen.repayment.utils.CentUtils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unveränderliche jährliche Aufgliederung eines Tilgungsplans in einem gepackten int-Array aus Cent.
+ *
+ * Je Jahr liegen Rate, Zinsanteil, Tilgungsanteil und Restschuld hintereinander, die Jahre sind fortlaufend
+ * ab {@link #getFirstYear()}. Eine Zeile belegt so 16 Byte statt 48 Byte für einen {@link RepaymentPlanDto}
+ * und 4 Byte für die Referenz in einer ArrayList.
+ * Die Zeilen werden erst bei {@link #get(int)} als RepaymentPlanDto angelegt.
+ *
+ * Beträge bis {@link Integer#MAX_VALUE} Cent passen in ein int, das deckt alle gültigen Darlehensbeträge ab.
+ * Tilgungspläne mit größeren Beträgen, Bruchteilen von Cent oder Lücken in den Jahren lassen sich nicht packen.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public final class CompactRepaymentPlan extends AbstractList<RepaymentPlanDto> implements RandomAccess {
+
+    /**
+     * Rate, Zinsanteil, Tilgungsanteil und Restschuld je Jahr.
+     *
+     * @since 1.1.0
+     */
+    public static final int COLUMNS = 4;
+
+    private final int firstYear;
+
+    private final int[] cents;
+
+    private CompactRepaymentPlan(final int firstYear, final int[] cents) {
+        this.firstYear = firstYear;
+        this.cents = cents;
+    }
+
+    /**
+     * Packt eine Aufgliederung aus Cent-Beträgen, zb. direkt aus einer Berechnung in Cent.
+     *
+     * @param firstYear Das Jahr der ersten Zeile.
+     * @param cents Die Beträge in Cent, je Jahr {@value #COLUMNS} Spalten wie in dieser Klasse. Darf länger sein.
+     * @param years Die Anzahl der Jahre.
+     * @return Die gepackte Aufgliederung oder null, wenn ein Betrag nicht in ein int passt.
+     *
+     * @since 1.1.0
+     */
+    public static CompactRepaymentPlan ofCents(final int firstYear, final long[] cents, final int years) {
+        final int[] packed = new int[years * COLUMNS];
+        for (int i = 0; i < packed.length; ++i) {
+            if (cents[i] != (int) cents[i]) {
+                return null;
+            }
+            packed[i] = (int) cents[i];
+        }
+        return new CompactRepaymentPlan(firstYear, packed);
+    }
+
+    /**
+     * Packt eine Aufgliederung aus RepaymentPlanDtos.
+     *
+     * @param repaymentPlan Die Aufgliederung.
+     * @return Die gepackte Aufgliederung, die Aufgliederung selbst, wenn sie schon gepackt ist,
+     *         oder null, wenn sie sich nicht verlustfrei packen lässt.
+     *
+     * @since 1.1.0
+     */
+    public static CompactRepaymentPlan of(final List<RepaymentPlanDto> repaymentPlan) {
+        if (repaymentPlan instanceof CompactRepaymentPlan compact) {
+            return compact;
+        }
+        final int years = repaymentPlan.size();
+        final int firstYear = years == 0 || repaymentPlan.get(0) == null ? 1 : repaymentPlan.get(0).year();
+        final long[] cents = new long[years * COLUMNS];
+        for (int year = 0; year < years; ++year) {
+            final RepaymentPlanDto row = repaymentPlan.get(year);
+            if (row == null || row.year() != firstYear + year) {
+                return null;
+            }
+            final int offset = year * COLUMNS;
+            if (!toCents(row.rate(), cents, offset)
+                    || !toCents(row.interestPortion(), cents, offset + 1)
+                    || !toCents(row.repaymentPortion(), cents, offset + 2)
+                    || !toCents(row.residualDebt(), cents, offset + 3)) {
+                return null;
+            }
+        }
+        return ofCents(firstYear, cents, years);
+    }
+
+    /**
+     * Speichert einen centgenauen Betrag. -0.0 und nicht endliche Werte gelten nicht als centgenau.
+     */
+    private static boolean toCents(final double value, final long[] cents, final int index) {
+        cents[index] = CentUtils.toCents(value);
+        return CentUtils.toPrice(cents[index]) == value && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(-0.0);
+    }
+
+    @Override
+    public RepaymentPlanDto get(final int index) {
+        final int offset = checkedOffset(index);
+        return new RepaymentPlanDto(
+            firstYear + index,
+            CentUtils.toPrice(cents[offset]),
+            CentUtils.toPrice(cents[offset + 1]),
+            CentUtils.toPrice(cents[offset + 2]),
+            CentUtils.toPrice(cents[offset + 3])
+        );
+    }
+
+    @Override
+    public int size() {
+        return cents.length / COLUMNS;
+    }
+
+    /**
+     * Kopiert die Jahre in eine eigene gepackte Aufgliederung.
+     * Da beide unveränderlich sind, ist die Kopie von einer Sicht nicht zu unterscheiden,
+     * hält aber nicht die vollständige Aufgliederung am Leben.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public CompactRepaymentPlan subList(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size());
+        }
+        return new CompactRepaymentPlan(
+            firstYear + fromIndex,
+            Arrays.copyOfRange(cents, fromIndex * COLUMNS, toIndex * COLUMNS)
+        );
+    }
+
+    /**
+     * @return Das Jahr der ersten Zeile.
+     *
+     * @since 1.1.0
+     */
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * Ein Betrag ohne Umweg über einen RepaymentPlanDto.
+     *
+     * @param index Die Zeile, ab 0.
+     * @param column Die Spalte: 0 = Rate, 1 = Zinsanteil, 2 = Tilgungsanteil, 3 = Restschuld.
+     * @return Der Betrag in Cent.
+     *
+     * @since 1.1.0
+     */
+    public long getCents(final int index, final int column) {
+        if (column < 0 || column >= COLUMNS) {
+            throw new IndexOutOfBoundsException("column " + column + " out of bounds for " + COLUMNS + " columns");
+        }
+        return cents[checkedOffset(index) + column];
+    }
+
+    private int checkedOffset(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size());
+        }
+        return index * COLUMNS;
+    }
+
+}
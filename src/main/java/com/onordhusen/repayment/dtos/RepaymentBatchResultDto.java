@@ -0,0 +1,25 @@
+package com.onordhusen.repayment.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines einzelnen Eintrags einer Stapelberechnung.
+ * Entweder ist {@code repayment} oder {@code errors} gesetzt.
+ *
+ * @param index Die Position des Eintrags in der Anfrage. In Form zb. 0 = erster Eintrag.
+ * @param repayment Der berechnete Tilgungsplan. Siehe {@link RepaymentDto}.
+ * @param errors Die Validierungs- bzw. Berechnungsfehler des Eintrags.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RepaymentBatchResultDto(
+    int index,
+    RepaymentDto repayment,
+    List<String> errors
+)
+{}
@@ -0,0 +1,37 @@
+package com.onordhusen.repayment.dtos;
+
+/**
+ * Vergleichstabelle mehrerer Tilgungspläne als spaltenorientierter Datensatz.
+ * Statt einer Liste von Zellen enthält jede Kennzahl ein eigenes Array.
+ *
+ * Werte, die nicht von der Sollzinsbindung abhängen, liegen je Kombination aus Sollzinssatz i und
+ * anfänglicher Tilgung r am Index {@code i * initialRepayments.length + r}.
+ * Die Restschuld liegt zusätzlich je Sollzinsbindung f am Index
+ * {@code (i * initialRepayments.length + r) * fixedInterestPeriods.length + f}.
+ *
+ * @param loanAmount Der Darlehensbetrag. In Form zb. EURO.CENT.
+ * @param interestRates Die Sollzinssätze der Zeilen. In Form zb. 3.6 = 3,6 %.
+ * @param initialRepayments Die anfänglichen Tilgungen der Spalten. In Form zb. 2 = 2 %.
+ * @param fixedInterestPeriods Die Dauern der Sollzinsbindung. In Form zb. 10 = 10 Jahre.
+ * @param monthlyRates Die monatliche Rate je Sollzinssatz und Tilgung. In Form zb. EURO.CENT.
+ * @param totalInterests Die Zinsen der gesamten Laufzeit je Sollzinssatz und Tilgung. In Form zb. EURO.CENT.
+ * @param yearPeriods Die Jahre der Dauer des Kredits je Sollzinssatz und Tilgung.
+ * @param monthPeriods Die Monate der Dauer des Kredits je Sollzinssatz und Tilgung.
+ * @param residualDebts Die Restschuld nach Ablauf der Sollzinsbindung je Sollzinssatz, Tilgung und Sollzinsbindung. In Form zb. EURO.CENT.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentGridDto(
+    double loanAmount,
+    double[] interestRates,
+    double[] initialRepayments,
+    int[] fixedInterestPeriods,
+    double[] monthlyRates,
+    double[] totalInterests,
+    int[] yearPeriods,
+    int[] monthPeriods,
+    double[] residualDebts
+)
+{}
@@ -0,0 +1,38 @@
+package com.onordhusen.repayment.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+
+/**
+ * Eingabeparameter einer einzelnen Tilgungsplanberechnung als Datensatz.
+ * Die Validierung entspricht den Query-Parametern von {@code GET /api/v1/repayment}.
+ *
+ * @param loanAmount Der Darlehensbetrag. In Form zb. EURO.CENT.
+ * @param initialRepayment Die anfängliche Tilgung. In Form zb. 3.6 = 3,6 %.
+ * @param interestRate Der Sollzinssatz. In Form zb. 3.6 = 3,6 %.
+ * @param fixedInterestPeriod Die Dauer der Sollzinsbindung. In Form zb. 10 = 10 Jahre.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentParametersDto(
+    @Min(VALIDATION_MIN_LOAN_AMOUNT)
+    @Max(VALIDATION_MAX_LOAN_AMOUNT)
+    double loanAmount,
+
+    @Min(VALIDATION_MIN_INITIAL_REPAYMENT)
+    @Max(VALIDATION_MAX_INITIAL_REPAYMENT)
+    double initialRepayment,
+
+    @Min(VALIDATION_MIN_INTEREST_RATE)
+    @Max(VALIDATION_MAX_INTEREST_RATE)
+    double interestRate,
+
+    @Min(VALIDATION_MIN_FIXED_INTEREST_PERIOD)
+    @Max(VALIDATION_MAX_FIXED_INTEREST_PERIOD)
+    int fixedInterestPeriod
+)
+{}
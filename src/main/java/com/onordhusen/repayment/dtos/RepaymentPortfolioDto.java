@@ -0,0 +1,33 @@
+package com.onordhusen.repayment.dtos;
+
+import java.util.List;
+
+/**
+ * Das Ergebnis einer Portfolio-Berechnung.
+ *
+ * @param loans Die Anzahl der berechneten Darlehen.
+ * @param rejectedLoans Die Anzahl der abgelehnten Zeilen.
+ * @param errors Bis zu 100 Fehlermeldungen abgelehnter Zeilen mit Zeilennummer.
+ * @param loanAmount Die Summe der Darlehensbeträge. In Form zb. EURO.CENT.
+ * @param totalInterest Die Summe der Zinsen über die gesamte Laufzeit. In Form zb. EURO.CENT.
+ * @param residualDebt Die Summe der Restschulden nach Ablauf der jeweiligen Sollzinsbindung. In Form zb. EURO.CENT.
+ * @param durationMillis Die Dauer der Berechnung inklusive Einlesen in Millisekunden.
+ * @param loansPerSecond Der Durchsatz der Berechnung in Darlehen pro Sekunde.
+ * @param years Die jährlichen Summen. Siehe {@link RepaymentPortfolioYearDto}.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentPortfolioDto(
+    long loans,
+    long rejectedLoans,
+    List<String> errors,
+    double loanAmount,
+    double totalInterest,
+    double residualDebt,
+    long durationMillis,
+    long loansPerSecond,
+    List<RepaymentPortfolioYearDto> years
+)
+{}
@@ -0,0 +1,23 @@
+package com.onordhusen.repayment.dtos;
+
+/**
+ * Jährliche Summen eines Portfolios über alle Darlehen.
+ *
+ * @param year Das Jahr ab Beginn der Darlehen. In Form zb. 1 = 1 Jahr
+ * @param loans Die Anzahl der Darlehen, die in dem Jahr noch Raten zahlen.
+ * @param interestPortion Die Summe der Zinsanteile des Jahrs. In Form zb. EURO.CENT.
+ * @param repaymentPortion Die Summe der Tilgungsanteile des Jahrs. In Form zb. EURO.CENT.
+ * @param residualDebt Die Summe der Restschulden am Ende des Jahrs. In Form zb. EURO.CENT.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentPortfolioYearDto(
+    int year,
+    long loans,
+    double interestPortion,
+    double repaymentPortion,
+    double residualDebt
+)
+{}
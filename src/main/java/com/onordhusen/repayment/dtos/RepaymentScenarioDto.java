@@ -0,0 +1,45 @@
+package com.onordhusen.repayment.dtos;
+
+import java.util.List;
+
+/**
+ * Das Ergebnis eines Szenarios mit Sondertilgungen und Anschlusszins.
+ *
+ * @param loanAmount Der Darlehensbetrag. In Form zb. EURO.CENT.
+ * @param totalInterest Die Zinsen über die gesamte Laufzeit. In Form zb. EURO.CENT.
+ * @param monthlyRate Die monatliche Rate. In Form zb. EURO.CENT.
+ * @param initialRepaymentRate Die anfängliche Tilgung. In Form zb. 3.6 = 3,6 %.
+ * @param interestRate Der Sollzinssatz während der Sollzinsbindung. In Form zb. 3.6 = 3,6 %.
+ * @param followUpInterestRate Der Sollzinssatz nach Ablauf der Sollzinsbindung. In Form zb. 3.6 = 3,6 %.
+ * @param fixedInterestPeriod Die Dauer der Sollzinsbindung. In Form zb. 10 = 10 Jahre.
+ * @param residualDebt Die Restschuld nach Ablauf der Sollzinsbindung. In Form zb. EURO.CENT.
+ * @param yearPeriod Die Laufzeit in Jahren.
+ * @param monthPeriod Die restliche Laufzeit in Monaten.
+ * @param totalSpecialRepayment Die Summe aller verrechneten Sondertilgungen. In Form zb. EURO.CENT.
+ * @param totalRepayment Der Gesamtbetrag aus Darlehensbetrag und Zinsen. In Form zb. EURO.CENT.
+ * @param repaymentPlan Der Tilgungsplan als Liste von jährlicher Aufgliederung. Siehe {@link RepaymentScenarioPlanDto}.
+ * @param recomputedMonths Die Anzahl der Monate, die bei dieser Änderung neu berechnet wurden.
+ * @param reusedMonths Die Anzahl der Monate, die aus der vorherigen Berechnung übernommen wurden.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentScenarioDto(
+    double loanAmount,
+    double totalInterest,
+    double monthlyRate,
+    double initialRepaymentRate,
+    double interestRate,
+    double followUpInterestRate,
+    int fixedInterestPeriod,
+    double residualDebt,
+    int yearPeriod,
+    int monthPeriod,
+    double totalSpecialRepayment,
+    double totalRepayment,
+    List<RepaymentScenarioPlanDto> repaymentPlan,
+    int recomputedMonths,
+    int reusedMonths
+)
+{}
@@ -0,0 +1,54 @@
+package com.onordhusen.repayment.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+
+/**
+ * Eingabeparameter eines Szenarios: ein Tilgungsplan mit Sondertilgungen und einem Anschlusszins.
+ *
+ * @param loanAmount Der Darlehensbetrag. In Form zb. EURO.CENT.
+ * @param initialRepayment Die anfängliche Tilgung. In Form zb. 3.6 = 3,6 %.
+ * @param interestRate Der Sollzinssatz während der Sollzinsbindung. In Form zb. 3.6 = 3,6 %.
+ * @param fixedInterestPeriod Die Dauer der Sollzinsbindung. In Form zb. 10 = 10 Jahre.
+ * @param followUpInterestRate Der Sollzinssatz nach Ablauf der Sollzinsbindung, die monatliche Rate bleibt gleich.
+ *                             Ohne Angabe gilt weiter der Sollzinssatz. In Form zb. 3.6 = 3,6 %.
+ * @param specialRepayments Die jährlichen Sondertilgungen. Mehrere Sondertilgungen im selben Jahr werden addiert.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentScenarioParametersDto(
+    @Min(VALIDATION_MIN_LOAN_AMOUNT)
+    @Max(VALIDATION_MAX_LOAN_AMOUNT)
+    @Digits(integer = 8, fraction = 2)
+    double loanAmount,
+
+    @Min(VALIDATION_MIN_INITIAL_REPAYMENT)
+    @Max(VALIDATION_MAX_INITIAL_REPAYMENT)
+    double initialRepayment,
+
+    @Min(VALIDATION_MIN_INTEREST_RATE)
+    @Max(VALIDATION_MAX_INTEREST_RATE)
+    double interestRate,
+
+    @Min(VALIDATION_MIN_FIXED_INTEREST_PERIOD)
+    @Max(VALIDATION_MAX_FIXED_INTEREST_PERIOD)
+    int fixedInterestPeriod,
+
+    @Min(VALIDATION_MIN_INTEREST_RATE)
+    @Max(VALIDATION_MAX_INTEREST_RATE)
+    Double followUpInterestRate,
+
+    @Size(max = VALIDATION_MAX_SPECIAL_REPAYMENTS)
+    List<@NotNull @Valid RepaymentSpecialRepaymentDto> specialRepayments
+)
+{}
@@ -0,0 +1,27 @@
+package com.onordhusen.repayment.dtos;
+
+/**
+ * Jährliche Aufgliederung eines Szenarios.
+ *
+ * @param year Das Jahr des Datensatzes. In Form zb. 1 = 1 Jahr
+ * @param rate Die Rate des Jahrs ohne Sondertilgung. In Form zb. EURO.CENT.
+ * @param interestPortion Der Zinsanteil des Jahrs. In Form zb. EURO.CENT.
+ * @param repaymentPortion Der Tilgungsanteil der Raten des Jahrs. In Form zb. EURO.CENT.
+ * @param specialRepayment Die Sondertilgung am Ende des Jahrs. In Form zb. EURO.CENT.
+ * @param interestRate Der Sollzinssatz des Jahrs. In Form zb. 3.6 = 3,6 %.
+ * @param residualDebt Die Restschuld am Ende des Jahrs. In Form zb. EURO.CENT.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentScenarioPlanDto(
+    int year,
+    double rate,
+    double interestPortion,
+    double repaymentPortion,
+    double specialRepayment,
+    double interestRate,
+    double residualDebt
+)
+{}
@@ -0,0 +1,30 @@
+package com.onordhusen.repayment.dtos;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+
+/**
+ * Eine Sondertilgung am Ende eines Jahrs.
+ *
+ * @param year Das Jahr, an dessen Ende die Sondertilgung gezahlt wird. In Form zb. 1 = 1 Jahr
+ * @param amount Der Betrag der Sondertilgung. In Form zb. EURO.CENT.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentSpecialRepaymentDto(
+    @Min(1)
+    @Max(VALIDATION_MAX_SPECIAL_REPAYMENT_YEAR)
+    int year,
+
+    @DecimalMin("0.01")
+    @Max(VALIDATION_MAX_LOAN_AMOUNT)
+    @Digits(integer = 8, fraction = 2)
+    double amount
+)
+{}
@@ -0,0 +1,34 @@
+package com.onordhusen.repayment.dtos;
+
+/**
+ * Zusammenfassung eines Tilgungsplans ohne jährliche Aufgliederung als Datensatz.
+ * Die Felder entsprechen denen des {@link RepaymentDto}.
+ *
+ * @param loanAmount Der Darlehensbetrag. In Form zb. EURO.CENT.
+ * @param totalInterest Der Gesamtzinssatz. In Form zb. EURO.CENT.
+ * @param monthlyRate Die monatliche Rate. In Form zb. EURO.CENT.
+ * @param initialRepaymentRate Die anfängliche Tilgung. In Form zb. 3.6 = 3,6 %.
+ * @param interestRate Der Sollzinssatz. In Form zb. 3.6 = 3,6 %
+ * @param fixedInterestPeriod Die Dauer der Sollzinsbindung. In Form zb. 10 = 10 Jahre.
+ * @param residualDebt Die Restschuld nach Ablauf der Sollzinsbindung. In Form zb. EURO.CENT.
+ * @param yearPeriod Die Jahre der Dauer des Kredits. In Form zb. 10 = 10 Jahre.
+ * @param monthPeriod Die Monate der Dauer des Kredits. In Form zb. 5 = 5 Monate.
+ * @param totalRepayment Der Gesamtbetrag. In Form zb. EURO.CENT.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentSummaryDto(
+    double loanAmount,
+    double totalInterest,
+    double monthlyRate,
+    double initialRepaymentRate,
+    double interestRate,
+    int fixedInterestPeriod,
+    double residualDebt,
+    int yearPeriod,
+    int monthPeriod,
+    double totalRepayment
+)
+{}
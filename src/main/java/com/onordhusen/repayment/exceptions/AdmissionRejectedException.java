@@ -0,0 +1,41 @@
+package com.onordhusen.repayment.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Wird geworfen, wenn ein Request wegen Überlast nicht angenommen wird.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String requestClass;
+
+    private final Duration retryAfter;
+
+    /**
+     * @param requestClass Die Klasse des Requests, zb. cheap oder expensive.
+     * @param retryAfter Nach welcher Zeit der Client es erneut versuchen soll.
+     *
+     * @since 1.1.0
+     */
+    public AdmissionRejectedException(final String requestClass, final Duration retryAfter) {
+        // Ohne Stacktrace, unter Überlast wird die Exception sehr oft geworfen.
+        super("too many concurrent " + requestClass + " requests, retry later", null, false, false);
+        this.requestClass = requestClass;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getRequestClass() {
+        return requestClass;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.onordhusen.repayment.exceptions;
+
+/**
+ * Wird geworfen, wenn Parameter einzeln gültig sind, in Kombination aber nicht verarbeitet werden können.
+ * Zb. ein Wertebereich, dessen Anfang hinter dem Ende liegt.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class InvalidParameterException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String field;
+
+    /**
+     * @param field Der Name des fehlerhaften Parameters bzw. der Parametergruppe.
+     * @param message Die Fehlermeldung im Format der Validierungsfehler. In Form zb. "field must be ...".
+     *
+     * @since 1.1.0
+     */
+    public InvalidParameterException(final String field, final String message) {
+        super(message);
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.onordhusen.repayment.exceptions.handlers;
+
+import com.onordhusen.repayment.exceptions.AdmissionRejectedException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+
+/**
+ * Beantwortet wegen Überlast abgelehnte Requests mit 503 und Retry-After.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@RestControllerAdvice
+public class AdmissionRejectedExceptionHandler {
+
+    private final Logger logger;
+
+    public AdmissionRejectedExceptionHandler() {
+        this.logger = LoggerFactory.getLogger(AdmissionRejectedExceptionHandler.class);
+    }
+
+    /**
+     * Fängt AdmissionRejectedException ab und gibt eine custom response zurück.
+     * Geloggt wird nur auf debug, unter Überlast würde das Log sonst selbst zur Last.
+     * Die Ablehnungen zählt {@code repayment.admission.rejections}.
+     *
+     * @param exception AdmissionRejectedException
+     * @return Die Fehlermeldung als message.
+     *
+     * @since 1.1.0
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<HashMap<String, String>> handleAdmissionRejected(final AdmissionRejectedException exception) {
+        logger.debug(exception.getMessage());
+        HashMap<String, String> response = new HashMap<>();
+        response.put("message", exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, exception.getRetryAfter().toSeconds())))
+            .body(response);
+    }
+
+}
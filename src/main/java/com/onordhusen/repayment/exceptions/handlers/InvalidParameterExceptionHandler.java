@@ -0,0 +1,55 @@
+package com.onordhusen.repayment.exceptions.handlers;
+
+import com.onordhusen.repayment.exceptions.InvalidParameterException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fängt Fehler in der Kombination von Parametern ab und loggt diese.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@RestControllerAdvice
+public class InvalidParameterExceptionHandler {
+
+    private final Logger logger;
+
+    private final MeterRegistry meterRegistry;
+
+    public InvalidParameterExceptionHandler(final MeterRegistry meterRegistry) {
+        this.logger = LoggerFactory.getLogger(InvalidParameterExceptionHandler.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Fängt InvalidParameterException ab und gibt eine custom response zurück.
+     * Das Format entspricht dem des ValidationExceptionHandler.
+     * Jeder Fehler wird als {@code repayment.validation.rejections} je Parameter gezählt.
+     *
+     * @param exception InvalidParameterException
+     * @return Der Fehler als errors.
+     *
+     * @since 1.1.0
+     */
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<Map<String, List<String>>> handleInvalidParameter(final InvalidParameterException exception) {
+        logger.warn(exception.getMessage());
+        meterRegistry.counter("repayment.validation.rejections", "field", exception.getField(), "reason", "combination").increment();
+        Map<String, List<String>> errorMessages = new HashMap<>();
+        errorMessages.put("errors", List.of(exception.getMessage()));
+        return new ResponseEntity<>(errorMessages, HttpStatus.BAD_REQUEST);
+    }
+
+}
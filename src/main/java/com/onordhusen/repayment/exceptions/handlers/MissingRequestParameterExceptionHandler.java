@@ -1,5 +1,6 @@
 package com.onordhusen.repayment.exceptions.handlers;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -22,13 +23,17 @@ public class MissingRequestParameterExceptionHandler {
 
     private final Logger logger;
 
-    public MissingRequestParameterExceptionHandler() {
+    private final MeterRegistry meterRegistry;
+
+    public MissingRequestParameterExceptionHandler(final MeterRegistry meterRegistry) {
         this.logger = LoggerFactory.getLogger(MissingRequestParameterExceptionHandler.class);
+        this.meterRegistry = meterRegistry;
     }
 
 
     /**
      * Fängt MissingServletRequestParameterException ab und gibt eine custom response zurück.
+     * Jeder Fehler wird als {@code repayment.validation.rejections} je Parameter gezählt.
      *
      * @param exception MissingServletRequestParameterException
      * @return Die Fehlermeldung als message.
@@ -38,6 +43,7 @@ public class MissingRequestParameterExceptionHandler {
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<HashMap<String, String>> handleNoHandlerFound(MissingServletRequestParameterException exception) {
         logger.warn(exception.getMessage());
+        meterRegistry.counter("repayment.validation.rejections", "field", exception.getParameterName(), "reason", "missing").increment();
         HashMap<String, String> response = new HashMap<>();
         response.put("message", exception.getMessage());
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
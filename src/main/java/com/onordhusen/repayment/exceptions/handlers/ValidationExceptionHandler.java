@@ -1,5 +1,6 @@
 package com.onordhusen.repayment.exceptions.handlers;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSourceResolvable;
@@ -27,12 +28,16 @@ public class ValidationExceptionHandler {
 
     private final Logger logger;
 
-    public ValidationExceptionHandler() {
+    private final MeterRegistry meterRegistry;
+
+    public ValidationExceptionHandler(final MeterRegistry meterRegistry) {
         this.logger = LoggerFactory.getLogger(ValidationExceptionHandler.class);
+        this.meterRegistry = meterRegistry;
     }
 
     /**
      * Fängt HandlerMethodValidationException ab und gibt eine custom response zurück.
+     * Jeder Fehler wird als {@code repayment.validation.rejections} je Parameter gezählt.
      *
      * @param validationException HandlerMethodValidationException
      * @return Alle fehlerhaften fields und deren Validierungsfehler als message.
@@ -59,6 +64,7 @@ public class ValidationExceptionHandler {
             }
             final String msg = field + ' ' + errorMessage;
             logger.warn(msg);
+            meterRegistry.counter("repayment.validation.rejections", "field", field, "reason", "constraint").increment();
             errors.add(msg);
         }
         errorMessages.put("errors", errors);
@@ -0,0 +1,48 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen der Zugangskontrolle unter Überlast.
+ * Werden aus der application.properties unter {@code repayment.admission.*} gelesen.
+ * Günstige Requests sind einzelne Tilgungspläne und Szenarien, teure sind Stapel, Vergleichstabellen und Portfolios.
+ *
+ * @param enabled Ob Requests über dem Limit sofort mit 503 abgelehnt werden.
+ * @param retryAfter Der Retry-After der abgelehnten Requests.
+ * @param minLimit Das kleinste Limit je Klasse.
+ * @param cheapInitialLimit Das Limit gleichzeitiger günstiger Requests beim Start.
+ * @param cheapMaxLimit Das größte Limit gleichzeitiger günstiger Requests.
+ * @param expensiveInitialLimit Das Limit gleichzeitiger teurer Requests beim Start.
+ * @param expensiveMaxLimit Das größte Limit gleichzeitiger teurer Requests.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.admission")
+public record RepaymentAdmissionProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("1s")
+    Duration retryAfter,
+
+    @DefaultValue("1")
+    int minLimit,
+
+    @DefaultValue("20")
+    int cheapInitialLimit,
+
+    @DefaultValue("200")
+    int cheapMaxLimit,
+
+    @DefaultValue("2")
+    int expensiveInitialLimit,
+
+    @DefaultValue("16")
+    int expensiveMaxLimit
+)
+{}
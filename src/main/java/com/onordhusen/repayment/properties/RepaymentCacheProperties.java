@@ -0,0 +1,35 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen des Ergebnis-Caches vor {@code RepaymentService.calculate}.
+ * Werden aus der application.properties unter {@code repayment.cache.*} gelesen.
+ *
+ * @param enabled Ob der Cache aktiv ist.
+ * @param maximumSize Maximale Anzahl gecachter Tilgungspläne. Wird ignoriert, wenn maximumWeight gesetzt ist.
+ * @param maximumWeight Maximales Gewicht aller gecachten Tilgungspläne. Ein Tilgungsplan wiegt 1 + Anzahl Jahreszeilen.
+ *                      0 = deaktiviert, dann greift maximumSize.
+ * @param expireAfterWrite Optionale Lebensdauer eines Eintrags. Leer = unbegrenzt.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.cache")
+public record RepaymentCacheProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("10000")
+    long maximumSize,
+
+    @DefaultValue("0")
+    long maximumWeight,
+
+    Duration expireAfterWrite
+)
+{}
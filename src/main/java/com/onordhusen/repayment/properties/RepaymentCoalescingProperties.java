@@ -0,0 +1,22 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Einstellungen der Bündelung gleichzeitiger Berechnungen.
+ * Werden aus der application.properties unter {@code repayment.coalescing.*} gelesen.
+ *
+ * @param enabled Ob gleichzeitige Requests mit denselben Parametern eine gemeinsame Berechnung teilen.
+ *                Ohne Bündelung rechnen gleichzeitige Requests auch bei aktivem Cache jeweils selbst, bis das erste Ergebnis im Cache liegt.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.coalescing")
+public record RepaymentCoalescingProperties(
+    @DefaultValue("true")
+    boolean enabled
+)
+{}
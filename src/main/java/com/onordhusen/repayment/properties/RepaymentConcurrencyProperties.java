@@ -0,0 +1,30 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Einstellungen der Ausführung rechenintensiver Berechnungen.
+ * Werden aus der application.properties unter {@code repayment.concurrency.*} gelesen.
+ *
+ * @param enabled Ob Berechnungen auf einem eigenen, an die CPU-Kerne gebundenen Pool laufen.
+ * @param parallelism Anzahl der Threads des Pools. 0 = Anzahl der CPU-Kerne.
+ * @param maxInFlight Maximale Anzahl gleichzeitig berechneter Tilgungspläne. Stapel und Vergleichstabellen zählen je Tilgungsplan,
+ *                    höchstens aber mit allen Plätzen. Portfolios zählen nicht. Weitere Requests warten. 0 = unbegrenzt.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.concurrency")
+public record RepaymentConcurrencyProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("0")
+    int parallelism,
+
+    @DefaultValue("0")
+    int maxInFlight
+)
+{}
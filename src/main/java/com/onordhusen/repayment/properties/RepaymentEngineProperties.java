@@ -0,0 +1,32 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Einstellungen der Berechnungs-Engine.
+ * Werden aus der application.properties unter {@code repayment.engine.*} gelesen.
+ *
+ * @param primary Die Engine, mit der die Controller rechnen. {@code default} = double, {@code fixed-point} = ganze Cent.
+ * @param shadow Die Engine, die im Schattenbetrieb gegen die primäre verglichen wird. Leer = kein Schattenbetrieb.
+ * @param shadowSampleRate Der Anteil der Berechnungen, die zusätzlich mit der Schatten-Engine gerechnet werden. Zwischen 0 und 1.
+ * @param shadowQueueCapacity Die Anzahl wartender Vergleiche. Weitere Vergleiche werden verworfen.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.engine")
+public record RepaymentEngineProperties(
+    @DefaultValue("default")
+    String primary,
+
+    String shadow,
+
+    @DefaultValue("0.01")
+    double shadowSampleRate,
+
+    @DefaultValue("100")
+    int shadowQueueCapacity
+)
+{}
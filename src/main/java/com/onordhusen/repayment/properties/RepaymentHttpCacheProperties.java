@@ -0,0 +1,34 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen für das HTTP-Caching der Tilgungspläne in Browsern und CDNs.
+ * Werden aus der application.properties unter {@code repayment.http-cache.*} gelesen.
+ *
+ * @param enabled Ob ETag und Cache-Control gesetzt werden und If-None-Match mit 304 beantwortet wird.
+ * @param maxAge Wie lange Browser die Antwort ohne Nachfrage verwenden dürfen. 0 = bei jeder Verwendung per ETag nachfragen.
+ * @param sharedMaxAge Optionale abweichende Dauer für geteilte Caches wie CDNs (s-maxage). Leer = maxAge gilt.
+ * @param shared Ob geteilte Caches die Antwort speichern dürfen (public), sonst nur der Browser (private).
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.http-cache")
+public record RepaymentHttpCacheProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("1h")
+    Duration maxAge,
+
+    Duration sharedMaxAge,
+
+    @DefaultValue("true")
+    boolean shared
+)
+{}
@@ -0,0 +1,21 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Einstellungen der Metriken der Berechnung.
+ * Werden aus der application.properties unter {@code repayment.metrics.*} gelesen.
+ *
+ * @param enabled Ob Dauer und Länge der Berechnungen gemessen werden.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.metrics")
+public record RepaymentMetricsProperties(
+    @DefaultValue("true")
+    boolean enabled
+)
+{}
@@ -0,0 +1,35 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Einstellungen der gespeicherten Tilgungspläne.
+ * Werden aus der application.properties unter {@code repayment.plan-store.*} gelesen.
+ *
+ * @param directory Verzeichnis der Segment-Dateien. Leer = Speichern deaktiviert.
+ * @param segmentSize Größe einer Segment-Datei. Höchstens 2 GB, ein Tilgungsplan muss in ein Segment passen.
+ * @param fsync Ob jeder Tilgungsplan vor der Antwort auf die Platte geschrieben wird. Sonst entscheidet das Betriebssystem.
+ * @param compactionThreshold Anteil noch gültiger Daten, unter dem ein volles Segment beim Wechsel auf ein neues kompaktiert wird.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.plan-store")
+public record RepaymentPlanStoreProperties(
+    Path directory,
+
+    @DefaultValue("64MB")
+    DataSize segmentSize,
+
+    @DefaultValue("true")
+    boolean fsync,
+
+    @DefaultValue("0.5")
+    double compactionThreshold
+)
+{}
@@ -0,0 +1,22 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Einstellungen der Portfolio-Berechnung.
+ * Werden aus der application.properties unter {@code repayment.portfolio.*} gelesen.
+ *
+ * @param directory Verzeichnis, aus dem Batch-Jobs CSV-Dateien per Dateiname berechnen lassen können.
+ *                  Leer = nur Upload, keine lokalen Dateien.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.portfolio")
+public record RepaymentPortfolioProperties(
+    Path directory
+)
+{}
@@ -0,0 +1,27 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen der gespeicherten Szenarien.
+ * Werden aus der application.properties unter {@code repayment.scenario.*} gelesen.
+ *
+ * @param maximumSize Maximale Anzahl gespeicherter Szenarien.
+ * @param expireAfterAccess Lebensdauer eines Szenarios nach dem letzten Zugriff.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.scenario")
+public record RepaymentScenarioProperties(
+    @DefaultValue("10000")
+    long maximumSize,
+
+    @DefaultValue("30m")
+    Duration expireAfterAccess
+)
+{}
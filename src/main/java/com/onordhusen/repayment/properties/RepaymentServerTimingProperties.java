@@ -0,0 +1,22 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Einstellungen für die Aufschlüsselung der Antwortzeit im Header {@code Server-Timing}.
+ * Werden aus der application.properties unter {@code repayment.server-timing.*} gelesen.
+ *
+ * @param enabled Ob die Dauer der Phasen eines Requests als Header {@code Server-Timing} zurückgegeben wird.
+ *                Nur an Requests mit dem Header {@code X-Repayment-Server-Timing}, deren Antworten nicht gecacht werden.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.server-timing")
+public record RepaymentServerTimingProperties(
+    @DefaultValue("false")
+    boolean enabled
+)
+{}
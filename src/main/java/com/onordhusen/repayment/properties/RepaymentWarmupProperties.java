@@ -0,0 +1,31 @@
+package com.onordhusen.repayment.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Einstellungen des Aufwärmens nach dem Start.
+ * Werden aus der application.properties unter {@code repayment.warmup.*} gelesen.
+ *
+ * @param enabled Ob die Anwendung nach dem Start Tilgungspläne berechnet und Requests an sich selbst sendet, bevor sie als bereit gilt.
+ * @param iterations Anzahl der Iterationen aus je einer Berechnung und einem Request.
+ * @param timeBudget Wie lange höchstens aufgewärmt wird. Danach gilt die Anwendung auch mit weniger Iterationen als bereit.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ConfigurationProperties(prefix = "repayment.warmup")
+public record RepaymentWarmupProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("3000")
+    int iterations,
+
+    @DefaultValue("30s")
+    Duration timeBudget
+)
+{}
@@ -0,0 +1,177 @@
+package com.onordhusen.repayment.services;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Begrenzt die gleichzeitig bearbeiteten Requests auf ein Limit, das sich aus der gemessenen Latenz anpasst.
+ *
+ * Die Latenzen werden in Fenstern von {@link #WINDOW_SAMPLES} Requests gemittelt (kurzfristige Latenz) und
+ * zusätzlich über etwa {@link #LONG_WINDOW} Fenster geglättet (langfristige Latenz). Steigt die kurzfristige Latenz
+ * über das {@link #TOLERANCE}-fache der langfristigen, staut sich Arbeit und das Limit sinkt um bis zur Hälfte.
+ * Sonst wächst es um die Wurzel des Limits. Das Limit ändert sich nur, wenn es zuletzt zu mindestens der Hälfte
+ * ausgeschöpft war, damit es bei wenig Last nicht grundlos wächst. Eine dauerhaft höhere Latenz, zb. durch teurere Requests,
+ * wird nach einigen {@link #LONG_WINDOW} Fenstern zur neuen langfristigen Latenz und das Limit wächst wieder.
+ *
+ * Das Prüfen des Limits ist ein CAS ohne Sperre. Latenz, Anzahl und Auslastung eines Fensters werden ebenfalls ohne Sperre
+ * gesammelt. Nur der Request, der ein Fenster füllt, wertet es synchronisiert aus. Requests, die währenddessen fertig werden,
+ * können noch in das ausgewertete oder schon in das nächste Fenster fallen, für eine Schätzung der Latenz genügt das.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    static final int WINDOW_SAMPLES = 10;
+
+    static final int LONG_WINDOW = 100;
+
+    static final double TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight;
+
+    private final LongAdder rejectedCount;
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+
+    private double longRttNanos;
+
+    private final AtomicLong windowRttNanos;
+
+    private final AtomicInteger windowSamples;
+
+    private final AtomicInteger windowMaxInFlight;
+
+    /**
+     * @param initialLimit Das Limit beim Start.
+     * @param minLimit Das kleinste Limit.
+     * @param maxLimit Das größte Limit.
+     *
+     * @since 1.1.0
+     */
+    public AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+        this.inFlight = new AtomicInteger();
+        this.rejectedCount = new LongAdder();
+        this.windowRttNanos = new AtomicLong();
+        this.windowSamples = new AtomicInteger();
+        this.windowMaxInFlight = new AtomicInteger();
+    }
+
+    /**
+     * Belegt einen Platz, wenn das Limit nicht erreicht ist.
+     * Jeder belegte Platz muss mit {@link #release(long)} wieder freigegeben werden.
+     *
+     * @return Ob der Request bearbeitet werden darf.
+     *
+     * @since 1.1.0
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            final int current = inFlight.get();
+            if (current >= limit) {
+                rejectedCount.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gibt einen Platz frei und passt mit der Latenz des Requests das Limit an.
+     *
+     * @param rttNanos Die Dauer des Requests in Nanosekunden.
+     *
+     * @since 1.1.0
+     */
+    public void release(final long rttNanos) {
+        final int current = inFlight.getAndDecrement();
+        windowRttNanos.addAndGet(rttNanos);
+        if (current > windowMaxInFlight.get()) {
+            windowMaxInFlight.accumulateAndGet(current, Math::max);
+        }
+        if (windowSamples.incrementAndGet() == WINDOW_SAMPLES) {
+            evaluateWindow();
+        }
+    }
+
+    /**
+     * Wertet ein volles Fenster aus und setzt es zurück. Wird nur vom Request aufgerufen, der das Fenster gefüllt hat.
+     */
+    private synchronized void evaluateWindow() {
+        final int samples = windowSamples.getAndSet(0);
+        final double shortRttNanos = (double) windowRttNanos.getAndSet(0) / samples;
+        final int maxInFlight = windowMaxInFlight.getAndSet(0);
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRttNanos;
+        }
+        else {
+            longRttNanos += (shortRttNanos - longRttNanos) / LONG_WINDOW;
+        }
+        // Nach einer Lastspitze erholt sich die langfristige Latenz schneller, sonst bleibt das Limit lange zu hoch.
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+        final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        final double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Das aktuelle Limit.
+     *
+     * @return Das Limit.
+     *
+     * @since 1.1.0
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Anzahl der gerade bearbeiteten Requests.
+     *
+     * @return Die Anzahl.
+     *
+     * @since 1.1.0
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Anzahl der abgelehnten Requests.
+     *
+     * @return Die Anzahl.
+     *
+     * @since 1.1.0
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+}
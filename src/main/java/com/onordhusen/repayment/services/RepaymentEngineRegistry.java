@@ -0,0 +1,71 @@
+package com.onordhusen.repayment.services;
+
+import com.onordhusen.repayment.services.interfaces.RepaymentEngine;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Alle Berechnungs-Engines des Kontexts nach Namen.
+ * Mehrere Engines sind gleichzeitig aktiv, welche die Controller verwenden, legt die Konfiguration fest.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Component
+public class RepaymentEngineRegistry {
+
+    private final Map<String, RepaymentEngine> engines = new TreeMap<>();
+
+    /**
+     * @param engines Alle Beans vom Typ {@link RepaymentEngine}.
+     * @throws IllegalStateException Wenn zwei Engines denselben Namen haben.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentEngineRegistry(final List<RepaymentEngine> engines) {
+        for (RepaymentEngine engine: engines) {
+            final RepaymentEngine previous = this.engines.putIfAbsent(engine.getEngineName(), engine);
+            if (previous != null) {
+                throw new IllegalStateException(
+                    "Repayment engine " + engine.getEngineName() + " is registered twice: "
+                        + previous.getClass().getName() + ", " + engine.getClass().getName()
+                );
+            }
+        }
+    }
+
+    /**
+     * Liefert eine Engine anhand ihres Namens.
+     *
+     * @param name Der Name der Engine.
+     * @return Die Engine.
+     * @throws IllegalStateException Wenn keine Engine diesen Namen hat.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentEngine get(final String name) {
+        final RepaymentEngine engine = engines.get(name);
+        if (engine == null) {
+            throw new IllegalStateException("Unknown repayment engine: " + name + ", available: " + engines.keySet());
+        }
+        return engine;
+    }
+
+    /**
+     * Die Namen aller Engines.
+     *
+     * @return Die Namen, sortiert.
+     *
+     * @since 1.1.0
+     */
+    public Set<String> getNames() {
+        return engines.keySet();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.onordhusen.repayment.services;
+
+/**
+ * Normalisierter Schlüssel der Eingabeparameter eines Tilgungsplans.
+ * Beträge werden in Cent, Prozentsätze in Basispunkten abgebildet.
+ *
+ * @param loanAmountCents Der Darlehensbetrag in Cent. In Form zb. 25000000 = 250.000,00 €.
+ * @param initialRepaymentBasisPoints Die anfängliche Tilgung in Basispunkten. In Form zb. 360 = 3,6 %.
+ * @param interestRateBasisPoints Der Sollzinssatz in Basispunkten. In Form zb. 360 = 3,6 %.
+ * @param fixedInterestPeriod Die Dauer der Sollzinsbindung. In Form zb. 10 = 10 Jahre.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public record RepaymentParametersKey(
+    long loanAmountCents,
+    long initialRepaymentBasisPoints,
+    long interestRateBasisPoints,
+    int fixedInterestPeriod
+)
+{
+
+    /**
+     * Normalisiert die Eingabeparameter.
+     * Parameter mit mehr Nachkommastellen als Cent bzw. Basispunkte lassen sich nicht verlustfrei
+     * abbilden, ebenso NaN, zu große Werte und -0.0. Für diese wird kein Schlüssel erzeugt,
+     * damit unterschiedliche Eingaben nie denselben Schlüssel teilen.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @return Der Schlüssel oder null, wenn die Parameter nicht verlustfrei normalisiert werden können.
+     *
+     * @since 1.1.0
+     */
+    public static RepaymentParametersKey of(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        final long loanAmountCents = Math.round(loanAmount * 100);
+        final long initialRepaymentBasisPoints = Math.round(initialRepayment * 100);
+        final long interestRateBasisPoints = Math.round(interestRate * 100);
+
+        // Nur verlustfrei normalisierbare Parameter erhalten einen Schlüssel.
+        // Double.compare unterscheidet anders als != auch -0.0 von 0.0, das im Tilgungsplan als -0.0 erscheint.
+        if (Double.compare(loanAmountCents / 100.0, loanAmount) != 0
+                || Double.compare(initialRepaymentBasisPoints / 100.0, initialRepayment) != 0
+                || Double.compare(interestRateBasisPoints / 100.0, interestRate) != 0) {
+            return null;
+        }
+
+        return new RepaymentParametersKey(
+            loanAmountCents,
+            initialRepaymentBasisPoints,
+            interestRateBasisPoints,
+            fixedInterestPeriod
+        );
+    }
+
+}
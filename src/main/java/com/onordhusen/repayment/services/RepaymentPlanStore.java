@@ -0,0 +1,523 @@
+package com.onordhusen.repayment.services;
+
+import com.onordhusen.repayment.properties.RepaymentPlanStoreProperties;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Speichert berechnete Tilgungspläne dauerhaft in einem Log aus Segment-Dateien, die nur angehängt werden.
+ *
+ * Jede Segment-Datei hat eine feste Größe und ist vollständig in den Speicher gemappt. Ein Datensatz besteht aus
+ * Länge, CRC32C, Typ, Id und den Bytes des Tilgungsplans. Ein Index im Speicher verweist je Id auf Segment und Position.
+ * Gelesen wird ein Ausschnitt des Mappings, also ohne read-Aufruf, Kopie in den Heap oder erneute Serialisierung.
+ * Geschrieben wird von einem Thread zur Zeit. Lesen ist ohne Sperre möglich, da Datensätze nie überschrieben werden.
+ *
+ * Beim Start wird das Verzeichnis über die Datei {@value #LOCK_FILE} gesperrt, damit nicht zwei Instanzen
+ * in dieselben Segmente schreiben. Hält ein anderer Prozess die Sperre, schlägt der Start sofort fehl.
+ * Danach wird der Index aus allen Segmenten aufgebaut. Das Lesen eines Segments endet beim ersten nie beschriebenen
+ * oder durch einen Absturz unvollständigen Datensatz, erkennbar an der Prüfsumme. Dahinter wird weitergeschrieben.
+ * Gelöschte Tilgungspläne bleiben bis zur Kompaktierung im Segment, ein Löschvermerk verdeckt sie.
+ * Sinkt der Anteil gültiger Daten eines vollen Segments unter die Schwelle, werden die gültigen Datensätze beim Wechsel
+ * auf ein neues Segment umkopiert und die Datei gelöscht. Bereits gelesene Ausschnitte bleiben dabei gültig,
+ * da das Mapping erst mit dem letzten Ausschnitt freigegeben wird.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Component
+public class RepaymentPlanStore {
+
+    /**
+     * Länge (4), CRC32C (4), Typ (1), Id (16).
+     */
+    static final int HEADER_SIZE = 25;
+
+    private static final int CRC_OFFSET = 4;
+
+    private static final int TYPE_OFFSET = 8;
+
+    private static final int ID_OFFSET = 9;
+
+    /**
+     * Nie beschriebener Bereich am Ende eines Segments.
+     */
+    private static final byte TYPE_END = 0;
+
+    private static final byte TYPE_PLAN = 1;
+
+    private static final byte TYPE_DELETE = 2;
+
+    private static final String SEGMENT_PREFIX = "plans-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final String LOCK_FILE = ".lock";
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final Logger logger = LoggerFactory.getLogger(RepaymentPlanStore.class);
+
+    private final RepaymentPlanStoreProperties properties;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    /**
+     * Der Kanal hält die Sperre auf das Verzeichnis, bis er geschlossen wird oder der Prozess endet.
+     */
+    private final FileChannel lockChannel;
+
+    private final ConcurrentHashMap<UUID, Location> index = new ConcurrentHashMap<>();
+
+    /**
+     * Alle Segmente nach Nummer. Wird nur unter der Sperre des Stores verändert.
+     */
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+
+    /**
+     * Gelöschte Tilgungspläne mit der Nummer des Segments, in dem ihr Datensatz noch liegt.
+     * Solange dieses Segment existiert, muss der Löschvermerk bei einer Kompaktierung erhalten bleiben.
+     */
+    private final Map<UUID, Long> tombstones = new HashMap<>();
+
+    private Segment active;
+
+    /**
+     * Öffnet und sperrt das Verzeichnis und baut den Index aus den vorhandenen Segmenten auf.
+     *
+     * @param properties Die Einstellungen des Stores.
+     * @throws IOException Wenn das Verzeichnis oder ein Segment nicht geöffnet werden kann.
+     * @throws IllegalStateException Wenn eine andere Instanz das Verzeichnis gesperrt hat.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentPlanStore(final RepaymentPlanStoreProperties properties) throws IOException {
+        this.properties = properties;
+        this.directory = properties.directory();
+        if (properties.segmentSize().toBytes() <= HEADER_SIZE || properties.segmentSize().toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("repayment.plan-store.segment-size must be between " + HEADER_SIZE + " bytes and 2GB");
+        }
+        this.segmentSize = (int) properties.segmentSize().toBytes();
+        if (directory == null) {
+            this.lockChannel = null;
+            return;
+        }
+        Files.createDirectories(directory);
+        this.lockChannel = lock(directory);
+        recover();
+    }
+
+    /**
+     * Ob ein Verzeichnis konfiguriert ist.
+     *
+     * @return true, wenn Tilgungspläne gespeichert werden können.
+     *
+     * @since 1.1.0
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Speichert einen Tilgungsplan unter einer neuen Id.
+     * Der gespeicherte Ausschnitt wird noch unter der Sperre bestimmt. Ein gleichzeitiges Löschen der neuen Id
+     * kann den Tilgungsplan für die Antwort also nicht mehr entfernen.
+     *
+     * @param plan Der serialisierte Tilgungsplan.
+     * @return Die Id und der gespeicherte Tilgungsplan wie von {@link #fetch(UUID)}.
+     * @throws IOException Wenn nicht geschrieben werden kann.
+     *
+     * @since 1.1.0
+     */
+    public StoredPlan save(final byte[] plan) throws IOException {
+        requireEnabled();
+        final UUID id = UUID.randomUUID();
+        synchronized (this) {
+            final boolean rolled = ensureCapacity(HEADER_SIZE + plan.length);
+            index.put(id, append(TYPE_PLAN, id, ByteBuffer.wrap(plan)));
+            if (rolled) {
+                compact();
+            }
+            return new StoredPlan(id, slice(index.get(id)));
+        }
+    }
+
+    /**
+     * Liefert einen gespeicherten Tilgungsplan als schreibgeschützten Ausschnitt des Mappings.
+     *
+     * @param id Die Id des Tilgungsplans.
+     * @return Der serialisierte Tilgungsplan oder null, wenn die Id unbekannt oder gelöscht ist.
+     *
+     * @since 1.1.0
+     */
+    public ByteBuffer fetch(final UUID id) {
+        final Location location = index.get(id);
+        if (location == null) {
+            return null;
+        }
+        return slice(location);
+    }
+
+    /**
+     * Löscht einen gespeicherten Tilgungsplan.
+     *
+     * @param id Die Id des Tilgungsplans.
+     * @return false, wenn die Id unbekannt oder bereits gelöscht ist.
+     * @throws IOException Wenn nicht geschrieben werden kann.
+     *
+     * @since 1.1.0
+     */
+    public synchronized boolean delete(final UUID id) throws IOException {
+        requireEnabled();
+        final Location location = index.get(id);
+        if (location == null) {
+            return false;
+        }
+        final boolean rolled = ensureCapacity(HEADER_SIZE);
+        append(TYPE_DELETE, id, EMPTY);
+        index.remove(id);
+        location.segment.liveBytes -= location.recordSize();
+        tombstones.put(id, location.segment.number);
+        if (rolled) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Anzahl der gespeicherten Tilgungspläne.
+     *
+     * @return Die Anzahl.
+     *
+     * @since 1.1.0
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Anzahl der Segment-Dateien.
+     *
+     * @return Die Anzahl.
+     *
+     * @since 1.1.0
+     */
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Schreibt das aktive Segment beim Herunterfahren auf die Platte und gibt das Verzeichnis frei.
+     *
+     * @since 1.1.0
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            active.buffer.force();
+        }
+        if (lockChannel != null) {
+            try {
+                lockChannel.close();
+            }
+            catch (IOException e) {
+                logger.error(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sperrt das Verzeichnis exklusiv. Die Sperre gilt über Prozessgrenzen hinweg,
+     * das Betriebssystem gibt sie auch nach einem Absturz frei.
+     *
+     * @return Der Kanal, der die Sperre hält.
+     */
+    private static FileChannel lock(final Path directory) throws IOException {
+        final FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        boolean locked;
+        try {
+            locked = channel.tryLock() != null;
+        }
+        catch (OverlappingFileLockException e) {
+            // Diese JVM hält die Sperre bereits über einen anderen Store.
+            locked = false;
+        }
+        if (!locked) {
+            channel.close();
+            throw new IllegalStateException("plan store directory " + directory + " is locked by another instance");
+        }
+        return channel;
+    }
+
+    private static ByteBuffer slice(final Location location) {
+        return location.segment.buffer.slice(location.offset + HEADER_SIZE, location.length).asReadOnlyBuffer();
+    }
+
+    private void requireEnabled() {
+        if (!isEnabled()) {
+            throw new IllegalStateException("repayment.plan-store.directory is not configured");
+        }
+    }
+
+    /**
+     * Liest alle Segmente in der Reihenfolge ihrer Nummern und baut Index und Löschvermerke auf.
+     */
+    private synchronized void recover() throws IOException {
+        final List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files
+                .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted()
+                .toList();
+        }
+        for (Path path: paths) {
+            final String name = path.getFileName().toString();
+            final long number = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            final Segment segment = Segment.map(path, number, (int) Math.max(segmentSize, Files.size(path)));
+            segments.put(number, segment);
+            scan(segment);
+        }
+        if (segments.isEmpty()) {
+            roll();
+        }
+        else {
+            active = segments.lastEntry().getValue();
+        }
+        // Löschvermerke zu Datensätzen in bereits kompaktierten Segmenten werden nicht mehr gebraucht.
+        tombstones.values().removeIf(number -> !segments.containsKey(number));
+        logger.info("plan store recovered {} plans from {} segments in {}", index.size(), segments.size(), directory);
+    }
+
+    private void scan(final Segment segment) {
+        final MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset + HEADER_SIZE <= buffer.capacity()) {
+            final byte type = buffer.get(offset + TYPE_OFFSET);
+            if (type == TYPE_END) {
+                break;
+            }
+            final int length = buffer.getInt(offset);
+            if (length < 0 || length > buffer.capacity() - offset - HEADER_SIZE
+                    || buffer.getInt(offset + CRC_OFFSET) != crc(buffer, offset, length)) {
+                logger.warn("plan store segment {} has an incomplete record at offset {}, discarding the rest", segment.path, offset);
+                // Den Rest leeren, damit spätere Datensätze nicht hinter Resten des unvollständigen gelesen werden.
+                for (int i = offset; i < buffer.capacity(); ++i) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.force();
+                break;
+            }
+
+            final UUID id = new UUID(buffer.getLong(offset + ID_OFFSET), buffer.getLong(offset + ID_OFFSET + 8));
+            if (type == TYPE_PLAN) {
+                final Location previous = index.put(id, new Location(segment, offset, length));
+                if (previous != null) {
+                    // Kopie aus einer abgebrochenen Kompaktierung.
+                    previous.segment.liveBytes -= previous.recordSize();
+                }
+                segment.liveBytes += HEADER_SIZE + length;
+            }
+            else if (type == TYPE_DELETE) {
+                final Location deleted = index.remove(id);
+                if (deleted != null) {
+                    deleted.segment.liveBytes -= deleted.recordSize();
+                    tombstones.put(id, deleted.segment.number);
+                }
+            }
+            offset += HEADER_SIZE + length;
+        }
+        segment.end = offset;
+    }
+
+    /**
+     * Wechselt auf ein neues Segment, wenn der Datensatz nicht mehr in das aktive passt.
+     *
+     * @return Ob gewechselt wurde.
+     */
+    private boolean ensureCapacity(final int recordSize) throws IOException {
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("plan of " + (recordSize - HEADER_SIZE) + " bytes exceeds repayment.plan-store.segment-size");
+        }
+        if (active.end + recordSize <= active.buffer.capacity()) {
+            return false;
+        }
+        roll();
+        return true;
+    }
+
+    private void roll() throws IOException {
+        final long number;
+        if (active == null) {
+            number = 1;
+        }
+        else {
+            active.buffer.force();
+            number = active.number + 1;
+        }
+        final Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        active = Segment.map(path, number, segmentSize);
+        segments.put(number, active);
+    }
+
+    /**
+     * Hängt einen Datensatz an das aktive Segment an. Die Länge wird zuletzt geschrieben.
+     * Platz muss vorher mit {@link #ensureCapacity(int)} sichergestellt sein.
+     */
+    private Location append(final byte type, final UUID id, final ByteBuffer payload) {
+        final MappedByteBuffer buffer = active.buffer;
+        final int offset = active.end;
+        final int length = payload.remaining();
+
+        buffer.put(offset + TYPE_OFFSET, type);
+        buffer.putLong(offset + ID_OFFSET, id.getMostSignificantBits());
+        buffer.putLong(offset + ID_OFFSET + 8, id.getLeastSignificantBits());
+        buffer.put(offset + HEADER_SIZE, payload, payload.position(), length);
+        buffer.putInt(offset + CRC_OFFSET, crc(buffer, offset, length));
+        buffer.putInt(offset, length);
+        if (properties.fsync()) {
+            buffer.force(offset, HEADER_SIZE + length);
+        }
+
+        active.end = offset + HEADER_SIZE + length;
+        if (type == TYPE_PLAN) {
+            active.liveBytes += HEADER_SIZE + length;
+        }
+        return new Location(active, offset, length);
+    }
+
+    /**
+     * Kopiert die gültigen Datensätze voller Segmente unter der Schwelle in das aktive Segment und löscht die Dateien.
+     * Stürzt die Anwendung dabei ab, liegen Datensätze doppelt vor. Beim Start gilt dann die spätere Kopie.
+     */
+    private void compact() throws IOException {
+        for (Segment segment: List.copyOf(segments.values())) {
+            if (segment == active || segment.liveBytes > segment.end * properties.compactionThreshold()) {
+                continue;
+            }
+
+            final MappedByteBuffer buffer = segment.buffer;
+            int copied = 0;
+            int offset = 0;
+            while (offset < segment.end) {
+                final byte type = buffer.get(offset + TYPE_OFFSET);
+                final int length = buffer.getInt(offset);
+                final UUID id = new UUID(buffer.getLong(offset + ID_OFFSET), buffer.getLong(offset + ID_OFFSET + 8));
+                if (type == TYPE_PLAN) {
+                    final Location location = index.get(id);
+                    if (location != null && location.segment == segment && location.offset == offset) {
+                        ensureCapacity(HEADER_SIZE + length);
+                        index.put(id, append(TYPE_PLAN, id, buffer.slice(offset + HEADER_SIZE, length)));
+                        ++copied;
+                    }
+                }
+                else if (type == TYPE_DELETE) {
+                    final Long recordSegment = tombstones.get(id);
+                    if (recordSegment != null && recordSegment != segment.number && segments.containsKey(recordSegment)) {
+                        ensureCapacity(HEADER_SIZE);
+                        append(TYPE_DELETE, id, EMPTY);
+                    }
+                }
+                offset += HEADER_SIZE + length;
+            }
+            active.buffer.force();
+
+            segments.remove(segment.number);
+            tombstones.values().removeIf(number -> number == segment.number);
+            Files.delete(segment.path);
+            logger.info("plan store compacted {}, {} plans copied", segment.path.getFileName(), copied);
+        }
+    }
+
+    private static int crc(final ByteBuffer buffer, final int offset, final int length) {
+        final CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + TYPE_OFFSET, HEADER_SIZE - TYPE_OFFSET + length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Eine gemappte Segment-Datei. {@code end} und {@code liveBytes} werden nur unter der Sperre des Stores verändert.
+     */
+    private static final class Segment {
+
+        private final Path path;
+
+        private final long number;
+
+        private final MappedByteBuffer buffer;
+
+        private int end;
+
+        private long liveBytes;
+
+        private Segment(final Path path, final long number, final MappedByteBuffer buffer) {
+            this.path = path;
+            this.number = number;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Mappt eine Segment-Datei und legt sie dafür gegebenenfalls in der angegebenen Größe an.
+         * Der Kanal wird direkt wieder geschlossen, das Mapping bleibt bestehen.
+         */
+        private static Segment map(final Path path, final long number, final int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            )) {
+                return new Segment(path, number, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+    }
+
+    /**
+     * Ein gerade gespeicherter Tilgungsplan.
+     *
+     * @param id Die Id des Tilgungsplans.
+     * @param plan Der serialisierte Tilgungsplan als schreibgeschützter Ausschnitt des Mappings.
+     *
+     * @since 1.1.0
+     */
+    public record StoredPlan(UUID id, ByteBuffer plan) {}
+
+    /**
+     * Die Position eines Datensatzes.
+     *
+     * @param segment Das Segment.
+     * @param offset Der Beginn des Datensatzes im Segment.
+     * @param length Die Länge des Tilgungsplans ohne Kopf.
+     */
+    private record Location(Segment segment, int offset, int length) {
+
+        private int recordSize() {
+            return HEADER_SIZE + length;
+        }
+
+    }
+
+}
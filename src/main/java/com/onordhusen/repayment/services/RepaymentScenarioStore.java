@@ -0,0 +1,69 @@
+package com.onordhusen.repayment.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onordhusen.repayment.properties.RepaymentScenarioProperties;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioState;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Hält die Zustände der Szenarien zwischen den Requests, damit Änderungen nur ab dem geänderten Jahr neu gerechnet werden.
+ * Die Zustände sind begrenzt und verfallen nach dem letzten Zugriff. Ein verfallenes Szenario wird beim nächsten Request vollständig neu gerechnet.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Component
+public class RepaymentScenarioStore {
+
+    private final Cache<UUID, RepaymentScenarioState> scenarios;
+
+    /**
+     * @param properties Die Einstellungen der Szenarien.
+     * @param meterRegistry Die Registry für die Metriken des Speichers.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentScenarioStore(
+            final RepaymentScenarioProperties properties,
+            final MeterRegistry meterRegistry
+    ) {
+        this.scenarios = Caffeine.newBuilder()
+            .recordStats()
+            .maximumSize(properties.maximumSize())
+            .expireAfterAccess(properties.expireAfterAccess())
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, scenarios, "repayment.scenario");
+    }
+
+    /**
+     * Liefert den Zustand eines Szenarios.
+     *
+     * @param id Die Id des Szenarios.
+     * @return Der Zustand oder null, wenn das Szenario unbekannt oder verfallen ist.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentScenarioState get(final UUID id) {
+        return scenarios.getIfPresent(id);
+    }
+
+    /**
+     * Speichert den Zustand eines Szenarios und ersetzt einen vorherigen Zustand.
+     *
+     * @param id Die Id des Szenarios.
+     * @param scenario Der Zustand.
+     *
+     * @since 1.1.0
+     */
+    public void put(final UUID id, final RepaymentScenarioState scenario) {
+        scenarios.put(id, scenario);
+    }
+
+}
@@ -0,0 +1,256 @@
+package com.onordhusen.repayment.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onordhusen.repayment.dtos.CompactRepaymentPlan;
+import com.onordhusen.repayment.dtos.RepaymentBatchResultDto;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentGridDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.properties.RepaymentCacheProperties;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioState;
+import com.onordhusen.repayment.services.calculation.RepaymentYearRangeCalculator;
+import com.onordhusen.repayment.services.interfaces.RepaymentMonthConsumer;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cacht die Ergebnisse eines anderen RepaymentService.
+ * Die Berechnung eines Tilgungsplans hängt ausschließlich von den vier Eingabeparametern ab,
+ * daher kann ein einmal berechneter Tilgungsplan für dieselben Parameter wiederverwendet werden.
+ * Gleichzeitige Fehlschläge mit denselben Parametern bündelt der {@link RepaymentServiceCoalescingDecorator} dahinter.
+ * Alle übrigen Berechnungen werden ungecacht an den RepaymentService weitergereicht,
+ * damit sie wie {@link #calculate} über Pool und Metriken laufen.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentServiceCachingDecorator implements RepaymentService {
+
+    private final RepaymentService delegate;
+
+    private final Cache<RepaymentParametersKey, RepaymentDto> cache;
+
+    private final LongAdder bypassCount;
+
+    /**
+     * Baut den Cache anhand der Einstellungen auf.
+     *
+     * @param delegate Der RepaymentService, der bei einem Cache-Miss rechnet.
+     * @param properties Die Einstellungen des Caches.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentServiceCachingDecorator(
+            final RepaymentService delegate,
+            final RepaymentCacheProperties properties
+    ) {
+        this.delegate = delegate;
+        this.bypassCount = new LongAdder();
+
+        final Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (properties.maximumWeight() > 0) {
+            builder
+                .maximumWeight(properties.maximumWeight())
+                .weigher((RepaymentParametersKey key, RepaymentDto value) -> 1 + value.repaymentPlan().size());
+        }
+        else {
+            builder.maximumSize(properties.maximumSize());
+        }
+        if (properties.expireAfterWrite() != null) {
+            builder.expireAfterWrite(properties.expireAfterWrite());
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * Liefert den Tilgungsplan aus dem Cache bzw. berechnet und cacht ihn.
+     * Parameter, die sich nicht verlustfrei normalisieren lassen, werden ohne Cache berechnet.
+     * Der Tilgungsplan gecachter Ergebnisse ist unveränderlich, da er zwischen Requests geteilt wird.
+     * Berechnet wird außerhalb des Caches und nicht in {@code Cache.get(key, mappingFunction)}, da Caffeine dabei
+     * für die gesamte Berechnung den Hash-Bucket sperrt und so auch Requests mit anderen Parametern warten lässt.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @return RepaymentDto Vollständig berechneter Tilgungsplan.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public RepaymentDto calculate(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        final RepaymentParametersKey key = RepaymentParametersKey.of(
+            loanAmount,
+            initialRepayment,
+            interestRate,
+            fixedInterestPeriod
+        );
+        if (key == null) {
+            bypassCount.increment();
+            return delegate.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+
+        final RepaymentDto cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final RepaymentDto repayment = unmodifiable(
+            delegate.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod)
+        );
+        cache.put(key, repayment);
+        return repayment;
+    }
+
+    /**
+     * Reicht die Stapelberechnung ungecacht weiter, damit sie über den Pool des
+     * {@link RepaymentServiceExecutorDecorator} und die Metriken läuft statt über den gemeinsamen Fork-Join-Pool.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public List<RepaymentBatchResultDto> calculateBatch(final List<RepaymentParametersDto> parameters) {
+        return delegate.calculateBatch(parameters);
+    }
+
+    @Override
+    public RepaymentSummaryDto calculateSummary(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        return delegate.calculateSummary(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+    }
+
+    /**
+     * Schneidet die Jahre aus einem gecachten vollständigen Tilgungsplan aus, falls vorhanden.
+     * Ansonsten wird nur der Ausschnitt berechnet und nicht gecacht, da er den vollständigen Tilgungsplan nicht ersetzt.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public RepaymentDto calculateYears(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod,
+            final int fromYear,
+            final int toYear
+    ) {
+        final RepaymentParametersKey key = RepaymentParametersKey.of(
+            loanAmount,
+            initialRepayment,
+            interestRate,
+            fixedInterestPeriod
+        );
+        final RepaymentDto cached = key == null ? null : cache.getIfPresent(key);
+        if (cached != null) {
+            return RepaymentYearRangeCalculator.slice(cached, fromYear, toYear);
+        }
+        return delegate.calculateYears(loanAmount, initialRepayment, interestRate, fixedInterestPeriod, fromYear, toYear);
+    }
+
+    @Override
+    public int streamSchedule(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final RepaymentMonthConsumer consumer
+    ) throws IOException {
+        return delegate.streamSchedule(loanAmount, initialRepayment, interestRate, consumer);
+    }
+
+    @Override
+    public RepaymentGridDto calculateGrid(
+            final double loanAmount,
+            final double[] interestRates,
+            final double[] initialRepayments,
+            final int[] fixedInterestPeriods
+    ) {
+        return delegate.calculateGrid(loanAmount, interestRates, initialRepayments, fixedInterestPeriods);
+    }
+
+    @Override
+    public RepaymentScenarioState calculateScenario(
+            final RepaymentScenarioParametersDto parameters,
+            final RepaymentScenarioState previous
+    ) {
+        return delegate.calculateScenario(parameters, previous);
+    }
+
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv) throws IOException {
+        return delegate.calculatePortfolio(csv);
+    }
+
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv, final ForkJoinPool pool) throws IOException {
+        return delegate.calculatePortfolio(csv, pool);
+    }
+
+    /**
+     * Kopiert einen Tilgungsplan mit unveränderlicher Aufgliederung, damit er zwischen Requests geteilt werden kann.
+     * Die Aufgliederung wird dabei nach Möglichkeit als {@link CompactRepaymentPlan} gepackt,
+     * das spart im Cache rund zwei Drittel des Speichers je Tilgungsplan.
+     *
+     * @param repayment Der berechnete Tilgungsplan.
+     * @return Der Tilgungsplan mit unveränderlicher Aufgliederung.
+     *
+     * @since 1.1.0
+     */
+    static RepaymentDto unmodifiable(final RepaymentDto repayment) {
+        final CompactRepaymentPlan compact = CompactRepaymentPlan.of(repayment.repaymentPlan());
+        return new RepaymentDto(
+            repayment.loanAmount(),
+            repayment.totalInterest(),
+            repayment.monthlyRate(),
+            repayment.initialRepaymentRate(),
+            repayment.interestRate(),
+            repayment.fixedInterestPeriod(),
+            repayment.residualDebt(),
+            repayment.yearPeriod(),
+            repayment.monthPeriod(),
+            repayment.totalRepayment(),
+            compact != null ? compact : Collections.unmodifiableList(repayment.repaymentPlan())
+        );
+    }
+
+    /**
+     * Der zugrundeliegende Cache. Wird für die Metriken benötigt.
+     *
+     * @return Der Cache.
+     *
+     * @since 1.1.0
+     */
+    public Cache<RepaymentParametersKey, RepaymentDto> getCache() {
+        return cache;
+    }
+
+    /**
+     * Anzahl der Berechnungen, die den Cache umgangen haben.
+     *
+     * @return Die Anzahl.
+     *
+     * @since 1.1.0
+     */
+    public long getBypassCount() {
+        return bypassCount.sum();
+    }
+
+}
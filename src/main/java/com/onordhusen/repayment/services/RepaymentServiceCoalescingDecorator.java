@@ -0,0 +1,211 @@
+package com.onordhusen.repayment.services;
+
+import com.onordhusen.repayment.dtos.RepaymentBatchResultDto;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentGridDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioState;
+import com.onordhusen.repayment.services.interfaces.RepaymentMonthConsumer;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bündelt gleichzeitige Berechnungen desselben Tilgungsplans (single flight).
+ *
+ * Der erste Request zu einem {@link RepaymentParametersKey} rechnet, alle weiteren Requests mit denselben Parametern
+ * warten bis dahin auf sein Ergebnis und erhalten denselben, unveränderlichen Tilgungsplan. Die laufenden Berechnungen
+ * liegen in einer ConcurrentHashMap, das Eintragen ist für einen freien Hash-Bucket ein CAS ohne Sperre.
+ * Gerechnet wird außerhalb der Map, Requests mit anderen Parametern warten also nie aufeinander.
+ * Nach der Berechnung wird der Eintrag entfernt, Ergebnisse werden nicht aufbewahrt. Dafür ist der
+ * {@link RepaymentServiceCachingDecorator} davor zuständig.
+ *
+ * Wartende Requests belegen weder einen Platz im Pool noch im Semaphor des {@link RepaymentServiceExecutorDecorator} dahinter.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentServiceCoalescingDecorator implements RepaymentService {
+
+    private final RepaymentService delegate;
+
+    private final ConcurrentHashMap<RepaymentParametersKey, CompletableFuture<RepaymentDto>> inFlight;
+
+    private final LongAdder coalescedCount;
+
+    /**
+     * @param delegate Der RepaymentService, der je Parameter einmal rechnet.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentServiceCoalescingDecorator(final RepaymentService delegate) {
+        this.delegate = delegate;
+        this.inFlight = new ConcurrentHashMap<>();
+        this.coalescedCount = new LongAdder();
+    }
+
+    /**
+     * Berechnet den Tilgungsplan oder wartet auf eine bereits laufende Berechnung mit denselben Parametern.
+     * Parameter, die sich nicht verlustfrei normalisieren lassen, werden immer selbst berechnet.
+     * Schlägt die Berechnung fehl, erhalten alle wartenden Requests denselben Fehler.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @return RepaymentDto Vollständig berechneter Tilgungsplan mit unveränderlicher Aufgliederung.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public RepaymentDto calculate(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        final RepaymentParametersKey key = RepaymentParametersKey.of(
+            loanAmount,
+            initialRepayment,
+            interestRate,
+            fixedInterestPeriod
+        );
+        if (key == null) {
+            return delegate.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+
+        final CompletableFuture<RepaymentDto> flight = new CompletableFuture<>();
+        final CompletableFuture<RepaymentDto> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalescedCount.increment();
+            return await(running);
+        }
+
+        try {
+            final RepaymentDto repayment = RepaymentServiceCachingDecorator.unmodifiable(
+                delegate.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod)
+            );
+            flight.complete(repayment);
+            return repayment;
+        }
+        catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Reicht die Stapelberechnung ungebündelt weiter, damit sie über den Pool des
+     * {@link RepaymentServiceExecutorDecorator} und die Metriken läuft statt über den gemeinsamen Fork-Join-Pool.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public List<RepaymentBatchResultDto> calculateBatch(final List<RepaymentParametersDto> parameters) {
+        return delegate.calculateBatch(parameters);
+    }
+
+    @Override
+    public RepaymentSummaryDto calculateSummary(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        return delegate.calculateSummary(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+    }
+
+    @Override
+    public RepaymentDto calculateYears(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod,
+            final int fromYear,
+            final int toYear
+    ) {
+        return delegate.calculateYears(loanAmount, initialRepayment, interestRate, fixedInterestPeriod, fromYear, toYear);
+    }
+
+    @Override
+    public int streamSchedule(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final RepaymentMonthConsumer consumer
+    ) throws IOException {
+        return delegate.streamSchedule(loanAmount, initialRepayment, interestRate, consumer);
+    }
+
+    @Override
+    public RepaymentGridDto calculateGrid(
+            final double loanAmount,
+            final double[] interestRates,
+            final double[] initialRepayments,
+            final int[] fixedInterestPeriods
+    ) {
+        return delegate.calculateGrid(loanAmount, interestRates, initialRepayments, fixedInterestPeriods);
+    }
+
+    @Override
+    public RepaymentScenarioState calculateScenario(
+            final RepaymentScenarioParametersDto parameters,
+            final RepaymentScenarioState previous
+    ) {
+        return delegate.calculateScenario(parameters, previous);
+    }
+
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv) throws IOException {
+        return delegate.calculatePortfolio(csv);
+    }
+
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv, final ForkJoinPool pool) throws IOException {
+        return delegate.calculatePortfolio(csv, pool);
+    }
+
+    /**
+     * Anzahl der Requests, die auf die Berechnung eines anderen Requests gewartet haben.
+     *
+     * @return Die Anzahl.
+     *
+     * @since 1.1.0
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Wartet auf das Ergebnis einer laufenden Berechnung und wirft ihren Fehler unverändert weiter.
+     */
+    private static RepaymentDto await(final CompletableFuture<RepaymentDto> running) {
+        try {
+            return running.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+}
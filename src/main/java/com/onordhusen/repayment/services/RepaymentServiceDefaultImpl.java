@@ -1,7 +1,8 @@
 package com.onordhusen.repayment.services;
 
+import com.onordhusen.repayment.constants.RepaymentEngineConstants;
 import com.onordhusen.repayment.constants.RepaymentValidationConstants;
-import com.onordhusen.repayment.services.interfaces.RepaymentService;
+import com.onordhusen.repayment.services.interfaces.RepaymentEngine;
 import com.onordhusen.repayment.dtos.RepaymentDto;
 import com.onordhusen.repayment.dtos.RepaymentPlanDto;
 import com.onordhusen.repayment.utils.DoubleUtils;
@@ -24,7 +25,7 @@ import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
  * @since 1.0.0
  */
 @Service
-public class RepaymentServiceDefaultImpl implements RepaymentService {
+public class RepaymentServiceDefaultImpl implements RepaymentEngine {
 
     /**
      * Berechnet einen Tilgungsplan.
@@ -166,4 +167,14 @@ public class RepaymentServiceDefaultImpl implements RepaymentService {
         );
     }
 
+    /**
+     * @return {@value RepaymentEngineConstants#ENGINE_DEFAULT}
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public String getEngineName() {
+        return RepaymentEngineConstants.ENGINE_DEFAULT;
+    }
+
 }
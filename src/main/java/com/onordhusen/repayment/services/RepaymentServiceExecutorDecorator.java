@@ -0,0 +1,204 @@
+package com.onordhusen.repayment.services;
+
+import com.onordhusen.repayment.dtos.RepaymentBatchResultDto;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentGridDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioState;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Führt die Berechnungen eines anderen RepaymentService auf einem eigenen, an die CPU-Kerne gebundenen Pool aus.
+ *
+ * Mit virtuellen Threads würden rechenintensive Berechnungen sonst direkt auf den Carrier-Threads laufen
+ * und andere Requests blockieren. Der Request-Thread wartet stattdessen auf das Ergebnis, was für virtuelle Threads
+ * kostenlos ist. Optional begrenzt ein Semaphor die Anzahl gleichzeitig laufender Berechnungen.
+ * Stapel und Vergleichstabellen belegen dabei einen Platz je enthaltenem Tilgungsplan, höchstens aber alle Plätze.
+ * Ein Stapel von 10.000 Darlehen zählt also nicht wie ein einzelner Tilgungsplan.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentServiceExecutorDecorator implements RepaymentService {
+
+    private final RepaymentService delegate;
+
+    private final ForkJoinPool pool;
+
+    private final Semaphore inFlight;
+
+    private final int maxInFlight;
+
+    /**
+     * @param delegate Der RepaymentService, dessen Berechnungen ausgeführt werden.
+     * @param pool Der Pool für rechenintensive Berechnungen.
+     * @param maxInFlight Maximale Anzahl gleichzeitig berechneter Tilgungspläne. 0 = unbegrenzt.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentServiceExecutorDecorator(
+            final RepaymentService delegate,
+            final ForkJoinPool pool,
+            final int maxInFlight
+    ) {
+        this.delegate = delegate;
+        this.pool = pool;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = maxInFlight > 0 ? new Semaphore(maxInFlight, true) : null;
+    }
+
+    @Override
+    public RepaymentDto calculate(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        return execute(1, () -> delegate.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod));
+    }
+
+    /**
+     * Führt die gesamte Stapelberechnung im Pool aus.
+     * Der parallele Stream der Stapelberechnung verteilt sich dadurch auf den Pool statt auf den gemeinsamen Fork-Join-Pool.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public List<RepaymentBatchResultDto> calculateBatch(final List<RepaymentParametersDto> parameters) {
+        return execute(parameters.size(), () -> delegate.calculateBatch(parameters));
+    }
+
+    @Override
+    public RepaymentSummaryDto calculateSummary(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        return execute(1, () -> delegate.calculateSummary(loanAmount, initialRepayment, interestRate, fixedInterestPeriod));
+    }
+
+    @Override
+    public RepaymentDto calculateYears(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod,
+            final int fromYear,
+            final int toYear
+    ) {
+        return execute(1, () -> delegate.calculateYears(loanAmount, initialRepayment, interestRate, fixedInterestPeriod, fromYear, toYear));
+    }
+
+    @Override
+    public RepaymentGridDto calculateGrid(
+            final double loanAmount,
+            final double[] interestRates,
+            final double[] initialRepayments,
+            final int[] fixedInterestPeriods
+    ) {
+        final long cells = (long) interestRates.length * initialRepayments.length * fixedInterestPeriods.length;
+        return execute(cells, () -> delegate.calculateGrid(loanAmount, interestRates, initialRepayments, fixedInterestPeriods));
+    }
+
+    @Override
+    public RepaymentScenarioState calculateScenario(
+            final RepaymentScenarioParametersDto parameters,
+            final RepaymentScenarioState previous
+    ) {
+        return execute(1, () -> delegate.calculateScenario(parameters, previous));
+    }
+
+    /**
+     * Liest das Portfolio im aufrufenden Thread und berechnet nur die Blöcke im Pool.
+     * Ein langsamer Upload blockiert damit weder Threads des Pools noch einen Platz für gleichzeitige Berechnungen.
+     * Das Portfolio belegt daher keinen Platz, die Anzahl gleichzeitig berechneter Blöcke begrenzt
+     * {@code RepaymentPortfolioCalculator} selbst auf das Doppelte der Threads des Pools.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv) throws IOException {
+        return delegate.calculatePortfolio(csv, pool);
+    }
+
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv, final ForkJoinPool pool) throws IOException {
+        return delegate.calculatePortfolio(csv, pool);
+    }
+
+    /**
+     * Anzahl der gerade belegten Plätze, also der laufenden Tilgungspläne. Nur bei begrenzter Anzahl bekannt, sonst 0.
+     *
+     * @return Die Anzahl.
+     *
+     * @since 1.1.0
+     */
+    public int getInFlight() {
+        return inFlight == null ? 0 : maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * Anzahl der Requests, die auf einen freien Platz warten.
+     *
+     * @return Die Anzahl.
+     *
+     * @since 1.1.0
+     */
+    public int getQueued() {
+        return inFlight == null ? 0 : inFlight.getQueueLength();
+    }
+
+    /**
+     * Führt eine Berechnung im Pool aus und wartet auf das Ergebnis.
+     * Fehler der Berechnung werden unverändert weitergeworfen.
+     *
+     * @param plans Anzahl der Tilgungspläne der Berechnung. Belegt so viele Plätze, höchstens alle.
+     * @param task Die Berechnung.
+     * @return Das Ergebnis der Berechnung.
+     *
+     * @since 1.1.0
+     */
+    private <T> T execute(final long plans, final Callable<T> task) {
+        final int permits = (int) Math.max(1, Math.min(plans, maxInFlight));
+        try {
+            if (inFlight != null) {
+                inFlight.acquire(permits);
+            }
+            try {
+                return pool.submit(task).get();
+            }
+            finally {
+                if (inFlight != null) {
+                    inFlight.release(permits);
+                }
+            }
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("calculation interrupted", e);
+        }
+    }
+
+}
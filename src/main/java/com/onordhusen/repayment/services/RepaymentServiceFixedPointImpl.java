@@ -0,0 +1,163 @@
+package com.onordhusen.repayment.services;
+
+import com.onordhusen.repayment.constants.RepaymentEngineConstants;
+import com.onordhusen.repayment.dtos.CompactRepaymentPlan;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.services.calculation.AmortizationCursor;
+import com.onordhusen.repayment.services.interfaces.RepaymentEngine;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Implementierung der Businesslogik des Tilgungsplans in Festkomma-Arithmetik.
+ * Alle Beträge werden Monat für Monat als ganze Cent in long gerechnet und am Ende
+ * als {@link CompactRepaymentPlan} zurückgegeben.
+ * Die Ergebnisse sind centgenau identisch zur {@link RepaymentServiceDefaultImpl}.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Service
+public class RepaymentServiceFixedPointImpl implements RepaymentEngine {
+
+    /**
+     * Spalten je Jahr im gepackten Tilgungsplan: Rate, Zinsanteil, Tilgungsanteil, Restschuld.
+     *
+     * @since 1.1.0
+     */
+    private static final int PLAN_COLUMNS = CompactRepaymentPlan.COLUMNS;
+
+    private final RepaymentServiceDefaultImpl repaymentServiceDefaultImpl;
+
+    /**
+     * Die Standard Implementierung wird für Darlehensbeträge mit Bruchteilen von Cent benötigt.
+     *
+     * @param repaymentServiceDefaultImpl Die Standard Implementierung der Berechnung.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentServiceFixedPointImpl(final RepaymentServiceDefaultImpl repaymentServiceDefaultImpl) {
+        this.repaymentServiceDefaultImpl = repaymentServiceDefaultImpl;
+    }
+
+    /**
+     * Berechnet einen Tilgungsplan in ganzen Cent.
+     * Darlehensbeträge mit Bruchteilen von Cent werden an die Standard Implementierung abgegeben,
+     * da deren erster Monat mit dem ungerundeten Betrag rechnet.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @return RepaymentDto Vollständig berechneter Tilgungsplan.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public RepaymentDto calculate(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        if (!CentUtils.isCentExact(loanAmount)) {
+            return repaymentServiceDefaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+
+        final AmortizationCursor cursor = AmortizationCursor.start(loanAmount, initialRepayment, interestRate);
+
+        // Initialisierung des gepackten Tilgungsplanes.
+        long[] plan = new long[PLAN_COLUMNS * 16];
+        int years = 0;
+        long residualDebtEndCents = 0;
+
+        // Jedes Jahr einzeln berechnen, bis die Restschuld 0,00 € ist.
+        do {
+            long yearlyRateCents = 0;
+            long yearlyInterestPortionCents = 0;
+            long yearlyRepaymentPortionCents = 0;
+
+            // Jeden Monat einzeln berechnen, bis das Jahr vollständig oder der Tilgungsplan fertig berechnet ist.
+            do {
+                cursor.nextMonth();
+                yearlyRateCents += cursor.getMonthlyRateCents();
+                yearlyInterestPortionCents += cursor.getInterestPortionCents();
+                yearlyRepaymentPortionCents += cursor.getRepaymentPortionCents();
+            } while (!cursor.isPaidOff() && cursor.getMonth() % MONTHS_PER_YEAR != 0);
+
+            // Ggf. Berechnung der Restschuld nach Ablauf der Sollzinsbindung
+            if (years == fixedInterestPeriod - 1) {
+                residualDebtEndCents = cursor.getResidualDebtCents();
+            }
+
+            // Fertig berechnetes Jahr dem gepackten Tilgungsplan hinzufügen.
+            if (plan.length < PLAN_COLUMNS * (years + 1)) {
+                plan = Arrays.copyOf(plan, plan.length * 2);
+            }
+            final int offset = PLAN_COLUMNS * years;
+            plan[offset] = yearlyRateCents;
+            plan[offset + 1] = yearlyInterestPortionCents;
+            plan[offset + 2] = yearlyRepaymentPortionCents;
+            plan[offset + 3] = cursor.getResidualDebtCents();
+            ++years;
+
+        } while (!cursor.isPaidOff());
+
+        // Der gepackte Tilgungsplan wird direkt übernommen, die DTOs entstehen erst beim Lesen.
+        final List<RepaymentPlanDto> compactPlan = CompactRepaymentPlan.ofCents(1, plan, years);
+        final List<RepaymentPlanDto> repaymentPlans = compactPlan != null ? compactPlan : toRepaymentPlans(plan, years);
+
+        // Laufzeit aus der Anzahl der Monate. Ein volles letztes Jahr zählt als Jahr ohne Restmonate.
+        return new RepaymentDto(
+            loanAmount,
+            CentUtils.toPrice(cursor.getTotalInterestCents()),
+            CentUtils.toPrice(cursor.getMonthlyRateCents()),
+            initialRepayment,
+            interestRate,
+            fixedInterestPeriod,
+            CentUtils.toPrice(residualDebtEndCents),
+            cursor.getMonth() / MONTHS_PER_YEAR,
+            cursor.getMonth() % MONTHS_PER_YEAR,
+            CentUtils.toPrice(cursor.getTotalInterestCents() + CentUtils.toCents(loanAmount)),
+            repaymentPlans
+        );
+    }
+
+    /**
+     * Wandelt den gepackten Tilgungsplan in DTOs um. Nur nötig, wenn ein Betrag nicht in einen {@link CompactRepaymentPlan} passt.
+     */
+    private static List<RepaymentPlanDto> toRepaymentPlans(final long[] plan, final int years) {
+        final List<RepaymentPlanDto> repaymentPlans = new ArrayList<>(years);
+        for (int year = 0; year < years; ++year) {
+            final int offset = PLAN_COLUMNS * year;
+            repaymentPlans.add(new RepaymentPlanDto(
+                year + 1,
+                CentUtils.toPrice(plan[offset]),
+                CentUtils.toPrice(plan[offset + 1]),
+                CentUtils.toPrice(plan[offset + 2]),
+                CentUtils.toPrice(plan[offset + 3])
+            ));
+        }
+        return repaymentPlans;
+    }
+
+    /**
+     * @return {@value RepaymentEngineConstants#ENGINE_FIXED_POINT}
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public String getEngineName() {
+        return RepaymentEngineConstants.ENGINE_FIXED_POINT;
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.onordhusen.repayment.services;
+
+import com.onordhusen.repayment.dtos.RepaymentBatchResultDto;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentGridDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioState;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Misst die Berechnungen eines anderen RepaymentService mit Micrometer.
+ *
+ * Alle Meter werden einmalig im Konstruktor registriert. Je Aufruf fallen nur zwei {@code System.nanoTime()}
+ * und das Aufzeichnen in bereits bestehende Histogramme an, ohne Nachschlagen in der Registry oder Tag-Allokationen.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentServiceMetricsDecorator implements RepaymentService {
+
+    private final RepaymentService delegate;
+
+    private final Timer calculateTimer;
+
+    private final Timer summaryTimer;
+
+    private final Timer yearsTimer;
+
+    private final Timer batchTimer;
+
+    private final Timer gridTimer;
+
+    private final Timer scenarioTimer;
+
+    private final Timer portfolioTimer;
+
+    private final DistributionSummary planRows;
+
+    private final DistributionSummary planMonths;
+
+    /**
+     * Registriert alle Meter.
+     *
+     * @param delegate Der RepaymentService, dessen Berechnungen gemessen werden.
+     * @param meterRegistry Die Registry für die Metriken.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentServiceMetricsDecorator(final RepaymentService delegate, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.calculateTimer = timer(meterRegistry, "calculate");
+        this.summaryTimer = timer(meterRegistry, "summary");
+        this.yearsTimer = timer(meterRegistry, "years");
+        this.batchTimer = timer(meterRegistry, "batch");
+        this.gridTimer = timer(meterRegistry, "grid");
+        this.scenarioTimer = timer(meterRegistry, "scenario");
+        this.portfolioTimer = timer(meterRegistry, "portfolio");
+        this.planRows = DistributionSummary.builder("repayment.plan.rows")
+            .description("Anzahl der Jahreszeilen (RepaymentPlanDto) je Tilgungsplan")
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue(100.0)
+            .register(meterRegistry);
+        this.planMonths = DistributionSummary.builder("repayment.plan.months")
+            .description("Anzahl der berechneten Monate je Tilgungsplan")
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue(1_200.0)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public RepaymentDto calculate(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        final long start = System.nanoTime();
+        final RepaymentDto repayment = delegate.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        calculateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        planRows.record(repayment.repaymentPlan().size());
+        planMonths.record(repayment.yearPeriod() * MONTHS_PER_YEAR + repayment.monthPeriod());
+        return repayment;
+    }
+
+    @Override
+    public List<RepaymentBatchResultDto> calculateBatch(final List<RepaymentParametersDto> parameters) {
+        final long start = System.nanoTime();
+        final List<RepaymentBatchResultDto> results = delegate.calculateBatch(parameters);
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return results;
+    }
+
+    @Override
+    public RepaymentSummaryDto calculateSummary(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        final long start = System.nanoTime();
+        final RepaymentSummaryDto summary = delegate.calculateSummary(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        summaryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        planMonths.record(summary.yearPeriod() * MONTHS_PER_YEAR + summary.monthPeriod());
+        return summary;
+    }
+
+    @Override
+    public RepaymentDto calculateYears(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod,
+            final int fromYear,
+            final int toYear
+    ) {
+        final long start = System.nanoTime();
+        final RepaymentDto repayment = delegate.calculateYears(loanAmount, initialRepayment, interestRate, fixedInterestPeriod, fromYear, toYear);
+        yearsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        planMonths.record(repayment.yearPeriod() * MONTHS_PER_YEAR + repayment.monthPeriod());
+        return repayment;
+    }
+
+    @Override
+    public RepaymentGridDto calculateGrid(
+            final double loanAmount,
+            final double[] interestRates,
+            final double[] initialRepayments,
+            final int[] fixedInterestPeriods
+    ) {
+        final long start = System.nanoTime();
+        final RepaymentGridDto grid = delegate.calculateGrid(loanAmount, interestRates, initialRepayments, fixedInterestPeriods);
+        gridTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return grid;
+    }
+
+    @Override
+    public RepaymentScenarioState calculateScenario(
+            final RepaymentScenarioParametersDto parameters,
+            final RepaymentScenarioState previous
+    ) {
+        final long start = System.nanoTime();
+        final RepaymentScenarioState scenario = delegate.calculateScenario(parameters, previous);
+        scenarioTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return scenario;
+    }
+
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv) throws IOException {
+        final long start = System.nanoTime();
+        final RepaymentPortfolioDto portfolio = delegate.calculatePortfolio(csv);
+        portfolioTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return portfolio;
+    }
+
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv, final ForkJoinPool pool) throws IOException {
+        final long start = System.nanoTime();
+        final RepaymentPortfolioDto portfolio = delegate.calculatePortfolio(csv, pool);
+        portfolioTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return portfolio;
+    }
+
+    /**
+     * Baut den Timer einer Operation als Histogramm.
+     * Perzentile werden in Prometheus aus den Buckets berechnet, zb. {@code histogram_quantile(0.99, ...)}.
+     * Clientseitige Perzentile würden je Aufruf zusätzlich kosten und von der Prometheus-Registry ohnehin nicht exportiert.
+     *
+     * @param meterRegistry Die Registry für die Metriken.
+     * @param operation Der Name der Operation als Tag.
+     * @return Der registrierte Timer.
+     *
+     * @since 1.1.0
+     */
+    private static Timer timer(final MeterRegistry meterRegistry, final String operation) {
+        return Timer.builder("repayment.calculation")
+            .description("Dauer der Berechnung ohne Cache und Request-Verarbeitung")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(500))
+            .maximumExpectedValue(Duration.ofSeconds(5))
+            .register(meterRegistry);
+    }
+
+}
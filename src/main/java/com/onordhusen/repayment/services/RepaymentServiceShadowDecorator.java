@@ -0,0 +1,322 @@
+package com.onordhusen.repayment.services;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentGridDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioState;
+import com.onordhusen.repayment.services.interfaces.RepaymentEngine;
+import com.onordhusen.repayment.services.interfaces.RepaymentMonthConsumer;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rechnet einen Anteil der Tilgungspläne zusätzlich mit einer Schatten-Engine und vergleicht die Ergebnisse.
+ * Damit lässt sich eine neue Engine unter echter Last prüfen, bevor sie primär wird.
+ *
+ * Die Antwort stammt immer von der primären Engine. Die Schatten-Engine rechnet danach auf einem eigenen Executor,
+ * der Request wartet also nicht auf sie. Ist dessen Warteschlange voll, wird der Vergleich verworfen.
+ * Beide Ergebnisse werden Feld für Feld exakt verglichen, jede Abweichung wird mit den Parametern geloggt.
+ *
+ * Veröffentlicht werden die Dauer beider Engines als {@code repayment.shadow.calculation} mit den Tags
+ * {@code engine} und {@code role}, das Verhältnis der Dauer Schatten zu primär als {@code repayment.shadow.latency.ratio},
+ * die Vergleiche als {@code repayment.shadow.comparisons} mit {@code outcome} match, mismatch oder error
+ * und die verworfenen Vergleiche als {@code repayment.shadow.dropped}.
+ * Die Dauer der Schatten-Engine wird auf dem Executor gemessen und kann durch andere Last verfälscht sein.
+ *
+ * Nur {@link #calculate} wird verglichen. Alle übrigen Berechnungen werden an die primäre Engine weitergereicht.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentServiceShadowDecorator implements RepaymentService {
+
+    /**
+     * Höchstens so viele Abweichungen je Vergleich werden geloggt.
+     */
+    private static final int MAX_DIFFERENCES = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(RepaymentServiceShadowDecorator.class);
+
+    private final RepaymentEngine primary;
+
+    private final RepaymentEngine shadow;
+
+    private final double sampleRate;
+
+    private final Executor executor;
+
+    private final Timer primaryTimer;
+
+    private final Timer shadowTimer;
+
+    private final DistributionSummary latencyRatio;
+
+    private final Counter matches;
+
+    private final Counter mismatches;
+
+    private final Counter errors;
+
+    private final Counter dropped;
+
+    /**
+     * Registriert alle Meter.
+     *
+     * @param primary Die primäre Engine, deren Ergebnis zurückgegeben wird.
+     * @param shadow Die Schatten-Engine, die verglichen wird.
+     * @param sampleRate Der Anteil der verglichenen Berechnungen zwischen 0 und 1.
+     * @param executor Der Executor für die Schatten-Engine. Lehnt er ab, wird der Vergleich verworfen.
+     * @param meterRegistry Die Registry für die Metriken.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentServiceShadowDecorator(
+            final RepaymentEngine primary,
+            final RepaymentEngine shadow,
+            final double sampleRate,
+            final Executor executor,
+            final MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.shadow = shadow;
+        this.sampleRate = sampleRate;
+        this.executor = executor;
+        this.primaryTimer = timer(meterRegistry, primary.getEngineName(), "primary");
+        this.shadowTimer = timer(meterRegistry, shadow.getEngineName(), "shadow");
+        this.latencyRatio = DistributionSummary.builder("repayment.shadow.latency.ratio")
+            .description("Dauer der Schatten-Engine geteilt durch die Dauer der primären Engine je Vergleich")
+            .tag("engine", shadow.getEngineName())
+            .publishPercentileHistogram()
+            .minimumExpectedValue(0.01)
+            .maximumExpectedValue(100.0)
+            .register(meterRegistry);
+        this.matches = comparisons(meterRegistry, "match");
+        this.mismatches = comparisons(meterRegistry, "mismatch");
+        this.errors = comparisons(meterRegistry, "error");
+        this.dropped = Counter.builder("repayment.shadow.dropped")
+            .description("Verworfene Vergleiche wegen voller Warteschlange")
+            .tag("engine", shadow.getEngineName())
+            .register(meterRegistry);
+    }
+
+    /**
+     * Berechnet den Tilgungsplan mit der primären Engine und übergibt ihn ggf. zum Vergleich an den Executor.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @return RepaymentDto Der Tilgungsplan der primären Engine.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public RepaymentDto calculate(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return primary.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+
+        final long start = System.nanoTime();
+        final RepaymentDto expected = primary.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        final long primaryNanos = System.nanoTime() - start;
+        try {
+            executor.execute(() -> compare(expected, primaryNanos, loanAmount, initialRepayment, interestRate, fixedInterestPeriod));
+        }
+        catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+        return expected;
+    }
+
+    @Override
+    public RepaymentSummaryDto calculateSummary(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        return primary.calculateSummary(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+    }
+
+    @Override
+    public RepaymentDto calculateYears(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod,
+            final int fromYear,
+            final int toYear
+    ) {
+        return primary.calculateYears(loanAmount, initialRepayment, interestRate, fixedInterestPeriod, fromYear, toYear);
+    }
+
+    @Override
+    public int streamSchedule(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final RepaymentMonthConsumer consumer
+    ) throws IOException {
+        return primary.streamSchedule(loanAmount, initialRepayment, interestRate, consumer);
+    }
+
+    @Override
+    public RepaymentGridDto calculateGrid(
+            final double loanAmount,
+            final double[] interestRates,
+            final double[] initialRepayments,
+            final int[] fixedInterestPeriods
+    ) {
+        return primary.calculateGrid(loanAmount, interestRates, initialRepayments, fixedInterestPeriods);
+    }
+
+    @Override
+    public RepaymentScenarioState calculateScenario(
+            final RepaymentScenarioParametersDto parameters,
+            final RepaymentScenarioState previous
+    ) {
+        return primary.calculateScenario(parameters, previous);
+    }
+
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv) throws IOException {
+        return primary.calculatePortfolio(csv);
+    }
+
+    @Override
+    public RepaymentPortfolioDto calculatePortfolio(final Reader csv, final ForkJoinPool pool) throws IOException {
+        return primary.calculatePortfolio(csv, pool);
+    }
+
+    /**
+     * Vergleicht zwei Tilgungspläne Feld für Feld und Jahr für Jahr. Beträge werden exakt verglichen.
+     *
+     * @param expected Der Tilgungsplan der primären Engine.
+     * @param actual Der Tilgungsplan der Schatten-Engine.
+     * @return Die ersten Abweichungen in Form {@code feld: erwartet != tatsächlich}. Leer, wenn beide gleich sind.
+     *
+     * @since 1.1.0
+     */
+    public static List<String> differences(final RepaymentDto expected, final RepaymentDto actual) {
+        final List<String> differences = new ArrayList<>();
+        compare(differences, "loanAmount", expected.loanAmount(), actual.loanAmount());
+        compare(differences, "totalInterest", expected.totalInterest(), actual.totalInterest());
+        compare(differences, "monthlyRate", expected.monthlyRate(), actual.monthlyRate());
+        compare(differences, "initialRepaymentRate", expected.initialRepaymentRate(), actual.initialRepaymentRate());
+        compare(differences, "interestRate", expected.interestRate(), actual.interestRate());
+        compare(differences, "fixedInterestPeriod", expected.fixedInterestPeriod(), actual.fixedInterestPeriod());
+        compare(differences, "residualDebt", expected.residualDebt(), actual.residualDebt());
+        compare(differences, "yearPeriod", expected.yearPeriod(), actual.yearPeriod());
+        compare(differences, "monthPeriod", expected.monthPeriod(), actual.monthPeriod());
+        compare(differences, "totalRepayment", expected.totalRepayment(), actual.totalRepayment());
+
+        final List<RepaymentPlanDto> expectedPlan = expected.repaymentPlan();
+        final List<RepaymentPlanDto> actualPlan = actual.repaymentPlan();
+        compare(differences, "repaymentPlan.size", expectedPlan.size(), actualPlan.size());
+        for (int i = 0; i < Math.min(expectedPlan.size(), actualPlan.size()) && differences.size() < MAX_DIFFERENCES; ++i) {
+            final RepaymentPlanDto expectedRow = expectedPlan.get(i);
+            final RepaymentPlanDto actualRow = actualPlan.get(i);
+            final String row = "repaymentPlan[" + i + "].";
+            compare(differences, row + "year", expectedRow.year(), actualRow.year());
+            compare(differences, row + "rate", expectedRow.rate(), actualRow.rate());
+            compare(differences, row + "interestPortion", expectedRow.interestPortion(), actualRow.interestPortion());
+            compare(differences, row + "repaymentPortion", expectedRow.repaymentPortion(), actualRow.repaymentPortion());
+            compare(differences, row + "residualDebt", expectedRow.residualDebt(), actualRow.residualDebt());
+        }
+        return differences.size() > MAX_DIFFERENCES ? differences.subList(0, MAX_DIFFERENCES) : differences;
+    }
+
+    /**
+     * Rechnet mit der Schatten-Engine und zeichnet das Ergebnis des Vergleichs auf. Läuft auf dem Executor.
+     */
+    private void compare(
+            final RepaymentDto expected,
+            final long primaryNanos,
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        final RepaymentDto actual;
+        final long start = System.nanoTime();
+        try {
+            actual = shadow.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+        catch (Exception e) {
+            errors.increment();
+            logger.warn(
+                "shadow engine {} failed for loanAmount={} initialRepayment={} interestRate={} fixedInterestPeriod={}: {}",
+                shadow.getEngineName(), loanAmount, initialRepayment, interestRate, fixedInterestPeriod, e.toString()
+            );
+            return;
+        }
+        final long shadowNanos = System.nanoTime() - start;
+
+        primaryTimer.record(primaryNanos, TimeUnit.NANOSECONDS);
+        shadowTimer.record(shadowNanos, TimeUnit.NANOSECONDS);
+        latencyRatio.record((double) shadowNanos / Math.max(1, primaryNanos));
+
+        final List<String> differences = differences(expected, actual);
+        if (differences.isEmpty()) {
+            matches.increment();
+            return;
+        }
+        mismatches.increment();
+        logger.warn(
+            "shadow engine {} differs from {} for loanAmount={} initialRepayment={} interestRate={} fixedInterestPeriod={}: {}",
+            shadow.getEngineName(), primary.getEngineName(), loanAmount, initialRepayment, interestRate, fixedInterestPeriod, differences
+        );
+    }
+
+    private static void compare(final List<String> differences, final String field, final double expected, final double actual) {
+        if (Double.compare(expected, actual) != 0) {
+            differences.add(field + ": " + expected + " != " + actual);
+        }
+    }
+
+    private Counter comparisons(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("repayment.shadow.comparisons")
+            .description("Vergleiche der Schatten-Engine mit der primären Engine")
+            .tag("engine", shadow.getEngineName())
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static Timer timer(final MeterRegistry meterRegistry, final String engine, final String role) {
+        return Timer.builder("repayment.shadow.calculation")
+            .description("Dauer der Berechnung beider Engines bei verglichenen Tilgungsplänen")
+            .tag("engine", engine)
+            .tag("role", role)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(500))
+            .maximumExpectedValue(Duration.ofSeconds(5))
+            .register(meterRegistry);
+    }
+
+}
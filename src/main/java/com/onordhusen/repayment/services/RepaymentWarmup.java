@@ -0,0 +1,413 @@
+package com.onordhusen.repayment.services;
+
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.properties.RepaymentEngineProperties;
+import com.onordhusen.repayment.properties.RepaymentHttpCacheProperties;
+import com.onordhusen.repayment.properties.RepaymentWarmupProperties;
+import com.onordhusen.repayment.services.interfaces.RepaymentEngine;
+import com.onordhusen.repayment.utils.ETagUtils;
+import com.onordhusen.repayment.utils.ValidationUtils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_JSON;
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+
+/**
+ * Wärmt die Anwendung nach dem Start auf, bevor sie als bereit gilt.
+ *
+ * Direkt nach dem Start laufen Tomcat, Binden, Validierung, Berechnung und Serialisierung im Interpreter
+ * und sind um ein Vielfaches langsamer, bis der JIT sie übersetzt hat. Daher berechnet die Anwendung nach dem Start
+ * Tilgungspläne mit der primären Engine und schreibt sie mit den Convertern von Spring MVC, ohne Cache, Metriken und Pool.
+ * Zu jeder Berechnung sendet sie außerdem einen bedingten Request an {@code GET /api/v1/repayment} über den eigenen Port,
+ * dessen If-None-Match den ETag der Antwort enthält. Er läuft durch Tomcat, Binden und Validierung wie ein echter Request
+ * und wird mit 304 beantwortet, ohne den Service oder den Cache zu berühren.
+ * Die Requests tragen den Header {@value #WARMUP_HEADER} mit einem zufälligen Token. Solche Requests zählen nicht in
+ * {@code http.server.requests} und nicht gegen die Zugangskontrolle, siehe {@link #isWarmupRequest(HttpServletRequest)}.
+ * Die Parameter laufen über ein Raster innerhalb der {@link com.onordhusen.repayment.constants.RepaymentValidationConstants},
+ * damit alle Verzweigungen und Planlängen vorkommen.
+ *
+ * Bis die Iterationen durch sind oder das Zeitbudget abgelaufen ist, meldet der Health-Indikator {@code repaymentWarmup}
+ * OUT_OF_SERVICE. Er gehört zur Readiness-Gruppe, ein Load Balancer leitet also erst danach Traffic auf die Instanz.
+ * Dauer und Anzahl der Iterationen stehen in den Details des Indikators, im Log und in den Metriken
+ * {@code repayment.warmup.duration} und {@code repayment.warmup.iterations}.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Component
+public class RepaymentWarmup implements HealthIndicator, MeterBinder {
+
+    /**
+     * Kennzeichnet die Requests des Aufwärmens.
+     *
+     * @since 1.1.0
+     */
+    public static final String WARMUP_HEADER = "X-Repayment-Warmup";
+
+    private static final String REPAYMENT_PATH = "/api/v1/repayment";
+
+    private static final int LOAN_AMOUNT_STEPS = (int) ((VALIDATION_MAX_LOAN_AMOUNT - VALIDATION_MIN_LOAN_AMOUNT) / 1_000);
+
+    private final Logger logger = LoggerFactory.getLogger(RepaymentWarmup.class);
+
+    /**
+     * Ohne das Token könnte jeder Client mit dem Header die Zugangskontrolle umgehen.
+     */
+    private final String token = UUID.randomUUID().toString();
+
+    private final RepaymentWarmupProperties properties;
+
+    private final RepaymentEngine engine;
+
+    private final String engineName;
+
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+
+    private final ServerProperties serverProperties;
+
+    private final RepaymentHttpCacheProperties httpCacheProperties;
+
+    private final Environment environment;
+
+    private volatile boolean finished;
+
+    private volatile long iterations;
+
+    private volatile long durationNanos;
+
+    private volatile boolean timeBudgetExhausted;
+
+    /**
+     * @param properties Die Einstellungen des Aufwärmens.
+     * @param engineRegistry Liefert die primäre Engine ohne Decorators.
+     * @param engineProperties Die Auswahl der primären Engine. Ihr Name geht in die ETags ein.
+     * @param handlerAdapter Liefert die Converter, mit denen Spring MVC die Antworten schreibt.
+     *                       Wird erst beim Aufwärmen abgefragt, da die Zugangskontrolle in Spring MVC diese Klasse benötigt.
+     * @param serverProperties Liefert Adresse, TLS und Context-Path des Servers.
+     * @param httpCacheProperties Ohne ETags gibt es keine bedingten Requests, dann wird nur ohne HTTP aufgewärmt.
+     * @param environment Liefert den Port des gestarteten Servers.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentWarmup(
+            final RepaymentWarmupProperties properties,
+            final RepaymentEngineRegistry engineRegistry,
+            final RepaymentEngineProperties engineProperties,
+            final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+            final ServerProperties serverProperties,
+            final RepaymentHttpCacheProperties httpCacheProperties,
+            final Environment environment
+    ) {
+        this.properties = properties;
+        this.engine = engineRegistry.get(engineProperties.primary());
+        this.engineName = engineProperties.primary();
+        this.handlerAdapter = handlerAdapter;
+        this.serverProperties = serverProperties;
+        this.httpCacheProperties = httpCacheProperties;
+        this.environment = environment;
+        this.finished = !properties.enabled();
+    }
+
+    /**
+     * Registriert Dauer und Iterationen des Aufwärmens. Spring Boot ruft die Methode für jede Registry auf,
+     * erst nachdem die Instanz vollständig erzeugt ist.
+     *
+     * @param meterRegistry Die Registry für die Metriken.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public void bindTo(final MeterRegistry meterRegistry) {
+        TimeGauge.builder("repayment.warmup.duration", this, TimeUnit.NANOSECONDS, warmup -> warmup.durationNanos)
+            .description("Dauer des Aufwärmens nach dem Start")
+            .register(meterRegistry);
+        FunctionCounter.builder("repayment.warmup.iterations", this, warmup -> warmup.iterations)
+            .description("Iterationen des Aufwärmens nach dem Start")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Startet das Aufwärmen in einem eigenen Thread, sobald der Server Requests annimmt.
+     * Ohne Server, zb. in Tests mit MockMvc, nimmt die Instanz keinen Traffic an und gilt sofort als bereit.
+     *
+     * @since 1.1.0
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (finished) {
+            return;
+        }
+        final Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            logger.info("Warm-up skipped, no web server");
+            finished = true;
+            return;
+        }
+        Thread.ofPlatform()
+            .name("warmup")
+            .daemon()
+            .start(() -> run(baseUri(port)));
+    }
+
+    /**
+     * Prüft, ob ein Request vom Aufwärmen stammt. Nach dem Aufwärmen gilt kein Request mehr als solcher.
+     *
+     * @param request Der Request.
+     * @return true, wenn der Request den Header {@value #WARMUP_HEADER} mit dem Token dieser Instanz trägt.
+     *
+     * @since 1.1.0
+     */
+    public boolean isWarmupRequest(final HttpServletRequest request) {
+        return !finished && token.equals(request.getHeader(WARMUP_HEADER));
+    }
+
+    /**
+     * Die Adresse des eigenen Servers mit Context-Path, mit https, wenn TLS aktiv ist.
+     * Lauscht der Server auf allen Adressen, wird localhost verwendet.
+     */
+    private URI baseUri(final int port) {
+        final InetAddress address = serverProperties.getAddress();
+        final String contextPath = serverProperties.getServlet().getContextPath();
+        try {
+            return new URI(
+                serverProperties.getSsl() != null && serverProperties.getSsl().isEnabled() ? "https" : "http",
+                null,
+                address == null || address.isAnyLocalAddress() ? "localhost" : address.getHostAddress(),
+                port,
+                contextPath == null ? "" : contextPath,
+                null,
+                null
+            );
+        }
+        catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid server address for warm-up: " + e.getMessage(), e);
+        }
+    }
+
+    private void run(final URI baseUri) {
+        final long start = System.nanoTime();
+        final long deadline = start + properties.timeBudget().toNanos();
+        boolean requests = httpCacheProperties.enabled();
+        final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+        try {
+            for (int i = 0; i < properties.iterations(); ++i) {
+                final long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    timeBudgetExhausted = true;
+                    break;
+                }
+                calculate(i);
+                if (requests) {
+                    requests = send(client, baseUri, i, deadline);
+                }
+                iterations = i + 1;
+                durationNanos = System.nanoTime() - start;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (Exception e) {
+            logger.error(e.getMessage());
+        }
+        finally {
+            durationNanos = System.nanoTime() - start;
+            finished = true;
+            logger.info(
+                "Warm-up finished after {} iterations in {} ms{}",
+                iterations,
+                TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                timeBudgetExhausted ? ", time budget exhausted" : ""
+            );
+        }
+    }
+
+    /**
+     * Jede vierte Berechnung ist eine Zusammenfassung, jede achte wird als CBOR
+     * und jede achte spaltenorientiert statt als JSON serialisiert.
+     */
+    private void calculate(final int iteration) throws IOException {
+        final RepaymentParametersDto parameters = parameters(iteration);
+        final List<String> errors = ValidationUtils.validate(parameters);
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid warm-up parameters " + parameters + ": " + errors);
+        }
+        if (isSummary(iteration)) {
+            write(engine.calculateSummary(
+                parameters.loanAmount(),
+                parameters.initialRepayment(),
+                parameters.interestRate(),
+                parameters.fixedInterestPeriod()
+            ), MediaType.APPLICATION_JSON);
+            return;
+        }
+        write(engine.calculate(
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod()
+        ), mediaType(iteration));
+    }
+
+    /**
+     * Schreibt die Antwort mit dem ersten passenden Converter, wie Spring MVC ihn auswählen würde, und verwirft die Bytes.
+     */
+    @SuppressWarnings("unchecked")
+    private void write(final Object body, final MediaType mediaType) throws IOException {
+        final HttpOutputMessage outputMessage = new HttpOutputMessage() {
+            private final HttpHeaders headers = new HttpHeaders();
+
+            @Override
+            public OutputStream getBody() {
+                return OutputStream.nullOutputStream();
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+        for (HttpMessageConverter<?> converter: handlerAdapter.getObject().getMessageConverters()) {
+            if (converter.canWrite(body.getClass(), mediaType)) {
+                ((HttpMessageConverter<Object>) converter).write(body, mediaType, outputMessage);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sendet den bedingten Request der Iteration.
+     *
+     * @return false, wenn der Server nicht erreichbar ist, zb. weil sein Zertifikat nicht für localhost gilt.
+     *         Dann wird ohne HTTP weiter aufgewärmt.
+     */
+    private boolean send(
+            final HttpClient client,
+            final URI baseUri,
+            final int iteration,
+            final long deadline
+    ) throws InterruptedException {
+        final RepaymentParametersDto parameters = parameters(iteration);
+        final String accept = mediaType(iteration).toString();
+        final String eTag = ETagUtils.repaymentETag(
+            engineName,
+            isSummary(iteration) ? "summary" : "plan",
+            accept,
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod()
+        );
+        final URI uri = URI.create(baseUri + REPAYMENT_PATH
+            + "?loanAmount=" + parameters.loanAmount()
+            + "&initialRepayment=" + parameters.initialRepayment()
+            + "&interestRate=" + parameters.interestRate()
+            + "&fixedInterestPeriod=" + parameters.fixedInterestPeriod()
+            + (isSummary(iteration) ? "&view=summary" : ""));
+        final HttpRequest request = HttpRequest.newBuilder(uri)
+            .header(HttpHeaders.ACCEPT, accept)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .header(WARMUP_HEADER, token)
+            .timeout(Duration.ofNanos(Math.max(deadline - System.nanoTime(), 1)))
+            .GET()
+            .build();
+        try {
+            final HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != HttpStatus.NOT_MODIFIED.value()) {
+                logger.warn("Warm-up request {} returned {}", uri, response.statusCode());
+            }
+            return true;
+        }
+        catch (IOException e) {
+            // Das Zeitbudget ist im Request abgelaufen oder der Server ist so nicht erreichbar.
+            if (System.nanoTime() - deadline < 0) {
+                logger.warn("Warm-up requests to {} failed, continuing without: {}", baseUri, e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private static boolean isSummary(final int iteration) {
+        return iteration % 4 == 1;
+    }
+
+    private static MediaType mediaType(final int iteration) {
+        return switch (iteration % 8) {
+            case 3 -> MediaType.APPLICATION_CBOR;
+            case 7 -> APPLICATION_REPAYMENT_COLUMNAR_JSON;
+            default -> MediaType.APPLICATION_JSON;
+        };
+    }
+
+    /**
+     * Die Parameter der n-ten Iteration. Die Schrittweiten sind teilerfremd zur Anzahl der Werte je Parameter,
+     * sodass die Iterationen unterschiedliche Kombinationen über den gesamten gültigen Bereich abdecken.
+     * Der Sollzinssatz bleibt realistisch zwischen 1 und 10 %, höhere Werte verkürzen nur die Laufzeit.
+     *
+     * @param iteration Die Nummer der Iteration ab 0.
+     * @return Gültige Parameter eines Tilgungsplans.
+     *
+     * @since 1.1.0
+     */
+    public static RepaymentParametersDto parameters(final int iteration) {
+        return new RepaymentParametersDto(
+            VALIDATION_MIN_LOAN_AMOUNT + (iteration * 7_919L % LOAN_AMOUNT_STEPS) * 1_000 + iteration % 100 / 100.0,
+            VALIDATION_MIN_INITIAL_REPAYMENT + (iteration * 3 % 29) * 0.5,
+            VALIDATION_MIN_INTEREST_RATE + (iteration * 7 % 37) * 0.25,
+            (int) VALIDATION_MIN_FIXED_INTEREST_PERIOD + iteration * 11 % 30
+        );
+    }
+
+    /**
+     * @return OUT_OF_SERVICE während des Aufwärmens, danach UP. Mit Anzahl und Dauer der Iterationen.
+     *
+     * @since 1.1.0
+     */
+    @Override
+    public Health health() {
+        final Health.Builder builder = finished ? Health.up() : Health.outOfService();
+        return builder
+            .withDetail("iterations", iterations)
+            .withDetail("durationMs", TimeUnit.NANOSECONDS.toMillis(durationNanos))
+            .withDetail("timeBudgetExhausted", timeBudgetExhausted)
+            .build();
+    }
+
+}
@@ -0,0 +1,219 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.utils.CentUtils;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Rechnet einen Tilgungsplan Monat für Monat in ganzen Cent.
+ * Der Cursor hält ausschließlich primitive Zustände und alloziert während der Berechnung nichts.
+ * Die Ergebnisse sind centgenau identisch zur Standard Implementierung.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public final class AmortizationCursor {
+
+    private final long monthlyRateCents;
+
+    private double monthlyInterestRate;
+
+    private long residualDebtCents;
+
+    private long interestPortionCents;
+
+    private long repaymentPortionCents;
+
+    private long totalInterestCents;
+
+    private int month;
+
+    /**
+     * Initialisiert den Cursor vor dem ersten Monat.
+     *
+     * @param loanAmountCents Der Darlehensbetrag in Cent.
+     * @param monthlyRateCents Die monatliche Rate in Cent.
+     * @param monthlyInterestRate Der monatliche Sollzinssatz als dezimaler Anteil. In Form zb. 0.003 = 0,3 %.
+     *
+     * @since 1.1.0
+     */
+    public AmortizationCursor(
+            final long loanAmountCents,
+            final long monthlyRateCents,
+            final double monthlyInterestRate
+    ) {
+        this.monthlyRateCents = monthlyRateCents;
+        this.monthlyInterestRate = monthlyInterestRate;
+        this.residualDebtCents = loanAmountCents;
+    }
+
+    /**
+     * Setzt eine Berechnung an einem gespeicherten Zwischenstand fort, zb. an einer Jahresgrenze.
+     *
+     * @param residualDebtCents Die Restschuld des Zwischenstands in Cent.
+     * @param monthlyRateCents Die monatliche Rate in Cent.
+     * @param monthlyInterestRate Der monatliche Sollzinssatz als dezimaler Anteil. In Form zb. 0.003 = 0,3 %.
+     * @param totalInterestCents Die bis zum Zwischenstand gezahlten Zinsen in Cent.
+     * @param month Die Anzahl der bis zum Zwischenstand berechneten Monate.
+     *
+     * @since 1.1.0
+     */
+    public AmortizationCursor(
+            final long residualDebtCents,
+            final long monthlyRateCents,
+            final double monthlyInterestRate,
+            final long totalInterestCents,
+            final int month
+    ) {
+        this(residualDebtCents, monthlyRateCents, monthlyInterestRate);
+        this.totalInterestCents = totalInterestCents;
+        this.month = month;
+    }
+
+    /**
+     * Initialisiert den Cursor anhand der Eingabeparameter eines Tilgungsplans.
+     * Monatliche Rate und monatlicher Sollzinssatz werden mit denselben Formeln wie in der Standard Implementierung berechnet.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein, siehe {@link CentUtils#isCentExact(double)}.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @return Der Cursor vor dem ersten Monat.
+     *
+     * @since 1.1.0
+     */
+    public static AmortizationCursor start(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate
+    ) {
+        return new AmortizationCursor(
+            CentUtils.toCents(loanAmount),
+            monthlyRateCents(loanAmount, initialRepayment, interestRate),
+            monthlyInterestRate(interestRate)
+        );
+    }
+
+    /**
+     * Berechnet die monatliche Rate mit derselben Formel wie die Standard Implementierung.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein, siehe {@link CentUtils#isCentExact(double)}.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @return Die monatliche Rate in Cent.
+     *
+     * @since 1.1.0
+     */
+    public static long monthlyRateCents(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate
+    ) {
+        // Im folgenden verwenden die Formeln dezimale Prozente.
+        final double internalInitialRepayment = initialRepayment / 100;
+        final double internalInterestRate = interestRate / 100;
+
+        return CentUtils.toCents(loanAmount * ((internalInterestRate + internalInitialRepayment) / MONTHS_PER_YEAR));
+    }
+
+    /**
+     * Berechnet den monatlichen Sollzinssatz mit derselben Formel wie die Standard Implementierung.
+     *
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @return Der monatliche Sollzinssatz als dezimaler Anteil. In Form zb. 0.003 = 0,3 %.
+     *
+     * @since 1.1.0
+     */
+    public static double monthlyInterestRate(final double interestRate) {
+        return interestRate / 100 / MONTHS_PER_YEAR;
+    }
+
+    /**
+     * Berechnet den nächsten Monat.
+     *
+     * @since 1.1.0
+     */
+    public void nextMonth() {
+        // Der Zinsanteil wird wie in der Standard Implementierung über double berechnet und kaufmännisch gerundet.
+        // So fallen auch exakte halbe Cent auf dieselbe Seite.
+        interestPortionCents = Math.round(residualDebtCents / 100.0 * monthlyInterestRate * 100);
+        totalInterestCents += interestPortionCents;
+
+        // Alle weiteren Schritte sind exakt in Cent.
+        repaymentPortionCents = Math.min(monthlyRateCents - interestPortionCents, residualDebtCents);
+        residualDebtCents -= repaymentPortionCents;
+        ++month;
+    }
+
+    /**
+     * Verringert die Restschuld um eine Sondertilgung. Höchstens um die verbleibende Restschuld.
+     *
+     * @param specialRepaymentCents Die Sondertilgung in Cent.
+     * @return Die tatsächlich verrechnete Sondertilgung in Cent.
+     *
+     * @since 1.1.0
+     */
+    public long applySpecialRepayment(final long specialRepaymentCents) {
+        final long appliedCents = Math.min(specialRepaymentCents, residualDebtCents);
+        residualDebtCents -= appliedCents;
+        return appliedCents;
+    }
+
+    /**
+     * Ob die Restschuld vollständig getilgt ist.
+     *
+     * @return true, wenn die Restschuld 0,00 € ist.
+     *
+     * @since 1.1.0
+     */
+    public boolean isPaidOff() {
+        return residualDebtCents <= 0;
+    }
+
+    /**
+     * Ändert den monatlichen Sollzinssatz ab dem nächsten Monat.
+     *
+     * @param monthlyInterestRate Der monatliche Sollzinssatz als dezimaler Anteil. In Form zb. 0.003 = 0,3 %.
+     *
+     * @since 1.1.0
+     */
+    public void setMonthlyInterestRate(final double monthlyInterestRate) {
+        this.monthlyInterestRate = monthlyInterestRate;
+    }
+
+    public long getMonthlyRateCents() {
+        return monthlyRateCents;
+    }
+
+    public double getMonthlyInterestRate() {
+        return monthlyInterestRate;
+    }
+
+    public long getResidualDebtCents() {
+        return residualDebtCents;
+    }
+
+    public long getInterestPortionCents() {
+        return interestPortionCents;
+    }
+
+    public long getRepaymentPortionCents() {
+        return repaymentPortionCents;
+    }
+
+    public long getTotalInterestCents() {
+        return totalInterestCents;
+    }
+
+    /**
+     * Anzahl der bisher berechneten Monate.
+     *
+     * @return Die Anzahl. In Form zb. 13 = 1 Jahr und 1 Monat.
+     *
+     * @since 1.1.0
+     */
+    public int getMonth() {
+        return month;
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.utils.CentUtils;
+
+import java.util.Arrays;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Ein Stapel von Darlehen in spaltenorientierter Form (struct of arrays) für {@link RepaymentBatchCalculator}.
+ *
+ * Je Darlehen liegen die Eingabeparameter, der Startzustand der Monatsschleife und die Ergebnisse in primitiven Arrays.
+ * Beträge in Cent werden für die Vektorberechnung als double gehalten. Ganze Cent sind bis 2^53 exakt darstellbar,
+ * das liegt weit über dem maximalen Darlehensbetrag.
+ *
+ * Zusätzlich werden Zins, Tilgung und Restschuld aller Darlehen je Jahr summiert, wie in {@link RepaymentPortfolioAccumulator}.
+ * Nicht threadsicher. Nach {@link #clear()} kann der Stapel wiederverwendet werden.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public final class RepaymentBatch {
+
+    final int capacity;
+
+    int size;
+
+    final double[] loanAmounts;
+
+    final double[] initialRepayments;
+
+    final double[] interestRates;
+
+    final int[] fixedInterestPeriods;
+
+    final double[] loanAmountCents;
+
+    final double[] monthlyRateCents;
+
+    final double[] monthlyInterestRates;
+
+    final double[] fixedInterestMonths;
+
+    final long[] totalInterestCents;
+
+    final long[] residualDebtEndCents;
+
+    final int[] months;
+
+    final long[] yearlyLoans = new long[RepaymentPortfolioAccumulator.MAX_YEARS];
+
+    final long[] yearlyInterestPortionCents = new long[RepaymentPortfolioAccumulator.MAX_YEARS];
+
+    final long[] yearlyRepaymentPortionCents = new long[RepaymentPortfolioAccumulator.MAX_YEARS];
+
+    final long[] yearlyResidualDebtCents = new long[RepaymentPortfolioAccumulator.MAX_YEARS];
+
+    /**
+     * @param capacity Die maximale Anzahl an Darlehen.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentBatch(final int capacity) {
+        this.capacity = capacity;
+        this.loanAmounts = new double[capacity];
+        this.initialRepayments = new double[capacity];
+        this.interestRates = new double[capacity];
+        this.fixedInterestPeriods = new int[capacity];
+        this.loanAmountCents = new double[capacity];
+        this.monthlyRateCents = new double[capacity];
+        this.monthlyInterestRates = new double[capacity];
+        this.fixedInterestMonths = new double[capacity];
+        this.totalInterestCents = new long[capacity];
+        this.residualDebtEndCents = new long[capacity];
+        this.months = new int[capacity];
+    }
+
+    /**
+     * Fügt ein Darlehen hinzu. Rate und monatlicher Sollzinssatz werden wie in {@link AmortizationCursor#start} berechnet.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein, siehe {@link CentUtils#isCentExact(double)}.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @throws IllegalStateException Wenn der Stapel voll ist.
+     *
+     * @since 1.1.0
+     */
+    public void add(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        if (size == capacity) {
+            throw new IllegalStateException("batch is full");
+        }
+
+        loanAmounts[size] = loanAmount;
+        initialRepayments[size] = initialRepayment;
+        interestRates[size] = interestRate;
+        fixedInterestPeriods[size] = fixedInterestPeriod;
+        loanAmountCents[size] = CentUtils.toCents(loanAmount);
+        monthlyRateCents[size] = AmortizationCursor.monthlyRateCents(loanAmount, initialRepayment, interestRate);
+        monthlyInterestRates[size] = AmortizationCursor.monthlyInterestRate(interestRate);
+        fixedInterestMonths[size] = fixedInterestPeriod * MONTHS_PER_YEAR;
+        ++size;
+    }
+
+    /**
+     * Entfernt alle Darlehen und Ergebnisse.
+     *
+     * @since 1.1.0
+     */
+    public void clear() {
+        size = 0;
+        clearResults();
+    }
+
+    /**
+     * Setzt die Ergebnisse vor einer Berechnung zurück.
+     */
+    void clearResults() {
+        Arrays.fill(yearlyLoans, 0);
+        Arrays.fill(yearlyInterestPortionCents, 0);
+        Arrays.fill(yearlyRepaymentPortionCents, 0);
+        Arrays.fill(yearlyResidualDebtCents, 0);
+    }
+
+    /**
+     * Addiert die Werte eines Jahres. Liegt das Jahr hinter {@link RepaymentPortfolioAccumulator#MAX_YEARS}, wird abgebrochen.
+     *
+     * @param year Das Jahr, beginnend bei 0.
+     */
+    void addYear(
+            final int year,
+            final long loans,
+            final long interestPortionCents,
+            final long repaymentPortionCents,
+            final long residualDebtCents
+    ) {
+        if (year >= RepaymentPortfolioAccumulator.MAX_YEARS) {
+            throw new IllegalArgumentException("loan must be paid off within " + RepaymentPortfolioAccumulator.MAX_YEARS + " years");
+        }
+        yearlyLoans[year] += loans;
+        yearlyInterestPortionCents[year] += interestPortionCents;
+        yearlyRepaymentPortionCents[year] += repaymentPortionCents;
+        yearlyResidualDebtCents[year] += residualDebtCents;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getLoanAmount(final int index) {
+        return loanAmounts[index];
+    }
+
+    public double getInitialRepayment(final int index) {
+        return initialRepayments[index];
+    }
+
+    public double getInterestRate(final int index) {
+        return interestRates[index];
+    }
+
+    public int getFixedInterestPeriod(final int index) {
+        return fixedInterestPeriods[index];
+    }
+
+    public long getMonthlyRateCents(final int index) {
+        return (long) monthlyRateCents[index];
+    }
+
+    public long getTotalInterestCents(final int index) {
+        return totalInterestCents[index];
+    }
+
+    public long getResidualDebtEndCents(final int index) {
+        return residualDebtEndCents[index];
+    }
+
+    /**
+     * Anzahl der Monate bis zur vollständigen Tilgung.
+     *
+     * @param index Der Index des Darlehens.
+     * @return Die Anzahl. In Form zb. 13 = 1 Jahr und 1 Monat.
+     *
+     * @since 1.1.0
+     */
+    public int getMonths(final int index) {
+        return months[index];
+    }
+
+}
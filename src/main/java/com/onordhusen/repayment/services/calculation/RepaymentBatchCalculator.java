@@ -0,0 +1,119 @@
+package com.onordhusen.repayment.services.calculation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Berechnet einen {@link RepaymentBatch} mit Monatsschleifen im Gleichschritt.
+ *
+ * Ist das Modul {@code jdk.incubator.vector} geladen, rechnet {@link RepaymentBatchVectorEngine} mehrere Darlehen
+ * je Vektorregister. Sonst läuft dieselbe Schleife skalar mit {@link AmortizationCursor}, ein Darlehen nach dem anderen.
+ * Beide Wege sind centgenau identisch zur Standard Implementierung.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentBatchCalculator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepaymentBatchCalculator.class);
+
+    private static final boolean VECTORIZED = isVectorApiAvailable();
+
+    /**
+     * Berechnet alle Darlehen des Stapels, vektorisiert sofern möglich.
+     *
+     * @param batch Der Stapel. Ergebnisse vorheriger Berechnungen werden überschrieben.
+     * @throws IllegalArgumentException Wenn ein Darlehen länger als {@link RepaymentPortfolioAccumulator#MAX_YEARS} läuft.
+     *
+     * @since 1.1.0
+     */
+    public static void calculate(final RepaymentBatch batch) {
+        if (VECTORIZED) {
+            RepaymentBatchVectorEngine.calculate(batch);
+        }
+        else {
+            calculateScalar(batch);
+        }
+    }
+
+    /**
+     * Berechnet alle Darlehen des Stapels einzeln mit {@link AmortizationCursor}.
+     *
+     * @param batch Der Stapel. Ergebnisse vorheriger Berechnungen werden überschrieben.
+     * @throws IllegalArgumentException Wenn ein Darlehen länger als {@link RepaymentPortfolioAccumulator#MAX_YEARS} läuft.
+     *
+     * @since 1.1.0
+     */
+    public static void calculateScalar(final RepaymentBatch batch) {
+        batch.clearResults();
+        for (int i = 0; i < batch.size; ++i) {
+            final AmortizationCursor cursor = new AmortizationCursor(
+                (long) batch.loanAmountCents[i],
+                (long) batch.monthlyRateCents[i],
+                batch.monthlyInterestRates[i]
+            );
+            final int fixedInterestMonths = (int) batch.fixedInterestMonths[i];
+
+            long residualDebtEndCents = 0;
+            long yearlyInterestPortionCents = 0;
+            long yearlyRepaymentPortionCents = 0;
+            do {
+                cursor.nextMonth();
+                yearlyInterestPortionCents += cursor.getInterestPortionCents();
+                yearlyRepaymentPortionCents += cursor.getRepaymentPortionCents();
+                if (cursor.getMonth() == fixedInterestMonths) {
+                    residualDebtEndCents = cursor.getResidualDebtCents();
+                }
+                if (cursor.getMonth() % MONTHS_PER_YEAR == 0 || cursor.isPaidOff()) {
+                    batch.addYear(
+                        (cursor.getMonth() - 1) / MONTHS_PER_YEAR,
+                        1,
+                        yearlyInterestPortionCents,
+                        yearlyRepaymentPortionCents,
+                        cursor.getResidualDebtCents()
+                    );
+                    yearlyInterestPortionCents = 0;
+                    yearlyRepaymentPortionCents = 0;
+                }
+            } while (!cursor.isPaidOff());
+
+            batch.totalInterestCents[i] = cursor.getTotalInterestCents();
+            batch.residualDebtEndCents[i] = residualDebtEndCents;
+            batch.months[i] = cursor.getMonth();
+        }
+    }
+
+    /**
+     * Ob {@link #calculate} die Vector API verwendet.
+     *
+     * @return true, wenn das Modul {@code jdk.incubator.vector} geladen ist.
+     *
+     * @since 1.1.0
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Das Inkubator-Modul wird nur mit {@code --add-modules jdk.incubator.vector} geladen.
+     * Ohne das Modul darf {@link RepaymentBatchVectorEngine} nie geladen werden.
+     */
+    private static boolean isVectorApiAvailable() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            logger.info("jdk.incubator.vector is not available, batches are calculated scalar");
+            return false;
+        }
+        try {
+            logger.info("batches are calculated with {} lanes of the vector api", RepaymentBatchVectorEngine.lanes());
+            return true;
+        }
+        catch (LinkageError e) {
+            logger.warn("vector api could not be loaded, batches are calculated scalar: {}", e.getMessage());
+            return false;
+        }
+    }
+
+}
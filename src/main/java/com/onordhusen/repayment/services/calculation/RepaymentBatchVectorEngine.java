@@ -0,0 +1,132 @@
+package com.onordhusen.repayment.services.calculation;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Berechnet einen {@link RepaymentBatch} mit der Vector API. Jede Lane eines Vektors ist ein Darlehen.
+ *
+ * Je Block von {@link #lanes()} Darlehen laufen alle Monatsschleifen im Gleichschritt, bis das letzte Darlehen getilgt ist.
+ * Getilgte Darlehen werden per Maske aus den Jahressummen genommen. Ihre Restschuld ist 0, daher bleiben
+ * Zins- und Tilgungsanteil in den weiteren Monaten ohne Verzweigung 0.
+ *
+ * Der Zinsanteil wird wie in {@link AmortizationCursor#nextMonth()} über dieselben double Operationen berechnet.
+ * Die kaufmännische Rundung von {@link Math#round(double)} wird über die Addition von 2^52 nachgebildet,
+ * die auf die nächste ganze Zahl rundet (half-even), und bei exakt halben Cent korrigiert.
+ * Alle weiteren Schritte rechnen mit ganzen Cent in double und sind exakt.
+ *
+ * Darf nur geladen werden, wenn das Modul {@code jdk.incubator.vector} vorhanden ist, siehe {@link RepaymentBatchCalculator}.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+final class RepaymentBatchVectorEngine {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Ab 2^52 ist der Abstand zwischen doubles genau 1. Eine Addition rundet daher auf ganze Zahlen.
+     */
+    private static final double ROUNDING = 0x1p52;
+
+    private static final int MAX_MONTHS = RepaymentPortfolioAccumulator.MAX_YEARS * MONTHS_PER_YEAR;
+
+    private RepaymentBatchVectorEngine() {
+    }
+
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    static void calculate(final RepaymentBatch batch) {
+        batch.clearResults();
+
+        final int lanes = SPECIES.length();
+        final double[] totalInterestCents = new double[lanes];
+        final double[] residualDebtEndCents = new double[lanes];
+        final double[] months = new double[lanes];
+        final DoubleVector zero = DoubleVector.zero(SPECIES);
+
+        for (int offset = 0; offset < batch.size; offset += lanes) {
+            // Lanes hinter dem letzten Darlehen starten mit Restschuld 0 und sind damit von Beginn an getilgt.
+            final VectorMask<Double> inRange = SPECIES.indexInRange(offset, batch.size);
+            final DoubleVector monthlyRate = DoubleVector.fromArray(SPECIES, batch.monthlyRateCents, offset, inRange);
+            final DoubleVector monthlyInterestRate = DoubleVector.fromArray(SPECIES, batch.monthlyInterestRates, offset, inRange);
+            final DoubleVector fixedInterestMonths = DoubleVector.fromArray(SPECIES, batch.fixedInterestMonths, offset, inRange);
+            DoubleVector residualDebt = DoubleVector.fromArray(SPECIES, batch.loanAmountCents, offset, inRange);
+            DoubleVector totalInterest = zero;
+            DoubleVector residualDebtEnd = zero;
+            DoubleVector paidOffMonths = zero;
+            DoubleVector yearlyInterestPortion = zero;
+            DoubleVector yearlyRepaymentPortion = zero;
+
+            // Masken werden je Monat aus der Restschuld abgeleitet und nicht über Schleifen hinweg gehalten,
+            // sonst kann der JIT sie nicht in Registern halten und alloziert sie.
+            int month = 0;
+            while (residualDebt.compare(VectorOperators.GT, 0).anyTrue()) {
+                if (month == MAX_MONTHS) {
+                    throw new IllegalArgumentException("loan must be paid off within " + RepaymentPortfolioAccumulator.MAX_YEARS + " years");
+                }
+                ++month;
+                final VectorMask<Double> active = residualDebt.compare(VectorOperators.GT, 0);
+
+                // Math.round(residualDebtCents / 100.0 * monthlyInterestRate * 100)
+                final DoubleVector exactInterest = residualDebt.div(100.0).mul(monthlyInterestRate).mul(100.0);
+                final DoubleVector roundedInterest = exactInterest.add(ROUNDING).sub(ROUNDING);
+                final DoubleVector interestPortion = roundedInterest.add(1.0, exactInterest.sub(roundedInterest).compare(VectorOperators.EQ, 0.5));
+
+                final DoubleVector repaymentPortion = monthlyRate.sub(interestPortion).min(residualDebt);
+                residualDebt = residualDebt.sub(repaymentPortion);
+                totalInterest = totalInterest.add(interestPortion);
+                yearlyInterestPortion = yearlyInterestPortion.add(interestPortion);
+                yearlyRepaymentPortion = yearlyRepaymentPortion.add(repaymentPortion);
+                residualDebtEnd = residualDebtEnd.blend(residualDebt, fixedInterestMonths.compare(VectorOperators.EQ, month));
+
+                final VectorMask<Double> paidOff = active.and(residualDebt.compare(VectorOperators.LE, 0));
+                paidOffMonths = paidOffMonths.blend(month, paidOff);
+
+                // Zum Jahresende alle laufenden Darlehen summieren, unterjährig nur die gerade getilgten.
+                if (month % MONTHS_PER_YEAR == 0) {
+                    addYear(batch, month, active, yearlyInterestPortion, yearlyRepaymentPortion, residualDebt);
+                    yearlyInterestPortion = zero;
+                    yearlyRepaymentPortion = zero;
+                }
+                else if (paidOff.anyTrue()) {
+                    addYear(batch, month, paidOff, yearlyInterestPortion, yearlyRepaymentPortion, residualDebt);
+                }
+            }
+
+            totalInterest.intoArray(totalInterestCents, 0);
+            residualDebtEnd.intoArray(residualDebtEndCents, 0);
+            paidOffMonths.intoArray(months, 0);
+            for (int lane = 0; lane < lanes && offset + lane < batch.size; ++lane) {
+                batch.totalInterestCents[offset + lane] = (long) totalInterestCents[lane];
+                batch.residualDebtEndCents[offset + lane] = (long) residualDebtEndCents[lane];
+                batch.months[offset + lane] = (int) months[lane];
+            }
+        }
+    }
+
+    private static void addYear(
+            final RepaymentBatch batch,
+            final int month,
+            final VectorMask<Double> loans,
+            final DoubleVector yearlyInterestPortion,
+            final DoubleVector yearlyRepaymentPortion,
+            final DoubleVector residualDebt
+    ) {
+        batch.addYear(
+            (month - 1) / MONTHS_PER_YEAR,
+            loans.trueCount(),
+            (long) yearlyInterestPortion.reduceLanes(VectorOperators.ADD, loans),
+            (long) yearlyRepaymentPortion.reduceLanes(VectorOperators.ADD, loans),
+            (long) residualDebt.reduceLanes(VectorOperators.ADD, loans)
+        );
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.dtos.RepaymentGridDto;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import java.util.stream.IntStream;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Berechnet eine Vergleichstabelle über Sollzinssätze, anfängliche Tilgungen und Sollzinsbindungen.
+ *
+ * Die Sollzinsbindung beeinflusst nur, zu welchem Zeitpunkt die Restschuld abgelesen wird.
+ * Je Kombination aus Sollzinssatz und Tilgung läuft daher nur eine einzige Monatsschleife,
+ * aus der die Restschulden aller Sollzinsbindungen abgelesen werden.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentGridCalculator {
+
+    /**
+     * Berechnet die Vergleichstabelle parallel im Fork-Join-Pool.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein.
+     * @param interestRates Die Sollzinssätze. In Form zb. 3.6 = 3,6%.
+     * @param initialRepayments Die anfänglichen Tilgungen. In Form zb. 2 = 2%.
+     * @param fixedInterestPeriods Die Dauern der Sollzinsbindung, aufsteigend sortiert. In Form zb. 10 = 10 Jahre.
+     * @return Die Vergleichstabelle. Siehe {@link RepaymentGridDto}.
+     *
+     * @since 1.1.0
+     */
+    public static RepaymentGridDto calculate(
+            final double loanAmount,
+            final double[] interestRates,
+            final double[] initialRepayments,
+            final int[] fixedInterestPeriods
+    ) {
+        final int runs = interestRates.length * initialRepayments.length;
+        final int periods = fixedInterestPeriods.length;
+
+        final double[] monthlyRates = new double[runs];
+        final double[] totalInterests = new double[runs];
+        final int[] yearPeriods = new int[runs];
+        final int[] monthPeriods = new int[runs];
+        final double[] residualDebts = new double[runs * periods];
+
+        // Jede Kombination schreibt nur in ihre eigenen Indizes, daher ist keine Synchronisierung nötig.
+        IntStream.range(0, runs).parallel().forEach(run -> {
+            final AmortizationCursor cursor = AmortizationCursor.start(
+                loanAmount,
+                initialRepayments[run % initialRepayments.length],
+                interestRates[run / initialRepayments.length]
+            );
+            int nextPeriod = 0;
+
+            // Jeden Monat einzeln berechnen und zum Ende jeder Sollzinsbindung die Restschuld ablesen.
+            do {
+                cursor.nextMonth();
+                while (nextPeriod < periods && cursor.getMonth() == fixedInterestPeriods[nextPeriod] * MONTHS_PER_YEAR) {
+                    residualDebts[run * periods + nextPeriod] = CentUtils.toPrice(cursor.getResidualDebtCents());
+                    ++nextPeriod;
+                }
+            } while (!cursor.isPaidOff());
+
+            // Sollzinsbindungen nach Ende der Laufzeit behalten die Restschuld 0,00 €.
+            monthlyRates[run] = CentUtils.toPrice(cursor.getMonthlyRateCents());
+            totalInterests[run] = CentUtils.toPrice(cursor.getTotalInterestCents());
+            yearPeriods[run] = cursor.getMonth() / MONTHS_PER_YEAR;
+            monthPeriods[run] = cursor.getMonth() % MONTHS_PER_YEAR;
+        });
+
+        return new RepaymentGridDto(
+            loanAmount,
+            interestRates,
+            initialRepayments,
+            fixedInterestPeriods,
+            monthlyRates,
+            totalInterests,
+            yearPeriods,
+            monthPeriods,
+            residualDebts
+        );
+    }
+
+}
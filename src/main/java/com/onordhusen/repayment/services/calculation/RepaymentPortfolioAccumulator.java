@@ -0,0 +1,188 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.dtos.RepaymentPortfolioYearDto;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Summiert die Tilgungspläne vieler Darlehen je Jahr in ganzen Cent.
+ * Die Größe ist fest und unabhängig von der Anzahl der Darlehen, die Tilgungspläne selbst werden nicht gespeichert.
+ * Nicht threadsicher. Jeder Thread summiert in einen eigenen Akkumulator, die anschließend zusammengeführt werden.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public final class RepaymentPortfolioAccumulator {
+
+    /**
+     * Maximale Laufzeit eines Darlehens in Jahren. Bei minimaler Tilgung und minimalem Sollzinssatz sind es rund 70 Jahre.
+     *
+     * @since 1.1.0
+     */
+    public static final int MAX_YEARS = 100;
+
+    private final long[] loans = new long[MAX_YEARS];
+
+    private final long[] interestPortionCents = new long[MAX_YEARS];
+
+    private final long[] repaymentPortionCents = new long[MAX_YEARS];
+
+    private final long[] residualDebtCents = new long[MAX_YEARS];
+
+    private final long[] loanInterestPortionCents = new long[MAX_YEARS];
+
+    private final long[] loanRepaymentPortionCents = new long[MAX_YEARS];
+
+    private final long[] loanResidualDebtCents = new long[MAX_YEARS];
+
+    private long loanCount;
+
+    private long loanAmountCents;
+
+    private long totalInterestCents;
+
+    private long residualDebtEndCents;
+
+    /**
+     * Berechnet den Tilgungsplan eines Darlehens und addiert ihn zu den Jahressummen.
+     * Die Monatsschleife ist dieselbe wie in {@link RepaymentSummaryCalculator}, das Ergebnis ist centgenau.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein, siehe {@link CentUtils#isCentExact(double)}.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @throws IllegalArgumentException Wenn das Darlehen länger als {@link #MAX_YEARS} läuft.
+     *
+     * @since 1.1.0
+     */
+    public void add(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        final AmortizationCursor cursor = AmortizationCursor.start(loanAmount, initialRepayment, interestRate);
+        final int fixedInterestMonths = fixedInterestPeriod * MONTHS_PER_YEAR;
+
+        // Erst in die Puffer des Darlehens rechnen, damit ein abgelehntes Darlehen die Summen nicht verändert.
+        long residualDebtEnd = 0;
+        long yearlyInterestPortion = 0;
+        long yearlyRepaymentPortion = 0;
+        int year = 0;
+        do {
+            cursor.nextMonth();
+            yearlyInterestPortion += cursor.getInterestPortionCents();
+            yearlyRepaymentPortion += cursor.getRepaymentPortionCents();
+            if (cursor.getMonth() == fixedInterestMonths) {
+                residualDebtEnd = cursor.getResidualDebtCents();
+            }
+            if (cursor.getMonth() % MONTHS_PER_YEAR == 0 || cursor.isPaidOff()) {
+                if (year == MAX_YEARS) {
+                    throw new IllegalArgumentException("loan must be paid off within " + MAX_YEARS + " years");
+                }
+                loanInterestPortionCents[year] = yearlyInterestPortion;
+                loanRepaymentPortionCents[year] = yearlyRepaymentPortion;
+                loanResidualDebtCents[year] = cursor.getResidualDebtCents();
+                yearlyInterestPortion = 0;
+                yearlyRepaymentPortion = 0;
+                ++year;
+            }
+        } while (!cursor.isPaidOff());
+
+        for (int i = 0; i < year; ++i) {
+            ++loans[i];
+            interestPortionCents[i] += loanInterestPortionCents[i];
+            repaymentPortionCents[i] += loanRepaymentPortionCents[i];
+            residualDebtCents[i] += loanResidualDebtCents[i];
+        }
+        ++loanCount;
+        loanAmountCents += CentUtils.toCents(loanAmount);
+        totalInterestCents += cursor.getTotalInterestCents();
+        residualDebtEndCents += residualDebtEnd;
+    }
+
+    /**
+     * Addiert die Jahressummen und Ergebnisse eines berechneten Stapels, siehe {@link RepaymentBatchCalculator}.
+     *
+     * @param batch Der berechnete Stapel.
+     *
+     * @since 1.1.0
+     */
+    public void add(final RepaymentBatch batch) {
+        for (int year = 0; year < MAX_YEARS; ++year) {
+            loans[year] += batch.yearlyLoans[year];
+            interestPortionCents[year] += batch.yearlyInterestPortionCents[year];
+            repaymentPortionCents[year] += batch.yearlyRepaymentPortionCents[year];
+            residualDebtCents[year] += batch.yearlyResidualDebtCents[year];
+        }
+        for (int i = 0; i < batch.size; ++i) {
+            loanAmountCents += (long) batch.loanAmountCents[i];
+            totalInterestCents += batch.totalInterestCents[i];
+            residualDebtEndCents += batch.residualDebtEndCents[i];
+        }
+        loanCount += batch.size;
+    }
+
+    /**
+     * Addiert die Summen eines anderen Akkumulators.
+     *
+     * @param other Der andere Akkumulator.
+     *
+     * @since 1.1.0
+     */
+    public void merge(final RepaymentPortfolioAccumulator other) {
+        for (int year = 0; year < MAX_YEARS; ++year) {
+            loans[year] += other.loans[year];
+            interestPortionCents[year] += other.interestPortionCents[year];
+            repaymentPortionCents[year] += other.repaymentPortionCents[year];
+            residualDebtCents[year] += other.residualDebtCents[year];
+        }
+        loanCount += other.loanCount;
+        loanAmountCents += other.loanAmountCents;
+        totalInterestCents += other.totalInterestCents;
+        residualDebtEndCents += other.residualDebtEndCents;
+    }
+
+    public long getLoanCount() {
+        return loanCount;
+    }
+
+    public long getLoanAmountCents() {
+        return loanAmountCents;
+    }
+
+    public long getTotalInterestCents() {
+        return totalInterestCents;
+    }
+
+    public long getResidualDebtEndCents() {
+        return residualDebtEndCents;
+    }
+
+    /**
+     * Die Jahressummen bis zum letzten Jahr, in dem noch ein Darlehen läuft.
+     *
+     * @return Die Jahressummen.
+     *
+     * @since 1.1.0
+     */
+    public List<RepaymentPortfolioYearDto> toYears() {
+        final List<RepaymentPortfolioYearDto> years = new ArrayList<>();
+        for (int year = 0; year < MAX_YEARS && loans[year] > 0; ++year) {
+            years.add(new RepaymentPortfolioYearDto(
+                year + 1,
+                loans[year],
+                CentUtils.toPrice(interestPortionCents[year]),
+                CentUtils.toPrice(repaymentPortionCents[year]),
+                CentUtils.toPrice(residualDebtCents[year])
+            ));
+        }
+        return years;
+    }
+
+}
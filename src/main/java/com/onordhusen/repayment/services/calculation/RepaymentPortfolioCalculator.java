@@ -0,0 +1,271 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.utils.CentUtils;
+import com.onordhusen.repayment.utils.ValidationUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Berechnet ein Portfolio aus einer CSV-Datei mit einem Darlehen je Zeile und summiert die Tilgungspläne je Jahr.
+ *
+ * Format je Zeile: {@code loanAmount,initialRepayment,interestRate,fixedInterestPeriod}, zb. {@code 250000,2,3.6,10}.
+ * Eine Kopfzeile und leere Zeilen werden übersprungen. Jede Zeile wird wie ein Eintrag der Stapelberechnung validiert,
+ * fehlerhafte Zeilen werden gezählt und die ersten {@link #MAX_ERRORS} Fehler nach Zeilennummer ausgegeben,
+ * unabhängig davon, in welcher Reihenfolge die Blöcke fertig werden.
+ *
+ * Die Datei wird zeilenweise gelesen und in Blöcken von {@link #CHUNK_SIZE} Zeilen parallel berechnet.
+ * Die gültigen Zeilen eines Blocks werden als {@link RepaymentBatch} gemeinsam berechnet, mit der Vector API sofern verfügbar.
+ * Jeder Block summiert in einen eigenen {@link RepaymentPortfolioAccumulator}, der danach in die Gesamtsumme eingeht.
+ * Es sind höchstens doppelt so viele Blöcke unterwegs, wie der Pool Threads hat. Der Speicherbedarf ist damit
+ * unabhängig von der Größe des Portfolios.
+ *
+ * Die Datei wird im aufrufenden Thread gelesen, nur die Blöcke laufen im übergebenen Pool. Über
+ * {@code RepaymentServiceExecutorDecorator} ist das der Pool der Berechnungen, dessen Threads damit nie auf einen Upload warten.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentPortfolioCalculator {
+
+    /**
+     * Anzahl der Zeilen je Block.
+     *
+     * @since 1.1.0
+     */
+    public static final int CHUNK_SIZE = 1_024;
+
+    /**
+     * Maximale Anzahl ausgegebener Fehlermeldungen.
+     *
+     * @since 1.1.0
+     */
+    public static final int MAX_ERRORS = 100;
+
+    /**
+     * Liest und berechnet ein Portfolio.
+     *
+     * @param csv Die CSV-Datei. Wird nicht geschlossen.
+     * @param pool Der Pool, in dem die Blöcke berechnet werden.
+     * @return Die Summen des Portfolios je Jahr inklusive Durchsatz.
+     * @throws IOException Wenn die CSV-Datei nicht gelesen werden kann.
+     *
+     * @since 1.1.0
+     */
+    public static RepaymentPortfolioDto calculate(final Reader csv, final ForkJoinPool pool) throws IOException {
+        final long start = System.nanoTime();
+        final Result result = new Result();
+        final int maxPending = 2 * pool.getParallelism();
+        final ArrayDeque<ForkJoinTask<?>> pending = new ArrayDeque<>(maxPending);
+
+        final BufferedReader reader = new BufferedReader(csv, 64 * 1024);
+        Chunk chunk = new Chunk();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            ++lineNumber;
+            if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+                continue;
+            }
+
+            chunk.add(lineNumber, line);
+            if (chunk.size == CHUNK_SIZE) {
+                // Ältesten Block abwarten, damit nicht mehr Zeilen im Speicher liegen als der Pool abarbeiten kann.
+                if (pending.size() == maxPending) {
+                    pending.poll().join();
+                }
+                pending.add(pool.submit(chunk.task(result)));
+                chunk = new Chunk();
+            }
+        }
+        if (chunk.size > 0) {
+            pending.add(pool.submit(chunk.task(result)));
+        }
+        while (!pending.isEmpty()) {
+            pending.poll().join();
+        }
+
+        final long durationNanos = System.nanoTime() - start;
+        final RepaymentPortfolioAccumulator total = result.total;
+        return new RepaymentPortfolioDto(
+            total.getLoanCount(),
+            result.rejectedLoans,
+            result.errors(),
+            CentUtils.toPrice(total.getLoanAmountCents()),
+            CentUtils.toPrice(total.getTotalInterestCents()),
+            CentUtils.toPrice(total.getResidualDebtEndCents()),
+            TimeUnit.NANOSECONDS.toMillis(durationNanos),
+            durationNanos == 0 ? 0 : total.getLoanCount() * TimeUnit.SECONDS.toNanos(1) / durationNanos,
+            total.toYears()
+        );
+    }
+
+    /**
+     * Eine Kopfzeile beginnt mit einem Buchstaben, zb. {@code loanAmount,...}.
+     */
+    private static boolean isHeader(final String line) {
+        final String trimmed = line.strip();
+        return !trimmed.isEmpty() && Character.isLetter(trimmed.charAt(0));
+    }
+
+    /**
+     * Parst und validiert eine Zeile und fügt sie dem Stapel hinzu.
+     *
+     * @return Die Fehlermeldung oder null, wenn die Zeile hinzugefügt wurde.
+     */
+    private static String addLine(final RepaymentBatch batch, final String line) {
+        final String[] columns = line.split(",", -1);
+        if (columns.length != 4) {
+            return "line must have 4 columns: loanAmount,initialRepayment,interestRate,fixedInterestPeriod";
+        }
+
+        final RepaymentParametersDto parameters;
+        try {
+            parameters = new RepaymentParametersDto(
+                Double.parseDouble(columns[0].strip()),
+                Double.parseDouble(columns[1].strip()),
+                Double.parseDouble(columns[2].strip()),
+                Integer.parseInt(columns[3].strip())
+            );
+        }
+        catch (NumberFormatException e) {
+            return "line must contain numbers only";
+        }
+
+        final List<String> errors = ValidationUtils.validate(parameters);
+        if (!errors.isEmpty()) {
+            return String.join(", ", errors);
+        }
+        if (!CentUtils.isCentExact(parameters.loanAmount())) {
+            return "loanAmount must not contain fractions of a cent";
+        }
+
+        batch.add(
+            parameters.loanAmount(),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            parameters.fixedInterestPeriod()
+        );
+        return null;
+    }
+
+    /**
+     * Ein Fehler mit der Zeilennummer, nach der die Fehler sortiert werden.
+     */
+    private record LineError(int lineNumber, String message) {}
+
+    /**
+     * Gesamtsumme und Fehler aller Blöcke. Wird unter Sperre auf dem Objekt selbst zusammengeführt.
+     * Von den Fehlern werden nur die {@link #MAX_ERRORS} mit den kleinsten Zeilennummern aufgehoben,
+     * der Fehler mit der größten Zeilennummer steht dafür vorne in der Queue.
+     */
+    private static final class Result {
+
+        private final RepaymentPortfolioAccumulator total = new RepaymentPortfolioAccumulator();
+
+        private final PriorityQueue<LineError> errors = new PriorityQueue<>(
+            MAX_ERRORS + 1,
+            Comparator.comparingInt(LineError::lineNumber).reversed()
+        );
+
+        private long rejectedLoans;
+
+        private synchronized void merge(final RepaymentPortfolioAccumulator accumulator, final long rejected, final List<LineError> chunkErrors) {
+            total.merge(accumulator);
+            rejectedLoans += rejected;
+            for (LineError error: chunkErrors) {
+                errors.add(error);
+                if (errors.size() > MAX_ERRORS) {
+                    errors.poll();
+                }
+            }
+        }
+
+        /**
+         * @return Die Fehler aufsteigend nach Zeilennummer.
+         */
+        private synchronized List<String> errors() {
+            return errors.stream()
+                .sorted(Comparator.comparingInt(LineError::lineNumber))
+                .map(error -> "line " + error.lineNumber() + ": " + error.message())
+                .toList();
+        }
+
+    }
+
+    /**
+     * Ein Block von Zeilen mit ihren Zeilennummern.
+     */
+    private static final class Chunk {
+
+        private final int[] lineNumbers = new int[CHUNK_SIZE];
+
+        private final String[] lines = new String[CHUNK_SIZE];
+
+        private int size;
+
+        private void add(final int lineNumber, final String line) {
+            lineNumbers[size] = lineNumber;
+            lines[size] = line;
+            ++size;
+        }
+
+        private Runnable task(final Result result) {
+            return () -> {
+                final RepaymentPortfolioAccumulator accumulator = new RepaymentPortfolioAccumulator();
+                final RepaymentBatch batch = new RepaymentBatch(size);
+                final int[] batchLineNumbers = new int[size];
+                final List<LineError> errors = new ArrayList<>();
+                long rejected = 0;
+                for (int i = 0; i < size; ++i) {
+                    final int index = batch.size();
+                    final String error = addLine(batch, lines[i]);
+                    if (error != null) {
+                        ++rejected;
+                        errors.add(new LineError(lineNumbers[i], error));
+                    }
+                    else {
+                        batchLineNumbers[index] = lineNumbers[i];
+                    }
+                }
+
+                try {
+                    RepaymentBatchCalculator.calculate(batch);
+                    accumulator.add(batch);
+                }
+                catch (IllegalArgumentException e) {
+                    // Ein Darlehen läuft zu lange. Einzeln berechnen, damit nur dieses Darlehen abgelehnt wird.
+                    for (int i = 0; i < batch.size(); ++i) {
+                        try {
+                            accumulator.add(
+                                batch.getLoanAmount(i),
+                                batch.getInitialRepayment(i),
+                                batch.getInterestRate(i),
+                                batch.getFixedInterestPeriod(i)
+                            );
+                        }
+                        catch (IllegalArgumentException loanException) {
+                            ++rejected;
+                            errors.add(new LineError(batchLineNumbers[i], loanException.getMessage()));
+                        }
+                    }
+                }
+                result.merge(accumulator, rejected, errors);
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSpecialRepaymentDto;
+import com.onordhusen.repayment.exceptions.InvalidParameterException;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import java.util.Arrays;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Berechnet Szenarien mit jährlichen Sondertilgungen und einem Anschlusszins nach Ablauf der Sollzinsbindung.
+ *
+ * Sondertilgungen werden am Ende des Jahrs nach der letzten Rate verrechnet. Der Anschlusszins gilt ab dem ersten
+ * Monat nach der Sollzinsbindung, die monatliche Rate bleibt gleich.
+ * Ohne Sondertilgungen und Anschlusszins ist das Ergebnis centgenau identisch zur Standard Implementierung.
+ *
+ * Wird ein vorheriger Zustand übergeben, werden alle Jahre bis zur ersten Änderung übernommen
+ * und erst ab dem Zwischenstand dieses Jahrs neu gerechnet.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentScenarioCalculator {
+
+    /**
+     * Berechnet ein Szenario.
+     *
+     * @param parameters Die Eingabeparameter. Der Darlehensbetrag muss centgenau sein, siehe {@link CentUtils#isCentExact(double)}.
+     * @param previous Der Zustand einer vorherigen Berechnung desselben Szenarios oder null.
+     * @return Der Zustand des Szenarios inklusive der Anzahl neu berechneter und übernommener Monate.
+     * @throws InvalidParameterException Wenn der Anschlusszins die monatliche Rate übersteigt und das Darlehen nie getilgt würde.
+     *
+     * @since 1.1.0
+     */
+    public static RepaymentScenarioState calculate(
+            final RepaymentScenarioParametersDto parameters,
+            final RepaymentScenarioState previous
+    ) {
+        final long[] requestedSpecialRepaymentCents = specialRepayments(parameters);
+        final int start = previous == null ? 0 : firstChangedYear(previous, parameters, requestedSpecialRepaymentCents);
+
+        final AmortizationCursor cursor = start == 0
+            ? AmortizationCursor.start(parameters.loanAmount(), parameters.initialRepayment(), parameters.interestRate())
+            : new AmortizationCursor(
+                previous.residualDebtCents[start - 1],
+                previous.monthlyRateCents,
+                0,
+                previous.totalInterestCents[start - 1],
+                previous.months[start - 1]
+            );
+        final int reusedMonths = cursor.getMonth();
+        final long monthlyRateCents = cursor.getMonthlyRateCents();
+
+        // Die Jahre bis zur ersten Änderung werden übernommen.
+        final int capacity = Math.max(start + 1, previous == null ? 32 : previous.years);
+        long[] rateCents = copy(previous == null ? null : previous.rateCents, capacity);
+        long[] interestPortionCents = copy(previous == null ? null : previous.interestPortionCents, capacity);
+        long[] repaymentPortionCents = copy(previous == null ? null : previous.repaymentPortionCents, capacity);
+        long[] specialRepaymentCents = copy(previous == null ? null : previous.specialRepaymentCents, capacity);
+        double[] interestRates = previous == null ? new double[capacity] : Arrays.copyOf(previous.interestRates, capacity);
+        long[] residualDebtCents = copy(previous == null ? null : previous.residualDebtCents, capacity);
+        long[] totalInterestCents = copy(previous == null ? null : previous.totalInterestCents, capacity);
+        int[] months = previous == null ? new int[capacity] : Arrays.copyOf(previous.months, capacity);
+
+        // Jedes Jahr einzeln berechnen, bis die Restschuld 0,00 € ist.
+        int year = start;
+        while (!cursor.isPaidOff()) {
+            if (year == rateCents.length) {
+                final int grownCapacity = year * 2;
+                rateCents = Arrays.copyOf(rateCents, grownCapacity);
+                interestPortionCents = Arrays.copyOf(interestPortionCents, grownCapacity);
+                repaymentPortionCents = Arrays.copyOf(repaymentPortionCents, grownCapacity);
+                specialRepaymentCents = Arrays.copyOf(specialRepaymentCents, grownCapacity);
+                interestRates = Arrays.copyOf(interestRates, grownCapacity);
+                residualDebtCents = Arrays.copyOf(residualDebtCents, grownCapacity);
+                totalInterestCents = Arrays.copyOf(totalInterestCents, grownCapacity);
+                months = Arrays.copyOf(months, grownCapacity);
+            }
+
+            final double interestRate = interestRate(parameters, year);
+            cursor.setMonthlyInterestRate(AmortizationCursor.monthlyInterestRate(interestRate));
+
+            long yearlyRateCents = 0;
+            long yearlyInterestPortionCents = 0;
+            long yearlyRepaymentPortionCents = 0;
+            for (int month = 1; month <= MONTHS_PER_YEAR; ++month) {
+                cursor.nextMonth();
+                yearlyRateCents += monthlyRateCents;
+                yearlyInterestPortionCents += cursor.getInterestPortionCents();
+                yearlyRepaymentPortionCents += cursor.getRepaymentPortionCents();
+
+                if (cursor.isPaidOff()) {
+                    break;
+                }
+                if (cursor.getRepaymentPortionCents() <= 0) {
+                    throw new InvalidParameterException(
+                        "followUpInterestRate",
+                        "followUpInterestRate must leave a repayment portion in the monthly rate of " + CentUtils.toPrice(monthlyRateCents)
+                    );
+                }
+            }
+
+            // Sondertilgung am Ende des Jahrs, sofern noch eine Restschuld besteht.
+            final long specialRepayment = year < requestedSpecialRepaymentCents.length
+                ? cursor.applySpecialRepayment(requestedSpecialRepaymentCents[year])
+                : 0;
+
+            rateCents[year] = yearlyRateCents;
+            interestPortionCents[year] = yearlyInterestPortionCents;
+            repaymentPortionCents[year] = yearlyRepaymentPortionCents;
+            specialRepaymentCents[year] = specialRepayment;
+            interestRates[year] = interestRate;
+            residualDebtCents[year] = cursor.getResidualDebtCents();
+            totalInterestCents[year] = cursor.getTotalInterestCents();
+            months[year] = cursor.getMonth();
+            ++year;
+        }
+
+        return new RepaymentScenarioState(
+            parameters,
+            requestedSpecialRepaymentCents,
+            monthlyRateCents,
+            year,
+            rateCents,
+            interestPortionCents,
+            repaymentPortionCents,
+            specialRepaymentCents,
+            interestRates,
+            residualDebtCents,
+            totalInterestCents,
+            months,
+            cursor.getMonth() - reusedMonths,
+            reusedMonths
+        );
+    }
+
+    /**
+     * Der Sollzinssatz eines Jahrs. Nach Ablauf der Sollzinsbindung gilt ggf. der Anschlusszins.
+     *
+     * @param parameters Die Eingabeparameter.
+     * @param year Das Jahr, beginnend bei 0.
+     * @return Der Sollzinssatz. In Form zb. 3.6 = 3,6 %.
+     *
+     * @since 1.1.0
+     */
+    static double interestRate(final RepaymentScenarioParametersDto parameters, final int year) {
+        if (year < parameters.fixedInterestPeriod() || parameters.followUpInterestRate() == null) {
+            return parameters.interestRate();
+        }
+        return parameters.followUpInterestRate();
+    }
+
+    /**
+     * Das erste Jahr, dessen Berechnung sich gegenüber dem vorherigen Zustand ändert.
+     * Ändern sich Darlehensbetrag, Tilgung oder Sollzinssatz, ist es das erste Jahr.
+     * Die Sollzinsbindung allein ändert nur die ausgewiesene Restschuld und keine Berechnung.
+     *
+     * @return Das Jahr, beginnend bei 0. Höchstens die Anzahl der Jahre des vorherigen Zustands.
+     */
+    private static int firstChangedYear(
+            final RepaymentScenarioState previous,
+            final RepaymentScenarioParametersDto parameters,
+            final long[] requestedSpecialRepaymentCents
+    ) {
+        final RepaymentScenarioParametersDto previousParameters = previous.parameters;
+        if (previousParameters.loanAmount() != parameters.loanAmount()
+                || previousParameters.initialRepayment() != parameters.initialRepayment()
+                || previousParameters.interestRate() != parameters.interestRate()) {
+            return 0;
+        }
+
+        for (int year = 0; year < previous.years; ++year) {
+            if (interestRate(previousParameters, year) != interestRate(parameters, year)
+                    || specialRepayment(previous.requestedSpecialRepaymentCents, year) != specialRepayment(requestedSpecialRepaymentCents, year)) {
+                return year;
+            }
+        }
+        return previous.years;
+    }
+
+    /**
+     * Sondertilgungen je Jahr in Cent, beginnend bei 0. Mehrere Sondertilgungen im selben Jahr werden addiert.
+     */
+    private static long[] specialRepayments(final RepaymentScenarioParametersDto parameters) {
+        if (parameters.specialRepayments() == null) {
+            return new long[0];
+        }
+
+        int years = 0;
+        for (RepaymentSpecialRepaymentDto specialRepayment: parameters.specialRepayments()) {
+            years = Math.max(years, specialRepayment.year());
+        }
+        final long[] cents = new long[years];
+        for (RepaymentSpecialRepaymentDto specialRepayment: parameters.specialRepayments()) {
+            cents[specialRepayment.year() - 1] += CentUtils.toCents(specialRepayment.amount());
+        }
+        return cents;
+    }
+
+    private static long specialRepayment(final long[] cents, final int year) {
+        return year < cents.length ? cents[year] : 0;
+    }
+
+    private static long[] copy(final long[] values, final int capacity) {
+        return values == null ? new long[capacity] : Arrays.copyOf(values, capacity);
+    }
+
+}
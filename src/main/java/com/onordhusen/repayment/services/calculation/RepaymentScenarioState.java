@@ -0,0 +1,162 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.dtos.RepaymentScenarioDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioPlanDto;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Ein berechnetes Szenario samt Zwischenständen an jeder Jahresgrenze.
+ *
+ * Je Jahr werden die Jahreswerte und der Zustand der Monatsschleife am Jahresende gespeichert:
+ * Restschuld, bisher gezahlte Zinsen und Anzahl der Monate. Ändert sich das Szenario ab Jahr N,
+ * setzt {@link RepaymentScenarioCalculator} die Berechnung am Ende von Jahr N - 1 fort.
+ *
+ * Der Zustand wird nach der Berechnung nicht mehr verändert und kann zwischen Threads geteilt werden.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public final class RepaymentScenarioState {
+
+    final RepaymentScenarioParametersDto parameters;
+
+    final long[] requestedSpecialRepaymentCents;
+
+    final long monthlyRateCents;
+
+    final int years;
+
+    final long[] rateCents;
+
+    final long[] interestPortionCents;
+
+    final long[] repaymentPortionCents;
+
+    final long[] specialRepaymentCents;
+
+    final double[] interestRates;
+
+    final long[] residualDebtCents;
+
+    final long[] totalInterestCents;
+
+    final int[] months;
+
+    final int recomputedMonths;
+
+    final int reusedMonths;
+
+    RepaymentScenarioState(
+            final RepaymentScenarioParametersDto parameters,
+            final long[] requestedSpecialRepaymentCents,
+            final long monthlyRateCents,
+            final int years,
+            final long[] rateCents,
+            final long[] interestPortionCents,
+            final long[] repaymentPortionCents,
+            final long[] specialRepaymentCents,
+            final double[] interestRates,
+            final long[] residualDebtCents,
+            final long[] totalInterestCents,
+            final int[] months,
+            final int recomputedMonths,
+            final int reusedMonths
+    ) {
+        this.parameters = parameters;
+        this.requestedSpecialRepaymentCents = requestedSpecialRepaymentCents;
+        this.monthlyRateCents = monthlyRateCents;
+        this.years = years;
+        this.rateCents = rateCents;
+        this.interestPortionCents = interestPortionCents;
+        this.repaymentPortionCents = repaymentPortionCents;
+        this.specialRepaymentCents = specialRepaymentCents;
+        this.interestRates = interestRates;
+        this.residualDebtCents = residualDebtCents;
+        this.totalInterestCents = totalInterestCents;
+        this.months = months;
+        this.recomputedMonths = recomputedMonths;
+        this.reusedMonths = reusedMonths;
+    }
+
+    public RepaymentScenarioParametersDto getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Anzahl der Monate, die bei der Berechnung dieses Zustands neu berechnet wurden.
+     *
+     * @return Die Anzahl der Monate.
+     *
+     * @since 1.1.0
+     */
+    public int getRecomputedMonths() {
+        return recomputedMonths;
+    }
+
+    /**
+     * Anzahl der Monate, die bei der Berechnung dieses Zustands aus dem vorherigen Zustand übernommen wurden.
+     *
+     * @return Die Anzahl der Monate.
+     *
+     * @since 1.1.0
+     */
+    public int getReusedMonths() {
+        return reusedMonths;
+    }
+
+    /**
+     * Baut das Ergebnis des Szenarios.
+     *
+     * @return Das Szenario mit jährlicher Aufgliederung.
+     *
+     * @since 1.1.0
+     */
+    public RepaymentScenarioDto toDto() {
+        final List<RepaymentScenarioPlanDto> repaymentPlan = new ArrayList<>(years);
+        long totalSpecialRepaymentCents = 0;
+        for (int year = 0; year < years; ++year) {
+            totalSpecialRepaymentCents += specialRepaymentCents[year];
+            repaymentPlan.add(new RepaymentScenarioPlanDto(
+                year + 1,
+                CentUtils.toPrice(rateCents[year]),
+                CentUtils.toPrice(interestPortionCents[year]),
+                CentUtils.toPrice(repaymentPortionCents[year]),
+                CentUtils.toPrice(specialRepaymentCents[year]),
+                interestRates[year],
+                CentUtils.toPrice(residualDebtCents[year])
+            ));
+        }
+
+        // Restschuld nach Ablauf der Sollzinsbindung, 0,00 € wenn das Darlehen vorher getilgt ist.
+        final int fixedInterestYear = parameters.fixedInterestPeriod() - 1;
+        final long residualDebtEndCents = fixedInterestYear < years ? residualDebtCents[fixedInterestYear] : 0;
+        final long totalInterest = totalInterestCents[years - 1];
+        final int totalMonths = months[years - 1];
+
+        return new RepaymentScenarioDto(
+            parameters.loanAmount(),
+            CentUtils.toPrice(totalInterest),
+            CentUtils.toPrice(monthlyRateCents),
+            parameters.initialRepayment(),
+            parameters.interestRate(),
+            RepaymentScenarioCalculator.interestRate(parameters, parameters.fixedInterestPeriod()),
+            parameters.fixedInterestPeriod(),
+            CentUtils.toPrice(residualDebtEndCents),
+            totalMonths / MONTHS_PER_YEAR,
+            totalMonths % MONTHS_PER_YEAR,
+            CentUtils.toPrice(totalSpecialRepaymentCents),
+            CentUtils.toPrice(totalInterest + CentUtils.toCents(parameters.loanAmount())),
+            repaymentPlan,
+            recomputedMonths,
+            reusedMonths
+        );
+    }
+
+}
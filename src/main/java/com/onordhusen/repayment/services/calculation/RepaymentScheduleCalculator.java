@@ -0,0 +1,54 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.services.interfaces.RepaymentMonthConsumer;
+
+import java.io.IOException;
+
+/**
+ * Berechnet den monatlichen Tilgungsplan und gibt jeden Monat direkt weiter, ohne ihn zu speichern.
+ * Der Speicherbedarf ist damit unabhängig von der Laufzeit des Darlehens.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentScheduleCalculator {
+
+    /**
+     * Berechnet den monatlichen Tilgungsplan.
+     * Als Rate wird wie in der jährlichen Aufgliederung immer die volle monatliche Rate ausgewiesen,
+     * die Summe der Monate eines Jahres entspricht damit der Jahreszeile.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param consumer Empfängt jeden berechneten Monat.
+     * @return Die Anzahl der berechneten Monate.
+     * @throws IOException Wenn der consumer einen Monat nicht weitergeben kann.
+     *
+     * @since 1.1.0
+     */
+    public static int stream(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final RepaymentMonthConsumer consumer
+    ) throws IOException {
+        final AmortizationCursor cursor = AmortizationCursor.start(loanAmount, initialRepayment, interestRate);
+
+        // Jeden Monat einzeln berechnen und sofort weitergeben, bis die Restschuld 0,00 € ist.
+        do {
+            cursor.nextMonth();
+            consumer.accept(
+                cursor.getMonth(),
+                cursor.getMonthlyRateCents(),
+                cursor.getInterestPortionCents(),
+                cursor.getRepaymentPortionCents(),
+                cursor.getResidualDebtCents()
+            );
+        } while (!cursor.isPaidOff());
+
+        return cursor.getMonth();
+    }
+
+}
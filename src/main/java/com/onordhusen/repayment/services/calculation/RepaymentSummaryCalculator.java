@@ -0,0 +1,66 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Berechnet die Zusammenfassung eines Tilgungsplans ohne die jährliche Aufgliederung aufzubauen.
+ *
+ * Eine geschlossene Annuitätenformel kann die monatlichen Cent-Rundungen nicht abbilden und würde
+ * daher um einige Cent abweichen. Stattdessen läuft dieselbe Monatsschleife wie in der Festkomma-Implementierung,
+ * allerdings ohne Jahressummen und ohne Allokationen. Das Ergebnis ist centgenau identisch zum vollständigen Tilgungsplan.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentSummaryCalculator {
+
+    /**
+     * Berechnet die Zusammenfassung eines Tilgungsplans.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein, siehe {@link CentUtils#isCentExact(double)}.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @return Die Zusammenfassung des Tilgungsplans.
+     *
+     * @since 1.1.0
+     */
+    public static RepaymentSummaryDto calculate(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        final AmortizationCursor cursor = AmortizationCursor.start(loanAmount, initialRepayment, interestRate);
+        final int fixedInterestMonths = fixedInterestPeriod * MONTHS_PER_YEAR;
+        long residualDebtEndCents = 0;
+
+        // Jeden Monat einzeln berechnen, bis die Restschuld 0,00 € ist.
+        do {
+            cursor.nextMonth();
+
+            // Ggf. Restschuld nach Ablauf der Sollzinsbindung merken.
+            if (cursor.getMonth() == fixedInterestMonths) {
+                residualDebtEndCents = cursor.getResidualDebtCents();
+            }
+        } while (!cursor.isPaidOff());
+
+        return new RepaymentSummaryDto(
+            loanAmount,
+            CentUtils.toPrice(cursor.getTotalInterestCents()),
+            CentUtils.toPrice(cursor.getMonthlyRateCents()),
+            initialRepayment,
+            interestRate,
+            fixedInterestPeriod,
+            CentUtils.toPrice(residualDebtEndCents),
+            cursor.getMonth() / MONTHS_PER_YEAR,
+            cursor.getMonth() % MONTHS_PER_YEAR,
+            CentUtils.toPrice(cursor.getTotalInterestCents() + CentUtils.toCents(loanAmount))
+        );
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.onordhusen.repayment.services.calculation;
+
+import com.onordhusen.repayment.dtos.CompactRepaymentPlan;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+
+/**
+ * Berechnet einen Tilgungsplan, dessen jährliche Aufgliederung nur die Jahre von fromYear bis toYear enthält.
+ *
+ * Wie bei {@link RepaymentSummaryCalculator} lässt sich der Stand am Beginn von fromYear nicht centgenau über eine
+ * geschlossene Formel bestimmen, da jeder Monat den Zinsanteil rundet. Bis dahin läuft daher die Monatsschleife des
+ * {@link AmortizationCursor} ohne Jahressummen und ohne Allokationen. Nur die angefragten Jahre werden summiert und
+ * als {@link RepaymentPlanDto} aufgebaut, danach läuft die Schleife für Gesamtzins und Laufzeit wieder ohne Jahressummen.
+ * Das Ergebnis ist centgenau identisch zum entsprechenden Ausschnitt des vollständigen Tilgungsplans.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class RepaymentYearRangeCalculator {
+
+    /**
+     * Anfängliche Kapazität der Aufgliederung höchstens, damit ein offenes toYear keinen riesigen Puffer anlegt.
+     * Reicht für die üblichen Laufzeiten, längere Pläne wachsen wie jede Liste.
+     */
+    private static final int MAX_INITIAL_CAPACITY = 64;
+
+    /**
+     * Berechnet einen Tilgungsplan mit den Jahren von fromYear bis toYear.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein, siehe {@link CentUtils#isCentExact(double)}.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @param fromYear Das erste Jahr der Aufgliederung, ab 1.
+     * @param toYear Das letzte Jahr der Aufgliederung einschließlich. Jahre nach der Laufzeit entfallen,
+     *               {@link Integer#MAX_VALUE} reicht also bis zum Ende der Laufzeit.
+     * @return Der Tilgungsplan mit allen Feldern des vollständigen Tilgungsplans und den angefragten Jahren.
+     *
+     * @since 1.1.0
+     */
+    public static RepaymentDto calculate(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod,
+            final int fromYear,
+            final int toYear
+    ) {
+        final AmortizationCursor cursor = AmortizationCursor.start(loanAmount, initialRepayment, interestRate);
+        final int fixedInterestMonths = fixedInterestPeriod * MONTHS_PER_YEAR;
+        final long fromMonth = (long) (fromYear - 1) * MONTHS_PER_YEAR;
+        final long toMonth = (long) toYear * MONTHS_PER_YEAR;
+        long residualDebtEndCents = 0;
+
+        // Bis zum Beginn von fromYear nur den Stand des Cursors fortschreiben.
+        while (!cursor.isPaidOff() && cursor.getMonth() < fromMonth) {
+            cursor.nextMonth();
+            if (cursor.getMonth() == fixedInterestMonths) {
+                residualDebtEndCents = cursor.getResidualDebtCents();
+            }
+        }
+
+        // Die angefragten Jahre wie in der Festkomma-Implementierung summieren.
+        final List<RepaymentPlanDto> repaymentPlans = new ArrayList<>(
+            (int) Math.min(toYear - fromYear + 1L, MAX_INITIAL_CAPACITY)
+        );
+        while (!cursor.isPaidOff() && cursor.getMonth() < toMonth) {
+            final int year = cursor.getMonth() / MONTHS_PER_YEAR + 1;
+            long yearlyRateCents = 0;
+            long yearlyInterestPortionCents = 0;
+            long yearlyRepaymentPortionCents = 0;
+            do {
+                cursor.nextMonth();
+                yearlyRateCents += cursor.getMonthlyRateCents();
+                yearlyInterestPortionCents += cursor.getInterestPortionCents();
+                yearlyRepaymentPortionCents += cursor.getRepaymentPortionCents();
+                if (cursor.getMonth() == fixedInterestMonths) {
+                    residualDebtEndCents = cursor.getResidualDebtCents();
+                }
+            } while (!cursor.isPaidOff() && cursor.getMonth() % MONTHS_PER_YEAR != 0);
+
+            repaymentPlans.add(new RepaymentPlanDto(
+                year,
+                CentUtils.toPrice(yearlyRateCents),
+                CentUtils.toPrice(yearlyInterestPortionCents),
+                CentUtils.toPrice(yearlyRepaymentPortionCents),
+                CentUtils.toPrice(cursor.getResidualDebtCents())
+            ));
+        }
+
+        // Restliche Laufzeit für Gesamtzins, Laufzeit und ggf. die Restschuld nach Ablauf der Sollzinsbindung.
+        while (!cursor.isPaidOff()) {
+            cursor.nextMonth();
+            if (cursor.getMonth() == fixedInterestMonths) {
+                residualDebtEndCents = cursor.getResidualDebtCents();
+            }
+        }
+
+        return new RepaymentDto(
+            loanAmount,
+            CentUtils.toPrice(cursor.getTotalInterestCents()),
+            CentUtils.toPrice(cursor.getMonthlyRateCents()),
+            initialRepayment,
+            interestRate,
+            fixedInterestPeriod,
+            CentUtils.toPrice(residualDebtEndCents),
+            cursor.getMonth() / MONTHS_PER_YEAR,
+            cursor.getMonth() % MONTHS_PER_YEAR,
+            CentUtils.toPrice(cursor.getTotalInterestCents() + CentUtils.toCents(loanAmount)),
+            repaymentPlans
+        );
+    }
+
+    /**
+     * Schneidet die Jahre von fromYear bis toYear aus einem vollständigen Tilgungsplan aus.
+     *
+     * @param repayment Der vollständige Tilgungsplan.
+     * @param fromYear Das erste Jahr der Aufgliederung, ab 1.
+     * @param toYear Das letzte Jahr der Aufgliederung einschließlich. Jahre nach der Laufzeit entfallen.
+     * @return Der Tilgungsplan mit den angefragten Jahren.
+     *
+     * @since 1.1.0
+     */
+    public static RepaymentDto slice(final RepaymentDto repayment, final int fromYear, final int toYear) {
+        final List<RepaymentPlanDto> repaymentPlan = repayment.repaymentPlan();
+        final int from = Math.min(fromYear - 1, repaymentPlan.size());
+        final int to = Math.max(from, Math.min(toYear, repaymentPlan.size()));
+        return new RepaymentDto(
+            repayment.loanAmount(),
+            repayment.totalInterest(),
+            repayment.monthlyRate(),
+            repayment.initialRepaymentRate(),
+            repayment.interestRate(),
+            repayment.fixedInterestPeriod(),
+            repayment.residualDebt(),
+            repayment.yearPeriod(),
+            repayment.monthPeriod(),
+            repayment.totalRepayment(),
+            repaymentPlan instanceof CompactRepaymentPlan compact
+                ? compact.subList(from, to)
+                : new ArrayList<>(repaymentPlan.subList(from, to))
+        );
+    }
+
+}
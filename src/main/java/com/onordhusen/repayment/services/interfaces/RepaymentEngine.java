@@ -0,0 +1,24 @@
+package com.onordhusen.repayment.services.interfaces;
+
+/**
+ * Eine Berechnungs-Engine. Jede Bean dieses Typs wird unter ihrem Namen in der
+ * {@link com.onordhusen.repayment.services.RepaymentEngineRegistry} registriert und kann per
+ * {@code repayment.engine.primary} als primäre oder per {@code repayment.engine.shadow} als Schatten-Engine gewählt werden.
+ * Eine neue Engine muss für alle Parameter centgenau dieselben Ergebnisse wie die Standard Implementierung liefern.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public interface RepaymentEngine extends RepaymentService {
+
+    /**
+     * Der Name der Engine in der Konfiguration und in den Metriken.
+     *
+     * @return Der Name, zb. {@code fixed-point}.
+     *
+     * @since 1.1.0
+     */
+    String getEngineName();
+
+}
@@ -0,0 +1,36 @@
+package com.onordhusen.repayment.services.interfaces;
+
+import java.io.IOException;
+
+/**
+ * Empfängt die Monate eines Tilgungsplans direkt aus der Monatsschleife.
+ * Alle Beträge werden als primitive Cent übergeben, damit je Monat kein Objekt entsteht.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface RepaymentMonthConsumer {
+
+    /**
+     * Wird für jeden berechneten Monat aufgerufen.
+     *
+     * @param month Der Monat des Tilgungsplans. In Form zb. 13 = erster Monat des zweiten Jahres.
+     * @param rateCents Die Rate des Monats in Cent.
+     * @param interestPortionCents Der Zinsanteil des Monats in Cent.
+     * @param repaymentPortionCents Der Tilgungsanteil des Monats in Cent.
+     * @param residualDebtCents Die Restschuld am Ende des Monats in Cent.
+     * @throws IOException Wenn der Monat nicht weitergegeben werden kann, zb. weil der Client die Verbindung beendet hat.
+     *
+     * @since 1.1.0
+     */
+    void accept(
+            final int month,
+            final long rateCents,
+            final long interestPortionCents,
+            final long repaymentPortionCents,
+            final long residualDebtCents
+    ) throws IOException;
+
+}
@@ -1,12 +1,36 @@
 package com.onordhusen.repayment.services.interfaces;
 
+import com.onordhusen.repayment.dtos.RepaymentBatchResultDto;
 import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentGridDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.services.calculation.RepaymentGridCalculator;
+import com.onordhusen.repayment.services.calculation.RepaymentPortfolioCalculator;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioCalculator;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioState;
+import com.onordhusen.repayment.services.calculation.RepaymentScheduleCalculator;
+import com.onordhusen.repayment.services.calculation.RepaymentSummaryCalculator;
+import com.onordhusen.repayment.services.calculation.RepaymentYearRangeCalculator;
+import com.onordhusen.repayment.utils.CentUtils;
+import com.onordhusen.repayment.utils.ValidationUtils;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * Enthält die Richtlinien für die Implementierung der Businesslogik des Tilgungsplans.
  *
  * @author Ole Nordhusen
- * @version 1.0.0
+ * @version 1.1.0
  * @since 1.0.0
  */
 public interface RepaymentService {
@@ -29,4 +53,227 @@ public interface RepaymentService {
             final int fixedInterestPeriod
     );
 
+    /**
+     * Berechnet mehrere Tilgungspläne parallel im Fork-Join-Pool.
+     * Jeder Eintrag wird einzeln validiert. Ein fehlerhafter Eintrag liefert seine Fehler,
+     * die übrigen Einträge werden trotzdem berechnet. Schlägt die Berechnung eines Eintrags fehl,
+     * wird der Fehler geloggt und der Eintrag mit {@code calculation failed} beantwortet.
+     *
+     * @param parameters Die Eingabeparameter je Tilgungsplan. Siehe {@link RepaymentParametersDto}.
+     * @return Die Ergebnisse in der Reihenfolge der Eingabe.
+     *
+     * @since 1.1.0
+     */
+    default List<RepaymentBatchResultDto> calculateBatch(final List<RepaymentParametersDto> parameters) {
+        return IntStream.range(0, parameters.size())
+            .parallel()
+            .mapToObj(index -> {
+                final RepaymentParametersDto parameter = parameters.get(index);
+                if (parameter == null) {
+                    return new RepaymentBatchResultDto(index, null, List.of("<UNKNOWN_FIELD> must not be null"));
+                }
+
+                final List<String> errors = ValidationUtils.validate(parameter);
+                if (!errors.isEmpty()) {
+                    return new RepaymentBatchResultDto(index, null, errors);
+                }
+
+                try {
+                    return new RepaymentBatchResultDto(
+                        index,
+                        calculate(
+                            parameter.loanAmount(),
+                            parameter.initialRepayment(),
+                            parameter.interestRate(),
+                            parameter.fixedInterestPeriod()
+                        ),
+                        null
+                    );
+                }
+                catch (Exception e) {
+                    LoggerFactory.getLogger(RepaymentService.class).error(e.getMessage());
+                    return new RepaymentBatchResultDto(index, null, List.of("calculation failed"));
+                }
+            })
+            .toList();
+    }
+
+    /**
+     * Berechnet nur die Zusammenfassung eines Tilgungsplans, ohne die jährliche Aufgliederung.
+     * Das Ergebnis ist centgenau identisch zu den entsprechenden Feldern von {@link #calculate}.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @return RepaymentSummaryDto Zusammenfassung des Tilgungsplans.
+     *
+     * @since 1.1.0
+     */
+    default RepaymentSummaryDto calculateSummary(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        if (CentUtils.isCentExact(loanAmount)) {
+            return RepaymentSummaryCalculator.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+
+        // Darlehensbeträge mit Bruchteilen von Cent lassen sich nur über den vollständigen Tilgungsplan abbilden.
+        final RepaymentDto repayment = calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        return new RepaymentSummaryDto(
+            repayment.loanAmount(),
+            repayment.totalInterest(),
+            repayment.monthlyRate(),
+            repayment.initialRepaymentRate(),
+            repayment.interestRate(),
+            repayment.fixedInterestPeriod(),
+            repayment.residualDebt(),
+            repayment.yearPeriod(),
+            repayment.monthPeriod(),
+            repayment.totalRepayment()
+        );
+    }
+
+    /**
+     * Berechnet einen Tilgungsplan, dessen jährliche Aufgliederung nur die Jahre von fromYear bis toYear enthält.
+     * Alle übrigen Felder und die enthaltenen Jahre sind centgenau identisch zu {@link #calculate}.
+     * Die Jahre vor fromYear werden ohne Aufgliederung durchgerechnet, siehe {@link RepaymentYearRangeCalculator}.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @param fromYear Das erste Jahr der Aufgliederung, ab 1.
+     * @param toYear Das letzte Jahr der Aufgliederung einschließlich. Jahre nach der Laufzeit entfallen.
+     * @return RepaymentDto Tilgungsplan mit den angefragten Jahren.
+     *
+     * @since 1.1.0
+     */
+    default RepaymentDto calculateYears(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod,
+            final int fromYear,
+            final int toYear
+    ) {
+        if (CentUtils.isCentExact(loanAmount)) {
+            return RepaymentYearRangeCalculator.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod, fromYear, toYear);
+        }
+
+        // Darlehensbeträge mit Bruchteilen von Cent lassen sich nur über den vollständigen Tilgungsplan abbilden.
+        return RepaymentYearRangeCalculator.slice(
+            calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod),
+            fromYear,
+            toYear
+        );
+    }
+
+    /**
+     * Berechnet den Tilgungsplan Monat für Monat und gibt jeden Monat direkt an den consumer weiter.
+     * Der Tilgungsplan wird dabei nie vollständig im Speicher gehalten.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param consumer Empfängt jeden berechneten Monat. Siehe {@link RepaymentMonthConsumer}.
+     * @return Die Anzahl der berechneten Monate.
+     * @throws IOException Wenn der consumer einen Monat nicht weitergeben kann.
+     * @throws IllegalArgumentException Wenn der Darlehensbetrag Bruchteile von Cent enthält.
+     *
+     * @since 1.1.0
+     */
+    default int streamSchedule(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final RepaymentMonthConsumer consumer
+    ) throws IOException {
+        if (!CentUtils.isCentExact(loanAmount)) {
+            throw new IllegalArgumentException("loanAmount must not contain fractions of a cent");
+        }
+        return RepaymentScheduleCalculator.stream(loanAmount, initialRepayment, interestRate, consumer);
+    }
+
+    /**
+     * Berechnet eine Vergleichstabelle aller Kombinationen aus Sollzinssätzen, anfänglichen Tilgungen und Sollzinsbindungen.
+     * Kombinationen mit gleichem Sollzinssatz und gleicher Tilgung teilen sich eine Berechnung für alle Sollzinsbindungen.
+     *
+     * @param loanAmount Der Darlehensbetrag als double. Muss centgenau sein. In Form zb. EURO.CENT.
+     * @param interestRates Die Sollzinssätze. In Form zb. 3.6 = 3,6%.
+     * @param initialRepayments Die anfänglichen Tilgungen. In Form zb. 2 = 2%.
+     * @param fixedInterestPeriods Die Dauern der Sollzinsbindung. Werden aufsteigend sortiert. In Form zb. 10 = 10 Jahre.
+     * @return Die Vergleichstabelle in spaltenorientierter Form. Siehe {@link RepaymentGridDto}.
+     * @throws IllegalArgumentException Wenn der Darlehensbetrag Bruchteile von Cent enthält.
+     *
+     * @since 1.1.0
+     */
+    default RepaymentGridDto calculateGrid(
+            final double loanAmount,
+            final double[] interestRates,
+            final double[] initialRepayments,
+            final int[] fixedInterestPeriods
+    ) {
+        if (!CentUtils.isCentExact(loanAmount)) {
+            throw new IllegalArgumentException("loanAmount must not contain fractions of a cent");
+        }
+
+        final int[] sortedFixedInterestPeriods = fixedInterestPeriods.clone();
+        Arrays.sort(sortedFixedInterestPeriods);
+        return RepaymentGridCalculator.calculate(loanAmount, interestRates, initialRepayments, sortedFixedInterestPeriods);
+    }
+
+    /**
+     * Berechnet ein Szenario mit jährlichen Sondertilgungen und einem Anschlusszins nach Ablauf der Sollzinsbindung.
+     * Mit dem Zustand der vorherigen Berechnung werden nur die Jahre ab der ersten Änderung neu gerechnet.
+     *
+     * @param parameters Die Eingabeparameter. Der Darlehensbetrag muss centgenau sein.
+     * @param previous Der Zustand der vorherigen Berechnung desselben Szenarios oder null.
+     * @return Der Zustand des Szenarios mit Zwischenständen an jeder Jahresgrenze. Siehe {@link RepaymentScenarioState#toDto()}.
+     * @throws IllegalArgumentException Wenn der Darlehensbetrag Bruchteile von Cent enthält.
+     *
+     * @since 1.1.0
+     */
+    default RepaymentScenarioState calculateScenario(
+            final RepaymentScenarioParametersDto parameters,
+            final RepaymentScenarioState previous
+    ) {
+        if (!CentUtils.isCentExact(parameters.loanAmount())) {
+            throw new IllegalArgumentException("loanAmount must not contain fractions of a cent");
+        }
+        return RepaymentScenarioCalculator.calculate(parameters, previous);
+    }
+
+    /**
+     * Berechnet ein Portfolio aus einer CSV-Datei und summiert Zins, Tilgung und Restschuld je Jahr.
+     * Die Datei wird gestreamt und parallel berechnet, ohne die Tilgungspläne der einzelnen Darlehen zu speichern.
+     * Das Format ist in {@link RepaymentPortfolioCalculator} beschrieben.
+     *
+     * @param csv Die CSV-Datei mit einem Darlehen je Zeile. Wird nicht geschlossen.
+     * @return Die Summen des Portfolios je Jahr inklusive Durchsatz. Siehe {@link RepaymentPortfolioDto}.
+     * @throws IOException Wenn die CSV-Datei nicht gelesen werden kann.
+     *
+     * @since 1.1.0
+     */
+    default RepaymentPortfolioDto calculatePortfolio(final Reader csv) throws IOException {
+        return calculatePortfolio(csv, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Berechnet ein Portfolio wie {@link #calculatePortfolio(Reader)}, die Blöcke laufen aber im angegebenen Pool.
+     * Die Datei wird im aufrufenden Thread gelesen, der Pool wird also nicht durch langsame Uploads blockiert.
+     *
+     * @param csv Die CSV-Datei mit einem Darlehen je Zeile. Wird nicht geschlossen.
+     * @param pool Der Pool, in dem die Blöcke berechnet werden.
+     * @return Die Summen des Portfolios je Jahr inklusive Durchsatz. Siehe {@link RepaymentPortfolioDto}.
+     * @throws IOException Wenn die CSV-Datei nicht gelesen werden kann.
+     *
+     * @since 1.1.0
+     */
+    default RepaymentPortfolioDto calculatePortfolio(final Reader csv, final ForkJoinPool pool) throws IOException {
+        return RepaymentPortfolioCalculator.calculate(csv, pool);
+    }
+
 }
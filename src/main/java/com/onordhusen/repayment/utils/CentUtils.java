@@ -0,0 +1,56 @@
+package com.onordhusen.repayment.utils;
+
+/**
+ * Stellt Funktionalitäten für Beträge in ganzen Cent bereit.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class CentUtils {
+
+    /**
+     * Cent pro Euro.
+     *
+     * @since 1.1.0
+     */
+    public static final long CENTS_PER_UNIT = 100;
+
+    /**
+     * Wandelt einen Betrag in Cent um und rundet dabei kaufmännisch (half-up).
+     * Das Ergebnis entspricht exakt {@link DoubleUtils#roundPrice(double)}, nur ohne Rückwandlung in double.
+     *
+     * @param value Der Betrag. In Form zb. EURO.CENT.
+     * @return Der Betrag in Cent.
+     *
+     * @since 1.1.0
+     */
+    public static long toCents(final double value) {
+        return Math.round(value * CENTS_PER_UNIT);
+    }
+
+    /**
+     * Wandelt einen Betrag in Cent in die Darstellung der DTOs um.
+     *
+     * @param cents Der Betrag in Cent.
+     * @return Der Betrag. In Form zb. EURO.CENT.
+     *
+     * @since 1.1.0
+     */
+    public static double toPrice(final long cents) {
+        return (double) cents / CENTS_PER_UNIT;
+    }
+
+    /**
+     * Prüft, ob ein Betrag verlustfrei in Cent dargestellt werden kann.
+     *
+     * @param value Der Betrag. In Form zb. EURO.CENT.
+     * @return true, wenn der Betrag keine Bruchteile von Cent enthält.
+     *
+     * @since 1.1.0
+     */
+    public static boolean isCentExact(final double value) {
+        return toPrice(toCents(value)) == value;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.onordhusen.repayment.utils;
+
+import com.onordhusen.repayment.constants.RepaymentEngineConstants;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Stellt Funktionalitäten für ETags der Tilgungspläne bereit.
+ *
+ * Ein Tilgungsplan hängt nur von den Eingabeparametern und der Engine ab. Der ETag wird daher vor der Berechnung
+ * aus den normalisierten Parametern, {@link RepaymentEngineConstants#ENGINE_VERSION} und dem Namen der primären Engine
+ * gebildet, ohne den Body zu hashen. Nach einem Wechsel der Engine passen die ETags der Clients so nicht mehr.
+ * Da JSON, CBOR und die spaltenorientierten Formate unterschiedliche Bytes liefern, geht zusätzlich ein Hash
+ * des Accept-Headers ein. Der ETag ist damit stark (strong), die Antwort muss {@code Vary: Accept} setzen.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class ETagUtils {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Bildet den ETag eines Tilgungsplans.
+     * Die Parameter werden über {@link Double#toString(double)} normalisiert, zb. ergeben 250000 und 2.5E5 denselben ETag.
+     *
+     * @param engine Der Name der primären Engine, zb. {@code default}.
+     * @param view Die Sicht der Antwort, zb. {@code plan} oder {@code summary}.
+     * @param accept Der Accept-Header des Requests oder null.
+     * @param loanAmount Der Darlehensbetrag als double. In Form zb. EURO.CENT.
+     * @param initialRepayment Die anfängliche Tilgung als double. In Form zb. 3.6 = 3,6%.
+     * @param interestRate Der Sollzinssatz als double. In Form zb. 3.6 = 3,6%.
+     * @param fixedInterestPeriod Die Dauer der Sollzinsbindung als int. In Form zb. 10 = 10 Jahre.
+     * @return Der ETag inklusive Anführungszeichen, zb. {@code "1-default-plan-250000.0-2.0-3.6-10-cbf29ce484222325"} ohne Accept-Header.
+     *
+     * @since 1.1.0
+     */
+    public static String repaymentETag(
+            final String engine,
+            final String view,
+            final String accept,
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        return "\"" + RepaymentEngineConstants.ENGINE_VERSION
+            + '-' + engine
+            + '-' + view
+            + '-' + loanAmount
+            + '-' + initialRepayment
+            + '-' + interestRate
+            + '-' + fixedInterestPeriod
+            + '-' + Long.toHexString(acceptHash(accept))
+            + '"';
+    }
+
+    /**
+     * Prüft, ob ein If-None-Match-Header den ETag enthält.
+     * Wie in RFC 9110 für If-None-Match vorgesehen, wird schwach verglichen, {@code W/} wird also ignoriert.
+     *
+     * @param ifNoneMatch Die Einträge des If-None-Match-Headers oder null.
+     * @param eTag Der ETag der Antwort inklusive Anführungszeichen.
+     * @return true, wenn der Client die Antwort bereits hat.
+     *
+     * @since 1.1.0
+     */
+    public static boolean matches(final List<String> ifNoneMatch, final String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String entry: ifNoneMatch) {
+            final String tag = entry.strip();
+            if (tag.equals("*") || tag.equals(eTag) || (tag.startsWith("W/") && tag.regionMatches(2, eTag, 0, eTag.length()) && tag.length() == eTag.length() + 2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * FNV-1a über den Accept-Header ohne Leerzeichen und Groß-/Kleinschreibung.
+     */
+    private static long acceptHash(final String accept) {
+        long hash = FNV_OFFSET_BASIS;
+        if (accept == null) {
+            return hash;
+        }
+        final String normalized = accept.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < normalized.length(); ++i) {
+            final char c = normalized.charAt(i);
+            if (c != ' ' && c != '\t') {
+                hash = (hash ^ c) * FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.onordhusen.repayment.utils;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stellt Bean Validation außerhalb des Request-Kontexts bereit.
+ *
+ * @author Ole Nordhusen
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class ValidationUtils {
+
+    /**
+     * Der Validator ist threadsicher und wird daher einmalig erzeugt.
+     *
+     * @since 1.1.0
+     */
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    /**
+     * Validiert ein Objekt anhand seiner Constraint-Annotationen.
+     * Die Fehlermeldungen haben dasselbe Format wie die des ValidationExceptionHandler.
+     *
+     * @param object Das Objekt, das validiert werden soll.
+     * @return Alle Validierungsfehler als message. Leer, wenn das Objekt gültig ist.
+     *
+     * @since 1.1.0
+     */
+    public static List<String> validate(final Object object) {
+        final List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<Object> violation: VALIDATOR.validate(object)) {
+            errors.add(violation.getPropertyPath().toString() + ' ' + violation.getMessage());
+        }
+        // Die Reihenfolge der Verletzungen ist nicht definiert, daher wird sortiert.
+        Collections.sort(errors);
+        return errors;
+    }
+
+}
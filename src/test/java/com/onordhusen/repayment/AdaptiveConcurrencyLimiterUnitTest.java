@@ -0,0 +1,99 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.services.AdaptiveConcurrencyLimiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterUnitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /*
+     * Über dem Limit wird sofort abgelehnt, ein freigegebener Platz kann wieder belegt werden.
+     */
+    @Test
+    public void rejectsAboveLimit() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejectedCount());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(RTT);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    /*
+     * Bei gleichbleibender Latenz und ausgeschöpftem Limit wächst das Limit bis zum Maximum.
+     * Steigt die Latenz deutlich, sinkt es schnell. Ohne Auslastung bleibt es unverändert.
+     */
+    @Test
+    public void adaptsToLatency() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 50);
+
+        saturate(limiter, 200, RTT);
+        assertEquals(50, limiter.getLimit());
+
+        saturate(limiter, 10, RTT * 10);
+        final int limit = limiter.getLimit();
+        assertTrue(limit < 25, "limit " + limit);
+
+        // Einzelne Requests nutzen das Limit nicht aus.
+        for (int i = 0; i < 200; ++i) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(RTT);
+        }
+        assertEquals(limit, limiter.getLimit());
+    }
+
+    /*
+     * Gleichzeitige Freigaben aus vielen Threads werten die Fenster ohne globale Sperre aus.
+     * Am Ende ist kein Platz mehr belegt und das Limit liegt zwischen Minimum und Maximum.
+     */
+    @Test
+    public void concurrentReleasesKeepLimitInBounds() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 50);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; ++t) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; ++i) {
+                    if (limiter.tryAcquire()) {
+                        limiter.release(RTT + i % 7);
+                    }
+                }
+            }));
+        }
+        for (Thread thread: threads) {
+            thread.join();
+        }
+
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.getLimit() >= 2 && limiter.getLimit() <= 50, "limit " + limiter.getLimit());
+    }
+
+    /*
+     * Belegt das gesamte Limit und gibt alle Plätze mit derselben Latenz frei.
+     */
+    private static void saturate(final AdaptiveConcurrencyLimiter limiter, final int rounds, final long rttNanos) {
+        for (int round = 0; round < rounds; ++round) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                ++acquired;
+            }
+            for (int i = 0; i < acquired; ++i) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+
+}
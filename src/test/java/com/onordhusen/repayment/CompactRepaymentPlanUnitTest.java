@@ -0,0 +1,78 @@
+package com.onordhusen.repayment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onordhusen.repayment.converters.RepaymentJsonHttpMessageConverter;
+import com.onordhusen.repayment.dtos.CompactRepaymentPlan;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CompactRepaymentPlanUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    private final RepaymentJsonHttpMessageConverter converter = new RepaymentJsonHttpMessageConverter();
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    /*
+     * Die gepackte Aufgliederung gleicht der ursprünglichen, auch als Ausschnitt und byte-identisch im JSON.
+     */
+    @Test
+    public void compactPlanMatchesOriginal() throws IOException {
+        for (RepaymentParametersDto parameters: RepaymentTestParameters.sample(5, 500)) {
+            final RepaymentDto repayment = defaultImpl.calculate(
+                parameters.loanAmount(),
+                parameters.initialRepayment(),
+                parameters.interestRate(),
+                parameters.fixedInterestPeriod()
+            );
+            final CompactRepaymentPlan compact = CompactRepaymentPlan.of(repayment.repaymentPlan());
+            assertNotNull(compact);
+            assertEquals(repayment.repaymentPlan(), compact);
+            assertEquals(repayment.repaymentPlan().subList(1, compact.size()), compact.subList(1, compact.size()));
+
+            final RepaymentDto compactRepayment = new RepaymentDto(
+                repayment.loanAmount(),
+                repayment.totalInterest(),
+                repayment.monthlyRate(),
+                repayment.initialRepaymentRate(),
+                repayment.interestRate(),
+                repayment.fixedInterestPeriod(),
+                repayment.residualDebt(),
+                repayment.yearPeriod(),
+                repayment.monthPeriod(),
+                repayment.totalRepayment(),
+                compact
+            );
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            converter.write(compactRepayment, outputStream);
+            assertEquals(objectMapper.writeValueAsString(repayment), outputStream.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    /*
+     * Bruchteile von Cent, Beträge über int in Cent und Lücken in den Jahren lassen sich nicht packen.
+     */
+    @Test
+    public void unpackablePlansAreRejected() {
+        assertNull(CompactRepaymentPlan.of(List.of(new RepaymentPlanDto(1, 1.005, 0, 0, 0))));
+        assertNull(CompactRepaymentPlan.of(List.of(new RepaymentPlanDto(1, 0, 0, 0, 30_000_000.0))));
+        assertNull(CompactRepaymentPlan.of(List.of(new RepaymentPlanDto(1, 0, 0, 0, 0), new RepaymentPlanDto(3, 0, 0, 0, 0))));
+        assertEquals(List.of(new RepaymentPlanDto(4, 1.5, 0.5, 1.0, 0)), CompactRepaymentPlan.of(List.of(new RepaymentPlanDto(4, 1.5, 0.5, 1.0, 0))));
+    }
+
+}
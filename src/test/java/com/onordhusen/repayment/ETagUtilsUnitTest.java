@@ -0,0 +1,43 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.utils.ETagUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ETagUtilsUnitTest {
+
+    /*
+     * Gleiche Werte in anderer Schreibweise ergeben denselben ETag, andere Werte, Engines, Sichten und Formate einen anderen.
+     */
+    @Test
+    public void repaymentETagIsNormalized() {
+        final String eTag = ETagUtils.repaymentETag("default", "plan", "application/json", 250000, 2, 3.6, 10);
+
+        assertEquals(eTag, ETagUtils.repaymentETag("default", "plan", "Application/JSON ", 2.5E5, 2.0, 3.60, 10));
+        assertNotEquals(eTag, ETagUtils.repaymentETag("default", "plan", "application/json", 250000.01, 2, 3.6, 10));
+        assertNotEquals(eTag, ETagUtils.repaymentETag("default", "plan", "application/json", 250000, 2, 3.6, 11));
+        assertNotEquals(eTag, ETagUtils.repaymentETag("fixed-point", "plan", "application/json", 250000, 2, 3.6, 10));
+        assertNotEquals(eTag, ETagUtils.repaymentETag("default", "summary", "application/json", 250000, 2, 3.6, 10));
+        assertNotEquals(eTag, ETagUtils.repaymentETag("default", "plan", "application/cbor", 250000, 2, 3.6, 10));
+    }
+
+    @Test
+    public void matches() {
+        final String eTag = ETagUtils.repaymentETag("default", "plan", null, 250000, 2, 3.6, 10);
+
+        assertTrue(ETagUtils.matches(List.of("\"other\"", eTag), eTag));
+        assertTrue(ETagUtils.matches(List.of("W/" + eTag), eTag));
+        assertTrue(ETagUtils.matches(List.of("*"), eTag));
+        assertFalse(ETagUtils.matches(null, eTag));
+        assertFalse(ETagUtils.matches(List.of("\"other\""), eTag));
+        assertFalse(ETagUtils.matches(List.of("W/" + eTag + "x"), eTag));
+    }
+
+}
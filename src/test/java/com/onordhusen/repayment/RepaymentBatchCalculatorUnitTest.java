@@ -0,0 +1,110 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.services.calculation.RepaymentBatch;
+import com.onordhusen.repayment.services.calculation.RepaymentBatchCalculator;
+import com.onordhusen.repayment.services.calculation.RepaymentPortfolioAccumulator;
+import com.onordhusen.repayment.services.calculation.RepaymentSummaryCalculator;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepaymentBatchCalculatorUnitTest {
+
+    /*
+     * Der Build lädt jdk.incubator.vector auch für die Tests, damit der vektorisierte Weg geprüft wird.
+     */
+    @Test
+    public void vectorApiIsAvailable() {
+        assertTrue(RepaymentBatchCalculator.isVectorized());
+    }
+
+    /*
+     * Vektorisiert und skalar müssen je Darlehen centgenau der Zusammenfassung entsprechen.
+     * Die Anzahl ist kein Vielfaches der Lanes, damit auch der maskierte Rest geprüft wird.
+     */
+    @Test
+    public void calculateMatchesSummaries() {
+        final Random random = new Random(5);
+        final RepaymentBatch vectorBatch = new RepaymentBatch(1_003);
+        final RepaymentBatch scalarBatch = new RepaymentBatch(1_003);
+        addLoan(vectorBatch, scalarBatch, VALIDATION_MIN_LOAN_AMOUNT, VALIDATION_MIN_INITIAL_REPAYMENT, VALIDATION_MIN_INTEREST_RATE, 30);
+        addLoan(vectorBatch, scalarBatch, VALIDATION_MAX_LOAN_AMOUNT, VALIDATION_MAX_INITIAL_REPAYMENT, VALIDATION_MAX_INTEREST_RATE, 1);
+        while (vectorBatch.size() < 1_003) {
+            addLoan(
+                vectorBatch,
+                scalarBatch,
+                RepaymentTestParameters.loanAmount(random),
+                RepaymentTestParameters.initialRepayment(random),
+                RepaymentTestParameters.interestRate(random),
+                RepaymentTestParameters.fixedInterestPeriod(random)
+            );
+        }
+
+        RepaymentBatchCalculator.calculate(vectorBatch);
+        RepaymentBatchCalculator.calculateScalar(scalarBatch);
+
+        for (RepaymentBatch batch: new RepaymentBatch[] {vectorBatch, scalarBatch}) {
+            for (int i = 0; i < batch.size(); ++i) {
+                final RepaymentSummaryDto summary = RepaymentSummaryCalculator.calculate(
+                    batch.getLoanAmount(i),
+                    batch.getInitialRepayment(i),
+                    batch.getInterestRate(i),
+                    batch.getFixedInterestPeriod(i)
+                );
+                assertEquals(summary.monthlyRate(), CentUtils.toPrice(batch.getMonthlyRateCents(i)));
+                assertEquals(summary.totalInterest(), CentUtils.toPrice(batch.getTotalInterestCents(i)));
+                assertEquals(summary.residualDebt(), CentUtils.toPrice(batch.getResidualDebtEndCents(i)));
+                assertEquals(summary.yearPeriod() * MONTHS_PER_YEAR + summary.monthPeriod(), batch.getMonths(i));
+            }
+        }
+    }
+
+    /*
+     * Die Jahressummen des Stapels müssen denen der Einzelberechnung entsprechen.
+     */
+    @Test
+    public void calculateMatchesAccumulator() {
+        final Random random = new Random(7);
+        final RepaymentBatch batch = new RepaymentBatch(517);
+        final RepaymentPortfolioAccumulator expected = new RepaymentPortfolioAccumulator();
+        while (batch.size() < 517) {
+            final double loanAmount = RepaymentTestParameters.loanAmount(random);
+            final double initialRepayment = RepaymentTestParameters.initialRepayment(random);
+            final double interestRate = RepaymentTestParameters.interestRate(random);
+            final int fixedInterestPeriod = RepaymentTestParameters.fixedInterestPeriod(random);
+            batch.add(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+            expected.add(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+
+        RepaymentBatchCalculator.calculate(batch);
+        final RepaymentPortfolioAccumulator actual = new RepaymentPortfolioAccumulator();
+        actual.add(batch);
+
+        assertEquals(expected.getLoanCount(), actual.getLoanCount());
+        assertEquals(expected.getLoanAmountCents(), actual.getLoanAmountCents());
+        assertEquals(expected.getTotalInterestCents(), actual.getTotalInterestCents());
+        assertEquals(expected.getResidualDebtEndCents(), actual.getResidualDebtEndCents());
+        assertEquals(expected.toYears(), actual.toYears());
+    }
+
+    private static void addLoan(
+            final RepaymentBatch vectorBatch,
+            final RepaymentBatch scalarBatch,
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        vectorBatch.add(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        scalarBatch.add(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.onordhusen.repayment;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.onordhusen.repayment.converters.RepaymentColumnarHttpMessageConverter;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_CBOR;
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_JSON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepaymentColumnarHttpMessageConverterUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    private final ObjectMapper jsonMapper = new ObjectMapper(new JsonFactory());
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    private final RepaymentColumnarHttpMessageConverter jsonConverter =
+        new RepaymentColumnarHttpMessageConverter(jsonMapper.getFactory(), APPLICATION_REPAYMENT_COLUMNAR_JSON);
+
+    private final RepaymentColumnarHttpMessageConverter cborConverter =
+        new RepaymentColumnarHttpMessageConverter(cborMapper.getFactory(), APPLICATION_REPAYMENT_COLUMNAR_CBOR);
+
+    /*
+     * Aus den Spalten lässt sich der Tilgungsplan centgenau wiederherstellen, als JSON wie als CBOR.
+     * Beide Formate enthalten dieselben Werte.
+     */
+    @Test
+    public void columnarRoundTrip() throws IOException {
+        for (RepaymentParametersDto parameters: RepaymentTestParameters.sample(17, 500)) {
+            final double loanAmount = parameters.loanAmount();
+            final double initialRepayment = parameters.initialRepayment();
+            final double interestRate = parameters.interestRate();
+            final int fixedInterestPeriod = parameters.fixedInterestPeriod();
+            final RepaymentDto repayment = defaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+
+            final JsonNode json = jsonMapper.readTree(write(jsonConverter, repayment));
+            final JsonNode cbor = cborMapper.readTree(write(cborConverter, repayment));
+            assertEquals(repayment, read(json));
+            assertEquals(json, cbor);
+        }
+    }
+
+    /*
+     * Der Tilgungsplan steht als ein Objekt mit einem Array je Spalte in der Antwort, Beträge in ganzen Cent.
+     */
+    @Test
+    public void planIsWrittenAsColumns() throws IOException {
+        final RepaymentDto repayment = defaultImpl.calculate(250_000, 2, 3.6, 10);
+        final JsonNode plan = jsonMapper.readTree(write(jsonConverter, repayment)).get("repaymentPlan");
+
+        assertEquals(List.of("year", "rateCents", "interestPortionCents", "repaymentPortionCents", "residualDebtCents"), fieldNames(plan));
+        assertEquals(repayment.repaymentPlan().size(), plan.get("year").size());
+        assertEquals(CentUtils.toCents(repayment.repaymentPlan().getFirst().rate()), plan.get("rateCents").get(0).longValue());
+    }
+
+    private static byte[] write(final RepaymentColumnarHttpMessageConverter converter, final RepaymentDto repayment) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        converter.write(repayment, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static RepaymentDto read(final JsonNode node) {
+        final JsonNode plan = node.get("repaymentPlan");
+        final List<RepaymentPlanDto> repaymentPlan = new ArrayList<>();
+        for (int i = 0; i < plan.get("year").size(); ++i) {
+            repaymentPlan.add(new RepaymentPlanDto(
+                plan.get("year").get(i).intValue(),
+                CentUtils.toPrice(plan.get("rateCents").get(i).longValue()),
+                CentUtils.toPrice(plan.get("interestPortionCents").get(i).longValue()),
+                CentUtils.toPrice(plan.get("repaymentPortionCents").get(i).longValue()),
+                CentUtils.toPrice(plan.get("residualDebtCents").get(i).longValue())
+            ));
+        }
+        return new RepaymentDto(
+            node.get("loanAmount").doubleValue(),
+            node.get("totalInterest").doubleValue(),
+            node.get("monthlyRate").doubleValue(),
+            node.get("initialRepaymentRate").doubleValue(),
+            node.get("interestRate").doubleValue(),
+            node.get("fixedInterestPeriod").intValue(),
+            node.get("residualDebt").doubleValue(),
+            node.get("yearPeriod").intValue(),
+            node.get("monthPeriod").intValue(),
+            node.get("totalRepayment").doubleValue(),
+            repaymentPlan
+        );
+    }
+
+    private static List<String> fieldNames(final JsonNode node) {
+        final List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+}
@@ -0,0 +1,448 @@
+package com.onordhusen.repayment;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.onordhusen.repayment.controllers.RepaymentController;
+import com.onordhusen.repayment.controllers.timing.RequestTiming;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.properties.RepaymentAdmissionProperties;
+import com.onordhusen.repayment.properties.RepaymentEngineProperties;
+import com.onordhusen.repayment.properties.RepaymentHttpCacheProperties;
+import com.onordhusen.repayment.properties.RepaymentPortfolioProperties;
+import com.onordhusen.repayment.properties.RepaymentServerTimingProperties;
+import com.onordhusen.repayment.services.RepaymentPlanStore;
+import com.onordhusen.repayment.services.RepaymentScenarioStore;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.RepaymentWarmup;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_CBOR;
+import static com.onordhusen.repayment.constants.MediaTypeConstants.APPLICATION_REPAYMENT_COLUMNAR_JSON;
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.VALIDATION_MAX_GRID_CELLS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = RepaymentController.class, properties = "repayment.server-timing.enabled=true")
+public class RepaymentControllerUnitTest {
+
+    private static final String REPAYMENT_PATH = "/api/v1/repayment";
+
+    private static final String SERVER_TIMING_PATTERN = "bind;dur=\\d+\\.\\d{3}, valid;dur=\\d+\\.\\d{3}, calc;dur=\\d+\\.\\d{3}, ser;dur=\\d+\\.\\d{3}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private RepaymentService repaymentService;
+
+    @MockitoBean
+    private RepaymentScenarioStore repaymentScenarioStore;
+
+    @MockitoBean
+    private RepaymentPlanStore repaymentPlanStore;
+
+    @MockitoBean
+    private RepaymentWarmup repaymentWarmup;
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        when(repaymentService.calculate(250_000, 2, 3.6, 10)).thenReturn(defaultImpl.calculate(250_000, 2, 3.6, 10));
+        when(repaymentService.calculateYears(anyDouble(), anyDouble(), anyDouble(), anyInt(), anyInt(), anyInt())).thenAnswer(
+            invocation -> defaultImpl.calculateYears(
+                invocation.getArgument(0),
+                invocation.getArgument(1),
+                invocation.getArgument(2),
+                invocation.getArgument(3),
+                invocation.getArgument(4),
+                invocation.getArgument(5)
+            )
+        );
+        when(repaymentService.calculateGrid(anyDouble(), any(), any(), any())).thenAnswer(
+            invocation -> defaultImpl.calculateGrid(
+                invocation.getArgument(0),
+                invocation.getArgument(1),
+                invocation.getArgument(2),
+                invocation.getArgument(3)
+            )
+        );
+        when(repaymentService.streamSchedule(anyDouble(), anyDouble(), anyDouble(), any())).thenAnswer(
+            invocation -> defaultImpl.streamSchedule(
+                invocation.getArgument(0),
+                invocation.getArgument(1),
+                invocation.getArgument(2),
+                invocation.getArgument(3)
+            )
+        );
+    }
+
+    /*
+     * Die Antwort trägt ETag, Cache-Control und Vary: Accept. Schickt der Client den ETag zurück,
+     * kommt 304 mit denselben Headern, ohne dass der Service aufgerufen wird.
+     */
+    @Test
+    public void ifNoneMatchReturnsNotModifiedWithoutCalculation() throws Exception {
+        final String eTag = mockMvc.perform(get(REPAYMENT_PATH)
+                .param("loanAmount", "250000")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6")
+                .param("fixedInterestPeriod", "10"))
+            .andExpect(status().isOk())
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        clearInvocations(repaymentService);
+
+        mockMvc.perform(get(REPAYMENT_PATH)
+                .param("loanAmount", "2.5E5")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6")
+                .param("fixedInterestPeriod", "10")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+        verifyNoInteractions(repaymentService);
+    }
+
+    /*
+     * Nur mit fromYear reicht die Aufgliederung bis zum letzten Jahr des Tilgungsplans.
+     */
+    @Test
+    public void fromYearOnlyDefaultsToLastYear() throws Exception {
+        mockMvc.perform(get(REPAYMENT_PATH)
+                .param("loanAmount", "250000")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6")
+                .param("fixedInterestPeriod", "10")
+                .param("fromYear", "6"))
+            .andExpect(status().isOk());
+        verify(repaymentService).calculateYears(250_000, 2, 3.6, 10, 6, Integer.MAX_VALUE);
+    }
+
+    /*
+     * Nur mit toYear beginnt die Aufgliederung im ersten Jahr.
+     */
+    @Test
+    public void toYearOnlyDefaultsToFirstYear() throws Exception {
+        mockMvc.perform(get(REPAYMENT_PATH)
+                .param("loanAmount", "250000")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6")
+                .param("fixedInterestPeriod", "10")
+                .param("toYear", "5"))
+            .andExpect(status().isOk());
+        verify(repaymentService).calculateYears(250_000, 2, 3.6, 10, 1, 5);
+    }
+
+    /*
+     * Eine unbekannte Sicht wird mit 400 im Format des ValidationExceptionHandler abgelehnt, statt den Tilgungsplan zu liefern.
+     */
+    @Test
+    public void unknownViewIsRejected() throws Exception {
+        mockMvc.perform(get(REPAYMENT_PATH)
+                .param("loanAmount", "250000")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6")
+                .param("fixedInterestPeriod", "10")
+                .param("view", "bogus"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errors[0]").value("view must be plan or summary"));
+        verifyNoInteractions(repaymentService);
+    }
+
+    /*
+     * Der monatliche Tilgungsplan kommt als NDJSON, ein Objekt je Zeile und Monat.
+     * Die Monate reichen bis zur vollständigen Tilgung und summieren sich zur ersten Jahreszeile.
+     */
+    @Test
+    public void scheduleIsStreamedAsNdjson() throws Exception {
+        final MvcResult result = mockMvc.perform(get(REPAYMENT_PATH + "/schedule")
+                .param("loanAmount", "250000")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        final String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+
+        final String[] lines = body.split("\n");
+        final RepaymentDto repayment = defaultImpl.calculate(250_000, 2, 3.6, 10);
+        assertEquals(repayment.yearPeriod() * MONTHS_PER_YEAR + repayment.monthPeriod(), lines.length);
+        assertTrue(body.endsWith("\n"));
+
+        double firstYearInterest = 0;
+        for (int i = 0; i < MONTHS_PER_YEAR; ++i) {
+            final JsonNode month = objectMapper.readTree(lines[i]);
+            assertEquals(i + 1, month.get("month").intValue());
+            assertEquals(repayment.monthlyRate(), month.get("rate").doubleValue());
+            firstYearInterest += month.get("interestPortion").doubleValue();
+        }
+        assertEquals(repayment.repaymentPlan().getFirst().interestPortion(), firstYearInterest, 0.005);
+        assertEquals(0.0, objectMapper.readTree(lines[lines.length - 1]).get("residualDebt").doubleValue());
+    }
+
+    /*
+     * Der monatliche Tilgungsplan rechnet in ganzen Cent, ein Darlehensbetrag mit Bruchteilen von Cent wird vor dem Streamen abgelehnt.
+     */
+    @Test
+    public void scheduleRejectsFractionalCents() throws Exception {
+        mockMvc.perform(get(REPAYMENT_PATH + "/schedule")
+                .param("loanAmount", "250000.005")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6"))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(repaymentService);
+    }
+
+    /*
+     * Die Bereiche werden einschließlich ihres Endes in Werte zerlegt, die Antwort ist spaltenorientiert.
+     */
+    @Test
+    public void gridExpandsRanges() throws Exception {
+        mockMvc.perform(grid("3", "4", "0.5", "1", "2", "1", "10", "20", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.interestRates").value(contains(3.0, 3.5, 4.0)))
+            .andExpect(jsonPath("$.initialRepayments").value(contains(1.0, 2.0)))
+            .andExpect(jsonPath("$.fixedInterestPeriods").value(contains(10, 15, 20)))
+            .andExpect(jsonPath("$.monthlyRates", hasSize(6)))
+            .andExpect(jsonPath("$.residualDebts", hasSize(18)))
+            .andExpect(jsonPath("$.monthlyRates[5]").value(defaultImpl.calculate(250_000, 2, 4, 10).monthlyRate()))
+            .andExpect(jsonPath("$.residualDebts[17]").value(defaultImpl.calculate(250_000, 2, 4, 20).residualDebt()));
+    }
+
+    /*
+     * Mehr als VALIDATION_MAX_GRID_CELLS Kombinationen werden vor der Berechnung mit 400 abgelehnt,
+     * auch wenn jeder einzelne Bereich zulässig ist.
+     */
+    @Test
+    public void oversizedGridIsRejected() throws Exception {
+        mockMvc.perform(grid("1", "100", "0.01", "1", "2", "1", "10", "10", "1"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errors[0]").value("grid must have less than or equal to " + VALIDATION_MAX_GRID_CELLS + " cells, but has 19802"));
+        verifyNoInteractions(repaymentService);
+    }
+
+    /*
+     * Umgekehrte Bereiche und zu kleine Schrittweiten werden mit 400 abgelehnt.
+     */
+    @Test
+    public void invalidGridRangesAreRejected() throws Exception {
+        mockMvc.perform(grid("4", "3", "0.5", "1", "2", "1", "10", "20", "5"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errors[0]").value("interestRateFrom must be less than or equal to interestRateTo"));
+        mockMvc.perform(grid("3", "4", "0.001", "1", "2", "1", "10", "20", "5"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(grid("3", "4", "0.5", "1", "2", "1", "10", "20", "0"))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(repaymentService);
+    }
+
+    /*
+     * Ohne Accept kommt JSON. CBOR und die spaltenorientierten Formate werden über Accept ausgehandelt,
+     * jedes Format hat einen eigenen ETag.
+     */
+    @Test
+    public void formatsAreNegotiated() throws Exception {
+        final RepaymentDto repayment = defaultImpl.calculate(250_000, 2, 3.6, 10);
+        final Set<String> eTags = new HashSet<>();
+
+        final MockHttpServletResponse json = mockMvc.perform(calculate(null))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andReturn()
+            .getResponse();
+        assertEquals(objectMapper.writeValueAsString(repayment), json.getContentAsString(StandardCharsets.UTF_8));
+        eTags.add(json.getHeader(HttpHeaders.ETAG));
+
+        final MockHttpServletResponse cbor = mockMvc.perform(calculate(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse();
+        assertEquals(repayment, new ObjectMapper(new CBORFactory()).readValue(cbor.getContentAsByteArray(), RepaymentDto.class));
+        eTags.add(cbor.getHeader(HttpHeaders.ETAG));
+
+        for (MediaType columnar: List.of(APPLICATION_REPAYMENT_COLUMNAR_JSON, APPLICATION_REPAYMENT_COLUMNAR_CBOR)) {
+            eTags.add(mockMvc.perform(calculate(columnar))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(columnar))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG));
+        }
+        assertEquals(4, eTags.size());
+    }
+
+    /*
+     * Server-Timing gibt es nur auf Anfrage. Die Antwort trägt dann alle vier Phasen in einem Header
+     * und wird nicht gecacht, ohne Anfrage bleibt sie cachebar und ohne Server-Timing.
+     */
+    @Test
+    public void serverTimingOnlyOnRequest() throws Exception {
+        mockMvc.perform(get(REPAYMENT_PATH)
+                .param("loanAmount", "250000")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6")
+                .param("fixedInterestPeriod", "10"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(RequestTiming.SERVER_TIMING))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+
+        mockMvc.perform(get(REPAYMENT_PATH)
+                .param("loanAmount", "250000")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6")
+                .param("fixedInterestPeriod", "10")
+                .header(RequestTiming.REQUEST_HEADER, "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(RequestTiming.SERVER_TIMING, matchesPattern(SERVER_TIMING_PATTERN)))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+            .andExpect(jsonPath("$.loanAmount").value(250_000.0));
+    }
+
+    /*
+     * Die Serialisierung wird für jedes Format gemessen, nicht nur für JSON.
+     */
+    @Test
+    public void serverTimingCoversColumnarFormat() throws Exception {
+        mockMvc.perform(get(REPAYMENT_PATH)
+                .param("loanAmount", "250000")
+                .param("initialRepayment", "2")
+                .param("interestRate", "3.6")
+                .param("fixedInterestPeriod", "10")
+                .accept(APPLICATION_REPAYMENT_COLUMNAR_JSON)
+                .header(RequestTiming.REQUEST_HEADER, "1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_REPAYMENT_COLUMNAR_JSON))
+            .andExpect(header().string(RequestTiming.SERVER_TIMING, matchesPattern(SERVER_TIMING_PATTERN)));
+    }
+
+    /*
+     * Bricht der Client den Upload eines Portfolios ab, antwortet der Server mit 400 und zählt keinen internen Fehler.
+     */
+    @Test
+    public void abortedPortfolioUploadIsNoInternalError() throws Exception {
+        when(repaymentService.calculatePortfolio(any(Reader.class))).thenThrow(new IOException("connection reset by peer"));
+
+        mockMvc.perform(post(REPAYMENT_PATH + "/portfolio")
+                .contentType("text/csv")
+                .content("250000,2,3.6,10\n"))
+            .andExpect(status().isBadRequest());
+        assertNull(meterRegistry.find("repayment.internal.errors").counter());
+    }
+
+    private static MockHttpServletRequestBuilder calculate(final MediaType accept) {
+        final MockHttpServletRequestBuilder builder = get(REPAYMENT_PATH)
+            .param("loanAmount", "250000")
+            .param("initialRepayment", "2")
+            .param("interestRate", "3.6")
+            .param("fixedInterestPeriod", "10");
+        return accept == null ? builder : builder.accept(accept);
+    }
+
+    private static MockHttpServletRequestBuilder grid(
+            final String interestRateFrom,
+            final String interestRateTo,
+            final String interestRateStep,
+            final String initialRepaymentFrom,
+            final String initialRepaymentTo,
+            final String initialRepaymentStep,
+            final String fixedInterestPeriodFrom,
+            final String fixedInterestPeriodTo,
+            final String fixedInterestPeriodStep
+    ) {
+        return get(REPAYMENT_PATH + "/grid")
+            .param("loanAmount", "250000")
+            .param("interestRateFrom", interestRateFrom)
+            .param("interestRateTo", interestRateTo)
+            .param("interestRateStep", interestRateStep)
+            .param("initialRepaymentFrom", initialRepaymentFrom)
+            .param("initialRepaymentTo", initialRepaymentTo)
+            .param("initialRepaymentStep", initialRepaymentStep)
+            .param("fixedInterestPeriodFrom", fixedInterestPeriodFrom)
+            .param("fixedInterestPeriodTo", fixedInterestPeriodTo)
+            .param("fixedInterestPeriodStep", fixedInterestPeriodStep);
+    }
+
+    /**
+     * Die Einstellungen und die Registry, die sonst die Konfiguration des Services bereitstellt.
+     */
+    @TestConfiguration
+    @EnableConfigurationProperties({
+        RepaymentAdmissionProperties.class,
+        RepaymentEngineProperties.class,
+        RepaymentHttpCacheProperties.class,
+        RepaymentPortfolioProperties.class,
+        RepaymentServerTimingProperties.class
+    })
+    static class ControllerTestConfiguration {
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentGridDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RepaymentGridCalculatorUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    /*
+     * Jede Zelle der Vergleichstabelle entspricht centgenau dem einzeln berechneten Tilgungsplan,
+     * auch wenn die Sollzinsbindungen unsortiert übergeben werden.
+     */
+    @Test
+    public void gridMatchesSinglePlans() {
+        final Random random = new Random(13);
+        for (int i = 0; i < 20; ++i) {
+            final double loanAmount = RepaymentTestParameters.loanAmount(random);
+            final double[] interestRates = {RepaymentTestParameters.interestRate(random), RepaymentTestParameters.interestRate(random)};
+            final double[] initialRepayments = {
+                RepaymentTestParameters.initialRepayment(random),
+                RepaymentTestParameters.initialRepayment(random),
+                RepaymentTestParameters.initialRepayment(random)
+            };
+            final int[] fixedInterestPeriods = {20, 1 + random.nextInt(10), 30};
+            assertGrid(loanAmount, interestRates, initialRepayments, fixedInterestPeriods);
+        }
+    }
+
+    /*
+     * Der Darlehensbetrag muss centgenau sein, da die Vergleichstabelle in ganzen Cent rechnet.
+     */
+    @Test
+    public void fractionalCentsAreRejected() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> defaultImpl.calculateGrid(123_456.789, new double[] {3.6}, new double[] {2}, new int[] {10})
+        );
+    }
+
+    private void assertGrid(
+            final double loanAmount,
+            final double[] interestRates,
+            final double[] initialRepayments,
+            final int[] fixedInterestPeriods
+    ) {
+        final RepaymentGridDto grid = defaultImpl.calculateGrid(loanAmount, interestRates, initialRepayments, fixedInterestPeriods.clone());
+        final int[] sortedPeriods = fixedInterestPeriods.clone();
+        Arrays.sort(sortedPeriods);
+
+        assertArrayEquals(interestRates, grid.interestRates());
+        assertArrayEquals(initialRepayments, grid.initialRepayments());
+        assertArrayEquals(sortedPeriods, grid.fixedInterestPeriods());
+        for (int i = 0; i < interestRates.length; ++i) {
+            for (int r = 0; r < initialRepayments.length; ++r) {
+                final int run = i * initialRepayments.length + r;
+                for (int f = 0; f < sortedPeriods.length; ++f) {
+                    final RepaymentDto repayment = defaultImpl.calculate(loanAmount, initialRepayments[r], interestRates[i], sortedPeriods[f]);
+                    final String message = loanAmount + " / " + initialRepayments[r] + " / " + interestRates[i] + " / " + sortedPeriods[f];
+                    assertEquals(repayment.monthlyRate(), grid.monthlyRates()[run], message);
+                    assertEquals(repayment.totalInterest(), grid.totalInterests()[run], message);
+                    assertEquals(repayment.yearPeriod(), grid.yearPeriods()[run], message);
+                    assertEquals(repayment.monthPeriod(), grid.monthPeriods()[run], message);
+                    assertEquals(repayment.residualDebt(), grid.residualDebts()[run * sortedPeriods.length + f], message);
+                }
+            }
+        }
+    }
+
+}
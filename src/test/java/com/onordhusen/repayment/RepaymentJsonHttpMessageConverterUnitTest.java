@@ -0,0 +1,98 @@
+package com.onordhusen.repayment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onordhusen.repayment.converters.RepaymentJsonHttpMessageConverter;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepaymentJsonHttpMessageConverterUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    private final RepaymentJsonHttpMessageConverter converter = new RepaymentJsonHttpMessageConverter();
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    /*
+     * Die Ausgabe muss byte-identisch zum JSON von Jackson sein.
+     */
+    @Test
+    public void writeMatchesJackson() throws IOException {
+        for (RepaymentParametersDto parameters: RepaymentTestParameters.sample(11, 2_000)) {
+            final double loanAmount = parameters.loanAmount();
+            final double initialRepayment = parameters.initialRepayment();
+            final double interestRate = parameters.interestRate();
+            final int fixedInterestPeriod = parameters.fixedInterestPeriod();
+            assertJson(defaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod));
+        }
+        assertJson(defaultImpl.calculate(VALIDATION_MAX_LOAN_AMOUNT, 1, 1, 30));
+        assertJson(defaultImpl.calculate(123_456.789, 2.125, 3.6, 10));
+    }
+
+    /*
+     * Grenzfälle der Formatierung von Double.toString.
+     */
+    @Test
+    public void writeMatchesJacksonForEdgeValues() throws IOException {
+        final double[] values = {
+            0.0, -0.0, 0.01, 0.05, 0.1, 1.0, 10.5, 9_999_999.99, 10_000_000.0, 10_000_000.01, 12_345_678.9,
+            100_000_000.0, 123_456_789_012.34, -1.5, -12_345_678.9, 0.001, 0.0001, 1.005, Double.NaN, Double.POSITIVE_INFINITY
+        };
+        for (double value: values) {
+            assertJson(new RepaymentDto(
+                value, value, value, value, value, -1, value, Integer.MAX_VALUE, Integer.MIN_VALUE, value,
+                List.of(new RepaymentPlanDto(0, value, value, value, value))
+            ));
+        }
+        assertJson(new RepaymentDto(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, null));
+        assertJson(new RepaymentDto(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, List.of()));
+    }
+
+    /*
+     * Gleichzeitige Schreiber auf virtuellen Threads teilen sich die Puffer des Pools,
+     * ohne sich gegenseitig in die Ausgabe zu schreiben.
+     */
+    @Test
+    public void concurrentWritesShareBufferPool() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; ++i) {
+                final double loanAmount = 10_000 + i * 1_000.0;
+                futures.add(executor.submit(() -> {
+                    assertJson(defaultImpl.calculate(loanAmount, 1, 1, 30));
+                    return null;
+                }));
+            }
+            for (Future<?> future: futures) {
+                future.get();
+            }
+        }
+    }
+
+    private void assertJson(final RepaymentDto repayment) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        converter.write(repayment, outputStream);
+        assertEquals(
+            objectMapper.writeValueAsString(repayment),
+            outputStream.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+}
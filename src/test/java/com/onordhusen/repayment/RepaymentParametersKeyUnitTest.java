@@ -0,0 +1,61 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.services.RepaymentParametersKey;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RepaymentParametersKeyUnitTest {
+
+    /*
+     * Gleiche Werte in anderer Schreibweise ergeben denselben Schlüssel in Cent und Basispunkten.
+     */
+    @Test
+    public void equalValuesShareKey() {
+        final RepaymentParametersKey key = RepaymentParametersKey.of(250000, 2, 3.6, 10);
+
+        assertEquals(new RepaymentParametersKey(25_000_000, 200, 360, 10), key);
+        assertEquals(key, RepaymentParametersKey.of(2.5E5, 2.00, 3.60, 10));
+        assertEquals(new RepaymentParametersKey(123_456_789, 1, 1_425, 30), RepaymentParametersKey.of(1234567.89, 0.01, 14.25, 30));
+        assertNotEquals(key, RepaymentParametersKey.of(250000, 2, 3.6, 15));
+    }
+
+    /*
+     * Bruchteile von Cent bzw. Basispunkten lassen sich nicht verlustfrei abbilden und erhalten keinen Schlüssel.
+     */
+    @Test
+    public void subCentValuesHaveNoKey() {
+        assertNull(RepaymentParametersKey.of(250000.005, 2, 3.6, 10));
+        assertNull(RepaymentParametersKey.of(250000, 2.001, 3.6, 10));
+        assertNull(RepaymentParametersKey.of(250000, 2, 0.1 + 0.2, 10));
+    }
+
+    /*
+     * NaN, unendliche und zu große Werte, deren Cent nicht mehr in ein long passen, erhalten keinen Schlüssel.
+     */
+    @Test
+    public void nonFiniteAndOverflowingValuesHaveNoKey() {
+        assertNull(RepaymentParametersKey.of(Double.NaN, 2, 3.6, 10));
+        assertNull(RepaymentParametersKey.of(250000, Double.NaN, 3.6, 10));
+        assertNull(RepaymentParametersKey.of(250000, 2, Double.NaN, 10));
+        assertNull(RepaymentParametersKey.of(Double.POSITIVE_INFINITY, 2, 3.6, 10));
+        assertNull(RepaymentParametersKey.of(1e17, 2, 3.6, 10));
+        assertNull(RepaymentParametersKey.of(-1e300, 2, 3.6, 10));
+        assertNull(RepaymentParametersKey.of(250000, 1e300, 3.6, 10));
+    }
+
+    /*
+     * -0.0 erscheint im Tilgungsplan anders als 0.0 und darf daher nicht dessen Schlüssel erhalten.
+     */
+    @Test
+    public void negativeZeroHasNoKey() {
+        assertEquals(new RepaymentParametersKey(25_000_000, 200, 0, 10), RepaymentParametersKey.of(250000, 2, 0.0, 10));
+        assertNull(RepaymentParametersKey.of(250000, 2, -0.0, 10));
+        assertNull(RepaymentParametersKey.of(250000, -0.0, 3.6, 10));
+        assertNull(RepaymentParametersKey.of(-0.0, 2, 3.6, 10));
+    }
+
+}
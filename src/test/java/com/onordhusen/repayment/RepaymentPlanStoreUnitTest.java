@@ -0,0 +1,176 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.properties.RepaymentPlanStoreProperties;
+import com.onordhusen.repayment.services.RepaymentPlanStore;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepaymentPlanStoreUnitTest {
+
+    /**
+     * Etwa acht Tilgungspläne je Segment.
+     */
+    private static final DataSize SEGMENT_SIZE = DataSize.ofBytes(1024);
+
+    @TempDir
+    private Path directory;
+
+    /*
+     * Nach einem Neustart sind alle gespeicherten Tilgungspläne wieder lesbar, gelöschte bleiben gelöscht.
+     */
+    @Test
+    public void recoversIndexAfterReopen() throws IOException {
+        final List<UUID> ids = new ArrayList<>();
+        RepaymentPlanStore store = open();
+        for (int i = 0; i < 20; ++i) {
+            ids.add(store.save(plan(i)).id());
+        }
+        store.delete(ids.get(3));
+        store.close();
+
+        store = open();
+        assertEquals(19, store.size());
+        assertNull(store.fetch(ids.get(3)));
+        for (int i = 0; i < 20; ++i) {
+            if (i != 3) {
+                assertEquals(new String(plan(i), StandardCharsets.US_ASCII), text(store.fetch(ids.get(i))));
+            }
+        }
+    }
+
+    /*
+     * Ein beim Absturz nur teilweise geschriebener Datensatz wird verworfen und danach überschrieben.
+     */
+    @Test
+    public void discardsIncompleteRecord() throws IOException {
+        RepaymentPlanStore store = open();
+        final UUID first = store.save(plan(1)).id();
+        store.save(plan(2));
+        store.close();
+
+        // Kopf eines dritten Datensatzes ohne passende Prüfsumme und Daten.
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            final ByteBuffer header = ByteBuffer.allocate(9).putInt(100).putInt(42).put((byte) 1).flip();
+            channel.write(header, 2L * (25 + plan(1).length));
+        }
+
+        store = open();
+        assertEquals(2, store.size());
+        final UUID third = store.save(plan(3)).id();
+        store.close();
+
+        store = open();
+        assertEquals(3, store.size());
+        assertEquals(new String(plan(1), StandardCharsets.US_ASCII), text(store.fetch(first)));
+        assertEquals(new String(plan(3), StandardCharsets.US_ASCII), text(store.fetch(third)));
+    }
+
+    /*
+     * Fast vollständig gelöschte Segmente werden beim Wechsel auf ein neues Segment umkopiert und entfernt.
+     */
+    @Test
+    public void compactsSegmentsBelowThreshold() throws IOException {
+        final List<UUID> ids = new ArrayList<>();
+        RepaymentPlanStore store = open();
+        for (int i = 0; i < 40; ++i) {
+            ids.add(store.save(plan(i)).id());
+        }
+        final int segmentsBefore = store.segmentCount();
+        for (int i = 0; i < 30; ++i) {
+            if (i % 10 != 0) {
+                store.delete(ids.get(i));
+            }
+        }
+        for (int i = 40; i < 60; ++i) {
+            ids.add(store.save(plan(i)).id());
+        }
+
+        assertTrue(store.segmentCount() < segmentsBefore + 3, "segments " + store.segmentCount());
+        assertEquals(store.segmentCount(), segments().size());
+        store.close();
+
+        store = open();
+        assertEquals(33, store.size());
+        for (int i = 0; i < 60; ++i) {
+            if (i < 30 && i % 10 != 0) {
+                assertNull(store.fetch(ids.get(i)));
+            }
+            else {
+                assertEquals(new String(plan(i), StandardCharsets.US_ASCII), text(store.fetch(ids.get(i))));
+            }
+        }
+    }
+
+    /*
+     * Solange ein Store das Verzeichnis geöffnet hat, schlägt ein zweiter sofort fehl. Nach dem Schließen ist es wieder frei.
+     */
+    @Test
+    public void lockedDirectoryFailsFast() throws IOException {
+        final RepaymentPlanStore store = open();
+        final UUID id = store.save(plan(1)).id();
+
+        assertThrows(IllegalStateException.class, this::open);
+        store.close();
+
+        final RepaymentPlanStore reopened = open();
+        assertEquals(new String(plan(1), StandardCharsets.US_ASCII), text(reopened.fetch(id)));
+        reopened.close();
+    }
+
+    /*
+     * save liefert den gespeicherten Tilgungsplan direkt mit. Wird er gleich danach gelöscht,
+     * bleibt der gelieferte Ausschnitt für die Antwort trotzdem lesbar.
+     */
+    @Test
+    public void saveReturnsStoredPlan() throws IOException {
+        final RepaymentPlanStore store = open();
+        final RepaymentPlanStore.StoredPlan stored = store.save(plan(1));
+        assertEquals(new String(plan(1), StandardCharsets.US_ASCII), text(stored.plan()));
+
+        assertTrue(store.delete(stored.id()));
+        assertNull(store.fetch(stored.id()));
+        assertEquals(new String(plan(1), StandardCharsets.US_ASCII), text(stored.plan()));
+        store.close();
+    }
+
+    private RepaymentPlanStore open() throws IOException {
+        return new RepaymentPlanStore(new RepaymentPlanStoreProperties(directory, SEGMENT_SIZE, false, 0.5));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("plans-")).sorted().toList();
+        }
+    }
+
+    private static byte[] plan(final int i) {
+        return String.format("{\"loanAmount\":%d,\"repaymentPlan\":[%0" + 60 + "d]}", 100_000 + i, i)
+            .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String text(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioYearDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.calculation.RepaymentPortfolioCalculator;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepaymentPortfolioCalculatorUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    /*
+     * Die Jahressummen müssen centgenau der Summe der einzelnen Tilgungspläne entsprechen.
+     */
+    @Test
+    public void calculateMatchesSumOfPlans() throws IOException {
+        final Random random = new Random(3);
+        final StringBuilder csv = new StringBuilder("loanAmount,initialRepayment,interestRate,fixedInterestPeriod\n");
+        final long[] interestPortionCents = new long[100];
+        final long[] repaymentPortionCents = new long[100];
+        final long[] residualDebtCents = new long[100];
+        long totalInterestCents = 0;
+        long residualDebtEndCents = 0;
+
+        // Mehr als ein Block, damit die Zusammenführung der Blöcke geprüft wird.
+        final int loans = RepaymentPortfolioCalculator.CHUNK_SIZE * 3 + 7;
+        for (int i = 0; i < loans; ++i) {
+            final double loanAmount = RepaymentTestParameters.loanAmount(random);
+            final double initialRepayment = RepaymentTestParameters.initialRepayment(random);
+            final double interestRate = RepaymentTestParameters.interestRate(random);
+            final int fixedInterestPeriod = RepaymentTestParameters.fixedInterestPeriod(random);
+            csv.append(loanAmount).append(',').append(initialRepayment).append(',')
+                .append(interestRate).append(',').append(fixedInterestPeriod).append('\n');
+
+            final RepaymentDto repayment = defaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+            for (RepaymentPlanDto row: repayment.repaymentPlan()) {
+                interestPortionCents[row.year() - 1] += CentUtils.toCents(row.interestPortion());
+                repaymentPortionCents[row.year() - 1] += CentUtils.toCents(row.repaymentPortion());
+                residualDebtCents[row.year() - 1] += CentUtils.toCents(row.residualDebt());
+            }
+            totalInterestCents += CentUtils.toCents(repayment.totalInterest());
+            residualDebtEndCents += CentUtils.toCents(repayment.residualDebt());
+        }
+        csv.append("5,2,3.6,10\n");
+
+        final RepaymentPortfolioDto portfolio = RepaymentPortfolioCalculator.calculate(new StringReader(csv.toString()), ForkJoinPool.commonPool());
+
+        assertEquals(loans, portfolio.loans());
+        assertEquals(1, portfolio.rejectedLoans());
+        assertEquals("line " + (loans + 2) + ": loanAmount must be greater than or equal to 10000", portfolio.errors().getFirst());
+        assertEquals(CentUtils.toPrice(totalInterestCents), portfolio.totalInterest());
+        assertEquals(CentUtils.toPrice(residualDebtEndCents), portfolio.residualDebt());
+        for (RepaymentPortfolioYearDto year: portfolio.years()) {
+            assertEquals(CentUtils.toPrice(interestPortionCents[year.year() - 1]), year.interestPortion());
+            assertEquals(CentUtils.toPrice(repaymentPortionCents[year.year() - 1]), year.repaymentPortion());
+            assertEquals(CentUtils.toPrice(residualDebtCents[year.year() - 1]), year.residualDebt());
+        }
+    }
+
+    /*
+     * Die ausgegebenen Fehler sind die ersten MAX_ERRORS nach Zeilennummer, auch wenn sich die Fehler über viele Blöcke
+     * verteilen und die Blöcke parallel in beliebiger Reihenfolge fertig werden.
+     */
+    @Test
+    public void errorsAreOrderedByLineNumber() throws IOException {
+        final StringBuilder csv = new StringBuilder();
+        final List<String> expected = new ArrayList<>();
+        int rejected = 0;
+        for (int lineNumber = 1; lineNumber <= RepaymentPortfolioCalculator.CHUNK_SIZE * 8; ++lineNumber) {
+            // Im ersten Block nur wenige Fehler, damit die ersten MAX_ERRORS aus mehreren Blöcken stammen.
+            if (lineNumber % (lineNumber <= RepaymentPortfolioCalculator.CHUNK_SIZE ? 97 : 7) == 0) {
+                csv.append("5,2,3.6,10\n");
+                ++rejected;
+                if (expected.size() < RepaymentPortfolioCalculator.MAX_ERRORS) {
+                    expected.add("line " + lineNumber + ": loanAmount must be greater than or equal to 10000");
+                }
+            }
+            else {
+                csv.append("250000,2,3.6,10\n");
+            }
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int i = 0; i < 5; ++i) {
+                final RepaymentPortfolioDto portfolio = RepaymentPortfolioCalculator.calculate(new StringReader(csv.toString()), pool);
+                assertEquals(rejected, portfolio.rejectedLoans());
+                assertEquals(expected, portfolio.errors());
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+}
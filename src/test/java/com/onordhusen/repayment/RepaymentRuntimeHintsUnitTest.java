@@ -0,0 +1,31 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.configurations.RepaymentRuntimeHints;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioYearDto;
+import com.onordhusen.repayment.dtos.RepaymentSpecialRepaymentDto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepaymentRuntimeHintsUnitTest {
+
+    /*
+     * DTOs aus Listen und die Constraints der validierten Records müssen im Native Image per Reflection erreichbar sein.
+     */
+    @Test
+    public void registerHints() throws NoSuchMethodException {
+        final RuntimeHints hints = new RuntimeHints();
+        new RepaymentRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RepaymentPortfolioYearDto.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(RepaymentPortfolioYearDto.class.getMethod("year")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RepaymentParametersDto.class).withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RepaymentSpecialRepaymentDto.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentScenarioPlanDto;
+import com.onordhusen.repayment.dtos.RepaymentSpecialRepaymentDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioCalculator;
+import com.onordhusen.repayment.services.calculation.RepaymentScenarioState;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepaymentScenarioCalculatorUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    /*
+     * Ohne Sondertilgungen und Anschlusszins muss das Szenario centgenau dem Tilgungsplan entsprechen.
+     */
+    @Test
+    public void calculateWithoutEventsMatchesPlan() {
+        final Random random = new Random(5);
+        for (int i = 0; i < 2_000; ++i) {
+            final RepaymentScenarioParametersDto parameters = randomParameters(random, null, null);
+            final RepaymentDto repayment = defaultImpl.calculate(
+                parameters.loanAmount(),
+                parameters.initialRepayment(),
+                parameters.interestRate(),
+                parameters.fixedInterestPeriod()
+            );
+            final RepaymentScenarioDto scenario = RepaymentScenarioCalculator.calculate(parameters, null).toDto();
+
+            assertEquals(repayment.totalInterest(), scenario.totalInterest());
+            assertEquals(repayment.monthlyRate(), scenario.monthlyRate());
+            assertEquals(repayment.residualDebt(), scenario.residualDebt());
+            assertEquals(repayment.yearPeriod(), scenario.yearPeriod());
+            assertEquals(repayment.monthPeriod(), scenario.monthPeriod());
+            assertEquals(repayment.totalRepayment(), scenario.totalRepayment());
+            assertEquals(repayment.repaymentPlan().size(), scenario.repaymentPlan().size());
+            for (int year = 0; year < repayment.repaymentPlan().size(); ++year) {
+                final RepaymentPlanDto expected = repayment.repaymentPlan().get(year);
+                final RepaymentScenarioPlanDto actual = scenario.repaymentPlan().get(year);
+                assertEquals(expected.rate(), actual.rate());
+                assertEquals(expected.interestPortion(), actual.interestPortion());
+                assertEquals(expected.repaymentPortion(), actual.repaymentPortion());
+                assertEquals(expected.residualDebt(), actual.residualDebt());
+            }
+        }
+    }
+
+    /*
+     * Eine inkrementelle Neuberechnung muss dasselbe Ergebnis liefern wie eine vollständige.
+     */
+    @Test
+    public void calculateIncrementallyMatchesFullCalculation() {
+        final Random random = new Random(9);
+        for (int i = 0; i < 1_000; ++i) {
+            final RepaymentScenarioParametersDto first = randomParameters(random, randomFollowUp(random), randomSpecialRepayments(random));
+            final RepaymentScenarioState previous = RepaymentScenarioCalculator.calculate(first, null);
+
+            // Nur Ereignisse ändern, damit Monate übernommen werden können.
+            final RepaymentScenarioParametersDto second = new RepaymentScenarioParametersDto(
+                first.loanAmount(),
+                first.initialRepayment(),
+                first.interestRate(),
+                RepaymentTestParameters.fixedInterestPeriod(random),
+                randomFollowUp(random),
+                randomSpecialRepayments(random)
+            );
+            final RepaymentScenarioState incremental = RepaymentScenarioCalculator.calculate(second, previous);
+            final RepaymentScenarioDto full = RepaymentScenarioCalculator.calculate(second, null).toDto();
+            final RepaymentScenarioDto actual = incremental.toDto();
+
+            assertEquals(full.repaymentPlan(), actual.repaymentPlan());
+            assertEquals(full.totalInterest(), actual.totalInterest());
+            assertEquals(full.residualDebt(), actual.residualDebt());
+            assertEquals(full.totalSpecialRepayment(), actual.totalSpecialRepayment());
+            assertEquals(full.recomputedMonths(), actual.recomputedMonths() + actual.reusedMonths());
+            assertTrue(actual.reusedMonths() % 12 == 0 || actual.recomputedMonths() == 0);
+        }
+    }
+
+    private static RepaymentScenarioParametersDto randomParameters(
+            final Random random,
+            final Double followUpInterestRate,
+            final List<RepaymentSpecialRepaymentDto> specialRepayments
+    ) {
+        return new RepaymentScenarioParametersDto(
+            RepaymentTestParameters.loanAmount(random),
+            RepaymentTestParameters.initialRepayment(random),
+            RepaymentTestParameters.interestRate(random),
+            RepaymentTestParameters.fixedInterestPeriod(random),
+            followUpInterestRate,
+            specialRepayments
+        );
+    }
+
+    /*
+     * Anschlusszinsen bis 1 %, damit die Rate auch bei minimaler Tilgung reicht.
+     */
+    private static Double randomFollowUp(final Random random) {
+        return random.nextBoolean() ? null : (100 + random.nextInt(100)) / 100.0;
+    }
+
+    private static List<RepaymentSpecialRepaymentDto> randomSpecialRepayments(final Random random) {
+        final List<RepaymentSpecialRepaymentDto> specialRepayments = new ArrayList<>();
+        final int count = random.nextInt(4);
+        for (int i = 0; i < count; ++i) {
+            specialRepayments.add(new RepaymentSpecialRepaymentDto(1 + random.nextInt(40), (1 + random.nextInt(1_000_000)) / 100.0));
+        }
+        return specialRepayments;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.utils.CentUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.onordhusen.repayment.constants.DateConstants.MONTHS_PER_YEAR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RepaymentScheduleCalculatorUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    /*
+     * Die Monate eines Jahres summieren sich centgenau zur Jahreszeile des vollständigen Tilgungsplans,
+     * die Restschuld am Jahresende ist dieselbe und die Anzahl der Monate entspricht der Laufzeit.
+     */
+    @Test
+    public void scheduleMatchesYearlyPlan() throws IOException {
+        for (RepaymentParametersDto parameters: RepaymentTestParameters.sample(11, 500)) {
+            assertSchedule(parameters.loanAmount(), parameters.initialRepayment(), parameters.interestRate());
+        }
+    }
+
+    /*
+     * Der monatliche Tilgungsplan rechnet in ganzen Cent, Bruchteile von Cent im Darlehensbetrag werden abgelehnt.
+     */
+    @Test
+    public void fractionalCentsAreRejected() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> defaultImpl.streamSchedule(123_456.789, 2, 3.6, (month, rate, interest, repayment, residualDebt) -> { })
+        );
+    }
+
+    /*
+     * Kann ein Monat nicht geschrieben werden, zb. weil der Client abgebrochen hat, endet die Berechnung sofort.
+     */
+    @Test
+    public void consumerFailureStopsSchedule() {
+        final List<Integer> months = new ArrayList<>();
+        assertThrows(IOException.class, () -> defaultImpl.streamSchedule(250_000, 2, 3.6, (month, rate, interest, repayment, residualDebt) -> {
+            months.add(month);
+            if (month == 3) {
+                throw new IOException("connection reset");
+            }
+        }));
+        assertEquals(List.of(1, 2, 3), months);
+    }
+
+    private void assertSchedule(final double loanAmount, final double initialRepayment, final double interestRate) throws IOException {
+        final RepaymentDto repayment = defaultImpl.calculate(loanAmount, initialRepayment, interestRate, 1);
+        final List<long[]> years = new ArrayList<>();
+        final int months = defaultImpl.streamSchedule(loanAmount, initialRepayment, interestRate, (month, rate, interest, repaymentPortion, residualDebt) -> {
+            if ((month - 1) % MONTHS_PER_YEAR == 0) {
+                years.add(new long[4]);
+            }
+            final long[] year = years.getLast();
+            year[0] += rate;
+            year[1] += interest;
+            year[2] += repaymentPortion;
+            year[3] = residualDebt;
+        });
+
+        final String message = loanAmount + " / " + initialRepayment + " / " + interestRate;
+        assertEquals(repayment.yearPeriod() * MONTHS_PER_YEAR + repayment.monthPeriod(), months, message);
+        assertEquals(repayment.repaymentPlan().size(), years.size(), message);
+        for (int i = 0; i < years.size(); ++i) {
+            final RepaymentPlanDto row = repayment.repaymentPlan().get(i);
+            final long[] year = years.get(i);
+            assertEquals(CentUtils.toCents(row.rate()), year[0], message);
+            assertEquals(CentUtils.toCents(row.interestPortion()), year[1], message);
+            assertEquals(CentUtils.toCents(row.repaymentPortion()), year[2], message);
+            assertEquals(CentUtils.toCents(row.residualDebt()), year[3], message);
+        }
+        assertEquals(0, years.getLast()[3], message);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentBatchResultDto;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepaymentServiceBatchUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    /*
+     * Ungültige Einträge liefern ihre Validierungsfehler, die gültigen werden trotzdem berechnet.
+     * Die Ergebnisse stehen in der Reihenfolge der Eingabe.
+     */
+    @Test
+    public void mixedBatch() {
+        final List<RepaymentBatchResultDto> results = defaultImpl.calculateBatch(List.of(
+            new RepaymentParametersDto(250_000.0, 2.0, 3.6, 10),
+            new RepaymentParametersDto(20_000_000.0, 2.0, 3.6, 10),
+            new RepaymentParametersDto(100_000.0, 3.0, 4.2, 15)
+        ));
+
+        assertEquals(3, results.size());
+        assertEquals(new RepaymentBatchResultDto(0, defaultImpl.calculate(250_000, 2, 3.6, 10), null), results.get(0));
+        assertEquals(1, results.get(1).index());
+        assertNull(results.get(1).repayment());
+        assertEquals(1, results.get(1).errors().size());
+        assertTrue(results.get(1).errors().get(0).startsWith("loanAmount "), results.get(1).errors().toString());
+        assertEquals(new RepaymentBatchResultDto(2, defaultImpl.calculate(100_000, 3, 4.2, 15), null), results.get(2));
+    }
+
+    /*
+     * Ein null-Eintrag, zb. aus [null] im JSON, wird wie ein fehlendes Feld gemeldet.
+     */
+    @Test
+    public void nullEntry() {
+        final List<RepaymentBatchResultDto> results = defaultImpl.calculateBatch(Arrays.asList(
+            null,
+            new RepaymentParametersDto(250_000.0, 2.0, 3.6, 10)
+        ));
+
+        assertEquals(new RepaymentBatchResultDto(0, null, List.of("<UNKNOWN_FIELD> must not be null")), results.get(0));
+        assertEquals(new RepaymentBatchResultDto(1, defaultImpl.calculate(250_000, 2, 3.6, 10), null), results.get(1));
+    }
+
+    /*
+     * Wirft die Berechnung eines Eintrags, wird sie geloggt und nur dieser Eintrag schlägt fehl.
+     */
+    @Test
+    public void failingCalculation() {
+        final RepaymentService failingService = new RepaymentService() {
+            @Override
+            public RepaymentDto calculate(
+                    final double loanAmount,
+                    final double initialRepayment,
+                    final double interestRate,
+                    final int fixedInterestPeriod
+            ) {
+                if (loanAmount == 100_000) {
+                    throw new IllegalStateException("calculation of 100000.0 failed");
+                }
+                return defaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+            }
+        };
+
+        final List<RepaymentBatchResultDto> results = failingService.calculateBatch(List.of(
+            new RepaymentParametersDto(100_000.0, 2.0, 3.6, 10),
+            new RepaymentParametersDto(250_000.0, 2.0, 3.6, 10)
+        ));
+
+        assertEquals(new RepaymentBatchResultDto(0, null, List.of("calculation failed")), results.get(0));
+        assertEquals(new RepaymentBatchResultDto(1, defaultImpl.calculate(250_000, 2, 3.6, 10), null), results.get(1));
+    }
+
+}
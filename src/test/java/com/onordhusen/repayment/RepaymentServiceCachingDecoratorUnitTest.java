@@ -0,0 +1,88 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.properties.RepaymentCacheProperties;
+import com.onordhusen.repayment.services.RepaymentParametersKey;
+import com.onordhusen.repayment.services.RepaymentServiceCachingDecorator;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RepaymentServiceCachingDecoratorUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    private final AtomicInteger calculations = new AtomicInteger();
+
+    private final RepaymentServiceCachingDecorator decorator = new RepaymentServiceCachingDecorator(
+        (loanAmount, initialRepayment, interestRate, fixedInterestPeriod) -> {
+            calculations.incrementAndGet();
+            return defaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        },
+        new RepaymentCacheProperties(true, 100, 0, null)
+    );
+
+    /*
+     * Derselbe Tilgungsplan wird einmal berechnet und danach auch bei anderer Schreibweise der Parameter aus dem Cache geliefert.
+     * Seine Aufgliederung ist unveränderlich, da sie zwischen Requests geteilt wird.
+     */
+    @Test
+    public void repeatedParametersAreServedFromCache() {
+        final RepaymentDto first = decorator.calculate(250000, 2, 3.6, 10);
+        final RepaymentDto second = decorator.calculate(2.5E5, 2.0, 3.60, 10);
+
+        assertSame(first, second);
+        assertEquals(1, calculations.get());
+        assertEquals(defaultImpl.calculate(250000, 2, 3.6, 10), first);
+        assertEquals(first, decorator.getCache().getIfPresent(new RepaymentParametersKey(25_000_000, 200, 360, 10)));
+        assertThrows(UnsupportedOperationException.class, () -> first.repaymentPlan().add(new RepaymentPlanDto(99, 0, 0, 0, 0)));
+        assertEquals(0, decorator.getBypassCount());
+    }
+
+    /*
+     * Parameter ohne Schlüssel werden jedes Mal berechnet und nicht gecacht.
+     */
+    @Test
+    public void unnormalizableParametersBypassCache() {
+        decorator.calculate(250000.005, 2, 3.6, 10);
+        decorator.calculate(250000.005, 2, 3.6, 10);
+        decorator.calculate(250000, 2, 0.1 + 0.2, 10);
+
+        assertEquals(3, calculations.get());
+        assertEquals(3, decorator.getBypassCount());
+        assertEquals(0, decorator.getCache().estimatedSize());
+    }
+
+    /*
+     * -0.0 teilt sich nicht den gecachten Tilgungsplan von 0.0, sonst käme ein Ergebnis mit dem falschen Vorzeichen zurück.
+     */
+    @Test
+    public void negativeZeroIsNotServedFromZero() {
+        final RepaymentDto zero = decorator.calculate(250000, 2, 0.0, 10);
+        final RepaymentDto negativeZero = decorator.calculate(250000, 2, -0.0, 10);
+
+        assertEquals(2, calculations.get());
+        assertEquals(1, decorator.getBypassCount());
+        assertEquals(0, Double.compare(0.0, zero.interestRate()));
+        assertEquals(0, Double.compare(-0.0, negativeZero.interestRate()));
+    }
+
+    /*
+     * Ein Auszug einzelner Jahre wird aus dem gecachten vollständigen Tilgungsplan geschnitten, ohne erneut zu rechnen.
+     */
+    @Test
+    public void yearsAreSlicedFromCachedPlan() {
+        decorator.calculate(250000, 2, 3.6, 10);
+
+        assertEquals(defaultImpl.calculateYears(250000, 2, 3.6, 10, 3, 5), decorator.calculateYears(250000, 2, 3.6, 10, 3, 5));
+        assertEquals(1, calculations.get());
+    }
+
+}
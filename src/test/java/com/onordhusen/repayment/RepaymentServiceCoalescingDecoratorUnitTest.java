@@ -0,0 +1,114 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.services.RepaymentServiceCoalescingDecorator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepaymentServiceCoalescingDecoratorUnitTest {
+
+    private static final int REQUESTS = 16;
+
+    /*
+     * Gleichzeitige Requests mit denselben Parametern teilen sich eine Berechnung und deren Ergebnis.
+     */
+    @Test
+    public void coalescesIdenticalParameters() throws Exception {
+        final AtomicInteger calculations = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RepaymentServiceCoalescingDecorator decorator = new RepaymentServiceCoalescingDecorator(
+            (loanAmount, initialRepayment, interestRate, fixedInterestPeriod) -> {
+                calculations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return repayment(loanAmount);
+            }
+        );
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<RepaymentDto>> results = new ArrayList<>();
+            results.add(executor.submit(() -> decorator.calculate(250000, 2, 3.6, 10)));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < REQUESTS; ++i) {
+                results.add(executor.submit(() -> decorator.calculate(250000.0, 2.0, 3.60, 10)));
+            }
+            while (decorator.getCoalescedCount() < REQUESTS - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            final RepaymentDto first = results.getFirst().get(10, TimeUnit.SECONDS);
+            for (Future<RepaymentDto> result: results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, calculations.get());
+        assertEquals(REQUESTS - 1, decorator.getCoalescedCount());
+
+        // Nach Abschluss wird wieder gerechnet, Ergebnisse werden nicht aufbewahrt.
+        decorator.calculate(250000, 2, 3.6, 10);
+        assertEquals(2, calculations.get());
+    }
+
+    /*
+     * Requests mit anderen Parametern rechnen gleichzeitig, ohne aufeinander zu warten.
+     * Der Fehler einer Berechnung erreicht auch die wartenden Requests.
+     */
+    @Test
+    public void distinctParametersRunConcurrently() throws Exception {
+        final CyclicBarrier bothCalculating = new CyclicBarrier(2);
+        final RepaymentServiceCoalescingDecorator decorator = new RepaymentServiceCoalescingDecorator(
+            (loanAmount, initialRepayment, interestRate, fixedInterestPeriod) -> {
+                try {
+                    bothCalculating.await(10, TimeUnit.SECONDS);
+                }
+                catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                if (fixedInterestPeriod == 99) {
+                    throw new IllegalArgumentException("invalid");
+                }
+                return repayment(loanAmount);
+            }
+        );
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<RepaymentDto> first = executor.submit(() -> decorator.calculate(250000, 2, 3.6, 10));
+            final Future<RepaymentDto> second = executor.submit(() -> decorator.calculate(300000, 2, 3.6, 99));
+            assertEquals(250000, first.get(10, TimeUnit.SECONDS).loanAmount());
+            final Exception exception = assertThrows(Exception.class, () -> second.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof IllegalArgumentException);
+        }
+        assertEquals(0, decorator.getCoalescedCount());
+    }
+
+    private static RepaymentDto repayment(final double loanAmount) {
+        return new RepaymentDto(loanAmount, 0, 0, 0, 0, 0, 0, 0, 0, 0, List.of());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.configurations.RepaymentServiceConfiguration;
+import com.onordhusen.repayment.constants.RepaymentEngineConstants;
+import com.onordhusen.repayment.dtos.RepaymentBatchResultDto;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentPortfolioDto;
+import com.onordhusen.repayment.properties.RepaymentCacheProperties;
+import com.onordhusen.repayment.properties.RepaymentCoalescingProperties;
+import com.onordhusen.repayment.properties.RepaymentConcurrencyProperties;
+import com.onordhusen.repayment.properties.RepaymentEngineProperties;
+import com.onordhusen.repayment.properties.RepaymentMetricsProperties;
+import com.onordhusen.repayment.services.RepaymentEngineRegistry;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.interfaces.RepaymentEngine;
+import com.onordhusen.repayment.services.interfaces.RepaymentService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepaymentServiceConfigurationUnitTest {
+
+    private final RepaymentServiceConfiguration configuration = new RepaymentServiceConfiguration();
+
+    private final RepaymentEngineProperties engineProperties = new RepaymentEngineProperties("default", null, 0.01, 100);
+
+    private final RepaymentConcurrencyProperties concurrencyProperties = new RepaymentConcurrencyProperties(true, 2, 0);
+
+    private final ForkJoinPool calculationPool = configuration.calculationPool(concurrencyProperties);
+
+    private final ThreadPoolExecutor shadowExecutor = configuration.shadowExecutor(engineProperties);
+
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> batchThreads = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> portfolioThreads = ConcurrentHashMap.newKeySet();
+
+    private volatile ForkJoinPool portfolioPool;
+
+    @AfterEach
+    public void shutdown() {
+        calculationPool.shutdown();
+        shadowExecutor.shutdownNow();
+    }
+
+    /*
+     * Mit Cache und Bündelung in der Standardkonfiguration wird ein Stapel als Ganzes an den calculationPool übergeben.
+     * Der parallele Stream verteilt die Einträge dann dort und nicht im gemeinsamen Fork-Join-Pool.
+     */
+    @Test
+    public void batchRunsOnCalculationPool() {
+        final List<RepaymentBatchResultDto> results = repaymentService(new SimpleMeterRegistry()).calculateBatch(batch(64));
+
+        assertEquals(64, results.size());
+        assertTrue(results.stream().allMatch(result -> result.repayment() != null));
+        assertEquals(1, batchThreads.size());
+        assertTrue(batchThreads.iterator().next().startsWith("calculation-"), batchThreads.toString());
+        assertTrue(threads.stream().allMatch(thread -> thread.startsWith("calculation-")), threads.toString());
+    }
+
+    /*
+     * Jede Operation wird durch Cache, Bündelung und Pool hindurch in ihrem eigenen Timer erfasst.
+     * Der Ausschnitt nutzt andere Parameter, sonst käme er aus dem gecachten vollständigen Tilgungsplan.
+     */
+    @Test
+    public void operationTimersAreRecorded() throws IOException {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final RepaymentService repaymentService = repaymentService(meterRegistry);
+
+        repaymentService.calculate(250_000, 2, 3.6, 10);
+        repaymentService.calculateSummary(250_000, 2, 3.6, 10);
+        repaymentService.calculateYears(300_000, 2, 3.6, 10, 3, 5);
+        repaymentService.calculateBatch(batch(4));
+        repaymentService.calculateGrid(250_000, new double[] {3.6}, new double[] {2}, new int[] {10});
+        repaymentService.calculatePortfolio(new StringReader("250000,2,3.6,10\n"));
+
+        for (String operation: List.of("calculate", "summary", "years", "batch", "grid", "portfolio")) {
+            assertEquals(1, meterRegistry.timer("repayment.calculation", "operation", operation).count(), operation);
+        }
+    }
+
+    /*
+     * Ein Portfolio wird im aufrufenden Thread gelesen, nur die Blöcke laufen im calculationPool.
+     * Ein langsamer Upload blockiert damit keinen Thread des Pools.
+     */
+    @Test
+    public void portfolioIsReadOnCallingThread() throws IOException {
+        final RepaymentPortfolioDto portfolio = repaymentService(new SimpleMeterRegistry())
+            .calculatePortfolio(new StringReader("250000,2,3.6,10\n"));
+
+        assertEquals(1, portfolio.loans());
+        assertEquals(Set.of(Thread.currentThread().getName()), portfolioThreads);
+        assertSame(calculationPool, portfolioPool);
+    }
+
+    private RepaymentService repaymentService(final MeterRegistry meterRegistry) {
+        return configuration.repaymentService(
+            new RepaymentEngineRegistry(List.of(new ThreadRecordingEngine())),
+            engineProperties,
+            shadowExecutor,
+            new RepaymentMetricsProperties(true),
+            concurrencyProperties,
+            calculationPool,
+            new RepaymentCoalescingProperties(true),
+            new RepaymentCacheProperties(true, 10_000, 0, null),
+            meterRegistry
+        );
+    }
+
+    private static List<RepaymentParametersDto> batch(final int size) {
+        return IntStream.range(0, size)
+            .mapToObj(i -> new RepaymentParametersDto(100_000 + i * 1_000.0, 2, 3.6, 10))
+            .toList();
+    }
+
+    /**
+     * Merkt sich die Threads, auf denen gerechnet wird.
+     */
+    private final class ThreadRecordingEngine implements RepaymentEngine {
+
+        private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+        @Override
+        public RepaymentDto calculate(
+                final double loanAmount,
+                final double initialRepayment,
+                final double interestRate,
+                final int fixedInterestPeriod
+        ) {
+            threads.add(Thread.currentThread().getName());
+            return defaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+
+        @Override
+        public List<RepaymentBatchResultDto> calculateBatch(final List<RepaymentParametersDto> parameters) {
+            batchThreads.add(Thread.currentThread().getName());
+            return RepaymentEngine.super.calculateBatch(parameters);
+        }
+
+        @Override
+        public RepaymentPortfolioDto calculatePortfolio(final Reader csv, final ForkJoinPool pool) throws IOException {
+            portfolioThreads.add(Thread.currentThread().getName());
+            portfolioPool = pool;
+            return RepaymentEngine.super.calculatePortfolio(csv, pool);
+        }
+
+        @Override
+        public String getEngineName() {
+            return RepaymentEngineConstants.ENGINE_DEFAULT;
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentBatchResultDto;
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.services.RepaymentServiceExecutorDecorator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepaymentServiceExecutorDecoratorUnitTest {
+
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /*
+     * Ein Stapel belegt einen Platz je Tilgungsplan, höchstens aber alle Plätze.
+     * Ein einzelner Tilgungsplan wartet daher, bis der Stapel fertig ist.
+     */
+    @Test
+    @Timeout(10)
+    public void batchTakesPermitsPerPlan() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final RepaymentServiceExecutorDecorator decorator = new RepaymentServiceExecutorDecorator(
+            (loanAmount, initialRepayment, interestRate, fixedInterestPeriod) -> {
+                await(release);
+                return new RepaymentDto(loanAmount, 0, 0, 0, 0, 0, 0, 0, 0, 0, List.of());
+            },
+            pool,
+            MAX_IN_FLIGHT
+        );
+        final List<RepaymentParametersDto> batch = IntStream.range(0, 10)
+            .mapToObj(i -> new RepaymentParametersDto(100_000 + i * 1_000.0, 2, 3.6, 10))
+            .toList();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<List<RepaymentBatchResultDto>> batchResult = executor.submit(() -> decorator.calculateBatch(batch));
+            while (decorator.getInFlight() < MAX_IN_FLIGHT) {
+                Thread.sleep(1);
+            }
+            final Future<RepaymentDto> single = executor.submit(() -> decorator.calculate(250_000, 2, 3.6, 10));
+            while (decorator.getQueued() < 1) {
+                Thread.sleep(1);
+            }
+            assertEquals(MAX_IN_FLIGHT, decorator.getInFlight());
+
+            release.countDown();
+            assertEquals(10, batchResult.get(10, TimeUnit.SECONDS).size());
+            assertEquals(250_000, single.get(10, TimeUnit.SECONDS).loanAmount());
+        }
+        assertEquals(0, decorator.getInFlight());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.RepaymentServiceFixedPointImpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepaymentServiceFixedPointImplUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    private final RepaymentServiceFixedPointImpl fixedPointImpl = new RepaymentServiceFixedPointImpl(defaultImpl);
+
+    /*
+     * Die Festkomma-Implementierung muss für jeden Parametersatz centgenau dasselbe Ergebnis liefern.
+     */
+    @Test
+    public void calculateMatchesDefaultImplOnGrid() {
+        for (long loanAmount = VALIDATION_MIN_LOAN_AMOUNT; loanAmount <= VALIDATION_MAX_LOAN_AMOUNT; loanAmount *= 10) {
+            for (double initialRepayment = VALIDATION_MIN_INITIAL_REPAYMENT; initialRepayment <= VALIDATION_MAX_INITIAL_REPAYMENT; initialRepayment += 0.5) {
+                for (double interestRate = VALIDATION_MIN_INTEREST_RATE; interestRate <= 10; interestRate += 0.25) {
+                    assertEngines(loanAmount, initialRepayment, interestRate, 10);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void calculateMatchesDefaultImplOnRandomParameters() {
+        for (RepaymentParametersDto parameters: RepaymentTestParameters.sample(42, 5_000)) {
+            final double loanAmount = parameters.loanAmount();
+            final double initialRepayment = parameters.initialRepayment();
+            final double interestRate = parameters.interestRate();
+            final int fixedInterestPeriod = parameters.fixedInterestPeriod();
+            assertEngines(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+    }
+
+    @Test
+    public void calculateMatchesDefaultImplForFractionalCents() {
+        assertEngines(123_456.789, 2, 3.6, 10);
+    }
+
+    private void assertEngines(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        assertEquals(
+            defaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod),
+            fixedPointImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod),
+            () -> loanAmount + " / " + initialRepayment + " / " + interestRate + " / " + fixedInterestPeriod
+        );
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentPlanDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.RepaymentServiceFixedPointImpl;
+import com.onordhusen.repayment.services.RepaymentServiceShadowDecorator;
+import com.onordhusen.repayment.services.interfaces.RepaymentEngine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepaymentServiceShadowDecoratorUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    private final RepaymentServiceFixedPointImpl fixedPointImpl = new RepaymentServiceFixedPointImpl(defaultImpl);
+
+    /*
+     * Centgenau identische Engines ergeben nur Übereinstimmungen, die Antwort stammt von der primären Engine.
+     */
+    @Test
+    public void identicalEnginesMatch() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final RepaymentServiceShadowDecorator decorator = new RepaymentServiceShadowDecorator(
+            defaultImpl,
+            fixedPointImpl,
+            1.0,
+            Runnable::run,
+            registry
+        );
+
+        final Random random = new Random(3);
+        for (int i = 0; i < 200; ++i) {
+            decorator.calculate(
+                (10_000_00 + random.nextInt(500_000_00)) / 100.0,
+                (100 + random.nextInt(1_400)) / 100.0,
+                (100 + random.nextInt(900)) / 100.0,
+                1 + random.nextInt(30)
+            );
+        }
+
+        assertEquals(200, registry.counter("repayment.shadow.comparisons", "engine", "fixed-point", "outcome", "match").count());
+        assertEquals(0, registry.counter("repayment.shadow.comparisons", "engine", "fixed-point", "outcome", "mismatch").count());
+        assertEquals(200, registry.timer("repayment.shadow.calculation", "engine", "default", "role", "primary").count());
+    }
+
+    /*
+     * Ein einziger abweichender Cent in einem Jahr wird als Abweichung mit Feld und Werten erkannt.
+     */
+    @Test
+    public void singleCentIsMismatch() {
+        final RepaymentEngine faulty = new RepaymentEngine() {
+            @Override
+            public RepaymentDto calculate(
+                    final double loanAmount,
+                    final double initialRepayment,
+                    final double interestRate,
+                    final int fixedInterestPeriod
+            ) {
+                final RepaymentDto repayment = fixedPointImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+                final List<RepaymentPlanDto> plan = new ArrayList<>(repayment.repaymentPlan());
+                final RepaymentPlanDto row = plan.get(2);
+                plan.set(2, new RepaymentPlanDto(row.year(), row.rate(), row.interestPortion() + 0.01, row.repaymentPortion(), row.residualDebt()));
+                return new RepaymentDto(
+                    repayment.loanAmount(), repayment.totalInterest(), repayment.monthlyRate(), repayment.initialRepaymentRate(),
+                    repayment.interestRate(), repayment.fixedInterestPeriod(), repayment.residualDebt(), repayment.yearPeriod(),
+                    repayment.monthPeriod(), repayment.totalRepayment(), plan
+                );
+            }
+
+            @Override
+            public String getEngineName() {
+                return "faulty";
+            }
+        };
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final RepaymentServiceShadowDecorator decorator = new RepaymentServiceShadowDecorator(
+            defaultImpl,
+            faulty,
+            1.0,
+            Runnable::run,
+            registry
+        );
+
+        final RepaymentDto repayment = decorator.calculate(250_000, 2, 3.6, 10);
+
+        assertEquals(1, registry.counter("repayment.shadow.comparisons", "engine", "faulty", "outcome", "mismatch").count());
+        assertEquals(
+            List.of("repaymentPlan[2].interestPortion: 8537.75 != 8537.76"),
+            RepaymentServiceShadowDecorator.differences(repayment, faulty.calculate(250_000, 2, 3.6, 10))
+        );
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.dtos.RepaymentSummaryDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepaymentSummaryCalculatorUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    /*
+     * Die Zusammenfassung muss centgenau den Feldern des vollständigen Tilgungsplans entsprechen.
+     */
+    @Test
+    public void calculateSummaryMatchesFullPlan() {
+        for (RepaymentParametersDto parameters: RepaymentTestParameters.sample(7, 5_000)) {
+            final double loanAmount = parameters.loanAmount();
+            final double initialRepayment = parameters.initialRepayment();
+            final double interestRate = parameters.interestRate();
+            final int fixedInterestPeriod = parameters.fixedInterestPeriod();
+            assertSummary(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        }
+        assertSummary(123_456.789, 2, 3.6, 10);
+    }
+
+    private void assertSummary(
+            final double loanAmount,
+            final double initialRepayment,
+            final double interestRate,
+            final int fixedInterestPeriod
+    ) {
+        final RepaymentDto repayment = defaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+        assertEquals(
+            new RepaymentSummaryDto(
+                repayment.loanAmount(),
+                repayment.totalInterest(),
+                repayment.monthlyRate(),
+                repayment.initialRepaymentRate(),
+                repayment.interestRate(),
+                repayment.fixedInterestPeriod(),
+                repayment.residualDebt(),
+                repayment.yearPeriod(),
+                repayment.monthPeriod(),
+                repayment.totalRepayment()
+            ),
+            defaultImpl.calculateSummary(loanAmount, initialRepayment, interestRate, fixedInterestPeriod),
+            () -> loanAmount + " / " + initialRepayment + " / " + interestRate + " / " + fixedInterestPeriod
+        );
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+
+/**
+ * Zufällige Parameter über den gesamten zulässigen Bereich der Validierung, beide Grenzen eingeschlossen.
+ * Beträge und Prozentsätze sind centgenau bzw. auf zwei Nachkommastellen gerundet.
+ */
+final class RepaymentTestParameters {
+
+    private RepaymentTestParameters() {
+    }
+
+    static double loanAmount(final Random random) {
+        return (VALIDATION_MIN_LOAN_AMOUNT * 100 + random.nextLong((VALIDATION_MAX_LOAN_AMOUNT - VALIDATION_MIN_LOAN_AMOUNT) * 100 + 1)) / 100.0;
+    }
+
+    static double initialRepayment(final Random random) {
+        return (VALIDATION_MIN_INITIAL_REPAYMENT * 100 + random.nextLong((VALIDATION_MAX_INITIAL_REPAYMENT - VALIDATION_MIN_INITIAL_REPAYMENT) * 100 + 1)) / 100.0;
+    }
+
+    static double interestRate(final Random random) {
+        return (VALIDATION_MIN_INTEREST_RATE * 100 + random.nextLong((VALIDATION_MAX_INTEREST_RATE - VALIDATION_MIN_INTEREST_RATE) * 100 + 1)) / 100.0;
+    }
+
+    static int fixedInterestPeriod(final Random random) {
+        return (int) (VALIDATION_MIN_FIXED_INTEREST_PERIOD + random.nextLong(VALIDATION_MAX_FIXED_INTEREST_PERIOD - VALIDATION_MIN_FIXED_INTEREST_PERIOD + 1));
+    }
+
+    static RepaymentParametersDto random(final Random random) {
+        return new RepaymentParametersDto(loanAmount(random), initialRepayment(random), interestRate(random), fixedInterestPeriod(random));
+    }
+
+    /**
+     * Alle 16 Kombinationen aus Minimum und Maximum der vier Parameter.
+     */
+    static List<RepaymentParametersDto> boundaries() {
+        final List<RepaymentParametersDto> boundaries = new ArrayList<>(16);
+        for (long loanAmount: new long[] {VALIDATION_MIN_LOAN_AMOUNT, VALIDATION_MAX_LOAN_AMOUNT}) {
+            for (long initialRepayment: new long[] {VALIDATION_MIN_INITIAL_REPAYMENT, VALIDATION_MAX_INITIAL_REPAYMENT}) {
+                for (long interestRate: new long[] {VALIDATION_MIN_INTEREST_RATE, VALIDATION_MAX_INTEREST_RATE}) {
+                    for (long fixedInterestPeriod: new long[] {VALIDATION_MIN_FIXED_INTEREST_PERIOD, VALIDATION_MAX_FIXED_INTEREST_PERIOD}) {
+                        boundaries.add(new RepaymentParametersDto(loanAmount, initialRepayment, interestRate, (int) fixedInterestPeriod));
+                    }
+                }
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * Die Grenzkombinationen aus {@link #boundaries()}, gefolgt von count zufälligen Parametern.
+     */
+    static List<RepaymentParametersDto> sample(final long seed, final int count) {
+        final Random random = new Random(seed);
+        final List<RepaymentParametersDto> sample = new ArrayList<>(boundaries());
+        for (int i = 0; i < count; ++i) {
+            sample.add(random(random));
+        }
+        return sample;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.services.RepaymentWarmup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.onordhusen.repayment.constants.RepaymentValidationConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepaymentWarmupUnitTest {
+
+    /*
+     * Alle Parameter des Aufwärmens sind gültig, decken die Grenzen ab und wiederholen sich nicht.
+     */
+    @Test
+    public void parametersCoverValidRange() {
+        final Set<RepaymentParametersDto> distinct = new HashSet<>();
+        final Set<Integer> fixedInterestPeriods = new HashSet<>();
+        final Set<Double> initialRepayments = new HashSet<>();
+
+        for (int i = 0; i < 3000; ++i) {
+            final RepaymentParametersDto parameters = RepaymentWarmup.parameters(i);
+            assertTrue(parameters.loanAmount() >= VALIDATION_MIN_LOAN_AMOUNT && parameters.loanAmount() <= VALIDATION_MAX_LOAN_AMOUNT);
+            assertTrue(parameters.initialRepayment() >= VALIDATION_MIN_INITIAL_REPAYMENT && parameters.initialRepayment() <= VALIDATION_MAX_INITIAL_REPAYMENT);
+            assertTrue(parameters.interestRate() >= VALIDATION_MIN_INTEREST_RATE && parameters.interestRate() <= VALIDATION_MAX_INTEREST_RATE);
+            assertTrue(parameters.fixedInterestPeriod() >= VALIDATION_MIN_FIXED_INTEREST_PERIOD && parameters.fixedInterestPeriod() <= VALIDATION_MAX_FIXED_INTEREST_PERIOD);
+            distinct.add(parameters);
+            fixedInterestPeriods.add(parameters.fixedInterestPeriod());
+            initialRepayments.add(parameters.initialRepayment());
+        }
+
+        assertEquals(3000, distinct.size());
+        assertEquals(30, fixedInterestPeriods.size());
+        assertTrue(initialRepayments.contains((double) VALIDATION_MAX_INITIAL_REPAYMENT));
+    }
+
+}
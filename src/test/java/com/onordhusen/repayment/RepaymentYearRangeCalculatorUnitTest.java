@@ -0,0 +1,46 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.dtos.RepaymentDto;
+import com.onordhusen.repayment.dtos.RepaymentParametersDto;
+import com.onordhusen.repayment.services.RepaymentServiceDefaultImpl;
+import com.onordhusen.repayment.services.calculation.RepaymentYearRangeCalculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepaymentYearRangeCalculatorUnitTest {
+
+    private final RepaymentServiceDefaultImpl defaultImpl = new RepaymentServiceDefaultImpl();
+
+    /*
+     * Der Ausschnitt muss centgenau dem entsprechenden Ausschnitt des vollständigen Tilgungsplans entsprechen,
+     * auch über das Ende der Laufzeit hinaus.
+     */
+    @Test
+    public void calculateYearsMatchesSliceOfFullPlan() {
+        final Random random = new Random(11);
+        for (RepaymentParametersDto parameters: RepaymentTestParameters.sample(11, 5_000)) {
+            final double loanAmount = parameters.loanAmount();
+            final double initialRepayment = parameters.initialRepayment();
+            final double interestRate = parameters.interestRate();
+            final int fixedInterestPeriod = parameters.fixedInterestPeriod();
+            final int fromYear = 1 + random.nextInt(60);
+            final int toYear = fromYear + random.nextInt(10);
+
+            final RepaymentDto repayment = defaultImpl.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod);
+            assertEquals(
+                RepaymentYearRangeCalculator.slice(repayment, fromYear, toYear),
+                RepaymentYearRangeCalculator.calculate(loanAmount, initialRepayment, interestRate, fixedInterestPeriod, fromYear, toYear),
+                () -> loanAmount + " / " + initialRepayment + " / " + interestRate + " / " + fixedInterestPeriod + " / " + fromYear + "-" + toYear
+            );
+        }
+        assertEquals(
+            defaultImpl.calculate(250_000, 2, 3.6, 10),
+            RepaymentYearRangeCalculator.calculate(250_000, 2, 3.6, 10, 1, Integer.MAX_VALUE)
+        );
+    }
+
+}
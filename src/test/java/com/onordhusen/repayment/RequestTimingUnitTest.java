@@ -0,0 +1,46 @@
+package com.onordhusen.repayment;
+
+import com.onordhusen.repayment.controllers.timing.RequestTiming;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RequestTimingUnitTest {
+
+    /*
+     * Die Phasen werden in Millisekunden mit drei Nachkommastellen nach W3C Server Timing formatiert.
+     */
+    @Test
+    public void serverTimingHeader() {
+        assertEquals("bind;dur=0.000, valid;dur=0.000, calc;dur=0.000, ser;dur=0.000", new RequestTiming(true).header());
+    }
+
+    /*
+     * Bei laufender Aufzeichnung landet der abgeschlossene Request als Event in JFR.
+     */
+    @Test
+    public void completeCommitsFlightRecorderEvent(@TempDir final Path directory) throws Exception {
+        final Path file = directory.resolve("timing.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.onordhusen.repayment.Request");
+            recording.start();
+            new RequestTiming(false).complete("/api/v1/repayment", 200);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.size());
+        assertEquals("/api/v1/repayment", events.get(0).getString("path"));
+        assertEquals(200, events.get(0).getInt("status"));
+    }
+
+}